@@ -6,9 +6,12 @@ import io.github.bucket4j.redis.redisson.cas.RedissonBasedProxyManager;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.command.CommandAsyncExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestClient;
 
@@ -41,10 +44,18 @@ public class CommonConfig {
     }
 
     @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
     public TaskExecutor taskExecutorAsync() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(7);
         return executor;
     }
+
+    // @Async на виртуальных потоках (spring.threads.virtual.enabled=true)
+    @Bean(name = "taskExecutorAsync")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor taskExecutorAsyncVirtual() {
+        return new VirtualThreadTaskExecutor("async-");
+    }
 }
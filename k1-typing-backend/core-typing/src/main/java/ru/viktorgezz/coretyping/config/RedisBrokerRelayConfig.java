@@ -0,0 +1,30 @@
+package ru.viktorgezz.coretyping.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import ru.viktorgezz.coretyping.domain.multiplayer.broker.RedisBrokerRelaySubscriber;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+/**
+ * Подписка узла на канал ретрансляции STOMP-сообщений (multiplayer.broker.relay=redis).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "multiplayer.broker", name = "relay", havingValue = "redis")
+public class RedisBrokerRelayConfig {
+
+    @Bean
+    public RedisMessageListenerContainer brokerRelayListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RedisBrokerRelaySubscriber relaySubscriber,
+            MultiplayerProperties multiplayerProperties
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(relaySubscriber, new ChannelTopic(multiplayerProperties.getBroker().getChannel()));
+        return container;
+    }
+}
@@ -1,20 +1,29 @@
 package ru.viktorgezz.coretyping.config;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import io.lettuce.core.ClientOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
 import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.protocol.ProtocolVersion;
 
@@ -33,19 +42,36 @@ public class RedisConfig {
     @Value("${spring.data.redis.database:0}")
     private int database;
 
+    // standalone | cluster | sentinel; своё свойство, не из пространства spring.data.redis
+    @Value("${multiplayer.redis.mode:standalone}")
+    private RedisMode mode;
+
+    // host:port через запятую
+    @Value("${spring.data.redis.cluster.nodes:}")
+    private List<String> clusterNodes;
+
+    @Value("${spring.data.redis.cluster.max-redirects:3}")
+    private int clusterMaxRedirects;
+
+    @Value("${spring.data.redis.sentinel.master:mymaster}")
+    private String sentinelMaster;
+
+    // host:port через запятую
+    @Value("${spring.data.redis.sentinel.nodes:}")
+    private List<String> sentinelNodes;
+
     @Bean
     public LettuceConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
-        redisConfig.setHostName(host);
-        redisConfig.setPort(port);
-        // Устанавливаем пароль только если он не пустой
-        if (password != null && !password.isEmpty() && !password.trim().isEmpty()) {
-            redisConfig.setPassword(password);
-        }
-        redisConfig.setDatabase(database);
+        RedisConfiguration redisConfig = switch (mode) {
+            case STANDALONE -> standaloneConfiguration();
+            case CLUSTER -> clusterConfiguration();
+            case SENTINEL -> sentinelConfiguration();
+        };
 
         // Настройка клиента для использования RESP2 протокола
-        ClientOptions clientOptions = ClientOptions.builder()
+        ClientOptions clientOptions = (mode == RedisMode.CLUSTER)
+                ? clusterClientOptions()
+                : ClientOptions.builder()
                 .protocolVersion(ProtocolVersion.RESP2)
                 .build();
 
@@ -65,6 +91,50 @@ public class RedisConfig {
         return new LettuceConnectionFactory(redisConfig, clientConfig);
     }
 
+    private RedisStandaloneConfiguration standaloneConfiguration() {
+        RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
+        redisConfig.setHostName(host);
+        redisConfig.setPort(port);
+        redisConfig.setPassword(passwordOrNone());
+        redisConfig.setDatabase(database);
+        return redisConfig;
+    }
+
+    // В кластере нет выбора database: все ключи живут в базе 0
+    private RedisClusterConfiguration clusterConfiguration() {
+        RedisClusterConfiguration redisConfig = new RedisClusterConfiguration(clusterNodes);
+        redisConfig.setMaxRedirects(clusterMaxRedirects);
+        redisConfig.setPassword(passwordOrNone());
+        return redisConfig;
+    }
+
+    private RedisSentinelConfiguration sentinelConfiguration() {
+        RedisSentinelConfiguration redisConfig = new RedisSentinelConfiguration(sentinelMaster, Set.copyOf(sentinelNodes));
+        redisConfig.setPassword(passwordOrNone());
+        redisConfig.setDatabase(database);
+        return redisConfig;
+    }
+
+    // Топология кластера обновляется при MOVED/ASK и периодически, чтобы переживать failover и решардинг
+    private ClusterClientOptions clusterClientOptions() {
+        ClusterTopologyRefreshOptions topologyRefreshOptions = ClusterTopologyRefreshOptions.builder()
+                .enableAllAdaptiveRefreshTriggers()
+                .enablePeriodicRefresh(Duration.ofSeconds(30))
+                .build();
+
+        return ClusterClientOptions.builder()
+                .protocolVersion(ProtocolVersion.RESP2)
+                .topologyRefreshOptions(topologyRefreshOptions)
+                .build();
+    }
+
+    // Устанавливаем пароль только если он не пустой
+    private RedisPassword passwordOrNone() {
+        return (password != null && !password.isBlank())
+                ? RedisPassword.of(password)
+                : RedisPassword.none();
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -78,4 +148,16 @@ public class RedisConfig {
 
         return template;
     }
+
+    // Для компактных значений (счётчики, упакованный прогресс), которым не нужна JSON-сериализация
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    public enum RedisMode {
+        STANDALONE,
+        CLUSTER,
+        SENTINEL
+    }
 }
@@ -0,0 +1,30 @@
+package ru.viktorgezz.coretyping.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import ru.viktorgezz.coretyping.domain.multiplayer.ownership.RoomCommandListener;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+/**
+ * Подписка узла на команды владельцу комнаты (multiplayer.cluster.enabled=true).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "multiplayer.cluster", name = "enabled", havingValue = "true")
+public class RoomOwnershipConfig {
+
+    @Bean
+    public RedisMessageListenerContainer roomCommandListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RoomCommandListener roomCommandListener,
+            MultiplayerProperties multiplayerProperties
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(roomCommandListener, new ChannelTopic(multiplayerProperties.getCluster().getCommandChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.viktorgezz.coretyping.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Режим виртуальных потоков (spring.threads.virtual.enabled=true).
+ * <p>
+ * Tomcat, @Scheduled и STOMP-каналы ({@link WebSocketConfig}) переходят на виртуальные потоки, поэтому число
+ * одновременных блокирующих обработчиков больше не ограничено пулами. JDBC ограничивается семафором
+ * по размеру пула Hikari: лишние виртуальные потоки ждут на семафоре (без закрепления за платформенным
+ * потоком), а не на таймауте выдачи соединения внутри пула.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        final int permits = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        final long timeoutAcquireMs = environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30_000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    log.info("JDBC concurrency bounded to {} for DataSource '{}'", permits, beanName);
+                    return new BoundedDataSource(dataSource, permits, timeoutAcquireMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Выдаёт соединение только при свободном разрешении семафора; разрешение возвращается при close().
+     */
+    static class BoundedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final long timeoutAcquireMs;
+
+        BoundedDataSource(DataSource dataSource, int permits, long timeoutAcquireMs) {
+            super(dataSource);
+            this.permits = new Semaphore(permits, true);
+            this.timeoutAcquireMs = timeoutAcquireMs;
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutAcquireMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("JDBC permit not acquired in " + timeoutAcquireMs + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for JDBC permit", e);
+            }
+        }
+
+        private Connection releasingOnClose(Connection connection) {
+            final AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    }
+            );
+        }
+    }
+}
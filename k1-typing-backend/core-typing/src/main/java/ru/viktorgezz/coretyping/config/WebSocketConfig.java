@@ -2,9 +2,13 @@ package ru.viktorgezz.coretyping.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.lang.NonNull;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -12,6 +16,11 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import ru.viktorgezz.coretyping.domain.multiplayer.broker.RedisBrokerRelayInterceptor;
+import ru.viktorgezz.coretyping.domain.multiplayer.transport.LatestWinsHandlerDecoratorFactory;
+import ru.viktorgezz.coretyping.domain.multiplayer.transport.PriorityLaneExecutors;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
 import ru.viktorgezz.security.properties.CustomProperties;
 
 import static java.lang.String.format;
@@ -23,6 +32,9 @@ import static java.lang.String.format;
  * Message destinations:
  * - /topic/* - для broadcast сообщений (server → clients)
  * - /app/* - для сообщений от клиентов (client → server)
+ * Несколько узлов: multiplayer.broker.relay=redis ретранслирует /topic/contest/*, /topic/lobby
+ * и личные /user/* через Redis pub/sub
+ * Виртуальные потоки: spring.threads.virtual.enabled=true переводит inbound/outbound каналы на виртуальные потоки
  */
 @Slf4j
 @Configuration
@@ -33,6 +45,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final ChannelInterceptor authChannelInterceptor;
     private final CustomProperties customProperties;
+    private final ObjectProvider<RedisBrokerRelayInterceptor> brokerRelayInterceptor;
+    private final Environment environment;
+    private final MultiplayerProperties multiplayerProperties;
+    private final LatestWinsHandlerDecoratorFactory latestWinsHandlerDecoratorFactory;
+    private final PriorityLaneExecutors priorityLaneExecutors;
 
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
@@ -40,12 +57,22 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Клиенты подписываются на /topic/contest/{idContest}/progress и т.д.
         config.enableSimpleBroker("/topic", "/queue");
 
+        // При multiplayer.broker.relay=redis сообщения в /topic/contest/** дополнительно уходят на другие узлы
+        brokerRelayInterceptor.ifAvailable(interceptor ->
+                config.configureBrokerChannel().interceptors(interceptor)
+        );
+
         // Префикс для сообщений от клиентов к серверу
         // Клиенты отправляют на /app/contest/{idContest}/progress
         config.setApplicationDestinationPrefixes("/app");
 
         // Префикс для личных сообщений пользователю
         config.setUserDestinationPrefix("/user");
+
+        // Исполнитель виртуальных потоков не ограничен: порядок сообщений в сессию сохраняется явно
+        if (Threading.VIRTUAL.isActive(environment)) {
+            config.setPreservePublishOrder(true);
+        }
     }
 
     @Override
@@ -74,11 +101,44 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                         "http://localhost:*",
                         "http://127.0.0.1:*"
                 );
+
+        // Сообщения одной сессии обрабатываются по порядку и на виртуальных потоках
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registry.setPreserveReceiveOrder(true);
+        }
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        final MultiplayerProperties.Transport propertiesTransport = multiplayerProperties.getTransport();
+
+        // Очередь каждой сессии ограничена; кадры прогресса медленному клиенту заменяются последним
+        registration
+                .setSendTimeLimit((int) propertiesTransport.getSendTimeLimitMs())
+                .setSendBufferSizeLimit(propertiesTransport.getSendBufferSizeLimit())
+                .addDecoratorFactory(latestWinsHandlerDecoratorFactory);
     }
 
     @Override
     public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
         // Добавляем интерцептор для JWT аутентификации
         registration.interceptors(authChannelInterceptor);
+
+        // Обработчики блокируются на Redis и JDBC: в режиме виртуальных потоков пул не исчерпывается.
+        // Иначе /finish и /ready обрабатываются в своей полосе, не дожидаясь очереди прогресса
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+        } else if (multiplayerProperties.getLanes().isEnabled()) {
+            registration.executor(priorityLaneExecutors.getInbound());
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+        } else if (multiplayerProperties.getLanes().isEnabled()) {
+            registration.executor(priorityLaneExecutors.getOutbound());
+        }
     }
 }
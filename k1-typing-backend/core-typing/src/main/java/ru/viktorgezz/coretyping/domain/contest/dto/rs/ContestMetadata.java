@@ -0,0 +1,25 @@
+package ru.viktorgezz.coretyping.domain.contest.dto.rs;
+
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неизменяемые данные соревнования и его упражнения.
+ *
+ * @param idContest     ID контеста
+ * @param idExercise    ID упражнения
+ * @param titleExercise название упражнения
+ * @param textExercise  текст упражнения
+ * @param language      язык упражнения
+ * @param createdAt     дата создания
+ */
+public record ContestMetadata(
+        Long idContest,
+        Long idExercise,
+        String titleExercise,
+        String textExercise,
+        Language language,
+        LocalDateTime createdAt
+) {
+}
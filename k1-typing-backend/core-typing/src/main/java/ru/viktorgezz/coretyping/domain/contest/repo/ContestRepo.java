@@ -9,6 +9,7 @@ import ru.viktorgezz.coretyping.domain.contest.Contest;
 import ru.viktorgezz.coretyping.domain.contest.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface ContestRepo extends CrudRepository<Contest, Long> {
@@ -17,6 +18,13 @@ public interface ContestRepo extends CrudRepository<Contest, Long> {
     @Query("SELECT c FROM Contest c WHERE c.id = :id")
     Optional<Contest> findContestWithExercise(@NonNull Long id);
 
+    @Query("SELECT c.status FROM Contest c WHERE c.id = :id")
+    Optional<Status> findStatusById(@NonNull Long id);
+
+    @Modifying
+    @Query("UPDATE Contest c SET c.status = :status WHERE c.id IN :ids")
+    int updateStatusByIdIn(@NonNull Collection<Long> ids, @NonNull Status status);
+
     @Query("""
             SELECT COUNT(c) > 0 FROM Contest c
             WHERE c.id = :id AND c.createdAt <= :createdBefore
@@ -16,6 +16,7 @@ import ru.viktorgezz.coretyping.domain.participant.ParticipantsCommandService;
 import ru.viktorgezz.coretyping.domain.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import static ru.viktorgezz.coretyping.util.CurrentUserUtils.getCurrentUser;
@@ -58,6 +59,12 @@ public class ContestCommandServiceImpl implements ContestCommandService {
         return contestRepo.save(contest);
     }
 
+    @Override
+    @Transactional
+    public int updateStatusAll(Collection<Long> ids, Status status) {
+        return contestRepo.updateStatusByIdIn(ids, status);
+    }
+
     @Override
     @Transactional
     public Contest delete(Long id) {
@@ -1,5 +1,6 @@
 package ru.viktorgezz.coretyping.domain.contest.service.impl;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -7,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.viktorgezz.coretyping.domain.contest.Contest;
 import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.contest.dto.rs.ContestMetadata;
 import ru.viktorgezz.coretyping.domain.contest.repo.ContestPagingAndSortingRepo;
 import ru.viktorgezz.coretyping.domain.contest.repo.ContestRepo;
 import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestQueryService;
@@ -15,6 +17,9 @@ import ru.viktorgezz.coretyping.exception.BusinessException;
 import ru.viktorgezz.coretyping.exception.ErrorCode;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +27,18 @@ public class ContestQueryServiceImpl implements ContestQueryService {
 
     private final ContestRepo contestRepo;
     private final ContestPagingAndSortingRepo contestPagingAndSortingRepo;
+    private final EntityManager entityManager;
+
+    private static final int METADATA_CACHE_CAPACITY = 4096;
+
+    // LRU по порядку доступа; данные неизменяемы, поэтому вытеснение нужно только для ограничения памяти
+    private final Map<Long, ContestMetadata> metadataByContest = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ContestMetadata> eldest) {
+            return size() > METADATA_CACHE_CAPACITY;
+        }
+    };
+    private final ReentrantLock lockMetadata = new ReentrantLock();
 
     @Override
     @Transactional(readOnly = true)
@@ -39,6 +56,46 @@ public class ContestQueryServiceImpl implements ContestQueryService {
         );
     }
 
+    @Override
+    public Contest getReference(Long id) {
+        return entityManager.getReference(Contest.class, id);
+    }
+
+    // Без @Transactional: попадание в кэш не должно занимать соединение с БД
+    @Override
+    public ContestMetadata getMetadata(Long id) {
+        ContestMetadata metadata = getMetadataCached(id);
+        if (metadata != null) {
+            return metadata;
+        }
+
+        Contest contest = getOneWithExercise(id);
+        metadata = new ContestMetadata(
+                contest.getId(),
+                contest.getExercise().getId(),
+                contest.getExercise().getTitle(),
+                contest.getExercise().getText(),
+                contest.getExercise().getLanguage(),
+                contest.getCreatedAt()
+        );
+
+        lockMetadata.lock();
+        try {
+            metadataByContest.put(id, metadata);
+        } finally {
+            lockMetadata.unlock();
+        }
+        return metadata;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Status getStatus(Long id) {
+        return contestRepo.findStatusById(id).orElseThrow(
+                () -> new BusinessException(ErrorCode.CONTEST_NOT_FOUND, String.valueOf(id))
+        );
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean hasOldContest(Long id) {
@@ -52,5 +109,12 @@ public class ContestQueryServiceImpl implements ContestQueryService {
         return contestPagingAndSortingRepo.findByAmountGreaterThanAndStatus(amount, status, pageable);
     }
 
+    private ContestMetadata getMetadataCached(Long id) {
+        lockMetadata.lock();
+        try {
+            return metadataByContest.get(id);
+        } finally {
+            lockMetadata.unlock();
+        }
+    }
 }
-
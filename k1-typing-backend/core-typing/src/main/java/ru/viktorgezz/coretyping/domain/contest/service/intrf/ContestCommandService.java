@@ -5,6 +5,7 @@ import ru.viktorgezz.coretyping.domain.contest.Status;
 import ru.viktorgezz.coretyping.domain.contest.dto.rq.CreationContestRqDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ContestCommandService {
@@ -13,6 +14,8 @@ public interface ContestCommandService {
 
     Contest save(Contest contest);
 
+    int updateStatusAll(Collection<Long> ids, Status status);
+
     Contest delete(Long id);
 
     void deletePropagationRequiresNew(Long id);
@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.viktorgezz.coretyping.domain.contest.Contest;
 import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.contest.dto.rs.ContestMetadata;
 
 public interface ContestQueryService {
 
@@ -11,6 +12,21 @@ public interface ContestQueryService {
 
     Contest getOneWithExercise(Long id);
 
+    /**
+     * Ссылка на контест без SELECT — для связей с контестом, существование которого уже проверено.
+     */
+    Contest getReference(Long id);
+
+    /**
+     * Неизменяемые данные контеста и упражнения; повторные запросы обслуживаются из памяти без обращения к БД.
+     */
+    ContestMetadata getMetadata(Long id);
+
+    /**
+     * Текущий статус без загрузки сущности.
+     */
+    Status getStatus(Long id);
+
     boolean hasOldContest(Long id);
 
     Page<Contest> findByAmountGreaterThanAndStatus(Integer amount, Status status, Pageable pageable);
@@ -1,7 +1,19 @@
 package ru.viktorgezz.coretyping.domain.exercises.repo;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.lang.NonNull;
 import ru.viktorgezz.coretyping.domain.exercises.Exercise;
 
+import java.util.Optional;
+
 public interface ExerciseRepo extends CrudRepository<Exercise, Long> {
+
+    @Query(value = """
+            SELECT * FROM exercises e
+            WHERE e.language = :language
+            ORDER BY random()
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<Exercise> findRandomByLanguage(@NonNull String language);
 }
@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import ru.viktorgezz.coretyping.domain.exercises.Exercise;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
 import ru.viktorgezz.coretyping.domain.exercises.dto.rs.ExerciseListItemRsDto;
 import ru.viktorgezz.coretyping.domain.exercises.repo.ExercisePagingAndSortingRepo;
 import ru.viktorgezz.coretyping.domain.exercises.repo.ExerciseRepo;
@@ -40,4 +41,11 @@ public class ExerciseQueryServiceImpl implements ExerciseQueryService {
         return exerciseRepo.findById(id).orElseThrow(() ->
                 new BusinessException(ErrorCode.EXERCISE_NOT_FOUND));
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Exercise getRandomByLanguage(Language language) {
+        return exerciseRepo.findRandomByLanguage(language.name()).orElseThrow(() ->
+                new BusinessException(ErrorCode.EXERCISE_NOT_FOUND));
+    }
 }
@@ -3,6 +3,7 @@ package ru.viktorgezz.coretyping.domain.exercises.service.intrf;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.viktorgezz.coretyping.domain.exercises.Exercise;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
 import ru.viktorgezz.coretyping.domain.exercises.dto.rs.ExerciseListItemRsDto;
 
 public interface ExerciseQueryService {
@@ -10,4 +11,9 @@ public interface ExerciseQueryService {
     Page<ExerciseListItemRsDto> findAll(Pageable pageable);
 
     Exercise getOne(Long id);
+
+    /**
+     * Случайное упражнение на заданном языке (для комнат подбора соперников).
+     */
+    Exercise getRandomByLanguage(Language language);
 }
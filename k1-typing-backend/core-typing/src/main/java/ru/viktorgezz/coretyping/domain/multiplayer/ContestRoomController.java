@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedModel;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,16 +19,22 @@ import ru.viktorgezz.coretyping.domain.multiplayer.dto.rq.CreateRoomRqDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.JoinRoomRsDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.RoomInfoRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.RoomOwnerRsDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestRoomCommandService;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestRoomQueryService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomOwnershipService;
 
 @RestController
 @RequestMapping("/multiplayer/room")
 @RequiredArgsConstructor
 public class ContestRoomController {
 
+    // Узел-владелец комнаты для sticky-маршрутизации на балансировщике
+    public static final String HEADER_ROOM_OWNER = "X-Room-Owner";
+
     private final ContestRoomQueryService contestRoomQueryService;
     private final ContestRoomCommandService contestRoomCommandService;
+    private final RoomOwnershipService roomOwnershipService;
 
     @PostMapping
     public JoinRoomRsDto create(@Valid @RequestBody CreateRoomRqDto dto) {
@@ -54,4 +61,12 @@ public class ContestRoomController {
     public RoomInfoRsDto getInfo(@PathVariable Long idContest) {
         return contestRoomQueryService.getRoomInfo(idContest);
     }
+
+    @GetMapping("/{idContest}/owner")
+    public ResponseEntity<RoomOwnerRsDto> getOwner(@PathVariable Long idContest) {
+        RoomOwnerRsDto owner = roomOwnershipService.getOwner(idContest);
+        return ResponseEntity.ok()
+                .header(HEADER_ROOM_OWNER, owner.idNode())
+                .body(owner);
+    }
 }
@@ -0,0 +1,36 @@
+package ru.viktorgezz.coretyping.domain.multiplayer;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rq.EnqueueMatchmakingRqDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.MatchmakingStatusRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.MatchmakingService;
+
+@RestController
+@RequestMapping("/multiplayer/matchmaking")
+@RequiredArgsConstructor
+public class MatchmakingController {
+
+    private final MatchmakingService matchmakingService;
+
+    @PostMapping
+    public MatchmakingStatusRsDto enqueue(@Valid @RequestBody EnqueueMatchmakingRqDto dto) {
+        return matchmakingService.enqueue(dto);
+    }
+
+    @GetMapping
+    public MatchmakingStatusRsDto getStatus() {
+        return matchmakingService.getStatus();
+    }
+
+    @DeleteMapping
+    public void cancel() {
+        matchmakingService.cancel();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.broker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Кадр ретрансляции STOMP-сообщения между узлами через Redis pub/sub.
+ * <p>
+ * Бинарная раскладка: [длина idNode][idNode][длина destination][destination][sequence][payload].
+ * Payload — уже сериализованное тело сообщения (JSON), повторно не кодируется.
+ *
+ * @param idNode      узел-отправитель
+ * @param destination STOMP destination
+ * @param sequence    номер события в журнале комнаты; {@link #SEQUENCE_NONE} — сообщение вне журнала
+ * @param payload     тело сообщения
+ */
+public record BrokerRelayFrame(
+        String idNode,
+        String destination,
+        long sequence,
+        byte[] payload
+) {
+
+    public static final long SEQUENCE_NONE = 0;
+
+    public byte[] encode() {
+        byte[] idNodeRaw = idNode.getBytes(StandardCharsets.UTF_8);
+        byte[] destinationRaw = destination.getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(Integer.BYTES * 2 + Long.BYTES + idNodeRaw.length + destinationRaw.length + payload.length)
+                .putInt(idNodeRaw.length)
+                .put(idNodeRaw)
+                .putInt(destinationRaw.length)
+                .put(destinationRaw)
+                .putLong(sequence)
+                .put(payload)
+                .array();
+    }
+
+    public static BrokerRelayFrame decode(byte[] frameRaw) {
+        ByteBuffer buffer = ByteBuffer.wrap(frameRaw);
+        String idNode = readString(buffer);
+        String destination = readString(buffer);
+        long sequence = buffer.getLong();
+
+        byte[] payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+        return new BrokerRelayFrame(idNode, destination, sequence, payload);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] valueRaw = new byte[buffer.getInt()];
+        buffer.get(valueRaw);
+        return new String(valueRaw, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.broker;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.HEADER_SEQUENCE;
+
+/**
+ * Перехватчик brokerChannel: сообщения, отправленные на этом узле в ретранслируемые destination,
+ * публикуются в Redis pub/sub для остальных узлов. Локальная доставка не меняется —
+ * сообщение продолжает путь в simple broker этого узла.
+ * <p>
+ * Личные сообщения ретранслируются в исходном виде /user/{username}/...: на каждом узле
+ * их разрешает в сессии собственный UserDestinationMessageHandler. Сообщения с заголовком
+ * {@link #HEADER_LOCAL} не публикуются: их адресаты подключены к этому узлу.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "multiplayer.broker", name = "relay", havingValue = "redis")
+public class RedisBrokerRelayInterceptor implements ChannelInterceptor {
+
+    // Заголовок сообщений, пришедших с другого узла: повторно их не публикуем
+    public static final String HEADER_RELAYED = "relayed";
+
+    // Заголовок сообщений только для подписчиков этого узла (персональные кадры большой комнаты)
+    public static final String HEADER_LOCAL = "local";
+
+    private final String idNode = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MultiplayerProperties multiplayerProperties;
+    private final byte[] channelRaw;
+
+    public RedisBrokerRelayInterceptor(StringRedisTemplate stringRedisTemplate, MultiplayerProperties multiplayerProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.multiplayerProperties = multiplayerProperties;
+        this.channelRaw = multiplayerProperties.getBroker().getChannel().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getIdNode() {
+        return idNode;
+    }
+
+    /**
+     * Заголовки сообщения, которое доставляется только подписчикам этого узла.
+     * Каждой отправке — свой экземпляр: шаблон дописывает в них destination.
+     */
+    public static MessageHeaders headersLocal() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setHeader(HEADER_LOCAL, Boolean.TRUE);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        final String destination = accessor.getDestination();
+
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || destination == null
+                || accessor.getHeader(HEADER_RELAYED) != null
+                || accessor.getHeader(HEADER_LOCAL) != null
+                || !isRelayed(destination)) {
+            return message;
+        }
+
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            log.warn("Relay skipped for {}: payload is not serialized", destination);
+            return message;
+        }
+
+        try {
+            final byte[] frameRaw = new BrokerRelayFrame(idNode, destination, sequenceOf(accessor), payload).encode();
+            stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelRaw, frameRaw));
+        } catch (Exception e) {
+            // Локальные подписчики всё равно получат сообщение
+            log.error("Relay publish failed for {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    // Номер события журнала комнаты переносится на другие узлы вместе с сообщением
+    private static long sequenceOf(SimpMessageHeaderAccessor accessor) {
+        final String sequence = accessor.getFirstNativeHeader(HEADER_SEQUENCE);
+        return sequence == null ? BrokerRelayFrame.SEQUENCE_NONE : Long.parseLong(sequence);
+    }
+
+    private boolean isRelayed(String destination) {
+        for (String prefix : multiplayerProperties.getBroker().getRelayedPrefixes()) {
+            if (destination.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
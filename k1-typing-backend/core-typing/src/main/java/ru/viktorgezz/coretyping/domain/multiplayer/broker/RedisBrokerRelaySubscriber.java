@@ -0,0 +1,61 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.broker;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.HEADER_SEQUENCE;
+
+/**
+ * Получает кадры ретрансляции из Redis pub/sub и отдаёт их в simple broker этого узла.
+ * Брокер рассылает сообщение своим подписчикам один раз на узел; собственные кадры узла пропускаются,
+ * так как локальная доставка уже выполнена.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "multiplayer.broker", name = "relay", havingValue = "redis")
+public class RedisBrokerRelaySubscriber implements MessageListener {
+
+    private final MessageChannel brokerChannel;
+    private final RedisBrokerRelayInterceptor relayInterceptor;
+
+    public RedisBrokerRelaySubscriber(
+            @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+            RedisBrokerRelayInterceptor relayInterceptor
+    ) {
+        this.brokerChannel = brokerChannel;
+        this.relayInterceptor = relayInterceptor;
+    }
+
+    @Override
+    public void onMessage(@NonNull org.springframework.data.redis.connection.Message messageRedis, byte[] pattern) {
+        try {
+            BrokerRelayFrame frame = BrokerRelayFrame.decode(messageRedis.getBody());
+            if (relayInterceptor.getIdNode().equals(frame.idNode())) {
+                return;
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(frame.destination());
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setHeader(RedisBrokerRelayInterceptor.HEADER_RELAYED, Boolean.TRUE);
+            if (frame.sequence() != BrokerRelayFrame.SEQUENCE_NONE) {
+                accessor.setNativeHeader(HEADER_SEQUENCE, Long.toString(frame.sequence()));
+            }
+            accessor.setLeaveMutable(true);
+
+            brokerChannel.send(MessageBuilder.createMessage(frame.payload(), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.error("Relay delivery failed: {}", e.getMessage());
+        }
+    }
+}
@@ -8,14 +8,14 @@ import jakarta.validation.constraints.NotNull;
  * Запрос на создание комнаты соревнования.
  *
  * @param idExercise      ID упражнения для соревнования
- * @param maxParticipants максимальное количество участников (2-15)
+ * @param maxParticipants максимальное количество участников (2-200; больше 15 — большая комната с персональными кадрами прогресса)
  */
 public record CreateRoomRqDto(
         @NotNull(message = "Exercise ID is required")
         Long idExercise,
 
         @Min(value = 2, message = "Minimum 2 participants required")
-        @Max(value = 15, message = "Maximum 10 participants allowed")
+        @Max(value = 200, message = "Maximum 200 participants allowed")
         Integer maxParticipants
 ) {
 }
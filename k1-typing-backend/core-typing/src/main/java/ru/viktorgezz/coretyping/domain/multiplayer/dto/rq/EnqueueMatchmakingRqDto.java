@@ -0,0 +1,15 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.rq;
+
+import jakarta.validation.constraints.NotNull;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+
+/**
+ * Запрос на постановку в очередь быстрой игры.
+ *
+ * @param language язык упражнения
+ */
+public record EnqueueMatchmakingRqDto(
+        @NotNull(message = "Language is required")
+        Language language
+) {
+}
@@ -0,0 +1,29 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.rs;
+
+import jakarta.validation.constraints.NotNull;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+
+/**
+ * Состояние игрока в подборе соперников.
+ *
+ * @param status    статус подбора
+ * @param language  язык очереди (только для WAITING)
+ * @param idContest ID подобранной комнаты (только для MATCHED)
+ */
+public record MatchmakingStatusRsDto(
+        @NotNull(message = "Status is required")
+        MatchmakingStatus status,
+
+        Language language,
+
+        Long idContest
+) {
+    /**
+     * Статусы подбора соперников.
+     */
+    public enum MatchmakingStatus {
+        WAITING,     // Игрок в очереди
+        MATCHED,     // Комната подобрана, нужно подключиться к ней
+        NOT_QUEUED   // Игрок не в очереди
+    }
+}
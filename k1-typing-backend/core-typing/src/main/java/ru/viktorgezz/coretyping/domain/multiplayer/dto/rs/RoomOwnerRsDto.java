@@ -0,0 +1,17 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.rs;
+
+/**
+ * Узел, владеющий комнатой.
+ *
+ * @param idContest ID контеста
+ * @param idNode    идентификатор узла-владельца
+ * @param address   адрес узла для балансировщика/клиента; пустой, если не задан
+ * @param leased    true — узел держит аренду, false — узел выбран кольцом, но аренду ещё не взял
+ */
+public record RoomOwnerRsDto(
+        Long idContest,
+        String idNode,
+        String address,
+        boolean leased
+) {
+}
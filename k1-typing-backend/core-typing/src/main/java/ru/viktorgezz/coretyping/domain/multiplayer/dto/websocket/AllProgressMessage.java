@@ -1,18 +1,37 @@
 package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 import java.util.Map;
 
 /**
- * Исходящее сообщение: прогресс всех участников (broadcast).
+ * Исходящее сообщение: прогресс участников (broadcast).
+ * <p>
+ * Keyframe содержит всех участников комнаты, delta — только тех, чей прогресс,
+ * скорость или точность изменились с предыдущего кадра. При пропуске номера
+ * кадра клиент пересинхронизируется через {@code GET /multiplayer/room/{id}}.
+ * <p>
+ * При нескольких узлах каждый рассылает изменения своих участников и нумерует кадры сам,
+ * поэтому пропуск отслеживается по паре (origin, sequence).
  *
  * @param usersProgress карта idUser → данные прогресса участника
+ * @param origin        узел-отправитель кадра
+ * @param sequence      порядковый номер кадра комнаты на узле-отправителе (начиная с 1)
+ * @param keyframe      true — полный снимок комнаты, false — только изменения
  */
 public record AllProgressMessage(
         @NotNull(message = "Users progress map is required")
-        Map<Long, UserProgressData> usersProgress
+        Map<Long, UserProgressData> usersProgress,
+
+        @NotNull(message = "Origin is required")
+        String origin,
+
+        @Positive(message = "Sequence must be positive")
+        long sequence,
+
+        boolean keyframe
 ) {
     /**
      * Данные прогресса одного участника.
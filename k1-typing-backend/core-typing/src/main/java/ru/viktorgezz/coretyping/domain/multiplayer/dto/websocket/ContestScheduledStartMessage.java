@@ -0,0 +1,16 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+/**
+ * Исходящее сообщение: соревнование стартует в указанный момент (протокол scheduled).
+ * Клиент ведёт отсчёт сам, переводя момент старта в свои часы через смещение из /app/time.
+ *
+ * @param startTimestamp   Unix timestamp момента старта по часам сервера
+ * @param serverTimestamp  Unix timestamp отправки сообщения по часам сервера
+ * @param countdownSeconds длительность отсчёта
+ */
+public record ContestScheduledStartMessage(
+        long startTimestamp,
+        long serverTimestamp,
+        int countdownSeconds
+) {
+}
@@ -1,17 +1,16 @@
 package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
 
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 
 /**
  * Исходящее сообщение: старт соревнования.
+ * Текст уже разослан во время отсчёта ({@link ContestTextMessage}), здесь только ключ его раскрытия.
  *
- * @param text           текст для печати
+ * @param revealKey      ключ раскрытия текста; null — ключ утерян, текст берётся из GET /multiplayer/room/{id}
  * @param startTimestamp Unix timestamp момента старта
  */
 public record ContestStartMessage(
-        @NotBlank(message = "Text is required")
-        String text,
+        String revealKey,
 
         @Positive(message = "Start timestamp must be positive")
         long startTimestamp
@@ -0,0 +1,15 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Исходящее сообщение: скрытый текст упражнения, рассылается во время отсчёта.
+ * Раскрывается ключом из {@link ContestStartMessage}.
+ *
+ * @param textSealed текст, скрытый {@code ExerciseTextSealer} (Base64)
+ */
+public record ContestTextMessage(
+        @NotBlank(message = "Sealed text is required")
+        String textSealed
+) {
+}
@@ -0,0 +1,20 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+import jakarta.validation.constraints.NotNull;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+
+import java.util.List;
+
+/**
+ * Исходящее сообщение: начальный снимок лобби в ответ на подписку.
+ *
+ * @param rooms открытые комнаты в порядке создания
+ * @param total всего открытых комнат (для лобби одного языка — число комнат в снимке)
+ */
+public record LobbySnapshotMessage(
+        @NotNull(message = "Rooms list is required")
+        List<AvailableRoomRsDto> rooms,
+
+        long total
+) {
+}
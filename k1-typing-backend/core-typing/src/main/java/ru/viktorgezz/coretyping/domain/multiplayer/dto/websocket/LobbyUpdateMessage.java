@@ -0,0 +1,40 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+import jakarta.validation.constraints.NotNull;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+
+import java.util.List;
+
+/**
+ * Исходящее сообщение: изменения лобби за интервал рассылки, не больше одного события на комнату.
+ *
+ * @param events события комнат
+ */
+public record LobbyUpdateMessage(
+        @NotNull(message = "Events list is required")
+        List<LobbyRoomEvent> events
+) {
+    /**
+     * Событие комнаты лобби.
+     *
+     * @param type      тип события
+     * @param idContest ID контеста
+     * @param room      актуальное состояние комнаты (null для ROOM_CLOSED)
+     */
+    public record LobbyRoomEvent(
+            @NotNull(message = "Event type is required")
+            Type type,
+
+            @NotNull(message = "Contest ID is required")
+            Long idContest,
+
+            AvailableRoomRsDto room
+    ) {
+    }
+
+    public enum Type {
+        ROOM_CREATED,
+        OCCUPANCY_CHANGED,
+        ROOM_CLOSED
+    }
+}
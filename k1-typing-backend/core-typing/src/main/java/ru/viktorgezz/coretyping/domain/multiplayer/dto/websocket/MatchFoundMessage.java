@@ -0,0 +1,14 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Исходящее сообщение игроку: комната быстрой игры подобрана.
+ *
+ * @param idContest ID созданной комнаты
+ */
+public record MatchFoundMessage(
+        @NotNull(message = "Contest ID is required")
+        Long idContest
+) {
+}
@@ -0,0 +1,55 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Исходящее сообщение большой комнаты: персональный кадр прогресса.
+ * <p>
+ * Вместо всех участников клиент получает лидеров и своё окружение в рейтинге,
+ * поэтому размер кадра не зависит от размера комнаты.
+ *
+ * @param sequence          порядковый номер кадра в комнате (начиная с 1)
+ * @param countParticipants всего участников в рейтинге
+ * @param leaders           первые участники рейтинга
+ * @param neighbourhood     клиент и его соседи по рейтингу, не вошедшие в лидеров
+ */
+public record RankedProgressMessage(
+        @Positive(message = "Sequence must be positive")
+        long sequence,
+
+        int countParticipants,
+
+        @NotNull(message = "Leaders list is required")
+        List<RankedProgress> leaders,
+
+        @NotNull(message = "Neighbourhood list is required")
+        List<RankedProgress> neighbourhood
+) {
+    /**
+     * Прогресс участника с его местом в рейтинге.
+     *
+     * @param idUser   ID пользователя
+     * @param rank     место в рейтинге (начиная с 1)
+     * @param progress процент прогресса (0-100)
+     * @param speed    скорость (символов в минуту)
+     * @param accuracy точность (0-100%)
+     */
+    public record RankedProgress(
+            @NotNull(message = "User ID is required")
+            Long idUser,
+
+            @Positive(message = "Rank must be positive")
+            int rank,
+
+            int progress,
+
+            int speed,
+
+            BigDecimal accuracy
+    ) {
+    }
+}
@@ -0,0 +1,41 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Исходящее сообщение: события комнаты, пропущенные переподключившимся клиентом.
+ *
+ * @param sequenceCurrent номер последнего события комнаты
+ * @param truncated       часть пропущенных событий уже вытеснена из журнала — клиент загружает комнату через REST
+ * @param events          пропущенные события по порядку
+ */
+public record RoomEventsReplayMessage(
+        long sequenceCurrent,
+
+        boolean truncated,
+
+        @NotNull(message = "Events list is required")
+        List<Event> events
+) {
+    /**
+     * Пропущенное событие в том виде, в каком оно ушло в topic.
+     *
+     * @param sequence    номер события
+     * @param destination topic события
+     * @param payload     тело сообщения (JSON встраивается без повторной сериализации)
+     */
+    public record Event(
+            long sequence,
+
+            @NotNull(message = "Destination is required")
+            String destination,
+
+            @NotNull(message = "Payload is required")
+            @JsonRawValue
+            String payload
+    ) {
+    }
+}
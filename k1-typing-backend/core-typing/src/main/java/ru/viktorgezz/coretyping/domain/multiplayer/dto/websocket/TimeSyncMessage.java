@@ -0,0 +1,17 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+/**
+ * Исходящее сообщение: ответ на синхронизацию часов (по схеме NTP).
+ * Клиент получает ответ в t3 и считает смещение {@code ((t1 - t0) + (t2 - t3)) / 2}
+ * и задержку {@code (t3 - t0) - (t2 - t1)}.
+ *
+ * @param clientSentTimestamp     t0 — время отправки запроса по часам клиента
+ * @param serverReceivedTimestamp t1 — время получения запроса по часам сервера
+ * @param serverSentTimestamp     t2 — время отправки ответа по часам сервера
+ */
+public record TimeSyncMessage(
+        long clientSentTimestamp,
+        long serverReceivedTimestamp,
+        long serverSentTimestamp
+) {
+}
@@ -0,0 +1,11 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket;
+
+/**
+ * Входящее сообщение: запрос синхронизации часов.
+ *
+ * @param clientSentTimestamp время отправки по часам клиента (t0)
+ */
+public record TimeSyncRqMessage(
+        long clientSentTimestamp
+) {
+}
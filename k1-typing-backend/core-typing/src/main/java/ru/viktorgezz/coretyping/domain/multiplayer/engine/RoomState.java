@@ -0,0 +1,393 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Состояние одной комнаты в памяти узла.
+ * <p>
+ * Участники лежат в параллельных массивах по слотам (комнаты маленькие, поиск слота — линейный проход
+ * по {@code long[]}), прогресс — упакованным числом {@link ProgressCodec}. Класс не потокобезопасен:
+ * все обращения выполняются последовательно на исполнителе комнаты {@link RoomEngine}.
+ */
+public class RoomState {
+
+    private static final int CAPACITY_INITIAL = 8;
+
+    private long[] idsUser = new long[CAPACITY_INITIAL];
+    private String[] usernames = new String[CAPACITY_INITIAL];
+    private long[] progressPacked = new long[CAPACITY_INITIAL];
+    private boolean[] progressDirty = new boolean[CAPACITY_INITIAL];
+    private boolean[] ready = new boolean[CAPACITY_INITIAL];
+    private boolean[] readyPersisted = new boolean[CAPACITY_INITIAL];
+    private int countParticipants;
+
+    private long[] idsFinisher = new long[CAPACITY_INITIAL];
+    private long[] timestampsFinish = new long[CAPACITY_INITIAL];
+    private int countFinished;
+    private int countFinishedPersisted;
+
+    // Снятия готовности вышедших участников, ещё не записанные в Redis
+    private final List<Long> idsReadyRemovedPending = new ArrayList<>();
+
+    private boolean hydrated;
+    private boolean dirty;
+
+    public boolean isHydrated() {
+        return hydrated;
+    }
+
+    public void markHydrated() {
+        hydrated = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // --- Участники ---
+
+    public void addParticipant(long idUser, String username) {
+        int slot = slotOf(idUser);
+        if (slot >= 0) {
+            usernames[slot] = username;
+            return;
+        }
+
+        ensureCapacityParticipants(countParticipants + 1);
+        slot = countParticipants++;
+        idsUser[slot] = idUser;
+        usernames[slot] = username;
+        progressPacked[slot] = ProgressCodec.PACKED_ZERO;
+        progressDirty[slot] = false;
+        ready[slot] = false;
+        readyPersisted[slot] = false;
+    }
+
+    public void removeParticipant(long idUser) {
+        int slot = slotOf(idUser);
+        if (slot < 0) {
+            return;
+        }
+        if (readyPersisted[slot]) {
+            idsReadyRemovedPending.add(idUser);
+            dirty = true;
+        }
+
+        // Последний слот переносится на место удалённого
+        int slotLast = --countParticipants;
+        idsUser[slot] = idsUser[slotLast];
+        usernames[slot] = usernames[slotLast];
+        progressPacked[slot] = progressPacked[slotLast];
+        progressDirty[slot] = progressDirty[slotLast];
+        ready[slot] = ready[slotLast];
+        readyPersisted[slot] = readyPersisted[slotLast];
+        usernames[slotLast] = null;
+    }
+
+    public boolean isParticipant(long idUser) {
+        return slotOf(idUser) >= 0;
+    }
+
+    public int getCountParticipants() {
+        return countParticipants;
+    }
+
+    public Set<Long> getParticipantIds() {
+        Set<Long> ids = new HashSet<>(countParticipants * 2);
+        for (int slot = 0; slot < countParticipants; slot++) {
+            ids.add(idsUser[slot]);
+        }
+        return ids;
+    }
+
+    public Map<Long, String> getParticipantNames() {
+        Map<Long, String> names = new HashMap<>(countParticipants * 2);
+        for (int slot = 0; slot < countParticipants; slot++) {
+            names.put(idsUser[slot], usernames[slot]);
+        }
+        return names;
+    }
+
+    // --- Прогресс ---
+
+    public void updateProgress(long idUser, long packed) {
+        int slot = slotOf(idUser);
+        if (slot < 0 || progressPacked[slot] == packed) {
+            return;
+        }
+        progressPacked[slot] = packed;
+        progressDirty[slot] = true;
+        dirty = true;
+    }
+
+    // Загрузка из Redis: значение уже сохранено, в write-behind не попадает
+    public void restoreProgress(long idUser, long packed) {
+        int slot = slotOf(idUser);
+        if (slot >= 0) {
+            progressPacked[slot] = packed;
+        }
+    }
+
+    public UserProgressData getProgress(long idUser) {
+        int slot = slotOf(idUser);
+        return ProgressCodec.unpack(slot < 0 ? ProgressCodec.PACKED_ZERO : progressPacked[slot]);
+    }
+
+    public Map<Long, UserProgressData> getProgressAll() {
+        Map<Long, UserProgressData> progressAll = new HashMap<>(countParticipants * 2);
+        for (int slot = 0; slot < countParticipants; slot++) {
+            progressAll.put(idsUser[slot], ProgressCodec.unpack(progressPacked[slot]));
+        }
+        return progressAll;
+    }
+
+    // --- Готовность ---
+
+    public void markReady(long idUser) {
+        setReady(idUser, true);
+    }
+
+    public void unmarkReady(long idUser) {
+        setReady(idUser, false);
+    }
+
+    // Загрузка из Redis: готовность уже сохранена
+    public void restoreReady(long idUser) {
+        int slot = slotOf(idUser);
+        if (slot >= 0) {
+            ready[slot] = true;
+            readyPersisted[slot] = true;
+        }
+    }
+
+    // Сброс готовности, уже выполненный в Redis
+    public void clearReadyPersisted() {
+        Arrays.fill(ready, 0, countParticipants, false);
+        Arrays.fill(readyPersisted, 0, countParticipants, false);
+        idsReadyRemovedPending.clear();
+    }
+
+    public boolean isReady(long idUser) {
+        int slot = slotOf(idUser);
+        return slot >= 0 && ready[slot];
+    }
+
+    public int getReadyCount() {
+        int countReady = 0;
+        for (int slot = 0; slot < countParticipants; slot++) {
+            if (ready[slot]) {
+                countReady++;
+            }
+        }
+        return countReady;
+    }
+
+    public Set<Long> getReadyParticipantIds() {
+        Set<Long> ids = new HashSet<>();
+        for (int slot = 0; slot < countParticipants; slot++) {
+            if (ready[slot]) {
+                ids.add(idsUser[slot]);
+            }
+        }
+        return ids;
+    }
+
+    // --- Финиш ---
+
+    /**
+     * Регистрирует финиш; повторный финиш не меняет порядок.
+     *
+     * @return позиция в порядке финиша (0 — первый)
+     */
+    public int registerFinish(long idUser, long timestamp) {
+        int rank = rankOf(idUser);
+        if (rank >= 0) {
+            return rank;
+        }
+
+        ensureCapacityFinishers(countFinished + 1);
+        idsFinisher[countFinished] = idUser;
+        timestampsFinish[countFinished] = timestamp;
+        dirty = true;
+        return countFinished++;
+    }
+
+    // Загрузка из Redis в порядке финиша
+    public void restoreFinish(long idUser) {
+        if (rankOf(idUser) >= 0) {
+            return;
+        }
+        ensureCapacityFinishers(countFinished + 1);
+        idsFinisher[countFinished] = idUser;
+        countFinished++;
+        countFinishedPersisted = countFinished;
+    }
+
+    public int getCountFinished() {
+        return countFinished;
+    }
+
+    public boolean isContestComplete() {
+        return countParticipants > 0 && countFinished >= countParticipants;
+    }
+
+    public List<Long> getFinisherIds() {
+        List<Long> ids = new ArrayList<>(countFinished);
+        for (int rank = 0; rank < countFinished; rank++) {
+            ids.add(idsFinisher[rank]);
+        }
+        return ids;
+    }
+
+    // --- Write-behind ---
+
+    /**
+     * Забирает изменения, не записанные в Redis, и помечает их записанными.
+     */
+    public WriteBatch drainWriteBatch() {
+        Map<Long, Long> progressChanged = new HashMap<>();
+        List<Long> idsReadyAdded = new ArrayList<>();
+        List<Long> idsReadyRemoved = new ArrayList<>(idsReadyRemovedPending);
+        idsReadyRemovedPending.clear();
+
+        for (int slot = 0; slot < countParticipants; slot++) {
+            if (progressDirty[slot]) {
+                progressChanged.put(idsUser[slot], progressPacked[slot]);
+                progressDirty[slot] = false;
+            }
+            if (ready[slot] != readyPersisted[slot]) {
+                (ready[slot] ? idsReadyAdded : idsReadyRemoved).add(idsUser[slot]);
+                readyPersisted[slot] = ready[slot];
+            }
+        }
+
+        Map<Long, Long> finishersAdded = new LinkedHashMap<>();
+        for (int rank = countFinishedPersisted; rank < countFinished; rank++) {
+            finishersAdded.put(idsFinisher[rank], timestampsFinish[rank]);
+        }
+        countFinishedPersisted = countFinished;
+
+        dirty = false;
+        return new WriteBatch(progressChanged, idsReadyAdded, idsReadyRemoved, finishersAdded);
+    }
+
+    /**
+     * Возвращает пачку, которую не удалось записать в Redis, в незаписанные изменения:
+     * следующая выгрузка запишет её вместе с более новыми изменениями.
+     */
+    public void restoreWriteBatch(WriteBatch batch) {
+        batch.progressChanged().keySet().forEach(idUser -> {
+            int slot = slotOf(idUser);
+            if (slot >= 0) {
+                progressDirty[slot] = true;
+            }
+        });
+
+        batch.idsReadyAdded().forEach(idUser -> {
+            int slot = slotOf(idUser);
+            if (slot >= 0) {
+                readyPersisted[slot] = false;
+            }
+        });
+        batch.idsReadyRemoved().forEach(idUser -> {
+            int slot = slotOf(idUser);
+            if (slot >= 0) {
+                readyPersisted[slot] = true;
+            } else {
+                idsReadyRemovedPending.add(idUser);
+            }
+        });
+
+        // Финишеры пачки — непрерывный отрезок порядка финиша, начиная с первого из них
+        batch.finishersAdded().keySet().stream().findFirst().ifPresent(idUser -> {
+            int rank = rankOf(idUser);
+            if (rank >= 0) {
+                countFinishedPersisted = Math.min(countFinishedPersisted, rank);
+            }
+        });
+
+        dirty = true;
+    }
+
+    private void setReady(long idUser, boolean isReady) {
+        int slot = slotOf(idUser);
+        if (slot < 0 || ready[slot] == isReady) {
+            return;
+        }
+        ready[slot] = isReady;
+        dirty = true;
+    }
+
+    private int slotOf(long idUser) {
+        for (int slot = 0; slot < countParticipants; slot++) {
+            if (idsUser[slot] == idUser) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int rankOf(long idUser) {
+        for (int rank = 0; rank < countFinished; rank++) {
+            if (idsFinisher[rank] == idUser) {
+                return rank;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureCapacityParticipants(int capacity) {
+        if (capacity <= idsUser.length) {
+            return;
+        }
+        int capacityNew = idsUser.length * 2;
+        idsUser = Arrays.copyOf(idsUser, capacityNew);
+        usernames = Arrays.copyOf(usernames, capacityNew);
+        progressPacked = Arrays.copyOf(progressPacked, capacityNew);
+        progressDirty = Arrays.copyOf(progressDirty, capacityNew);
+        ready = Arrays.copyOf(ready, capacityNew);
+        readyPersisted = Arrays.copyOf(readyPersisted, capacityNew);
+    }
+
+    private void ensureCapacityFinishers(int capacity) {
+        if (capacity <= idsFinisher.length) {
+            return;
+        }
+        int capacityNew = idsFinisher.length * 2;
+        idsFinisher = Arrays.copyOf(idsFinisher, capacityNew);
+        timestampsFinish = Arrays.copyOf(timestampsFinish, capacityNew);
+    }
+
+    /**
+     * Пачка изменений комнаты для записи в Redis одним pipeline.
+     *
+     * @param progressChanged idUser → упакованный прогресс
+     * @param idsReadyAdded   отметившиеся готовыми
+     * @param idsReadyRemoved снявшие готовность
+     * @param finishersAdded  idUser → время финиша, в порядке финиша
+     */
+    public record WriteBatch(
+            Map<Long, Long> progressChanged,
+            List<Long> idsReadyAdded,
+            List<Long> idsReadyRemoved,
+            Map<Long, Long> finishersAdded
+    ) {
+        public boolean isEmpty() {
+            return progressChanged.isEmpty()
+                    && idsReadyAdded.isEmpty()
+                    && idsReadyRemoved.isEmpty()
+                    && finishersAdded.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.RoomState;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.FinishService;
+
+import java.util.List;
+
+/**
+ * Порядок финиша из in-memory движка. Исполнитель комнаты однопоточный, поэтому место и признак
+ * завершения определяются без Lua-скрипта; в Redis финиш попадает пачкой write-behind.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "multiplayer.engine", name = "in-memory-enabled", havingValue = "true")
+public class InMemoryFinishServiceImpl implements FinishService {
+
+    private final RoomEngine roomEngine;
+
+    @Override
+    public FinishRegistration registerFinish(Long idContest, Long idUser) {
+        final long timestampFinish = System.currentTimeMillis();
+        return roomEngine.call(idContest, state -> {
+            final int countFinishedBefore = state.getCountFinished();
+            final int rank = state.registerFinish(idUser, timestampFinish);
+            final boolean isFinishNew = state.getCountFinished() > countFinishedBefore;
+
+            return new FinishRegistration(
+                    FinishService.placeOfRank((long) rank),
+                    isFinishNew && state.isContestComplete()
+            );
+        });
+    }
+
+    @Override
+    public int getFinishersCount(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getCountFinished);
+    }
+
+    @Override
+    public boolean isContestComplete(Long idContest) {
+        return roomEngine.call(idContest, RoomState::isContestComplete);
+    }
+
+    @Override
+    public List<Long> getFinisherIds(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getFinisherIds);
+    }
+}
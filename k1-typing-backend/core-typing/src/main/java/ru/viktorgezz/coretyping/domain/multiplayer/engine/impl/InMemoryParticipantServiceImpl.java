@@ -0,0 +1,72 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.RoomState;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl.ParticipantServiceImpl;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Участники комнаты из in-memory движка. Вход и выход пишутся в Redis сразу (их проверяют REST-запросы),
+ * чтение идёт из памяти.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "multiplayer.engine", name = "in-memory-enabled", havingValue = "true")
+public class InMemoryParticipantServiceImpl implements ParticipantsService {
+
+    private final RoomEngine roomEngine;
+    private final ParticipantServiceImpl participantsRedis;
+    private final RoomService roomService;
+
+    @Override
+    public void addParticipant(Long idContest, Long idUser, String username) {
+        participantsRedis.addParticipant(idContest, idUser, username);
+        roomEngine.call(idContest, state -> {
+            state.addParticipant(idUser, username);
+            return null;
+        });
+    }
+
+    @Override
+    public void removeParticipant(Long idContest, Long idUser) {
+        participantsRedis.removeParticipant(idContest, idUser);
+        roomEngine.call(idContest, state -> {
+            state.removeParticipant(idUser);
+            return null;
+        });
+    }
+
+    @Override
+    public Set<Long> getParticipantIds(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getParticipantIds);
+    }
+
+    @Override
+    public Map<Long, String> getParticipantNames(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getParticipantNames);
+    }
+
+    @Override
+    public int getParticipantsCount(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getCountParticipants);
+    }
+
+    @Override
+    public boolean isRoomFull(Long idContest) {
+        return getParticipantsCount(idContest) >= roomService.getParticipantsMax(idContest);
+    }
+
+    @Override
+    public boolean isParticipant(Long idContest, Long idUser) {
+        return roomEngine.call(idContest, state -> state.isParticipant(idUser));
+    }
+}
@@ -0,0 +1,54 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.RoomState;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Прогресс участников из in-memory движка: обновление ставится в очередь комнаты без ожидания,
+ * в Redis попадает пачкой write-behind.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "multiplayer.engine", name = "in-memory-enabled", havingValue = "true")
+public class InMemoryProgressServiceImpl implements ProgressService {
+
+    private final RoomEngine roomEngine;
+
+    @Override
+    public void updateProgress(Long idContest, Long idUser, int progressPercent, int speed, BigDecimal accuracy) {
+        final long packed = ProgressCodec.pack(progressPercent, speed, accuracy);
+        roomEngine.execute(idContest, state -> state.updateProgress(idUser, packed));
+    }
+
+    @Override
+    public Map<Long, UserProgressData> getProgressAll(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getProgressAll);
+    }
+
+    @Override
+    public UserProgressData getProgressByUser(Long idContest, Long idUser) {
+        return roomEngine.call(idContest, state -> state.getProgress(idUser));
+    }
+
+    @Override
+    public Map<Long, UserProgressData> getProgressByUsers(Long idContest, Collection<Long> idsUser) {
+        return roomEngine.call(idContest, state -> {
+            Map<Long, UserProgressData> progressResult = new HashMap<>(idsUser.size() * 2);
+            idsUser.forEach(idUser -> progressResult.put(idUser, state.getProgress(idUser)));
+            return progressResult;
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.RoomState;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl.ReadyServiceImpl;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ReadyService;
+
+import java.util.Set;
+
+/**
+ * Готовность участников из in-memory движка; отметки пишутся в Redis пачкой write-behind.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "multiplayer.engine", name = "in-memory-enabled", havingValue = "true")
+public class InMemoryReadyServiceImpl implements ReadyService {
+
+    private final RoomEngine roomEngine;
+    private final ReadyServiceImpl readyRedis;
+
+    @Override
+    public void markReady(Long idContest, Long idUser) {
+        roomEngine.execute(idContest, state -> state.markReady(idUser));
+    }
+
+    @Override
+    public void unmarkReady(Long idContest, Long idUser) {
+        roomEngine.execute(idContest, state -> state.unmarkReady(idUser));
+    }
+
+    @Override
+    public boolean isReady(Long idContest, Long idUser) {
+        return roomEngine.call(idContest, state -> state.isReady(idUser));
+    }
+
+    @Override
+    public Set<Long> getReadyParticipantIds(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getReadyParticipantIds);
+    }
+
+    @Override
+    public int getReadyCount(Long idContest) {
+        return roomEngine.call(idContest, RoomState::getReadyCount);
+    }
+
+    // Сброс выполняется на исполнителе комнаты, чтобы не разойтись с ещё не записанными отметками
+    @Override
+    public void clearReady(Long idContest) {
+        roomEngine.call(idContest, state -> {
+            readyRedis.clearReady(idContest);
+            state.clearReadyPersisted();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomSnapshotService;
+
+/**
+ * Снимок комнаты из in-memory движка: состояние участников читается одной задачей на исполнителе комнаты,
+ * из Redis берутся только статус и лимит участников.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "multiplayer.engine", name = "in-memory-enabled", havingValue = "true")
+public class InMemoryRoomSnapshotServiceImpl implements RoomSnapshotService {
+
+    private final RoomEngine roomEngine;
+    private final RoomService roomService;
+
+    @Override
+    public RoomSnapshot getSnapshot(Long idContest) {
+        final Status status = roomService.getStatus(idContest).orElse(null);
+        final int participantsMax = roomService.getParticipantsMax(idContest);
+        return roomEngine.call(idContest, state -> new RoomSnapshot(
+                status,
+                participantsMax,
+                state.getParticipantNames(),
+                state.getReadyParticipantIds(),
+                state.getProgressAll()
+        ));
+    }
+}
@@ -0,0 +1,323 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.RoomState;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl.FinishServiceImpl;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl.ParticipantServiceImpl;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl.ReadyServiceImpl;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyFinishers;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyProgress;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyReady;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawValue;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "multiplayer.engine", name = "in-memory-enabled", havingValue = "true")
+public class RoomEngineImpl implements RoomEngine {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ParticipantServiceImpl participantsRedis;
+    private final ReadyServiceImpl readyRedis;
+    private final FinishServiceImpl finishRedis;
+    private final MultiplayerProperties multiplayerProperties;
+
+    // Общий пул; последовательность внутри комнаты обеспечивает RoomActor
+    private final ExecutorService executorRooms = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors()
+    );
+
+    private final Map<Long, RoomActor> actorsByContest = new ConcurrentHashMap<>();
+
+    public RoomEngineImpl(
+            RedisTemplate<String, Object> redisTemplate,
+            StringRedisTemplate stringRedisTemplate,
+            ParticipantServiceImpl participantsRedis,
+            ReadyServiceImpl readyRedis,
+            FinishServiceImpl finishRedis,
+            MultiplayerProperties multiplayerProperties
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.participantsRedis = participantsRedis;
+        this.readyRedis = readyRedis;
+        this.finishRedis = finishRedis;
+        this.multiplayerProperties = multiplayerProperties;
+
+        // Состояние комнаты живёт в памяти одного узла: при нескольких узлах места финиша
+        // раздавались бы независимо на каждом из них
+        if (multiplayerProperties.getCluster().isEnabled() || "redis".equals(multiplayerProperties.getBroker().getRelay())) {
+            throw new IllegalStateException(
+                    "multiplayer.engine.in-memory-enabled requires a single node: "
+                            + "disable multiplayer.cluster.enabled and set multiplayer.broker.relay=local"
+            );
+        }
+    }
+
+    @Override
+    public <T> T call(Long idContest, Function<RoomState, T> action) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        dispatch(idContest, touch(idContest), state -> {
+            try {
+                result.complete(action.apply(hydrated(idContest, state)));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void execute(Long idContest, Consumer<RoomState> mutation) {
+        dispatch(idContest, touch(idContest), state -> mutation.accept(hydrated(idContest, state)));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${multiplayer.engine.write-behind-interval-ms:50}")
+    public void flushDirtyRooms() {
+        final long timestampNow = System.currentTimeMillis();
+        final long idleEvictMs = multiplayerProperties.getEngine().getIdleEvictMs();
+
+        Map<Long, CompletableFuture<RoomState.WriteBatch>> batchesPending = new HashMap<>();
+        actorsByContest.forEach((idContest, actor) -> {
+            if (timestampNow - actor.timestampLastAccess > idleEvictMs) {
+                evict(idContest);
+                return;
+            }
+            CompletableFuture<RoomState.WriteBatch> batch = new CompletableFuture<>();
+            actor.execute(() -> batch.complete(actor.state.isDirty() ? actor.state.drainWriteBatch() : null));
+            batchesPending.put(idContest, batch);
+        });
+
+        Map<Long, RoomState.WriteBatch> batches = new HashMap<>();
+        batchesPending.forEach((idContest, batch) -> {
+            RoomState.WriteBatch batchReady = batch.join();
+            if (batchReady != null && !batchReady.isEmpty()) {
+                batches.put(idContest, batchReady);
+            }
+        });
+
+        // Незаписанные пачки возвращаются в состояние комнат и уйдут со следующей выгрузкой
+        if (!writeBatches(batches)) {
+            batches.forEach((idContest, batch) -> {
+                RoomActor actor = actorsByContest.get(idContest);
+                if (actor != null) {
+                    actor.execute(() -> actor.state.restoreWriteBatch(batch));
+                }
+            });
+        }
+    }
+
+    @Override
+    public void evict(Long idContest) {
+        RoomActor actor = actorsByContest.get(idContest);
+        if (actor == null) {
+            return;
+        }
+
+        // Пишем в Redis на исполнителе комнаты: задачи, пришедшие после, увидят evicted и уйдут в новый актор,
+        // который загрузит уже записанное состояние. Если запись не удалась, комната остаётся в памяти
+        CompletableFuture<Boolean> evicted = new CompletableFuture<>();
+        actor.execute(() -> {
+            try {
+                if (actor.state.isHydrated() && actor.state.isDirty()) {
+                    RoomState.WriteBatch batch = actor.state.drainWriteBatch();
+                    if (!writeBatches(Map.of(idContest, batch))) {
+                        actor.state.restoreWriteBatch(batch);
+                        evicted.complete(false);
+                        return;
+                    }
+                }
+                actorsByContest.remove(idContest, actor);
+                actor.evicted = true;
+                evicted.complete(true);
+            } finally {
+                evicted.complete(false);
+            }
+        });
+
+        if (evicted.join()) {
+            log.debug("Room {} evicted from in-memory engine", idContest);
+        } else {
+            log.warn("Room {} kept in memory: its changes are not written to Redis yet", idContest);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        actorsByContest.keySet().forEach(this::evict);
+        executorRooms.shutdown();
+        try {
+            if (!executorRooms.awaitTermination(5, TimeUnit.SECONDS)) {
+                executorRooms.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executorRooms.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RoomActor touch(Long idContest) {
+        RoomActor actor = actorsByContest.computeIfAbsent(idContest, id -> new RoomActor(executorRooms));
+        actor.timestampLastAccess = System.currentTimeMillis();
+        return actor;
+    }
+
+    // Выполняет действие на акторе комнаты; если актор успели выгрузить — перенаправляет в новый
+    private void dispatch(Long idContest, RoomActor actor, Consumer<RoomState> action) {
+        actor.execute(() -> {
+            if (actor.evicted) {
+                dispatch(idContest, touch(idContest), action);
+                return;
+            }
+            action.accept(actor.state);
+        });
+    }
+
+    // Загружает состояние комнаты из Redis при первом обращении на этом узле
+    private RoomState hydrated(Long idContest, RoomState state) {
+        if (state.isHydrated()) {
+            return state;
+        }
+
+        participantsRedis.getParticipantNames(idContest).forEach(state::addParticipant);
+
+        stringRedisTemplate.opsForHash().entries(keyProgress(idContest)).forEach((idUser, packed) ->
+                state.restoreProgress(Long.parseLong(idUser.toString()), ProgressCodec.toPacked(packed))
+        );
+        readyRedis.getReadyParticipantIds(idContest).forEach(state::restoreReady);
+        finishRedis.getFinisherIds(idContest).forEach(state::restoreFinish);
+
+        state.markHydrated();
+        return state;
+    }
+
+    // Записывает пачки изменений всех комнат одним pipeline; false — пачки не записаны
+    private boolean writeBatches(Map<Long, RoomState.WriteBatch> batches) {
+        if (batches.isEmpty()) {
+            return true;
+        }
+        final long ttlSeconds = TTL_ROOM.toSeconds();
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                batches.forEach((idContest, batch) -> {
+                    final byte[] keyHashProgress = rawString(keyProgress(idContest));
+                    batch.progressChanged().forEach((idUser, packed) -> connection.hashCommands().hSet(
+                            keyHashProgress, rawString(idUser.toString()), rawString(Long.toString(packed))
+                    ));
+
+                    final byte[] keySetReady = rawString(keyReady(idContest));
+                    batch.idsReadyAdded().forEach(idUser ->
+                            connection.setCommands().sAdd(keySetReady, rawValue(redisTemplate, idUser))
+                    );
+                    batch.idsReadyRemoved().forEach(idUser ->
+                            connection.setCommands().sRem(keySetReady, rawValue(redisTemplate, idUser))
+                    );
+                    if (!batch.idsReadyAdded().isEmpty()) {
+                        connection.keyCommands().expire(keySetReady, ttlSeconds);
+                    }
+
+                    final byte[] keyZSetFinishers = rawString(keyFinishers(idContest));
+                    batch.finishersAdded().forEach((idUser, timestamp) -> connection.zSetCommands().zAdd(
+                            keyZSetFinishers, timestamp, rawString(idUser.toString()), RedisZSetCommands.ZAddArgs.ifNotExists()
+                    ));
+                    if (!batch.finishersAdded().isEmpty()) {
+                        connection.keyCommands().expire(keyZSetFinishers, ttlSeconds);
+                    }
+                });
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            log.error("Write-behind of {} rooms failed, will retry: {}", batches.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Последовательный исполнитель комнаты поверх общего пула: задачи одной комнаты
+     * выполняются строго по очереди, разные комнаты — параллельно.
+     */
+    private static class RoomActor implements Executor {
+
+        private final RoomState state = new RoomState();
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Executor executorShared;
+
+        private volatile boolean evicted;
+        private volatile long timestampLastAccess = System.currentTimeMillis();
+
+        private RoomActor(Executor executorShared) {
+            this.executorShared = executorShared;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executorShared.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.error("Room task failed: {}", e.getMessage());
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!tasks.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
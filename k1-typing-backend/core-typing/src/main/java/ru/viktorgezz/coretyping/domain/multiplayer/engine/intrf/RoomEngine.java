@@ -0,0 +1,36 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.RoomState;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory движок активных комнат.
+ * <p>
+ * Каждая комната обслуживается своим однопоточным (последовательным) исполнителем,
+ * поэтому {@link RoomState} изменяется без блокировок. При первом обращении состояние загружается из Redis,
+ * изменения записываются в Redis пачками по таймеру (write-behind).
+ */
+public interface RoomEngine {
+
+    /**
+     * Выполняет действие на исполнителе комнаты и ждёт результат.
+     */
+    <T> T call(Long idContest, Function<RoomState, T> action);
+
+    /**
+     * Ставит изменение в очередь исполнителя комнаты без ожидания.
+     */
+    void execute(Long idContest, Consumer<RoomState> mutation);
+
+    /**
+     * Записывает накопленные изменения всех комнат в Redis одним pipeline и выгружает простаивающие комнаты.
+     */
+    void flushDirtyRooms();
+
+    /**
+     * Записывает изменения комнаты в Redis и выгружает её из памяти.
+     */
+    void evict(Long idContest);
+}
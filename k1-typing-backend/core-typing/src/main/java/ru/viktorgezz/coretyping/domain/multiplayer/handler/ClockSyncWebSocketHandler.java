@@ -0,0 +1,26 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.handler;
+
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.TimeSyncMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.TimeSyncRqMessage;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.QUEUE_TIME;
+
+/**
+ * Синхронизация часов клиента с сервером для протокола старта scheduled.
+ * Клиент отправляет несколько запросов на /app/time и берёт смещение из ответа с наименьшей задержкой.
+ */
+@Controller
+public class ClockSyncWebSocketHandler {
+
+    @MessageMapping("/time")
+    @SendToUser(destinations = QUEUE_TIME, broadcast = false)
+    public TimeSyncMessage handleTimeSync(@Payload TimeSyncRqMessage message) {
+        final long timestampReceived = System.currentTimeMillis();
+
+        return new TimeSyncMessage(message.clientSentTimestamp(), timestampReceived, System.currentTimeMillis());
+    }
+}
@@ -5,10 +5,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestFinishedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.FinishMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ProgressUpdateMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.RoomEventsReplayMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestWebSocketService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomEventBroadcastService;
 
 import java.security.Principal;
 
@@ -20,6 +24,7 @@ import static ru.viktorgezz.coretyping.util.WebSocketUserUtils.getUserFromPrinci
 public class ContestWebSocketHandler {
 
     private final ContestWebSocketService contestWebSocketService;
+    private final RoomEventBroadcastService roomEventBroadcastService;
 
     @MessageMapping("/contest/{idContest}/progress")
     public void handleProgress(
@@ -55,4 +60,22 @@ public class ContestWebSocketHandler {
 
         contestWebSocketService.processReady(idContest, idUser);
     }
+
+    // Итоги для переподключившегося клиента: ответ приходит один раз в подписку /app/contest/{id}/finished,
+    // пока соревнование не завершено — ответа нет, итоги придут в /topic/contest/{id}/finished
+    @SubscribeMapping("/contest/{idContest}/finished")
+    public ContestFinishedMessage handleFinishedSnapshot(@DestinationVariable Long idContest) {
+        return contestWebSocketService.getContestFinished(idContest).orElse(null);
+    }
+
+    // Возобновление после обрыва: клиент заново подписывается на topic комнаты, затем на
+    // /app/contest/{id}/events/{seq} с последним полученным заголовком seq и получает только пропущенные события.
+    // События, пришедшие в topic во время ответа, клиент отбрасывает по seq; при truncated — загружает комнату через REST
+    @SubscribeMapping("/contest/{idContest}/events/{sequenceLast}")
+    public RoomEventsReplayMessage handleResume(
+            @DestinationVariable Long idContest,
+            @DestinationVariable long sequenceLast
+    ) {
+        return roomEventBroadcastService.getMissed(idContest, sequenceLast);
+    }
 }
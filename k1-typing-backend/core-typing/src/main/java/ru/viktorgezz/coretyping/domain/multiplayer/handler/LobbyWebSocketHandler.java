@@ -0,0 +1,31 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.handler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbySnapshotMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.LobbyBroadcastService;
+
+/**
+ * Начальный снимок лобби.
+ * Клиент подписывается на /topic/lobby (или /topic/lobby/{language}) для изменений
+ * и на /app/lobby (или /app/lobby/{language}) — ответ приходит один раз в эту же подписку.
+ */
+@Controller
+@RequiredArgsConstructor
+public class LobbyWebSocketHandler {
+
+    private final LobbyBroadcastService lobbyBroadcastService;
+
+    @SubscribeMapping("/lobby")
+    public LobbySnapshotMessage handleSnapshot() {
+        return lobbyBroadcastService.getSnapshot(null);
+    }
+
+    @SubscribeMapping("/lobby/{language}")
+    public LobbySnapshotMessage handleSnapshotLanguage(@DestinationVariable Language language) {
+        return lobbyBroadcastService.getSnapshot(language);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.ownership;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Неизменяемое кольцо consistent hashing: комната закрепляется за ближайшим по часовой стрелке
+ * виртуальным узлом. При добавлении или уходе узла переезжает только ~1/N комнат.
+ */
+public class ConsistentHashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final NavigableMap<Long, String> ring;
+    private final Set<String> nodes;
+
+    private ConsistentHashRing(NavigableMap<Long, String> ring, Set<String> nodes) {
+        this.ring = ring;
+        this.nodes = nodes;
+    }
+
+    public static ConsistentHashRing of(Collection<String> nodes, int virtualNodes) {
+        NavigableMap<Long, String> ring = new TreeMap<>();
+        for (String idNode : nodes) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                ring.put(hash(idNode + "#" + replica), idNode);
+            }
+        }
+        return new ConsistentHashRing(ring, Set.copyOf(nodes));
+    }
+
+    public Optional<String> nodeFor(long idContest) {
+        if (ring.isEmpty()) {
+            return Optional.empty();
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(idContest));
+        return Optional.of((entry != null ? entry : ring.firstEntry()).getValue());
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    // FNV-1a с финальным перемешиванием: равномерное распределение виртуальных узлов
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // Финализатор MurmurHash3 (fmix64)
+    private static long mix(long value) {
+        long mixed = value;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xff51afd7ed558ccdL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xc4ceb9fe1a85ec53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+}
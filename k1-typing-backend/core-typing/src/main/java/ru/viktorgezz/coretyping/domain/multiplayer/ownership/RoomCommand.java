@@ -0,0 +1,8 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.ownership;
+
+/**
+ * Команды, которые выполняет только узел-владелец комнаты.
+ */
+public enum RoomCommand {
+    START_COUNTDOWN
+}
@@ -0,0 +1,58 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.ownership;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestSchedulerService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestWebSocketService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomOwnershipService;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Принимает команды комнат, пересланные другими узлами; выполняет только владелец комнаты.
+ * Формат сообщения: {@code <RoomCommand>:<idContest>}.
+ * <p>
+ * Pub/sub не подтверждает доставку: запуск отсчёта сохранён в расписании, и владелец лишь забирает его.
+ * Если команда не дошла, отсчёт по истечении срока запустит другой узел.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "multiplayer.cluster", name = "enabled", havingValue = "true")
+public class RoomCommandListener implements MessageListener {
+
+    private final RoomOwnershipService roomOwnershipService;
+    private final ContestWebSocketService contestWebSocketService;
+    private final ContestSchedulerService contestSchedulerService;
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        final String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        final int separator = body.lastIndexOf(':');
+
+        try {
+            RoomCommand command = RoomCommand.valueOf(body.substring(0, separator));
+            Long idContest = Long.parseLong(body.substring(separator + 1));
+
+            if (!roomOwnershipService.isOwnedLocally(idContest)) {
+                log.debug("Room command '{}' skipped: contest is not owned by this node", body);
+                return;
+            }
+
+            switch (command) {
+                case START_COUNTDOWN -> {
+                    if (contestSchedulerService.claimCountdownStart(idContest)) {
+                        contestWebSocketService.startCountdown(idContest);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Room command '{}' failed: {}", body, e.getMessage());
+        }
+    }
+}
@@ -1,35 +1,52 @@
 package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.FinishService;
-import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
 import ru.viktorgezz.statistics_result_module.result_item.Place;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyFinishers;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyParticipants;
 
 @Service
 @RequiredArgsConstructor
 public class FinishServiceImpl implements FinishService {
 
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_REGISTER_FINISH = RedisScript.of(
+            new ClassPathResource("redis-scripts/register_finish.lua"), List.class
+    );
+
     private final RedisTemplate<String, Object> redisTemplate;
-    private final ParticipantsService participantsService;
+    private final StringRedisTemplate stringRedisTemplate;
 
     @Override
-    public Place registerFinish(Long idContest, Long idUser) {
-        final String keySortedFinishers = keyFinishers(idContest);
-        double timestampFinish = System.currentTimeMillis();
+    public FinishRegistration registerFinish(Long idContest, Long idUser) {
+        List<?> resultScript = stringRedisTemplate.execute(
+                SCRIPT_REGISTER_FINISH,
+                List.of(keyFinishers(idContest), keyParticipants(idContest)),
+                idUser.toString(),
+                Long.toString(System.currentTimeMillis()),
+                Long.toString(TTL_ROOM.toSeconds())
+        );
 
-        redisTemplate.opsForZSet().add(keySortedFinishers, idUser, timestampFinish);
-        redisTemplate.expire(keySortedFinishers, TTL_ROOM);
+        if (resultScript == null || resultScript.size() < 2) {
+            return new FinishRegistration(Place.WITHOUT_PLACE, false);
+        }
 
-        Long rankPosition = redisTemplate.opsForZSet().rank(keySortedFinishers, idUser);
+        Long rankPosition = (Long) resultScript.get(0);
+        boolean isContestComplete = Long.valueOf(1L).equals(resultScript.get(1));
 
-        return determinePlace(rankPosition);
+        return new FinishRegistration(FinishService.placeOfRank(rankPosition), isContestComplete);
     }
 
     @Override
@@ -39,20 +56,19 @@ public class FinishServiceImpl implements FinishService {
 
     @Override
     public boolean isContestComplete(Long idContest) {
-        int countParticipants = participantsService.getParticipantsCount(idContest);
+        int countParticipants = Objects.requireNonNullElse(
+                        redisTemplate.opsForSet().size(keyParticipants(idContest)), 0L)
+                .intValue();
         return getFinishersCount(idContest) >= countParticipants && countParticipants > 0;
     }
 
-    private Place determinePlace(Long rankPosition) {
-        if (rankPosition == null) {
-            return Place.WITHOUT_PLACE;
-        }
-
-        return switch (rankPosition.intValue()) {
-            case 0 -> Place.FIRST;
-            case 1 -> Place.SECOND;
-            case 2 -> Place.THIRD;
-            default -> Place.WITHOUT_PLACE;
-        };
+    @Override
+    public List<Long> getFinisherIds(Long idContest) {
+        return Objects.requireNonNullElse(
+                        stringRedisTemplate.opsForZSet().range(keyFinishers(idContest), 0, -1), Set.<String>of()
+                )
+                .stream()
+                .map(Long::parseLong)
+                .toList();
     }
 }
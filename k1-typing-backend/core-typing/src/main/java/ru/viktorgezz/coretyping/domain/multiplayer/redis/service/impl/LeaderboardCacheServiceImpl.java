@@ -0,0 +1,52 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestFinishedMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LeaderboardCacheService;
+
+import java.util.Optional;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyLeaderboard;
+
+// Хранится тот же JSON, что уходит клиентам, без @class: переподключение отдаёт его без пересчёта
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardCacheServiceImpl implements LeaderboardCacheService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void save(Long idContest, ContestFinishedMessage message) {
+        try {
+            stringRedisTemplate.opsForValue().set(
+                    keyLeaderboard(idContest), objectMapper.writeValueAsString(message), TTL_ROOM
+            );
+        } catch (Exception e) {
+            // Итоги уже разосланы; без кэша переподключившийся клиент их просто не получит
+            log.error("Contest {}: leaderboard cache failed: {}", idContest, e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<ContestFinishedMessage> find(Long idContest) {
+        String json = stringRedisTemplate.opsForValue().get(keyLeaderboard(idContest));
+        if (json == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(objectMapper.readValue(json, ContestFinishedMessage.class));
+        } catch (JsonProcessingException e) {
+            log.error("Contest {}: cached leaderboard is unreadable: {}", idContest, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
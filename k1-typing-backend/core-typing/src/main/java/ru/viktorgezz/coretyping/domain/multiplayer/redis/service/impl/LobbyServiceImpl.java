@@ -0,0 +1,205 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_LOBBY_INDEX;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_LOBBY_META;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_LOBBY_OCCUPANCY;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyLobbyIndex;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LobbyServiceImpl implements LobbyService {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_OCCUPANCY = RedisScript.of(
+            new ClassPathResource("redis-scripts/lobby_occupancy.lua"), List.class
+    );
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_PAGE = RedisScript.of(
+            new ClassPathResource("redis-scripts/lobby_page.lua"), List.class
+    );
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_PRUNE = RedisScript.of(
+            new ClassPathResource("redis-scripts/lobby_prune.lua"), List.class
+    );
+
+    private static final long OCCUPANCY_BASE = 65_536L;
+    private static final char META_SEPARATOR = ':';
+    private static final int FIELDS_PER_ROOM = 4;
+
+    private static final List<String> KEYS_LOBBY = List.of(KEY_LOBBY_INDEX, KEY_LOBBY_OCCUPANCY, KEY_LOBBY_META);
+
+    // Скриптам, меняющим индекс, передаются и индексы всех языков: комната есть только в индексе своего языка
+    private static final List<String> KEYS_LOBBY_WITH_LANGUAGES = concatLanguageIndexes(KEYS_LOBBY);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // Данные комнаты пишутся раньше индекса: выборка не увидит комнату без заполненности и названия
+    @Override
+    public void addRoom(
+            Long idContest,
+            String titleExercise,
+            Language language,
+            int participantsCount,
+            int participantsMax,
+            LocalDateTime createdAt
+    ) {
+        final byte[] fieldContest = rawString(idContest.toString());
+        final long timestampCreated = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        final double score = participantsCount >= participantsMax ? -timestampCreated : timestampCreated;
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hSet(
+                    rawString(KEY_LOBBY_OCCUPANCY),
+                    fieldContest,
+                    rawString(Long.toString(participantsCount * OCCUPANCY_BASE + participantsMax))
+            );
+            connection.hashCommands().hSet(
+                    rawString(KEY_LOBBY_META),
+                    fieldContest,
+                    rawString(language.name() + META_SEPARATOR + titleExercise)
+            );
+            connection.zSetCommands().zAdd(rawString(KEY_LOBBY_INDEX), score, fieldContest);
+            connection.zSetCommands().zAdd(rawString(keyLobbyIndex(language.name())), score, fieldContest);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<AvailableRoomRsDto> updateOccupancy(Long idContest, int delta) {
+        List<?> resultScript = stringRedisTemplate.execute(
+                SCRIPT_OCCUPANCY,
+                KEYS_LOBBY_WITH_LANGUAGES,
+                idContest.toString(),
+                Integer.toString(delta)
+        );
+        if (resultScript == null || resultScript.size() < 3) {
+            return Optional.empty();
+        }
+
+        return Optional.of(toAvailableRoom(
+                idContest.toString(),
+                resultScript.get(1).toString(),
+                resultScript.get(0).toString(),
+                resultScript.get(2).toString()
+        ));
+    }
+
+    // Сначала индекс: комната сразу пропадает из выборки
+    @Override
+    public void removeRoom(Long idContest) {
+        final byte[] fieldContest = rawString(idContest.toString());
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zRem(rawString(KEY_LOBBY_INDEX), fieldContest);
+            for (Language language : Language.values()) {
+                connection.zSetCommands().zRem(rawString(keyLobbyIndex(language.name())), fieldContest);
+            }
+            connection.hashCommands().hDel(rawString(KEY_LOBBY_OCCUPANCY), fieldContest);
+            connection.hashCommands().hDel(rawString(KEY_LOBBY_META), fieldContest);
+            return null;
+        });
+    }
+
+    @Override
+    public LobbyPage getRooms(long offset, int count) {
+        return getPage(KEYS_LOBBY, offset, count);
+    }
+
+    @Override
+    public LobbyPage getRooms(Language language, long offset, int count) {
+        return getPage(List.of(keyLobbyIndex(language.name()), KEY_LOBBY_OCCUPANCY, KEY_LOBBY_META), offset, count);
+    }
+
+    private LobbyPage getPage(List<String> keys, long offset, int count) {
+        List<?> resultScript = Objects.requireNonNullElse(
+                stringRedisTemplate.execute(
+                        SCRIPT_PAGE,
+                        keys,
+                        Long.toString(offset),
+                        Integer.toString(count)
+                ),
+                List.of()
+        );
+        if (resultScript.isEmpty()) {
+            return new LobbyPage(List.of(), 0);
+        }
+
+        List<AvailableRoomRsDto> rooms = new ArrayList<>((resultScript.size() - 1) / FIELDS_PER_ROOM);
+        for (int i = 1; i + FIELDS_PER_ROOM - 1 < resultScript.size(); i += FIELDS_PER_ROOM) {
+            rooms.add(toAvailableRoom(
+                    resultScript.get(i).toString(),
+                    resultScript.get(i + 1).toString(),
+                    resultScript.get(i + 2).toString(),
+                    resultScript.get(i + 3).toString()
+            ));
+        }
+        return new LobbyPage(rooms, (Long) resultScript.getFirst());
+    }
+
+    @Override
+    public List<Long> pruneExpired() {
+        final long timestampCutoff = System.currentTimeMillis() - TTL_ROOM.toMillis();
+        List<?> idsPruned = Objects.requireNonNullElse(
+                stringRedisTemplate.execute(SCRIPT_PRUNE, KEYS_LOBBY_WITH_LANGUAGES, Long.toString(timestampCutoff)),
+                List.of()
+        );
+
+        if (!idsPruned.isEmpty()) {
+            log.debug("Pruned {} expired rooms from lobby", idsPruned.size());
+        }
+        return idsPruned.stream()
+                .map(idContest -> Long.parseLong(idContest.toString()))
+                .toList();
+    }
+
+    private static List<String> concatLanguageIndexes(List<String> keys) {
+        List<String> keysWithLanguages = new ArrayList<>(keys);
+        Arrays.stream(Language.values()).forEach(language -> keysWithLanguages.add(keyLobbyIndex(language.name())));
+        return List.copyOf(keysWithLanguages);
+    }
+
+    private static AvailableRoomRsDto toAvailableRoom(
+            String idContest,
+            String timestampCreated,
+            String occupancy,
+            String meta
+    ) {
+        final long occupancyPacked = Long.parseLong(occupancy);
+        final int indexSeparator = meta.indexOf(META_SEPARATOR);
+
+        return new AvailableRoomRsDto(
+                Long.parseLong(idContest),
+                indexSeparator < 0 ? "" : meta.substring(indexSeparator + 1),
+                indexSeparator < 0 ? null : Language.valueOf(meta.substring(0, indexSeparator)),
+                (int) (occupancyPacked / OCCUPANCY_BASE),
+                (int) (occupancyPacked % OCCUPANCY_BASE),
+                LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli((long) Double.parseDouble(timestampCreated)),
+                        ZoneId.systemDefault()
+                )
+        );
+    }
+}
@@ -0,0 +1,185 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.MatchmakingQueueService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_MATCHMAKING_TICKETS;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyMatchmakingMatched;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyMatchmakingRating;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyMatchmakingWaiting;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+
+@Service
+@RequiredArgsConstructor
+public class MatchmakingQueueServiceImpl implements MatchmakingQueueService {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_MATCH = RedisScript.of(
+            new ClassPathResource("redis-scripts/matchmaking_match.lua"), List.class
+    );
+
+    private static final char TICKET_SEPARATOR = ':';
+    private static final int FIELDS_PER_PLAYER = 4;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // Очереди других языков очищаются тем же pipeline: игрок ждёт только в одной очереди
+    @Override
+    public void enqueue(Long idUser, String username, Language language, double rating) {
+        final byte[] member = rawString(idUser.toString());
+        final long timestampNow = System.currentTimeMillis();
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Language languageOther : Language.values()) {
+                if (languageOther != language) {
+                    connection.zSetCommands().zRem(rawString(keyMatchmakingRating(languageOther.name())), member);
+                    connection.zSetCommands().zRem(rawString(keyMatchmakingWaiting(languageOther.name())), member);
+                }
+            }
+            connection.zSetCommands().zAdd(rawString(keyMatchmakingRating(language.name())), rating, member);
+            connection.zSetCommands().zAdd(
+                    rawString(keyMatchmakingWaiting(language.name())),
+                    timestampNow,
+                    member,
+                    RedisZSetCommands.ZAddArgs.ifNotExists()
+            );
+            connection.hashCommands().hSet(
+                    rawString(KEY_MATCHMAKING_TICKETS),
+                    member,
+                    rawString(language.name() + TICKET_SEPARATOR + username)
+            );
+            connection.keyCommands().del(rawString(keyMatchmakingMatched(idUser)));
+            return null;
+        });
+    }
+
+    @Override
+    public void cancel(Long idUser) {
+        final byte[] member = rawString(idUser.toString());
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Language language : Language.values()) {
+                connection.zSetCommands().zRem(rawString(keyMatchmakingRating(language.name())), member);
+                connection.zSetCommands().zRem(rawString(keyMatchmakingWaiting(language.name())), member);
+            }
+            connection.hashCommands().hDel(rawString(KEY_MATCHMAKING_TICKETS), member);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Language> getQueuedLanguage(Long idUser) {
+        Object ticket = stringRedisTemplate.opsForHash().get(KEY_MATCHMAKING_TICKETS, idUser.toString());
+        if (ticket == null) {
+            return Optional.empty();
+        }
+        String ticketRaw = ticket.toString();
+        return Optional.of(Language.valueOf(ticketRaw.substring(0, ticketRaw.indexOf(TICKET_SEPARATOR))));
+    }
+
+    @Override
+    public Map<Long, Long> getOldestWaiting(Language language, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> entries = Objects.requireNonNullElse(
+                stringRedisTemplate.opsForZSet().rangeWithScores(keyMatchmakingWaiting(language.name()), 0, limit - 1),
+                Set.of()
+        );
+
+        Map<Long, Long> waitingByUser = new LinkedHashMap<>();
+        entries.forEach(entry -> waitingByUser.put(
+                Long.parseLong(Objects.requireNonNull(entry.getValue())),
+                Objects.requireNonNull(entry.getScore()).longValue()
+        ));
+        return waitingByUser;
+    }
+
+    @Override
+    public List<QueuedPlayer> takeGroup(Language language, Long idAnchor, double window, int roomSize, int minSize) {
+        List<?> resultScript = Objects.requireNonNullElse(
+                stringRedisTemplate.execute(
+                        SCRIPT_MATCH,
+                        List.of(
+                                keyMatchmakingRating(language.name()),
+                                keyMatchmakingWaiting(language.name()),
+                                KEY_MATCHMAKING_TICKETS
+                        ),
+                        idAnchor.toString(),
+                        Double.toString(window),
+                        Integer.toString(roomSize),
+                        Integer.toString(minSize)
+                ),
+                List.of()
+        );
+
+        List<QueuedPlayer> group = new ArrayList<>(resultScript.size() / FIELDS_PER_PLAYER);
+        for (int i = 0; i + FIELDS_PER_PLAYER - 1 < resultScript.size(); i += FIELDS_PER_PLAYER) {
+            String ticket = resultScript.get(i + 1).toString();
+            group.add(new QueuedPlayer(
+                    Long.parseLong(resultScript.get(i).toString()),
+                    ticket.substring(ticket.indexOf(TICKET_SEPARATOR) + 1),
+                    Double.parseDouble(resultScript.get(i + 2).toString()),
+                    (long) Double.parseDouble(resultScript.get(i + 3).toString())
+            ));
+        }
+        return group;
+    }
+
+    // Результат живёт не дольше комнаты: у каждого игрока свой ключ, следующий подбор не продлевает чужие
+    // Время ожидания перезаписывается исходным: игрок не теряет накопленное расширение окна и место в очереди
+    @Override
+    public void requeue(Language language, List<QueuedPlayer> players) {
+        final byte[] keyRating = rawString(keyMatchmakingRating(language.name()));
+        final byte[] keyWaiting = rawString(keyMatchmakingWaiting(language.name()));
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            players.forEach(player -> {
+                final byte[] member = rawString(player.idUser().toString());
+                connection.zSetCommands().zAdd(keyRating, player.rating(), member);
+                connection.zSetCommands().zAdd(keyWaiting, player.timestampEnqueued(), member);
+                connection.hashCommands().hSet(
+                        rawString(KEY_MATCHMAKING_TICKETS),
+                        member,
+                        rawString(language.name() + TICKET_SEPARATOR + player.username())
+                );
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public void saveMatched(List<Long> idsUser, Long idContest) {
+        final byte[] valueContest = rawString(idContest.toString());
+        final Expiration expiration = Expiration.from(TTL_ROOM);
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            idsUser.forEach(idUser -> connection.stringCommands().set(
+                    rawString(keyMatchmakingMatched(idUser)), valueContest, expiration, RedisStringCommands.SetOption.upsert()
+            ));
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Long> getMatchedContest(Long idUser) {
+        return Optional.ofNullable(stringRedisTemplate.opsForValue().get(keyMatchmakingMatched(idUser)))
+                .map(Long::parseLong);
+    }
+}
@@ -3,25 +3,25 @@ package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyParticipants;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyProgress;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyRanking;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyUsernames;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawValue;
 
-import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
 
 @Slf4j
 @Service
@@ -30,37 +30,43 @@ public class ParticipantServiceImpl implements ParticipantsService {
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final RoomService roomService;
-    private final ObjectMapper objectMapper;
 
+    // Все изменения комнаты при входе отправляются одним pipeline: один round trip вместо шести
     @Override
     public void addParticipant(Long idContest, Long idUser, String username) {
-        final String keySetParticipants = keyParticipants(idContest);
-        final String keyHashUsernames = keyUsernames(idContest);
-        final String keyHashProgress = keyProgress(idContest);
-
-        // Используем String для надёжной сериализации в Set
-        redisTemplate.opsForSet().add(keySetParticipants, idUser.toString());
-        redisTemplate.opsForHash().put(keyHashUsernames, idUser.toString(), username);
-
-        // Инициализируем прогресс с нулевыми значениями
-        try {
-            UserProgressData initialProgress = new UserProgressData(0, 0, BigDecimal.ZERO);
-            String jsonProgress = objectMapper.writeValueAsString(initialProgress);
-            redisTemplate.opsForHash().put(keyHashProgress, idUser.toString(), jsonProgress);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize initial progress for user {} in contest {}", idUser, idContest, e);
-        }
-
-        redisTemplate.expire(keySetParticipants, TTL_ROOM);
-        redisTemplate.expire(keyHashUsernames, TTL_ROOM);
-        redisTemplate.expire(keyHashProgress, TTL_ROOM);
+        final byte[] keySetParticipants = rawString(keyParticipants(idContest));
+        final byte[] keyHashUsernames = rawString(keyUsernames(idContest));
+        final byte[] keyHashProgress = rawString(keyProgress(idContest));
+        final byte[] fieldUser = rawString(idUser.toString());
+        final long ttlSeconds = TTL_ROOM.toSeconds();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            // Используем String для надёжной сериализации в Set
+            connection.setCommands().sAdd(keySetParticipants, rawValue(redisTemplate, idUser.toString()));
+            connection.hashCommands().hSet(keyHashUsernames, fieldUser, rawValue(redisTemplate, username));
+
+            // Инициализируем прогресс с нулевыми значениями (упакованное число, см. ProgressCodec)
+            connection.hashCommands().hSet(keyHashProgress, fieldUser, rawString(Long.toString(ProgressCodec.PACKED_ZERO)));
+
+            connection.keyCommands().expire(keySetParticipants, ttlSeconds);
+            connection.keyCommands().expire(keyHashUsernames, ttlSeconds);
+            connection.keyCommands().expire(keyHashProgress, ttlSeconds);
+            return null;
+        });
     }
 
+    // Вышедший участник убирается и из рейтинга большой комнаты: места в кадрах считаются по рейтингу
     @Override
     public void removeParticipant(Long idContest, Long idUser) {
-        redisTemplate.opsForSet().remove(keyParticipants(idContest), idUser.toString());
-        redisTemplate.opsForHash().delete(keyUsernames(idContest), idUser.toString());
-        redisTemplate.opsForHash().delete(keyProgress(idContest), idUser.toString());
+        final byte[] fieldUser = rawString(idUser.toString());
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.setCommands().sRem(rawString(keyParticipants(idContest)), rawValue(redisTemplate, idUser.toString()));
+            connection.hashCommands().hDel(rawString(keyUsernames(idContest)), fieldUser);
+            connection.hashCommands().hDel(rawString(keyProgress(idContest)), fieldUser);
+            connection.zSetCommands().zRem(rawString(keyRanking(idContest)), fieldUser);
+            return null;
+        });
     }
 
     @Override
@@ -0,0 +1,100 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressRankingService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyRanking;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+
+@Service
+@RequiredArgsConstructor
+public class ProgressRankingServiceImpl implements ProgressRankingService {
+
+    // Прогресс важнее скорости: при равном проценте выше тот, кто печатает быстрее
+    private static final long SCORE_PROGRESS_WEIGHT = 100_000;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_VIEW = RedisScript.of(
+            new ClassPathResource("redis-scripts/ranking_view.lua"), List.class
+    );
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public void updateScores(Long idContest, Map<Long, UserProgressData> progressChanged) {
+        if (progressChanged.isEmpty()) {
+            return;
+        }
+        final byte[] keyZSetRanking = rawString(keyRanking(idContest));
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            progressChanged.forEach((idUser, progressData) -> connection.zSetCommands().zAdd(
+                    keyZSetRanking, score(progressData), rawString(idUser.toString())
+            ));
+            connection.keyCommands().expire(keyZSetRanking, TTL_ROOM.toSeconds());
+            return null;
+        });
+    }
+
+    @Override
+    public RankingView getRankingView(Long idContest, int topK, int neighbours, Collection<Long> idsUser) {
+        List<String> args = new ArrayList<>(idsUser.size() + 2);
+        args.add(Integer.toString(topK));
+        args.add(Integer.toString(neighbours));
+        idsUser.forEach(idUser -> args.add(idUser.toString()));
+
+        List<?> resultScript = Objects.requireNonNullElse(
+                stringRedisTemplate.execute(SCRIPT_VIEW, List.of(keyRanking(idContest)), args.toArray()),
+                List.of()
+        );
+        if (resultScript.size() < 2) {
+            return new RankingView(0, List.of(), Map.of());
+        }
+
+        final int countLeaders = toInt(resultScript.get(1));
+        int index = 2;
+        List<Long> idsLeaders = toIds(resultScript, index, countLeaders);
+        index += countLeaders;
+
+        Map<Long, RankWindow> windowsByUser = new HashMap<>();
+        while (index + 2 < resultScript.size()) {
+            final Long idUser = Long.parseLong(resultScript.get(index).toString());
+            final int rankFirst = toInt(resultScript.get(index + 1));
+            final int countWindow = toInt(resultScript.get(index + 2));
+            index += 3;
+            windowsByUser.put(idUser, new RankWindow(rankFirst, toIds(resultScript, index, countWindow)));
+            index += countWindow;
+        }
+        return new RankingView(toInt(resultScript.getFirst()), idsLeaders, windowsByUser);
+    }
+
+    private static List<Long> toIds(List<?> resultScript, int from, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            ids.add(Long.parseLong(resultScript.get(i).toString()));
+        }
+        return ids;
+    }
+
+    private static int toInt(Object valueRaw) {
+        return ((Number) valueRaw).intValue();
+    }
+
+    private static double score(UserProgressData progressData) {
+        return (double) progressData.progress() * SCORE_PROGRESS_WEIGHT + Math.min(progressData.speed(), SCORE_PROGRESS_WEIGHT - 1);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ResultBufferService;
+import ru.viktorgezz.statistics_result_module.result_item.Place;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_RESULTS_PENDING_INDEX;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyResults;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyResultsPending;
+
+@Service
+@RequiredArgsConstructor
+public class ResultBufferServiceImpl implements ResultBufferService {
+
+    private static final RedisScript<Long> SCRIPT_ADD = RedisScript.of(
+            new ClassPathResource("redis-scripts/results_add.lua"), Long.class
+    );
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_TAKE_PENDING = RedisScript.of(
+            new ClassPathResource("redis-scripts/results_take_pending.lua"), List.class
+    );
+
+    private static final String SEPARATOR = ":";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // Индекс в другом слоте кластера, поэтому обновляется отдельной командой после скрипта комнаты
+    @Override
+    public boolean addResult(Long idContest, FinishedResult result) {
+        Long added = stringRedisTemplate.execute(
+                SCRIPT_ADD,
+                List.of(keyResults(idContest), keyResultsPending(idContest)),
+                result.idUser().toString(),
+                encode(result),
+                Long.toString(TTL_ROOM.toSeconds())
+        );
+        if (!Long.valueOf(1L).equals(added)) {
+            return false;
+        }
+
+        stringRedisTemplate.opsForZSet().addIfAbsent(
+                KEY_RESULTS_PENDING_INDEX, idContest.toString(), System.currentTimeMillis()
+        );
+        return true;
+    }
+
+    @Override
+    public List<FinishedResult> getResults(Long idContest) {
+        Map<Object, Object> results = stringRedisTemplate.opsForHash().entries(keyResults(idContest));
+
+        List<FinishedResult> resultsDecoded = new ArrayList<>(results.size());
+        results.forEach((idUser, encoded) ->
+                resultsDecoded.add(decode(Long.parseLong(idUser.toString()), encoded.toString()))
+        );
+        return resultsDecoded;
+    }
+
+    @Override
+    public List<FinishedResult> takePending(Long idContest) {
+        List<?> resultScript = Objects.requireNonNullElse(
+                stringRedisTemplate.execute(
+                        SCRIPT_TAKE_PENDING,
+                        List.of(keyResults(idContest), keyResultsPending(idContest))
+                ),
+                List.of()
+        );
+
+        List<FinishedResult> taken = new ArrayList<>(resultScript.size() / 2);
+        for (int i = 0; i + 1 < resultScript.size(); i += 2) {
+            taken.add(decode(Long.parseLong(resultScript.get(i).toString()), resultScript.get(i + 1).toString()));
+        }
+        return taken;
+    }
+
+    @Override
+    public void restorePending(Long idContest, Collection<Long> idsUser) {
+        if (idsUser.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.opsForSet().add(
+                keyResultsPending(idContest),
+                idsUser.stream().map(Object::toString).toArray(String[]::new)
+        );
+        stringRedisTemplate.opsForZSet().addIfAbsent(
+                KEY_RESULTS_PENDING_INDEX, idContest.toString(), System.currentTimeMillis()
+        );
+    }
+
+    @Override
+    public List<Long> getContestsPendingSince(long timestampBefore, int limit) {
+        Set<String> idsContest = Objects.requireNonNullElse(
+                stringRedisTemplate.opsForZSet().rangeByScore(KEY_RESULTS_PENDING_INDEX, 0, timestampBefore, 0, limit),
+                Set.of()
+        );
+        return idsContest.stream().map(Long::parseLong).toList();
+    }
+
+    @Override
+    public void removeFromPendingIndex(Long idContest) {
+        stringRedisTemplate.opsForZSet().remove(KEY_RESULTS_PENDING_INDEX, idContest.toString());
+    }
+
+    private static String encode(FinishedResult result) {
+        return result.durationSeconds() + SEPARATOR
+                + result.speed() + SEPARATOR
+                + result.accuracy().toPlainString() + SEPARATOR
+                + result.place().name();
+    }
+
+    private static FinishedResult decode(Long idUser, String encoded) {
+        String[] parts = encoded.split(SEPARATOR);
+        return new FinishedResult(
+                idUser,
+                Long.parseLong(parts[0]),
+                Integer.parseInt(parts[1]),
+                new BigDecimal(parts[2]),
+                Place.valueOf(parts[3])
+        );
+    }
+}
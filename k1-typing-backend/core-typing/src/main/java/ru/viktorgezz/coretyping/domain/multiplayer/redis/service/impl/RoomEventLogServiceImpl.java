@@ -0,0 +1,97 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomEventLogService;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyEvents;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyEventsSeq;
+
+@Service
+@RequiredArgsConstructor
+public class RoomEventLogServiceImpl implements RoomEventLogService {
+
+    private static final RedisScript<Long> SCRIPT_APPEND = RedisScript.of(
+            new ClassPathResource("redis-scripts/room_event_append.lua"), Long.class
+    );
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT_REPLAY = RedisScript.of(
+            new ClassPathResource("redis-scripts/room_event_replay.lua"), List.class
+    );
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MultiplayerProperties multiplayerProperties;
+
+    @Override
+    public long append(Long idContest, String destination, String payload) {
+        Long sequence = stringRedisTemplate.execute(
+                SCRIPT_APPEND,
+                List.of(keyEventsSeq(idContest), keyEvents(idContest)),
+                destination,
+                payload,
+                Integer.toString(multiplayerProperties.getEvents().getLogMaxLength()),
+                Long.toString(TTL_ROOM.toSeconds())
+        );
+        return Objects.requireNonNull(sequence);
+    }
+
+    // Журнал отдаётся не длиннее его собственного предела: пропустившему больше всё равно нужна полная загрузка
+    @Override
+    public EventsReplay getSince(Long idContest, long sequenceLast) {
+        final int countMax = multiplayerProperties.getEvents().getLogMaxLength();
+        List<?> resultScript = Objects.requireNonNullElse(
+                stringRedisTemplate.execute(
+                        SCRIPT_REPLAY,
+                        List.of(keyEventsSeq(idContest), keyEvents(idContest)),
+                        Long.toString(sequenceLast),
+                        Integer.toString(countMax)
+                ),
+                List.of()
+        );
+        if (resultScript.size() < 2) {
+            return new EventsReplay(0, sequenceLast > 0, List.of());
+        }
+
+        final long sequenceCurrent = ((Number) resultScript.get(0)).longValue();
+        final long sequenceOldest = ((Number) resultScript.get(1)).longValue();
+
+        List<RoomEvent> events = new ArrayList<>((resultScript.size() - 2) / 3);
+        for (int i = 2; i + 2 < resultScript.size(); i += 3) {
+            events.add(new RoomEvent(
+                    ((Number) resultScript.get(i)).longValue(),
+                    resultScript.get(i + 1).toString(),
+                    resultScript.get(i + 2).toString()
+            ));
+        }
+
+        return new EventsReplay(
+                sequenceCurrent,
+                isTruncated(sequenceLast, sequenceCurrent, sequenceOldest, events.size()),
+                events
+        );
+    }
+
+    // Номер клиента впереди комнаты — журнал истёк вместе с комнатой;
+    // старейшее событие позже следующего ожидаемого или ответ обрезан лимитом — пропуск не восполнить
+    private static boolean isTruncated(long sequenceLast, long sequenceCurrent, long sequenceOldest, int countReturned) {
+        if (sequenceLast > sequenceCurrent) {
+            return true;
+        }
+        if (sequenceLast == sequenceCurrent) {
+            return false;
+        }
+        return sequenceOldest == 0
+                || sequenceOldest > sequenceLast + 1
+                || countReturned < sequenceCurrent - sequenceLast;
+    }
+}
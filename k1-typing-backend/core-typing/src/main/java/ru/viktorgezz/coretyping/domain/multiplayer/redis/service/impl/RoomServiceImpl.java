@@ -1,37 +1,72 @@
 package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.contest.Status;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.*;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawValue;
 
 @Service
 @RequiredArgsConstructor
 public class RoomServiceImpl implements RoomService {
 
+    private static final RedisScript<Long> SCRIPT_STATUS_CAS = RedisScript.of(
+            new ClassPathResource("redis-scripts/room_status_cas.lua"), Long.class
+    );
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
 
+    // HSET всех полей и EXPIRE отправляются одним pipeline
     @Override
     public void createRoom(Long idContest, Long idExercise, int participantsMax) {
-        final String keyRoomInfo = keyInfo(idContest);
-
-        redisTemplate.opsForHash().put(keyRoomInfo, FIELD_EXERCISE_ID, idExercise);
-        redisTemplate.opsForHash().put(keyRoomInfo, FIELD_MAX_PARTICIPANTS, participantsMax);
+        final byte[] keyRoomInfo = rawString(keyInfo(idContest));
+        final Map<byte[], byte[]> fieldsRoomInfo = Map.of(
+                rawString(FIELD_EXERCISE_ID), rawValue(redisTemplate, idExercise),
+                rawString(FIELD_MAX_PARTICIPANTS), rawValue(redisTemplate, participantsMax),
+                rawString(FIELD_STATUS), rawString(Status.CREATED.name())
+        );
 
-        redisTemplate.expire(keyRoomInfo, TTL_ROOM);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hMSet(keyRoomInfo, fieldsRoomInfo);
+            connection.keyCommands().expire(keyRoomInfo, TTL_ROOM.toSeconds());
+            return null;
+        });
     }
 
+    // Один DEL на все ключи комнаты
     @Override
     public void deleteRoom(Long idContest) {
-        redisTemplate.delete(keyInfo(idContest));
-        redisTemplate.delete(keyParticipants(idContest));
-        redisTemplate.delete(keyUsernames(idContest));
-        redisTemplate.delete(keyProgress(idContest));
-        redisTemplate.delete(keyFinishers(idContest));
+        redisTemplate.delete(List.of(
+                keyInfo(idContest),
+                keyParticipants(idContest),
+                keyUsernames(idContest),
+                keyProgress(idContest),
+                keyFinishers(idContest),
+                keyReveal(idContest),
+                keyResults(idContest),
+                keyResultsPending(idContest),
+                keyLeaderboard(idContest),
+                keyEvents(idContest),
+                keyEventsSeq(idContest),
+                keyRanking(idContest)
+        ));
     }
 
     @Override
@@ -48,4 +83,67 @@ public class RoomServiceImpl implements RoomService {
                         .toString()
         );
     }
+
+    @Override
+    public void saveRevealKey(Long idContest, String revealKey) {
+        redisTemplate.opsForValue().set(keyReveal(idContest), revealKey, TTL_ROOM);
+    }
+
+    @Override
+    public Map<Long, String> getRevealKeys(List<Long> idsContest) {
+        List<Object> revealKeys = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            idsContest.forEach(idContest -> connection.stringCommands().get(rawString(keyReveal(idContest))));
+            return null;
+        });
+
+        Map<Long, String> revealKeysByContest = new HashMap<>();
+        for (int i = 0; i < idsContest.size(); i++) {
+            if (revealKeys.get(i) != null) {
+                revealKeysByContest.put(idsContest.get(i), revealKeys.get(i).toString());
+            }
+        }
+        return revealKeysByContest;
+    }
+
+    @Override
+    public Optional<Status> getStatus(Long idContest) {
+        return Optional.ofNullable(stringRedisTemplate.opsForHash().get(keyInfo(idContest), FIELD_STATUS))
+                .map(status -> Status.valueOf(status.toString()));
+    }
+
+    @Override
+    public boolean compareAndSetStatus(Long idContest, Status statusExpected, Status statusNew) {
+        Long resultScript = stringRedisTemplate.execute(
+                SCRIPT_STATUS_CAS,
+                List.of(keyInfo(idContest)),
+                FIELD_STATUS,
+                statusExpected.name(),
+                statusNew.name()
+        );
+        return Long.valueOf(1L).equals(resultScript);
+    }
+
+    // Скрипт отправляется EVAL внутри pipeline: EVALSHA в pipeline не переживёт NOSCRIPT после рестарта Redis
+    @Override
+    public List<Long> compareAndSetStatusAll(List<Long> idsContest, Status statusExpected, Status statusNew) {
+        final byte[] script = rawString(SCRIPT_STATUS_CAS.getScriptAsString());
+        final byte[] fieldStatus = rawString(FIELD_STATUS);
+        final byte[] valueExpected = rawString(statusExpected.name());
+        final byte[] valueNew = rawString(statusNew.name());
+
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            idsContest.forEach(idContest -> connection.scriptingCommands().eval(
+                    script, ReturnType.INTEGER, 1, rawString(keyInfo(idContest)), fieldStatus, valueExpected, valueNew
+            ));
+            return null;
+        });
+
+        List<Long> idsChanged = new ArrayList<>(idsContest.size());
+        for (int i = 0; i < idsContest.size(); i++) {
+            if (Long.valueOf(1L).equals(results.get(i))) {
+                idsChanged.add(idsContest.get(i));
+            }
+        }
+        return idsChanged;
+    }
 }
@@ -0,0 +1,84 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomSnapshotService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.*;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+
+@Service
+@RequiredArgsConstructor
+public class RoomSnapshotServiceImpl implements RoomSnapshotService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    // HMGET лимита и статуса, HGETALL имён и прогресса, SMEMBERS готовых — один pipeline: статус согласован с участниками.
+    // Ключи комнаты в одном hash slot, поэтому в кластере запросы уходят на один узел.
+    // Статус хранится строкой без JSON: значения вне hash читаются строками, hash — сериализаторами шаблона
+    @Override
+    public RoomSnapshot getSnapshot(Long idContest) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hMGet(
+                    rawString(keyInfo(idContest)), rawString(FIELD_MAX_PARTICIPANTS), rawString(FIELD_STATUS)
+            );
+            connection.hashCommands().hGetAll(rawString(keyUsernames(idContest)));
+            connection.setCommands().sMembers(rawString(keyReady(idContest)));
+            connection.hashCommands().hGetAll(rawString(keyProgress(idContest)));
+            return null;
+        }, RedisSerializer.string());
+
+        List<?> infoRaw = results.get(0) instanceof List<?> info ? info : List.of();
+        Object participantsMaxRaw = infoRaw.isEmpty() ? null : infoRaw.get(0);
+        Object statusRaw = infoRaw.size() < 2 ? null : infoRaw.get(1);
+        return new RoomSnapshot(
+                statusRaw == null ? null : Status.valueOf(statusRaw.toString()),
+                participantsMaxRaw == null ? 0 : Integer.parseInt(participantsMaxRaw.toString()),
+                toParticipantNames(results.get(1)),
+                toIdsReady(results.get(2)),
+                toProgressAll(results.get(3))
+        );
+    }
+
+    private static Map<Long, String> toParticipantNames(Object usernamesRaw) {
+        Map<Long, String> names = new HashMap<>();
+        if (usernamesRaw instanceof Map<?, ?> usernames) {
+            usernames.forEach((idUser, username) ->
+                    names.put(Long.parseLong(idUser.toString()), username.toString())
+            );
+        }
+        return names;
+    }
+
+    private static Set<Long> toIdsReady(Object readyRaw) {
+        Set<Long> ids = new HashSet<>();
+        if (readyRaw instanceof Collection<?> ready) {
+            ready.forEach(idUser -> ids.add(Long.parseLong(idUser.toString())));
+        }
+        return ids;
+    }
+
+    // Упакованный прогресс хранится десятичной строкой: шаблон читает её как JSON-число
+    private static Map<Long, UserProgressData> toProgressAll(Object progressRaw) {
+        Map<Long, UserProgressData> progressAll = new HashMap<>();
+        if (progressRaw instanceof Map<?, ?> progress) {
+            progress.forEach((idUser, packed) ->
+                    progressAll.put(Long.parseLong(idUser.toString()), ProgressCodec.unpack(packed))
+            );
+        }
+        return progressAll;
+    }
+}
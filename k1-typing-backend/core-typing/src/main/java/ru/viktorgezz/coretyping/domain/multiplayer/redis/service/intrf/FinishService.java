@@ -2,11 +2,50 @@ package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
 
 import ru.viktorgezz.statistics_result_module.result_item.Place;
 
+import java.util.List;
+
 public interface FinishService {
 
-    Place registerFinish(Long idContest, Long idUser);
+    /**
+     * Атомарно (одним Lua-скриптом) регистрирует финиш, продлевает TTL,
+     * определяет место и проверяет завершение соревнования.
+     */
+    FinishRegistration registerFinish(Long idContest, Long idUser);
 
     int getFinishersCount(Long idContest);
 
     boolean isContestComplete(Long idContest);
+
+    /**
+     * Идентификаторы финишировавших в порядке финиша.
+     */
+    List<Long> getFinisherIds(Long idContest);
+
+    /**
+     * Место по позиции в порядке финиша (0 — первое); null и позиции после третьей — без места.
+     */
+    static Place placeOfRank(Long rankPosition) {
+        if (rankPosition == null) {
+            return Place.WITHOUT_PLACE;
+        }
+
+        return switch (rankPosition.intValue()) {
+            case 0 -> Place.FIRST;
+            case 1 -> Place.SECOND;
+            case 2 -> Place.THIRD;
+            default -> Place.WITHOUT_PLACE;
+        };
+    }
+
+    /**
+     * Результат регистрации финиша.
+     *
+     * @param place           занятое место
+     * @param contestComplete true только для финиша, завершившего соревнование
+     */
+    record FinishRegistration(
+            Place place,
+            boolean contestComplete
+    ) {
+    }
 }
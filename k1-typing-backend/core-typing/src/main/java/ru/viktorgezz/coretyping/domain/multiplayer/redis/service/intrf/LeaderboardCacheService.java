@@ -0,0 +1,18 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestFinishedMessage;
+
+import java.util.Optional;
+
+/**
+ * Итоги завершённого соревнования в Redis на время жизни комнаты.
+ */
+public interface LeaderboardCacheService {
+
+    void save(Long idContest, ContestFinishedMessage message);
+
+    /**
+     * Сохранённые итоги; пусто, если соревнование не завершено или комната истекла.
+     */
+    Optional<ContestFinishedMessage> find(Long idContest);
+}
@@ -0,0 +1,63 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Индекс лобби в Redis: открытые для входа комнаты в порядке создания.
+ * Заполненные комнаты из выборки выпадают, при освобождении места — возвращаются.
+ */
+public interface LobbyService {
+
+    void addRoom(
+            Long idContest,
+            String titleExercise,
+            Language language,
+            int participantsCount,
+            int participantsMax,
+            LocalDateTime createdAt
+    );
+
+    /**
+     * Изменяет число участников на {@code delta} атомарно в Redis; для комнаты не из лобби ничего не делает.
+     *
+     * @param delta +1 при входе участника, -1 при выходе
+     * @return комната с новой заполненностью; пусто, если комнаты нет в лобби
+     */
+    Optional<AvailableRoomRsDto> updateOccupancy(Long idContest, int delta);
+
+    void removeRoom(Long idContest);
+
+    /**
+     * Страница открытых комнат одним Lua-скриптом, без обращения к БД.
+     */
+    LobbyPage getRooms(long offset, int count);
+
+    /**
+     * Страница открытых комнат одного языка по индексу языка; total — все открытые комнаты этого языка.
+     */
+    LobbyPage getRooms(Language language, long offset, int count);
+
+    /**
+     * Удаляет комнаты старше TTL, которые так и не стартовали.
+     *
+     * @return идентификаторы удалённых комнат
+     */
+    List<Long> pruneExpired();
+
+    /**
+     * Страница лобби.
+     *
+     * @param rooms комнаты страницы
+     * @param total всего открытых комнат
+     */
+    record LobbyPage(
+            List<AvailableRoomRsDto> rooms,
+            long total
+    ) {
+    }
+}
@@ -0,0 +1,66 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Очередь подбора соперников в Redis: отдельные skip list по рейтингу и по времени ожидания для каждого языка.
+ */
+public interface MatchmakingQueueService {
+
+    /**
+     * Ставит игрока в очередь языка (повторная постановка обновляет рейтинг и язык, время ожидания сохраняется
+     * только для того же языка) и сбрасывает прошлый результат подбора.
+     */
+    void enqueue(Long idUser, String username, Language language, double rating);
+
+    void cancel(Long idUser);
+
+    /**
+     * Язык, в очереди которого ждёт игрок.
+     */
+    Optional<Language> getQueuedLanguage(Long idUser);
+
+    /**
+     * Дольше всех ожидающие игроки языка: idUser → время постановки в очередь (мс), в порядке ожидания.
+     */
+    Map<Long, Long> getOldestWaiting(Language language, int limit);
+
+    /**
+     * Атомарно забирает из очереди группу ближайших по рейтингу к якорю игроков.
+     *
+     * @return группа вместе с якорем; пусто, если якоря нет в очереди или группа меньше minSize
+     */
+    List<QueuedPlayer> takeGroup(Language language, Long idAnchor, double window, int roomSize, int minSize);
+
+    /**
+     * Возвращает забранных игроков в очередь языка с исходным временем ожидания.
+     */
+    void requeue(Language language, List<QueuedPlayer> players);
+
+    /**
+     * Запоминает подобранную комнату для игроков, узнающих результат запросом статуса.
+     */
+    void saveMatched(List<Long> idsUser, Long idContest);
+
+    Optional<Long> getMatchedContest(Long idUser);
+
+    /**
+     * Игрок, забранный из очереди.
+     *
+     * @param idUser            ID пользователя
+     * @param username          имя пользователя
+     * @param rating            рейтинг подбора
+     * @param timestampEnqueued время постановки в очередь (мс)
+     */
+    record QueuedPlayer(
+            Long idUser,
+            String username,
+            double rating,
+            long timestampEnqueued
+    ) {
+    }
+}
@@ -0,0 +1,56 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Рейтинг участников большой комнаты по прогрессу в Redis sorted set.
+ * <p>
+ * Обновление участника — один ZADD (O(log N)); на тик рассылки читаются только лидеры и окна соседей
+ * клиентов узла одним скриптом, без чтения всего рейтинга.
+ */
+public interface ProgressRankingService {
+
+    /**
+     * Обновляет позиции изменившихся участников одним pipeline.
+     */
+    void updateScores(Long idContest, Map<Long, UserProgressData> progressChanged);
+
+    /**
+     * Лидеры и окна соседей участников одним скриптом: O(log N + K) на лидеров и O(log N + n) на участника.
+     *
+     * @param topK       число лидеров
+     * @param neighbours соседей с каждой стороны от участника
+     * @param idsUser    участники, которым нужно окно
+     */
+    RankingView getRankingView(Long idContest, int topK, int neighbours, Collection<Long> idsUser);
+
+    /**
+     * Часть рейтинга, нужная для кадров клиентов узла.
+     *
+     * @param countRanked   всего участников в рейтинге
+     * @param idsLeaders    лидеры по порядку
+     * @param windowsByUser idUser → окно его соседей, не пересекающееся с лидерами; участников без места нет
+     */
+    record RankingView(
+            int countRanked,
+            List<Long> idsLeaders,
+            Map<Long, RankWindow> windowsByUser
+    ) {
+    }
+
+    /**
+     * Окно рейтинга вокруг участника.
+     *
+     * @param rankFirst место первого участника окна (с 0)
+     * @param idsUser   участники окна по порядку
+     */
+    record RankWindow(
+            int rankFirst,
+            List<Long> idsUser
+    ) {
+    }
+}
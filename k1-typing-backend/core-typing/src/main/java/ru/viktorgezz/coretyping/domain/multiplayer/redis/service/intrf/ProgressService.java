@@ -3,6 +3,7 @@ package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Map;
 
 public interface ProgressService {
@@ -12,4 +13,9 @@ public interface ProgressService {
     Map<Long, UserProgressData> getProgressAll(Long idContest);
 
     UserProgressData getProgressByUser(Long idContest, Long idUser);
+
+    /**
+     * Прогресс указанных участников одним запросом (HMGET); участник без прогресса получает нулевой.
+     */
+    Map<Long, UserProgressData> getProgressByUsers(Long idContest, Collection<Long> idsUser);
 }
@@ -0,0 +1,60 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
+
+import ru.viktorgezz.statistics_result_module.result_item.Place;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Результаты финишировавших в состоянии комнаты в Redis до пачечной записи в PostgreSQL.
+ */
+public interface ResultBufferService {
+
+    /**
+     * Сохраняет результат участника; повторный финиш игнорируется.
+     *
+     * @return true — результат добавлен этим вызовом
+     */
+    boolean addResult(Long idContest, FinishedResult result);
+
+    /**
+     * Все результаты комнаты, включая уже записанные в PostgreSQL.
+     */
+    List<FinishedResult> getResults(Long idContest);
+
+    /**
+     * Атомарно забирает результаты, ещё не записанные в PostgreSQL.
+     */
+    List<FinishedResult> takePending(Long idContest);
+
+    /**
+     * Возвращает результаты в незаписанные после неудачной записи.
+     */
+    void restorePending(Long idContest, Collection<Long> idsUser);
+
+    /**
+     * Комнаты, первый незаписанный результат которых старше заданного момента.
+     */
+    List<Long> getContestsPendingSince(long timestampBefore, int limit);
+
+    void removeFromPendingIndex(Long idContest);
+
+    /**
+     * Результат финишировавшего участника.
+     *
+     * @param idUser          ID пользователя
+     * @param durationSeconds время печати в секундах
+     * @param speed           скорость печати
+     * @param accuracy        точность
+     * @param place           занятое место
+     */
+    record FinishedResult(
+            Long idUser,
+            long durationSeconds,
+            int speed,
+            BigDecimal accuracy,
+            Place place
+    ) {
+    }
+}
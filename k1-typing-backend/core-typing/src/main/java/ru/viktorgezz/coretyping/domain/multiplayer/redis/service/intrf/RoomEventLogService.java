@@ -0,0 +1,50 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
+
+import java.util.List;
+
+/**
+ * Ограниченный журнал событий комнаты в Redis Stream для переподключения клиентов.
+ */
+public interface RoomEventLogService {
+
+    /**
+     * Добавляет событие в журнал комнаты.
+     *
+     * @param payload тело сообщения в JSON
+     * @return номер события в комнате (с 1)
+     */
+    long append(Long idContest, String destination, String payload);
+
+    /**
+     * События после последнего номера, полученного клиентом.
+     */
+    EventsReplay getSince(Long idContest, long sequenceLast);
+
+    /**
+     * Событие журнала.
+     *
+     * @param sequence    номер события
+     * @param destination STOMP destination
+     * @param payload     тело сообщения в JSON
+     */
+    record RoomEvent(
+            long sequence,
+            String destination,
+            String payload
+    ) {
+    }
+
+    /**
+     * Пропущенные клиентом события.
+     *
+     * @param sequenceCurrent номер последнего события комнаты
+     * @param truncated       часть пропущенных событий вытеснена из журнала — нужна полная загрузка комнаты
+     * @param events          пропущенные события по порядку
+     */
+    record EventsReplay(
+            long sequenceCurrent,
+            boolean truncated,
+            List<RoomEvent> events
+    ) {
+    }
+}
@@ -1,10 +1,19 @@
 package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
 
+import ru.viktorgezz.coretyping.domain.contest.Status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * Сервис управления комнатой
  */
 public interface RoomService {
 
+    /**
+     * Создаёт комнату в статусе {@link Status#CREATED}.
+     */
     void createRoom(Long idContest, Long idExercise, int participantsMax);
 
     void deleteRoom(Long idContest);
@@ -12,4 +21,33 @@ public interface RoomService {
     boolean roomExists(Long idContest);
 
     int getParticipantsMax(Long idContest);
+
+    /**
+     * Сохраняет ключ раскрытия текста до старта (переживает смену узла-владельца).
+     */
+    void saveRevealKey(Long idContest, String revealKey);
+
+    /**
+     * Ключи раскрытия пачки комнат одним pipeline; комнаты без ключа в результат не попадают.
+     */
+    Map<Long, String> getRevealKeys(List<Long> idsContest);
+
+    /**
+     * Текущий статус комнаты; пусто, если комнаты в Redis уже нет.
+     */
+    Optional<Status> getStatus(Long idContest);
+
+    /**
+     * Атомарно меняет статус комнаты, только если он равен ожидаемому.
+     *
+     * @return true — статус сменил именно этот вызов
+     */
+    boolean compareAndSetStatus(Long idContest, Status statusExpected, Status statusNew);
+
+    /**
+     * Compare-and-set для пачки комнат одним pipeline.
+     *
+     * @return комнаты, статус которых сменил этот вызов
+     */
+    List<Long> compareAndSetStatusAll(List<Long> idsContest, Status statusExpected, Status statusNew);
 }
@@ -0,0 +1,36 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Снимок изменяемого состояния комнаты за одно обращение к хранилищу.
+ */
+public interface RoomSnapshotService {
+
+    /**
+     * Статус, участники, готовность, прогресс и лимит комнаты одним pipeline.
+     */
+    RoomSnapshot getSnapshot(Long idContest);
+
+    /**
+     * Снимок комнаты.
+     *
+     * @param status           статус комнаты; null, если комнаты нет в Redis
+     * @param participantsMax  максимальное количество участников
+     * @param participantNames idUser → username
+     * @param idsReady         отметившиеся готовыми
+     * @param progressAll      idUser → прогресс; участники без прогресса отсутствуют
+     */
+    record RoomSnapshot(
+            Status status,
+            int participantsMax,
+            Map<Long, String> participantNames,
+            Set<Long> idsReady,
+            Map<Long, UserProgressData> progressAll
+    ) {
+    }
+}
@@ -0,0 +1,102 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.utility;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Упаковка прогресса участника в одно число для хранения в Redis.
+ * <p>
+ * Раскладка (младшие биты справа):
+ * [speed: 32 бита][progress: 8 бит][accuracy в базисных пунктах: 16 бит].
+ * Значение хранится как десятичная строка, которую Redis кодирует в хеше целым числом,
+ * поэтому чтение и запись не требуют Jackson.
+ * <p>
+ * Значения, записанные до перехода на упаковку (JSON, который Jackson-сериализатор хеша обернул
+ * ещё раз в JSON-строку), читаются как прежде: комнаты, идущие во время обновления, не ломаются,
+ * а следующая запись прогресса заменяет старое значение упакованным.
+ */
+public class ProgressCodec {
+    private ProgressCodec() {
+    }
+
+    public static final long PACKED_ZERO = 0L;
+
+    private static final int SHIFT_PROGRESS = 16;
+    private static final int SHIFT_SPEED = 24;
+    private static final long MASK_ACCURACY = 0xFFFFL;
+    private static final long MASK_PROGRESS = 0xFFL;
+    private static final long MASK_SPEED = 0xFFFF_FFFFL;
+    private static final int ACCURACY_SCALE = 2;
+    private static final int ACCURACY_BASIS_POINTS_MAX = 10_000;
+
+    private static final ObjectMapper OBJECT_MAPPER_LEGACY = new ObjectMapper();
+
+    public static long pack(int progressPercent, int speed, BigDecimal accuracy) {
+        long progressBounded = Math.clamp(progressPercent, 0, 100);
+        long speedBounded = Math.max(speed, 0);
+        long accuracyBasisPoints = toBasisPoints(accuracy);
+
+        return (speedBounded << SHIFT_SPEED)
+                | (progressBounded << SHIFT_PROGRESS)
+                | accuracyBasisPoints;
+    }
+
+    public static UserProgressData unpack(long packed) {
+        int accuracyBasisPoints = (int) (packed & MASK_ACCURACY);
+        int progressPercent = (int) ((packed >>> SHIFT_PROGRESS) & MASK_PROGRESS);
+        int speed = (int) ((packed >>> SHIFT_SPEED) & MASK_SPEED);
+
+        return new UserProgressData(
+                progressPercent,
+                speed,
+                BigDecimal.valueOf(accuracyBasisPoints, ACCURACY_SCALE)
+        );
+    }
+
+    public static UserProgressData unpack(Object packedRaw) {
+        return unpack(toPacked(packedRaw));
+    }
+
+    // Значение поля хеша прогресса в упакованном виде; null — нулевой прогресс
+    public static long toPacked(Object packedRaw) {
+        if (packedRaw == null) {
+            return PACKED_ZERO;
+        }
+        final String value = packedRaw.toString();
+        if (!value.isEmpty() && (value.charAt(0) == '"' || value.charAt(0) == '{')) {
+            return packLegacy(value);
+        }
+        return Long.parseLong(value);
+    }
+
+    // Старый формат: {"progress":..,"speed":..,"accuracy":..}, как правило обёрнутый в JSON-строку
+    private static long packLegacy(String value) {
+        try {
+            JsonNode node = OBJECT_MAPPER_LEGACY.readTree(value);
+            if (node.isTextual()) {
+                node = OBJECT_MAPPER_LEGACY.readTree(node.textValue());
+            }
+            return pack(
+                    node.path("progress").asInt(),
+                    node.path("speed").asInt(),
+                    node.hasNonNull("accuracy") ? new BigDecimal(node.get("accuracy").asText()) : null
+            );
+        } catch (JsonProcessingException | NumberFormatException e) {
+            throw new IllegalArgumentException("Unreadable progress value: " + value, e);
+        }
+    }
+
+    private static long toBasisPoints(BigDecimal accuracy) {
+        if (accuracy == null) {
+            return 0;
+        }
+        int basisPoints = accuracy.setScale(ACCURACY_SCALE, RoundingMode.HALF_UP).unscaledValue().intValue();
+        return Math.clamp(basisPoints, 0, ACCURACY_BASIS_POINTS_MAX);
+    }
+}
@@ -6,6 +6,9 @@ import java.time.Duration;
 
 /**
  * Константы и генерация ключей для Redis.
+ * <p>
+ * Идентификатор соревнования обёрнут в hash tag ({@code {id}}): в Redis Cluster все ключи комнаты
+ * попадают в один слот, поэтому Lua-скрипты и многоключевые команды по комнате работают и в кластере.
  */
 public class RedisKeyGenerator {
     private RedisKeyGenerator() {
@@ -13,15 +16,55 @@ public class RedisKeyGenerator {
 
     public static final Duration TTL_ROOM = Duration.ofMinutes(30);
 
-    private static final String KEY_INFO = "contest:%d:info";
-    private static final String KEY_PARTICIPANTS = "contest:%d:participants";
-    private static final String KEY_USERNAMES = "contest:%d:usernames";
-    private static final String KEY_PROGRESS = "contest:%d:progress";
-    private static final String KEY_FINISHERS = "contest:%d:finishers";
-    private static final String KEY_READY = "contest:%d:ready";
+    private static final String KEY_INFO = "contest:{%d}:info";
+    private static final String KEY_PARTICIPANTS = "contest:{%d}:participants";
+    private static final String KEY_USERNAMES = "contest:{%d}:usernames";
+    private static final String KEY_PROGRESS = "contest:{%d}:progress";
+    private static final String KEY_FINISHERS = "contest:{%d}:finishers";
+    private static final String KEY_READY = "contest:{%d}:ready";
+    private static final String KEY_OWNER = "contest:{%d}:owner";
+    private static final String KEY_REVEAL = "contest:{%d}:reveal";
+    // Результаты финишировавших: HASH idUser → "durationSeconds:speed:accuracy:PLACE";
+    // ещё не записанные в PostgreSQL: SET idUser
+    private static final String KEY_RESULTS = "contest:{%d}:results";
+    private static final String KEY_RESULTS_PENDING = "contest:{%d}:results-pending";
+    // Итоговое сообщение завершённого соревнования (JSON) для переподключившихся клиентов
+    private static final String KEY_LEADERBOARD = "contest:{%d}:leaderboard";
+    // Журнал событий комнаты: STREAM с ID записи 0-seq, поля d (destination) и p (payload); счётчик номеров
+    private static final String KEY_EVENTS = "contest:{%d}:events";
+    private static final String KEY_EVENTS_SEQ = "contest:{%d}:events-seq";
+    // Рейтинг большой комнаты по прогрессу: ZSET idUser → progress * 100000 + speed
+    private static final String KEY_RANKING = "contest:{%d}:ranking";
+
+    // Живые узлы: ZSET idNode → время последнего heartbeat; адреса: HASH idNode → адрес
+    public static final String KEY_NODES_ALIVE = "nodes:alive";
+    public static final String KEY_NODES_ADDRESS = "nodes:address";
+
+    // События расписания соревнований: ZSET member → время наступления (мс)
+    public static final String KEY_SCHEDULER_DEADLINES = "scheduler:deadlines";
+
+    // Лобби: ZSET idContest → время создания (мс; у заполненных комнат со знаком минус) — общий и по языку,
+    // HASH idContest → заполненность (participants * 65536 + participantsMax), HASH idContest → "LANGUAGE:title".
+    // Общий hash tag — скрипты лобби работают и в кластере
+    public static final String KEY_LOBBY_INDEX = "lobby:{rooms}:index";
+    private static final String KEY_LOBBY_INDEX_LANGUAGE = "lobby:{rooms}:index:%s";
+    public static final String KEY_LOBBY_OCCUPANCY = "lobby:{rooms}:occupancy";
+    public static final String KEY_LOBBY_META = "lobby:{rooms}:meta";
+
+    // Подбор соперников: ZSET idUser → рейтинг и ZSET idUser → время постановки в очередь (по языку),
+    // HASH idUser → "LANGUAGE:username", STRING idContest подобранной комнаты — у каждого игрока свой ключ со своим TTL
+    private static final String KEY_MATCHMAKING_RATING = "matchmaking:{queue}:rating:%s";
+    private static final String KEY_MATCHMAKING_WAITING = "matchmaking:{queue}:waiting:%s";
+    public static final String KEY_MATCHMAKING_TICKETS = "matchmaking:{queue}:tickets";
+    private static final String KEY_MATCHMAKING_MATCHED = "matchmaking:{queue}:matched:%d";
+
+    // Комнаты с незаписанными результатами: ZSET idContest → время первого незаписанного результата (мс)
+    public static final String KEY_RESULTS_PENDING_INDEX = "results:pending";
 
     public static final String FIELD_EXERCISE_ID = "idExercise";
     public static final String FIELD_MAX_PARTICIPANTS = "participantsMax";
+    // Статус хранится строкой без JSON-сериализации: его сравнивает скрипт compare-and-set
+    public static final String FIELD_STATUS = "status";
 
     public static String keyInfo(Long idContest) {
         return format(KEY_INFO, idContest);
@@ -46,4 +89,52 @@ public class RedisKeyGenerator {
     public static String keyReady(Long idContest) {
         return format(KEY_READY, idContest);
     }
+
+    public static String keyOwner(Long idContest) {
+        return format(KEY_OWNER, idContest);
+    }
+
+    public static String keyReveal(Long idContest) {
+        return format(KEY_REVEAL, idContest);
+    }
+
+    public static String keyResults(Long idContest) {
+        return format(KEY_RESULTS, idContest);
+    }
+
+    public static String keyResultsPending(Long idContest) {
+        return format(KEY_RESULTS_PENDING, idContest);
+    }
+
+    public static String keyLeaderboard(Long idContest) {
+        return format(KEY_LEADERBOARD, idContest);
+    }
+
+    public static String keyEvents(Long idContest) {
+        return format(KEY_EVENTS, idContest);
+    }
+
+    public static String keyEventsSeq(Long idContest) {
+        return format(KEY_EVENTS_SEQ, idContest);
+    }
+
+    public static String keyRanking(Long idContest) {
+        return format(KEY_RANKING, idContest);
+    }
+
+    public static String keyLobbyIndex(String language) {
+        return format(KEY_LOBBY_INDEX_LANGUAGE, language);
+    }
+
+    public static String keyMatchmakingRating(String language) {
+        return format(KEY_MATCHMAKING_RATING, language);
+    }
+
+    public static String keyMatchmakingWaiting(String language) {
+        return format(KEY_MATCHMAKING_WAITING, language);
+    }
+
+    public static String keyMatchmakingMatched(Long idUser) {
+        return format(KEY_MATCHMAKING_MATCHED, idUser);
+    }
 }
@@ -0,0 +1,24 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.utility;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Сериализация ключей и значений в байты для команд внутри pipeline
+ * ({@code executePipelined(RedisCallback)}), где сериализаторы шаблона не применяются автоматически.
+ */
+public class RedisRawSerializer {
+    private RedisRawSerializer() {
+    }
+
+    public static byte[] rawString(String value) {
+        return StringRedisSerializer.UTF_8.serialize(value);
+    }
+
+    // Значение в том же формате, что пишет redisTemplate (JSON через GenericJackson2JsonRedisSerializer)
+    @SuppressWarnings("unchecked")
+    public static byte[] rawValue(RedisTemplate<String, Object> redisTemplate, Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.scheduler;
+
+/**
+ * Событие расписания соревнования. Хранится в ZSET Redis строкой {@code TYPE:idContest:arg}
+ * с временем наступления в score.
+ *
+ * @param type      тип события
+ * @param idContest ID контеста
+ * @param arg       аргумент: секунды до старта для COUNTDOWN, 0 для START и START_COUNTDOWN
+ */
+public record ContestScheduledEvent(
+        Type type,
+        Long idContest,
+        int arg
+) {
+
+    public enum Type {
+        // Запуск отсчёта: забирает владелец комнаты, по истечении срока — любой узел
+        START_COUNTDOWN,
+        COUNTDOWN,
+        START
+    }
+
+    public static ContestScheduledEvent startCountdown(Long idContest) {
+        return new ContestScheduledEvent(Type.START_COUNTDOWN, idContest, 0);
+    }
+
+    public static ContestScheduledEvent countdown(Long idContest, int secondsRemaining) {
+        return new ContestScheduledEvent(Type.COUNTDOWN, idContest, secondsRemaining);
+    }
+
+    public static ContestScheduledEvent start(Long idContest) {
+        return new ContestScheduledEvent(Type.START, idContest, 0);
+    }
+
+    public String toMember() {
+        return type.name() + ":" + idContest + ":" + arg;
+    }
+
+    public static ContestScheduledEvent fromMember(String member) {
+        String[] parts = member.split(":");
+        return new ContestScheduledEvent(Type.valueOf(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+    }
+}
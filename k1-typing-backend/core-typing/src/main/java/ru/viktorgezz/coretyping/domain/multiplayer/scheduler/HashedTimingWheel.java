@@ -0,0 +1,142 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров: O(1) на постановку задачи, один поток-тикер на всё колесо.
+ * Все задачи, наступившие за тик, отдаются обработчику одной пачкой.
+ * <p>
+ * Задачи ставятся в очередь без блокировок и раскладываются по корзинам только потоком-тикером,
+ * поэтому корзины не синхронизируются.
+ */
+@Slf4j
+public class HashedTimingWheel<T> {
+
+    private final long tickMs;
+    private final int mask;
+    private final List<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> entriesPending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<Due<T>>> handlerBatch;
+    private final AtomicInteger countScheduled = new AtomicInteger();
+    private final Thread threadTicker;
+
+    private volatile boolean running;
+    private long timestampStart;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMs, int wheelSize, Consumer<List<Due<T>>> handlerBatch, String nameThread) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two: " + wheelSize);
+        }
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.handlerBatch = handlerBatch;
+        this.threadTicker = new Thread(this::run, nameThread);
+        this.threadTicker.setDaemon(true);
+    }
+
+    public void start() {
+        timestampStart = System.currentTimeMillis();
+        running = true;
+        threadTicker.start();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(threadTicker);
+    }
+
+    public void schedule(T task, long timestampDue) {
+        entriesPending.add(new Entry<>(task, timestampDue));
+        countScheduled.incrementAndGet();
+    }
+
+    // Задачи, ещё не отданные обработчику
+    public int getCountScheduled() {
+        return countScheduled.get();
+    }
+
+    private void run() {
+        while (running) {
+            final long timestampTick = timestampStart + (tick + 1) * tickMs;
+            long delayMs = timestampTick - System.currentTimeMillis();
+            while (delayMs > 0 && running) {
+                LockSupport.parkNanos(delayMs * 1_000_000);
+                delayMs = timestampTick - System.currentTimeMillis();
+            }
+
+            transferPending();
+            List<Due<T>> batchDue = expireBucket(buckets[(int) (tick & mask)], timestampTick);
+            tick++;
+
+            if (!batchDue.isEmpty()) {
+                countScheduled.addAndGet(-batchDue.size());
+                try {
+                    handlerBatch.accept(batchDue);
+                } catch (Exception e) {
+                    log.error("Timing wheel batch handler failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Раскладывает новые задачи по корзинам; просроченные попадают в текущую
+    private void transferPending() {
+        Entry<T> entry;
+        while ((entry = entriesPending.poll()) != null) {
+            long ticksFromStart = Math.max((entry.timestampDue - timestampStart) / tickMs, tick);
+            entry.rounds = (ticksFromStart - tick) / buckets.length;
+            buckets[(int) (ticksFromStart & mask)].add(entry);
+        }
+    }
+
+    private List<Due<T>> expireBucket(List<Entry<T>> bucket, long timestampTick) {
+        List<Due<T>> batchDue = new ArrayList<>();
+        Iterator<Entry<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.rounds <= 0 && entry.timestampDue <= timestampTick) {
+                iterator.remove();
+                batchDue.add(new Due<>(entry.task, entry.timestampDue));
+            } else {
+                entry.rounds--;
+            }
+        }
+        return batchDue;
+    }
+
+    /**
+     * Наступившая задача.
+     *
+     * @param task         задача
+     * @param timestampDue запланированное время (мс) — для подсчёта задержки срабатывания
+     */
+    public record Due<T>(T task, long timestampDue) {
+    }
+
+    private static class Entry<T> {
+
+        private final T task;
+        private final long timestampDue;
+        private long rounds;
+
+        private Entry(T task, long timestampDue) {
+            this.task = task;
+            this.timestampDue = timestampDue;
+        }
+    }
+}
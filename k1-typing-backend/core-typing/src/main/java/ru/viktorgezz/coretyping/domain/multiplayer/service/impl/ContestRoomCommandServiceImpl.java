@@ -9,19 +9,26 @@ import ru.viktorgezz.coretyping.domain.contest.Status;
 import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestCommandService;
 import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestQueryService;
 import ru.viktorgezz.coretyping.domain.exercises.Exercise;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
 import ru.viktorgezz.coretyping.domain.exercises.service.intrf.ExerciseQueryService;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rq.CreateRoomRqDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.JoinRoomRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestRoomCommandService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestStatusService;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestWebSocketService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.LobbyBroadcastService;
 import ru.viktorgezz.coretyping.domain.participant.Participants;
 import ru.viktorgezz.coretyping.domain.participant.ParticipantsCommandService;
 import ru.viktorgezz.coretyping.domain.user.User;
+import ru.viktorgezz.coretyping.domain.user.service.intrf.UserQueryService;
 import ru.viktorgezz.coretyping.exception.BusinessException;
 import ru.viktorgezz.coretyping.exception.ErrorCode;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -37,9 +44,13 @@ public class ContestRoomCommandServiceImpl implements ContestRoomCommandService
     private final ContestCommandService contestCommandService;
     private final ParticipantsCommandService participantsCommandService;
     private final ContestWebSocketService contestWebSocketService;
+    private final ContestStatusService contestStatusService;
+    private final UserQueryService userQueryService;
 
     private final RoomService roomService;
     private final ParticipantsService participantsService;
+    private final LobbyService lobbyService;
+    private final LobbyBroadcastService lobbyBroadcastService;
 
     @Override
     @Transactional
@@ -59,6 +70,24 @@ public class ContestRoomCommandServiceImpl implements ContestRoomCommandService
         );
         contestNew.setParticipants(List.of(participantsNew));
 
+        AvailableRoomRsDto roomLobby = new AvailableRoomRsDto(
+                contestNew.getId(),
+                exercise.getTitle(),
+                exercise.getLanguage(),
+                1,
+                dto.maxParticipants(),
+                contestNew.getCreatedAt()
+        );
+        lobbyService.addRoom(
+                roomLobby.idContest(),
+                roomLobby.titleExercise(),
+                roomLobby.language(),
+                roomLobby.currentPlayers(),
+                roomLobby.maxPlayers(),
+                roomLobby.createdAt()
+        );
+        lobbyBroadcastService.roomCreated(roomLobby);
+
         return new JoinRoomRsDto(
                 contestNew.getId(),
                 JoinRoomRsDto.JoinRoomStatus.SUCCESS,
@@ -85,6 +114,8 @@ public class ContestRoomCommandServiceImpl implements ContestRoomCommandService
 
         participantsService.addParticipant(idContest, user.getId(), user.getUsername());
         participantsCommandService.save(new Participants(contest, user));
+        lobbyService.updateOccupancy(idContest, 1)
+                .ifPresent(lobbyBroadcastService::occupancyChanged);
 
         contestWebSocketService.broadcastPlayerJoined(idContest, user.getId(), user.getUsername());
 
@@ -99,12 +130,40 @@ public class ContestRoomCommandServiceImpl implements ContestRoomCommandService
     @Transactional
     public void leaveRoom(Long idContest) {
         User user = getCurrentUser();
+        final boolean isParticipant = participantsService.isParticipant(idContest, user.getId());
         participantsCommandService.deleteByIdContestAndIdUser(idContest, user.getId());
         participantsService.removeParticipant(idContest, user.getId());
+        // Повторный выход не должен уменьшать заполненность второй раз
+        if (isParticipant) {
+            lobbyService.updateOccupancy(idContest, -1)
+                    .ifPresent(lobbyBroadcastService::occupancyChanged);
+        }
 
         contestWebSocketService.broadcastPlayerLeft(idContest, user.getId(), user.getUsername());
     }
 
+    // Комната создаётся заполненной, поэтому в лобби не публикуется
+    @Override
+    @Transactional
+    public Long createMatchedRoom(Language language, List<Long> idsUser) {
+        Exercise exercise = exerciseQueryService.getRandomByLanguage(language);
+
+        Contest contestNew = contestCommandService.save(
+                new Contest(Status.CREATED, idsUser.size(), exercise)
+        );
+        roomService.createRoom(contestNew.getId(), exercise.getId(), idsUser.size());
+
+        List<Participants> participantsNew = new ArrayList<>(idsUser.size());
+        idsUser.forEach(idUser -> {
+            User user = userQueryService.getOne(idUser);
+            participantsService.addParticipant(contestNew.getId(), user.getId(), user.getUsername());
+            participantsNew.add(participantsCommandService.save(new Participants(contestNew, user)));
+        });
+        contestNew.setParticipants(participantsNew);
+
+        return contestNew.getId();
+    }
+
     private Contest checkRoomForNewParticipant(Long idContest) {
         if (!isRoomExistsRedis(idContest)) {
             if (contestQueryService.hasOldContest(idContest)) {
@@ -118,10 +177,8 @@ public class ContestRoomCommandServiceImpl implements ContestRoomCommandService
             throw new BusinessException(ErrorCode.ROOM_NOT_FOUND, idContest.toString());
         }
 
-        Contest contest = contestQueryService.getOne(idContest);
-
-        // Новые участники могут присоединяться только к комнатам со статусом CREATED
-        if (contest.getStatus() != Status.CREATED) {
+        // Новые участники могут присоединяться только к комнатам со статусом CREATED; статус живой комнаты — в Redis
+        if (contestStatusService.getStatus(idContest) != Status.CREATED) {
             throw new BusinessException(ErrorCode.CONTEST_ALREADY_STARTED, idContest.toString());
         }
 
@@ -129,7 +186,7 @@ public class ContestRoomCommandServiceImpl implements ContestRoomCommandService
             throw new BusinessException(ErrorCode.ROOM_ALREADY_FULL, idContest.toString());
         }
 
-        return contest;
+        return contestQueryService.getReference(idContest);
     }
 
     private boolean isRoomExistsRedis(Long idContest) {
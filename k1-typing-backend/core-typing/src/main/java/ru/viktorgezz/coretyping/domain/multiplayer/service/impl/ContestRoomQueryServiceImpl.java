@@ -2,20 +2,21 @@ package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import ru.viktorgezz.coretyping.domain.contest.Contest;
 import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.contest.dto.rs.ContestMetadata;
 import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestQueryService;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.RoomInfoRsDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
-import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
-import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressService;
-import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ReadyService;
-import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService.LobbyPage;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomSnapshotService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomSnapshotService.RoomSnapshot;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestRoomQueryService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestStatusService;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -26,37 +27,35 @@ import java.util.Map;
 public class ContestRoomQueryServiceImpl implements ContestRoomQueryService {
 
     private final ContestQueryService contestQueryService;
-    private final ParticipantsService participantsService;
-    private final ProgressService progressService;
-    private final RoomService roomService;
-    private final ReadyService readyService;
+    private final ContestStatusService contestStatusService;
+    private final LobbyService lobbyService;
+    private final RoomSnapshotService roomSnapshotService;
 
+    // Одна выборка из индекса лобби в Redis; сортировка фиксирована — по времени создания
     @Override
-    @Transactional(readOnly = true)
     public Page<AvailableRoomRsDto> getAvailableRooms(Pageable pageable) {
-        return contestQueryService.findByAmountGreaterThanAndStatus(1, Status.CREATED, pageable)
-                .map(contest -> new AvailableRoomRsDto(
-                        contest.getId(),
-                        contest.getExercise().getTitle(),
-                        contest.getExercise().getLanguage(),
-                        participantsService.getParticipantsCount(contest.getId()),
-                        roomService.getParticipantsMax(contest.getId()),
-                        contest.getCreatedAt()
-                ));
+        LobbyPage lobbyPage = lobbyService.getRooms(pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(lobbyPage.rooms(), pageable, lobbyPage.total());
     }
 
+    // Метаданные — из кэша в памяти, статус — из хеша комнаты в Redis, состояние комнаты — одним pipeline:
+    // массовое переподключение после сбоя сети не размножает запросы к БД и Redis по участникам
     @Override
-    @Transactional(readOnly = true)
     public RoomInfoRsDto getRoomInfo(Long idContest) {
-        Contest contest = contestQueryService.getOneWithExercise(idContest);
+        ContestMetadata metadata = contestQueryService.getMetadata(idContest);
+        RoomSnapshot snapshot = roomSnapshotService.getSnapshot(idContest);
+        // Статус читается в том же pipeline, что и участники; комнаты нет в Redis — статус из БД
+        Status status = snapshot.status() != null
+                ? snapshot.status()
+                : contestStatusService.getStatus(idContest);
 
-        // Получаем прогресс всех участников (если соревнование идёт)
-        Map<Long, UserProgressData> progressAll = (contest.getStatus() == Status.PROGRESS)
-                ? progressService.getProgressAll(idContest)
+        // Прогресс показываем только если соревнование идёт
+        Map<Long, UserProgressData> progressAll = (status == Status.PROGRESS)
+                ? snapshot.progressAll()
                 : Map.of();
 
-        List<RoomInfoRsDto.ParticipantDto> participantDtos = participantsService
-                .getParticipantNames(idContest)
+        List<RoomInfoRsDto.ParticipantDto> participantDtos = snapshot
+                .participantNames()
                 .entrySet()
                 .stream()
                 .map(entry -> {
@@ -65,7 +64,7 @@ public class ContestRoomQueryServiceImpl implements ContestRoomQueryService {
                     return new RoomInfoRsDto.ParticipantDto(
                             idUser,
                             entry.getValue(),
-                            readyService.isReady(idContest, idUser),
+                            snapshot.idsReady().contains(idUser),
                             progressData.progress(),
                             progressData.speed(),
                             progressData.accuracy()
@@ -74,21 +73,21 @@ public class ContestRoomQueryServiceImpl implements ContestRoomQueryService {
                 .toList();
 
         // Текст упражнения передаём только если соревнование уже началось
-        String textExercise = (contest.getStatus() == Status.PROGRESS || contest.getStatus() == Status.FINISHED)
-                ? contest.getExercise().getText()
+        String textExercise = (status == Status.PROGRESS || status == Status.FINISHED)
+                ? metadata.textExercise()
                 : null;
 
         return new RoomInfoRsDto(
-                contest.getId(),
-                contest.getExercise().getId(),
-                contest.getExercise().getTitle(),
+                metadata.idContest(),
+                metadata.idExercise(),
+                metadata.titleExercise(),
                 textExercise,
-                contest.getExercise().getLanguage().name(),
-                contest.getStatus(),
-                participantsService.getParticipantsCount(contest.getId()),
-                roomService.getParticipantsMax(contest.getId()),
+                metadata.language().name(),
+                status,
+                snapshot.participantNames().size(),
+                snapshot.participantsMax(),
                 participantDtos,
-                contest.getCreatedAt()
+                metadata.createdAt()
         );
     }
 }
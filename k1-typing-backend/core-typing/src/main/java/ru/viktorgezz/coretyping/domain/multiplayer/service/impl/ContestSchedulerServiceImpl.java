@@ -0,0 +1,254 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.scheduler.ContestScheduledEvent;
+import ru.viktorgezz.coretyping.domain.multiplayer.scheduler.HashedTimingWheel;
+import ru.viktorgezz.coretyping.domain.multiplayer.scheduler.HashedTimingWheel.Due;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestSchedulerService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestWebSocketService;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_SCHEDULER_DEADLINES;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisRawSerializer.rawString;
+
+@Slf4j
+@Service
+public class ContestSchedulerServiceImpl implements ContestSchedulerService {
+
+    private static final byte[] KEY_DEADLINES_RAW = rawString(KEY_SCHEDULER_DEADLINES);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ContestWebSocketService contestWebSocketService;
+    private final MultiplayerProperties.Scheduler propertiesScheduler;
+
+    private final HashedTimingWheel<ContestScheduledEvent> wheel;
+    private final ExecutorService executorDispatch;
+
+    private final Timer timerLagCountdown;
+    private final Timer timerLagStart;
+    private final Counter counterRecovered;
+
+    public ContestSchedulerServiceImpl(
+            StringRedisTemplate stringRedisTemplate,
+            @Lazy ContestWebSocketService contestWebSocketService,
+            MultiplayerProperties multiplayerProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.contestWebSocketService = contestWebSocketService;
+        this.propertiesScheduler = multiplayerProperties.getScheduler();
+
+        this.executorDispatch = Executors.newFixedThreadPool(propertiesScheduler.getDispatchThreads());
+        // Тикер только передаёт пачку в пул: транзакции старта не задерживают следующие тики
+        this.wheel = new HashedTimingWheel<>(
+                propertiesScheduler.getTickMs(),
+                propertiesScheduler.getWheelSize(),
+                batch -> executorDispatch.execute(() -> dispatch(batch, false)),
+                "contest-scheduler-wheel"
+        );
+
+        this.timerLagCountdown = Timer.builder("contest.scheduler.lag")
+                .description("Задержка срабатывания события относительно запланированного времени")
+                .tag("type", ContestScheduledEvent.Type.COUNTDOWN.name())
+                .register(meterRegistry);
+        this.timerLagStart = Timer.builder("contest.scheduler.lag")
+                .description("Задержка срабатывания события относительно запланированного времени")
+                .tag("type", ContestScheduledEvent.Type.START.name())
+                .register(meterRegistry);
+        this.counterRecovered = Counter.builder("contest.scheduler.recovered")
+                .description("События, подобранные восстановлением после просрочки")
+                .register(meterRegistry);
+        Gauge.builder("contest.scheduler.pending", wheel, HashedTimingWheel::getCountScheduled)
+                .description("События в локальном колесе таймеров")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        wheel.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.stop();
+        executorDispatch.shutdown();
+        try {
+            if (!executorDispatch.awaitTermination(5, TimeUnit.SECONDS)) {
+                executorDispatch.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executorDispatch.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void scheduleCountdownStart(Long idContest, long timestampDeadline) {
+        persistAndEnqueue(List.of(new Due<>(ContestScheduledEvent.startCountdown(idContest), timestampDeadline)));
+    }
+
+    @Override
+    public boolean claimCountdownStart(Long idContest) {
+        Long countRemoved = stringRedisTemplate.opsForZSet().remove(
+                KEY_SCHEDULER_DEADLINES, ContestScheduledEvent.startCountdown(idContest).toMember()
+        );
+        return Long.valueOf(1L).equals(countRemoved);
+    }
+
+    @Override
+    public void scheduleCountdown(Long idContest, int countdownSeconds) {
+        final long timestampNow = System.currentTimeMillis();
+
+        List<Due<ContestScheduledEvent>> events = new ArrayList<>();
+        for (int secondsRemaining = countdownSeconds; secondsRemaining >= 0; secondsRemaining--) {
+            long timestampDue = timestampNow + (long) (countdownSeconds - secondsRemaining) * 1_000;
+            events.add(new Due<>(ContestScheduledEvent.countdown(idContest, secondsRemaining), timestampDue));
+        }
+        // Старт — отдельное событие в тот же момент, что и отсчёт 0: в пачке выполняется после него
+        events.add(new Due<>(ContestScheduledEvent.start(idContest), timestampNow + countdownSeconds * 1_000L));
+
+        persistAndEnqueue(events);
+    }
+
+    @Override
+    public void scheduleStart(Long idContest, long timestampStart) {
+        persistAndEnqueue(List.of(new Due<>(ContestScheduledEvent.start(idContest), timestampStart)));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${multiplayer.scheduler.recovery-interval-ms:1000}")
+    public void recoverOverdue() {
+        final long timestampOverdue = System.currentTimeMillis() - propertiesScheduler.getRecoveryGraceMs();
+
+        Set<ZSetOperations.TypedTuple<String>> tuplesOverdue = Objects.requireNonNullElse(
+                stringRedisTemplate.opsForZSet().rangeByScoreWithScores(
+                        KEY_SCHEDULER_DEADLINES, 0, timestampOverdue, 0, propertiesScheduler.getBatchMax()
+                ),
+                Set.of()
+        );
+        if (tuplesOverdue.isEmpty()) {
+            return;
+        }
+
+        List<Due<ContestScheduledEvent>> batch = tuplesOverdue.stream()
+                .map(tuple -> new Due<>(
+                        ContestScheduledEvent.fromMember(Objects.requireNonNull(tuple.getValue())),
+                        Objects.requireNonNull(tuple.getScore()).longValue()
+                ))
+                .toList();
+        dispatch(batch, true);
+    }
+
+    // Сохраняет события в Redis одним pipeline и ставит их в локальное колесо
+    private void persistAndEnqueue(List<Due<ContestScheduledEvent>> events) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            events.forEach(event -> connection.zSetCommands().zAdd(
+                    KEY_DEADLINES_RAW, event.timestampDue(), rawString(event.task().toMember())
+            ));
+            return null;
+        });
+        events.forEach(event -> wheel.schedule(event.task(), event.timestampDue()));
+    }
+
+    // Забирает события пачкой ZREM (выполняет только то, что удалил этот вызов), затем выполняет их.
+    // Ошибка одного события не отменяет остальные; запуск отсчёта и старт, которые не удалось выполнить,
+    // возвращаются в Redis и будут подобраны восстановлением
+    private void dispatch(List<Due<ContestScheduledEvent>> batch, boolean isRecovered) {
+        List<Object> resultsRemove;
+        try {
+            resultsRemove = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                batch.forEach(event -> connection.zSetCommands().zRem(KEY_DEADLINES_RAW, rawString(event.task().toMember())));
+                return null;
+            });
+        } catch (Exception e) {
+            // Ничего не забрано: события остались в Redis
+            log.error("Claim of {} scheduled events failed: {}", batch.size(), e.getMessage());
+            return;
+        }
+
+        final long timestampNow = System.currentTimeMillis();
+        List<Due<ContestScheduledEvent>> eventsStart = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (!Long.valueOf(1L).equals(resultsRemove.get(i))) {
+                continue;
+            }
+            Due<ContestScheduledEvent> event = batch.get(i);
+            Duration lag = Duration.ofMillis(Math.max(timestampNow - event.timestampDue(), 0));
+            if (isRecovered) {
+                counterRecovered.increment();
+            }
+
+            try {
+                switch (event.task().type()) {
+                    // Владелец не забрал запуск вовремя: отсчёт запускает этот узел
+                    case START_COUNTDOWN -> contestWebSocketService.startCountdown(event.task().idContest());
+                    case COUNTDOWN -> {
+                        timerLagCountdown.record(lag);
+                        // Запоздавший отсчёт после восстановления бессмысленен для игроков
+                        if (!isRecovered) {
+                            contestWebSocketService.broadcastCountdown(event.task().idContest(), event.task().arg());
+                        }
+                    }
+                    case START -> {
+                        timerLagStart.record(lag);
+                        eventsStart.add(event);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Scheduled event {} failed: {}", event.task().toMember(), e.getMessage());
+                if (event.task().type() == ContestScheduledEvent.Type.START_COUNTDOWN) {
+                    restore(List.of(event));
+                }
+            }
+        }
+
+        for (int from = 0; from < eventsStart.size(); from += propertiesScheduler.getBatchMax()) {
+            List<Due<ContestScheduledEvent>> chunk = eventsStart.subList(
+                    from, Math.min(from + propertiesScheduler.getBatchMax(), eventsStart.size())
+            );
+            try {
+                contestWebSocketService.startContests(chunk.stream().map(event -> event.task().idContest()).toList());
+            } catch (Exception e) {
+                // Повторный старт разошлёт только те соревнования, событие старта которых не попало в журнал
+                log.error("Start of {} contests failed, returned to schedule: {}", chunk.size(), e.getMessage());
+                restore(chunk);
+            }
+        }
+    }
+
+    // Возвращает забранные события в Redis с исходным временем: восстановление выполнит их повторно
+    private void restore(List<Due<ContestScheduledEvent>> events) {
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                events.forEach(event -> connection.zSetCommands().zAdd(
+                        KEY_DEADLINES_RAW, event.timestampDue(), rawString(event.task().toMember())
+                ));
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Restore of {} scheduled events failed, they are lost: {}", events.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestCommandService;
+import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestQueryService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestStatusService;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContestStatusServiceImpl implements ContestStatusService {
+
+    private final RoomService roomService;
+    private final ContestQueryService contestQueryService;
+    private final ContestCommandService contestCommandService;
+
+    // idContest → последний статус, ещё не записанный в PostgreSQL
+    private final Map<Long, Status> statusPendingByContest = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lockFlush = new ReentrantLock();
+
+    @Override
+    public Status getStatus(Long idContest) {
+        return roomService.getStatus(idContest)
+                .orElseGet(() -> contestQueryService.getStatus(idContest));
+    }
+
+    @Override
+    public boolean transition(Long idContest, Status statusExpected, Status statusNew) {
+        if (!roomService.compareAndSetStatus(idContest, statusExpected, statusNew)) {
+            return false;
+        }
+        enqueue(idContest, statusNew);
+        return true;
+    }
+
+    @Override
+    public List<Long> transitionAll(List<Long> idsContest, Status statusExpected, Status statusNew) {
+        if (idsContest.isEmpty()) {
+            return List.of();
+        }
+        List<Long> idsChanged = roomService.compareAndSetStatusAll(idsContest, statusExpected, statusNew);
+        idsChanged.forEach(idContest -> enqueue(idContest, statusNew));
+        return idsChanged;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${multiplayer.status-writer.flush-interval-ms:200}")
+    public void flushPending() {
+        lockFlush.lock();
+        try {
+            Map<Status, List<Long>> idsByStatus = new EnumMap<>(Status.class);
+            statusPendingByContest.keySet().forEach(idContest -> {
+                Status status = statusPendingByContest.remove(idContest);
+                if (status != null) {
+                    idsByStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(idContest);
+                }
+            });
+
+            idsByStatus.forEach((status, idsContest) -> {
+                try {
+                    contestCommandService.updateStatusAll(idsContest, status);
+                } catch (Exception e) {
+                    // Возвращаем в очередь, не затирая переходы, пришедшие за время записи
+                    log.error("Status write of {} contests to {} failed: {}", idsContest.size(), status, e.getMessage());
+                    idsContest.forEach(idContest -> enqueue(idContest, status));
+                }
+            });
+        } finally {
+            lockFlush.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushPending();
+    }
+
+    private void enqueue(Long idContest, Status status) {
+        statusPendingByContest.merge(idContest, status, (statusPending, statusNew) ->
+                stage(statusNew) >= stage(statusPending) ? statusNew : statusPending
+        );
+    }
+
+    // Порядок статусов в жизненном цикле; порядок констант перечисления с ним не совпадает
+    private static int stage(Status status) {
+        return switch (status) {
+            case CREATED -> 0;
+            case WAITING -> 1;
+            case PROGRESS -> 2;
+            case FINISHED -> 3;
+        };
+    }
+}
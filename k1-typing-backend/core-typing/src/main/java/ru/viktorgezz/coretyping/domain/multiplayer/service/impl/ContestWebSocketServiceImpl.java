@@ -3,34 +3,31 @@ package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionTemplate;
 import ru.viktorgezz.coretyping.domain.balance.service.BalanceService;
-import ru.viktorgezz.coretyping.domain.contest.Contest;
 import ru.viktorgezz.coretyping.domain.contest.Status;
-import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestCommandService;
 import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestQueryService;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.*;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.*;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ResultBufferService.FinishedResult;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestSchedulerService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestStatusService;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestWebSocketService;
-import ru.viktorgezz.coretyping.domain.user.dto.UserView;
-import ru.viktorgezz.coretyping.domain.user.service.intrf.UserQueryService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.LobbyBroadcastService;
+import ru.viktorgezz.coretyping.domain.multiplayer.ownership.RoomCommand;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ProgressBroadcastService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ResultWriteBehindService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomEventBroadcastService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomOwnershipService;
+import ru.viktorgezz.coretyping.domain.multiplayer.util.ExerciseTextSealer;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
 import ru.viktorgezz.statistics_result_module.result_item.Place;
-import ru.viktorgezz.statistics_result_module.result_item.ResultItem;
-import ru.viktorgezz.statistics_result_module.result_item.dto.rq.MultiplayerResultItemDto;
-import ru.viktorgezz.statistics_result_module.result_item.service.intrf.ResultItemCommandService;
-import ru.viktorgezz.statistics_result_module.result_item.service.intrf.ResultItemQueryService;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Optional;
 
 import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.*;
 
@@ -41,95 +38,106 @@ public class ContestWebSocketServiceImpl implements ContestWebSocketService {
     private static final int COUNTDOWN_SECONDS = 5;
     private static final int MIN_COUNT_PARTICIPANTS = 2;
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final TransactionTemplate transactionTemplate;
+    private final RoomEventBroadcastService roomEventBroadcastService;
 
     private final ProgressService progressService;
     private final ParticipantsService participantsService;
     private final ReadyService readyService;
     private final RoomService roomService;
+    private final LobbyService lobbyService;
+    private final LobbyBroadcastService lobbyBroadcastService;
     private final FinishService finishService;
+    private final LeaderboardCacheService leaderboardCacheService;
     private final BalanceService balanceService;
+    private final ProgressBroadcastService progressBroadcastService;
+    private final RoomOwnershipService roomOwnershipService;
+    private final ContestSchedulerService contestSchedulerService;
+    private final ContestStatusService contestStatusService;
+
+    private final ResultWriteBehindService resultWriteBehindService;
 
     private final ContestQueryService contestQueryService;
-    private final ContestCommandService contestCommandService;
-    private final ResultItemCommandService resultItemCommandService;
-    private final ResultItemQueryService resultItemQueryService;
-    private final UserQueryService userQueryService;
 
-    private final ContestWebSocketService self;
+    private final MultiplayerProperties multiplayerProperties;
 
-    private final ScheduledExecutorService executorScheduled = Executors.newScheduledThreadPool(2);
+    private final ContestWebSocketService self;
 
     @Autowired
     public ContestWebSocketServiceImpl(
-            SimpMessagingTemplate messagingTemplate,
-            TransactionTemplate transactionTemplate,
+            RoomEventBroadcastService roomEventBroadcastService,
             ProgressService progressService,
             ParticipantsService participantsService,
             ReadyService readyService,
             RoomService roomService,
+            LobbyService lobbyService,
+            LobbyBroadcastService lobbyBroadcastService,
             FinishService finishService,
+            LeaderboardCacheService leaderboardCacheService,
             BalanceService balanceService,
+            ProgressBroadcastService progressBroadcastService,
+            RoomOwnershipService roomOwnershipService,
+            ContestSchedulerService contestSchedulerService,
+            ContestStatusService contestStatusService,
+            ResultWriteBehindService resultWriteBehindService,
             ContestQueryService contestQueryService,
-            ContestCommandService contestCommandService,
-            ResultItemCommandService resultItemCommandService,
-            ResultItemQueryService resultItemQueryService, UserQueryService userQueryService,
+            MultiplayerProperties multiplayerProperties,
             @Lazy ContestWebSocketService self
     ) {
-        this.messagingTemplate = messagingTemplate;
-        this.transactionTemplate = transactionTemplate;
+        this.roomEventBroadcastService = roomEventBroadcastService;
         this.progressService = progressService;
         this.participantsService = participantsService;
         this.readyService = readyService;
         this.roomService = roomService;
+        this.lobbyService = lobbyService;
+        this.lobbyBroadcastService = lobbyBroadcastService;
         this.finishService = finishService;
+        this.leaderboardCacheService = leaderboardCacheService;
         this.balanceService = balanceService;
+        this.progressBroadcastService = progressBroadcastService;
+        this.roomOwnershipService = roomOwnershipService;
+        this.contestSchedulerService = contestSchedulerService;
+        this.contestStatusService = contestStatusService;
+        this.resultWriteBehindService = resultWriteBehindService;
         this.contestQueryService = contestQueryService;
-        this.contestCommandService = contestCommandService;
-        this.resultItemCommandService = resultItemCommandService;
-        this.resultItemQueryService = resultItemQueryService;
-        this.userQueryService = userQueryService;
+        this.multiplayerProperties = multiplayerProperties;
         this.self = self;
     }
 
-    // Сохраняет прогресс в Redis и рассылает обновлённый прогресс всех участников
+    // Сохраняет прогресс в Redis; рассылка снимка выполняется по тику ProgressBroadcastService
     @Override
     public void processProgress(Long idContest, Long idUser, ProgressUpdateMessage message) {
         progressService.updateProgress(idContest, idUser, message.progress(), message.speed(), message.accuracy());
-        messagingTemplate.convertAndSend(
-                String.format(TOPIC_PROGRESS, idContest),
-                new AllProgressMessage(progressService.getProgressAll(idContest))
+        progressBroadcastService.markDirty(
+                idContest,
+                idUser,
+                new AllProgressMessage.UserProgressData(message.progress(), message.speed(), message.accuracy())
         );
     }
 
-    // Вызывает транзакционную логику финиша, рассылает результат и проверяет завершение соревнования
+    // Атомарно регистрирует финиш в Redis, сохраняет результат в состоянии комнаты, рассылает его;
+    // соревнование завершает только тот финиш, который скрипт отметил последним
     @Override
     public void processFinish(Long idContest, Long idUser, FinishMessage message) {
-        PlayerFinishedMessage messageFinished = self.processFinishTransaction(idContest, idUser, message);
-
-        messagingTemplate.convertAndSend(
-                String.format(TOPIC_PLAYER_FINISHED, idContest),
-                messageFinished
-        );
+        FinishService.FinishRegistration registration = finishService.registerFinish(idContest, idUser);
+        self.processFinishTransaction(idContest, idUser, message, registration.place())
+                .ifPresent(messageFinished -> roomEventBroadcastService.send(
+                        idContest,
+                        String.format(TOPIC_PLAYER_FINISHED, idContest),
+                        messageFinished
+                ));
 
-        if (finishService.isContestComplete(idContest)) {
+        if (registration.contestComplete()) {
             self.finishContest(idContest);
         }
     }
 
-    // Регистрирует место финиширования, сохраняет результат в PostgreSQL, формирует сообщение
+    // Сохраняет результат с уже определённым местом в состоянии комнаты (без JDBC на STOMP-потоке),
+    // формирует сообщение. Повторный финиш (HSETNX не прошёл) не начисляет баланс второй раз
     @Override
-    @Transactional
-    public PlayerFinishedMessage processFinishTransaction(Long idContest, Long idUser, FinishMessage message) {
-        final Place placeObtained = finishService.registerFinish(idContest, idUser);
-
-        Map<Long, String> participantNames = participantsService.getParticipantNames(idContest);
-        final String username = participantNames.getOrDefault(idUser, "Unknown");
-
-        resultItemCommandService.saveResultMultiplayer(
-                new MultiplayerResultItemDto(
-                        idContest,
+    public Optional<PlayerFinishedMessage> processFinishTransaction(Long idContest, Long idUser, FinishMessage message, Place placeObtained) {
+        final boolean isRecorded = resultWriteBehindService.recordResult(
+                idContest,
+                new FinishedResult(
                         idUser,
                         message.durationSeconds(),
                         message.speed(),
@@ -137,23 +145,37 @@ public class ContestWebSocketServiceImpl implements ContestWebSocketService {
                         placeObtained
                 )
         );
+        if (!isRecorded) {
+            return Optional.empty();
+        }
 
         balanceService.replenishBalanceByIdUserAndPlaceAsync(idUser, placeObtained);
 
-        return new PlayerFinishedMessage(
+        Map<Long, String> participantNames = participantsService.getParticipantNames(idContest);
+        final String username = participantNames.getOrDefault(idUser, "Unknown");
+
+        return Optional.of(new PlayerFinishedMessage(
                 idUser,
                 username,
                 placeObtained,
                 message.speed(),
                 message.durationSeconds(),
                 message.accuracy()
-        );
+        ));
     }
 
-    // Отмечает готовность в Redis; при готовности всех — меняет статус на WAITING и запускает отсчёт
+    // Отмечает готовность в Redis; при готовности всех — меняет статус на WAITING в Redis
+    // (PostgreSQL обновляется пачкой по тику), отсчёт запускает узел-владелец комнаты.
+    // Старт выполняет ровно один вызов — выигравший compare-and-set CREATED → WAITING на любом потоке и узле;
+    // до передачи владельцу запуск сохраняется в расписании, поэтому не теряется при недоступном владельце.
+    // Готовность после старта обходится одним HGET статуса
     @Override
-    @Transactional
     public void processReady(Long idContest, Long idUser) {
+        if (roomService.getStatus(idContest).orElse(null) != Status.CREATED) {
+            log.debug("Contest {}: ready from user {} ignored, room is not accepting ready", idContest, idUser);
+            return;
+        }
+
         readyService.markReady(idContest, idUser);
 
         final int countParticipants = participantsService.getParticipantsCount(idContest);
@@ -163,16 +185,29 @@ public class ContestWebSocketServiceImpl implements ContestWebSocketService {
         log.debug("Contest {}: {}/{} participants ready. Max: {}", idContest, countReady, countParticipants, countParticipantsMax);
 
         // Отправляем broadcast о готовности игрока
-        messagingTemplate.convertAndSend(
+        roomEventBroadcastService.send(
+                idContest,
                 String.format(TOPIC_PLAYER_READY, idContest),
                 new PlayerReadyMessage(idUser, countReady, countParticipants)
         );
 
         if (countReady >= ((countParticipantsMax + 1) / 2) && countParticipants >= MIN_COUNT_PARTICIPANTS) {
-            Contest contest = contestQueryService.getOne(idContest);
-            contest.setStatus(Status.WAITING);
-            contestCommandService.save(contest);
-            startCountdown(idContest);
+            if (!contestStatusService.transition(idContest, Status.CREATED, Status.WAITING)) {
+                return;
+            }
+            lobbyService.removeRoom(idContest);
+            lobbyBroadcastService.roomClosed(idContest);
+
+            contestSchedulerService.scheduleCountdownStart(
+                    idContest, System.currentTimeMillis() + multiplayerProperties.getCluster().getStartHandoverMs()
+            );
+            if (roomOwnershipService.isOwnedLocally(idContest)) {
+                if (contestSchedulerService.claimCountdownStart(idContest)) {
+                    startCountdown(idContest);
+                }
+            } else {
+                roomOwnershipService.forwardToOwner(idContest, RoomCommand.START_COUNTDOWN);
+            }
         }
     }
 
@@ -189,7 +224,8 @@ public class ContestWebSocketServiceImpl implements ContestWebSocketService {
                 countMax
         );
 
-        messagingTemplate.convertAndSend(
+        roomEventBroadcastService.send(
+                idContest,
                 String.format(TOPIC_PLAYER_JOINED, idContest),
                 messageJoined
         );
@@ -206,7 +242,8 @@ public class ContestWebSocketServiceImpl implements ContestWebSocketService {
                 countCurrent
         );
 
-        messagingTemplate.convertAndSend(
+        roomEventBroadcastService.send(
+                idContest,
                 String.format(TOPIC_PLAYER_LEFT, idContest),
                 messageLeft
         );
@@ -218,8 +255,11 @@ public class ContestWebSocketServiceImpl implements ContestWebSocketService {
     @Override
     public void finishContest(Long idContest) {
         ContestFinishedMessage messageFinished = self.finishContestTransaction(idContest);
+        progressBroadcastService.discardRoom(idContest);
+        roomOwnershipService.release(idContest);
 
-        messagingTemplate.convertAndSend(
+        roomEventBroadcastService.send(
+                idContest,
                 String.format(TOPIC_FINISHED, idContest),
                 messageFinished
         );
@@ -227,86 +267,129 @@ public class ContestWebSocketServiceImpl implements ContestWebSocketService {
         log.info("Contest {} finished", idContest);
     }
 
-    // Устанавливает статус FINISHED и формирует лидерборд из результатов PostgreSQL
+    // Устанавливает статус FINISHED в Redis, записывает результаты одним batch INSERT
+    // и формирует лидерборд из тех же результатов без повторного чтения из БД;
+    // итог кэшируется в комнате для переподключившихся клиентов
     @Override
-    @Transactional
     public ContestFinishedMessage finishContestTransaction(Long idContest) {
-        Contest contest = contestQueryService.getOne(idContest);
-        contest.setStatus(Status.FINISHED);
-        contestCommandService.save(contest);
+        contestStatusService.transition(idContest, Status.PROGRESS, Status.FINISHED);
+        List<FinishedResult> results = resultWriteBehindService.completeContest(idContest);
 
-        return new ContestFinishedMessage(buildLeaderboard(idContest));
+        ContestFinishedMessage messageFinished = new ContestFinishedMessage(buildLeaderboard(idContest, results));
+        leaderboardCacheService.save(idContest, messageFinished);
+        return messageFinished;
     }
 
-    // Собирает лидерборд: маппит результаты из БД
-    private List<ContestFinishedMessage.LeaderboardEntry> buildLeaderboard(Long idContest) {
-        List<ResultItem> results = resultItemQueryService.findAllByContest(idContest);
-        Set<Long> idsUser = results.stream().map(ResultItem::getIdUser).collect(Collectors.toSet());
-        List<UserView> userViews = userQueryService.findUserViewByIds(idsUser);
-        Map<Long, String> idAndUsernameMapping = userViews.stream()
-                .collect(Collectors.toMap(
-                        UserView::getId,
-                        UserView::getUsername
-                ));
+    @Override
+    public Optional<ContestFinishedMessage> getContestFinished(Long idContest) {
+        return leaderboardCacheService.find(idContest);
+    }
+
+    // Собирает лидерборд по местам; имена — из состояния комнаты
+    private List<ContestFinishedMessage.LeaderboardEntry> buildLeaderboard(Long idContest, List<FinishedResult> results) {
+        Map<Long, String> participantNames = participantsService.getParticipantNames(idContest);
         return results
                 .stream()
+                .sorted(Comparator.comparing(FinishedResult::place).thenComparingLong(FinishedResult::durationSeconds))
                 .map(result -> new ContestFinishedMessage.LeaderboardEntry(
-                        result.getId(),
-                        idAndUsernameMapping.get(result.getIdUser()),
-                        result.getPlace(),
-                        result.getDurationSeconds(),
-                        result.getSpeed(),
-                        result.getAccuracy()
+                        result.idUser(),
+                        participantNames.getOrDefault(result.idUser(), "Unknown"),
+                        result.place(),
+                        result.durationSeconds(),
+                        result.speed(),
+                        result.accuracy()
                 ))
                 .toList();
     }
 
-    // Планирует отправку countdown-сообщений каждую секунду; при 0 — стартует соревнование
-    private void startCountdown(Long idContest) {
-        IntStream.rangeClosed(0, COUNTDOWN_SECONDS).forEach(delayInSeconds -> {
-            int secondsRemaining = COUNTDOWN_SECONDS - delayInSeconds;
-            executorScheduled.schedule(() -> {
-                try {
-                    messagingTemplate.convertAndSend(
-                            String.format(TOPIC_COUNTDOWN, idContest),
-                            new CountdownMessage(secondsRemaining)
-                    );
-
-                    if (secondsRemaining == 0) {
-                        ContestStartMessage messageStart = transactionTemplate.execute(status ->
-                                buildStartMessage(idContest)
-                        );
-
-                        if (messageStart == null) {
-                            log.error("Failed to start contest {} - transaction returned null", idContest);
-                            return;
-                        }
-
-                        messagingTemplate.convertAndSend(
-                                String.format(TOPIC_START, idContest),
-                                messageStart
-                        );
-
-                        readyService.clearReady(idContest);
-
-                        log.info("Contest {} started", idContest);
-                    }
-                } catch (Exception e) {
-                    log.error("Error sending countdown for contest {}: {}", idContest, e.getMessage());
-                }
-            }, delayInSeconds, TimeUnit.SECONDS);
-        });
+    // Рассылает скрытый текст и планирует отсчёт и старт в планировщике соревнований.
+    // В протоколе scheduled вместо сообщений отсчёта рассылается один момент старта
+    @Override
+    public void startCountdown(Long idContest) {
+        distributeSealedText(idContest);
+
+        if (multiplayerProperties.getStart().getProtocol() != MultiplayerProperties.Start.Protocol.SCHEDULED) {
+            contestSchedulerService.scheduleCountdown(idContest, COUNTDOWN_SECONDS);
+            return;
+        }
+
+        final long timestampNow = System.currentTimeMillis();
+        final long timestampStart = timestampNow + COUNTDOWN_SECONDS * 1_000L;
+
+        contestSchedulerService.scheduleStart(idContest, timestampStart);
+        roomEventBroadcastService.send(
+                idContest,
+                String.format(TOPIC_START_SCHEDULED, idContest),
+                new ContestScheduledStartMessage(timestampStart, timestampNow, COUNTDOWN_SECONDS)
+        );
+    }
+
+    // Текст уходит клиентам во время отсчёта; ключ раскрытия хранится в Redis до старта.
+    // Текст берётся из кэша метаданных: на пути отсчёта нет обращений к БД
+    private void distributeSealedText(Long idContest) {
+        final String text = contestQueryService.getMetadata(idContest).textExercise();
+        final String revealKey = ExerciseTextSealer.generateRevealKey();
+
+        roomService.saveRevealKey(idContest, revealKey);
+        roomEventBroadcastService.send(
+                idContest,
+                String.format(TOPIC_TEXT, idContest),
+                new ContestTextMessage(ExerciseTextSealer.seal(text, revealKey))
+        );
+    }
+
+    @Override
+    public void broadcastCountdown(Long idContest, int secondsRemaining) {
+        roomEventBroadcastService.send(
+                idContest,
+                String.format(TOPIC_COUNTDOWN, idContest),
+                new CountdownMessage(secondsRemaining)
+        );
     }
 
-    // Переводит соревнование в статус PROGRESS и формирует сообщение с текстом и временем старта
-    private ContestStartMessage buildStartMessage(Long idContest) {
-        Contest contest = contestQueryService.getOneWithExercise(idContest);
-        contest.setStatus(Status.PROGRESS);
-        contestCommandService.save(contest);
+    // Переводит пачку соревнований в PROGRESS одним pipeline compare-and-set в Redis и рассылает ключи
+    // раскрытия текста: в момент старта нет ни обращений к БД, ни рассылки самого текста.
+    // Старт, не прошедший compare-and-set, рассылается, только если соревнование уже в PROGRESS, а события
+    // старта нет в журнале комнаты: прошлая попытка сменила статус и упала до рассылки. Повторно сработавший
+    // старт (восстановление после сбоя узла) находит событие в журнале и не рассылается
+    @Override
+    public void startContests(List<Long> idsContest) {
+        List<Long> idsStarted = new ArrayList<>(
+                contestStatusService.transitionAll(idsContest, Status.WAITING, Status.PROGRESS)
+        );
+        if (idsStarted.size() < idsContest.size()) {
+            idsContest.stream()
+                    .filter(idContest -> !idsStarted.contains(idContest))
+                    .filter(this::isStartPending)
+                    .forEach(idsStarted::add);
+        }
+        if (idsStarted.size() < idsContest.size()) {
+            log.warn("{} of {} contests were not in WAITING and are not started", idsContest.size() - idsStarted.size(), idsContest.size());
+        }
+        Map<Long, String> revealKeysByContest = roomService.getRevealKeys(idsStarted);
 
-        final String textExercise = contest.getExercise().getText();
         final long timestampStart = System.currentTimeMillis();
 
-        return new ContestStartMessage(textExercise, timestampStart);
+        idsStarted.forEach(idContest -> {
+            final String revealKey = revealKeysByContest.get(idContest);
+            if (revealKey == null) {
+                log.warn("Contest {} started without reveal key - clients will load text via REST", idContest);
+            }
+
+            roomEventBroadcastService.send(
+                    idContest,
+                    String.format(TOPIC_START, idContest),
+                    new ContestStartMessage(revealKey, timestampStart)
+            );
+
+            readyService.clearReady(idContest);
+
+            log.info("Contest {} started", idContest);
+        });
+    }
+
+    private boolean isStartPending(Long idContest) {
+        return contestStatusService.getStatus(idContest) == Status.PROGRESS
+                && !roomEventBroadcastService.isLogged(idContest, String.format(TOPIC_START, idContest));
     }
 }
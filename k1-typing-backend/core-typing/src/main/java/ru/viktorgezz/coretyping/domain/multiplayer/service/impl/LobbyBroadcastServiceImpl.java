@@ -0,0 +1,123 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbySnapshotMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbyUpdateMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbyUpdateMessage.LobbyRoomEvent;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService.LobbyPage;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.LobbyBroadcastService;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_LOBBY;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_LOBBY_LANGUAGE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LobbyBroadcastServiceImpl implements LobbyBroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LobbyService lobbyService;
+    private final MultiplayerProperties multiplayerProperties;
+
+    // idContest → последнее событие комнаты с прошлой рассылки
+    private final Map<Long, LobbyRoomEvent> eventsPendingByContest = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lockTick = new ReentrantLock();
+
+    @Override
+    public void roomCreated(AvailableRoomRsDto room) {
+        enqueue(new LobbyRoomEvent(LobbyUpdateMessage.Type.ROOM_CREATED, room.idContest(), room));
+    }
+
+    @Override
+    public void occupancyChanged(AvailableRoomRsDto room) {
+        enqueue(new LobbyRoomEvent(LobbyUpdateMessage.Type.OCCUPANCY_CHANGED, room.idContest(), room));
+    }
+
+    @Override
+    public void roomClosed(Long idContest) {
+        enqueue(new LobbyRoomEvent(LobbyUpdateMessage.Type.ROOM_CLOSED, idContest, null));
+    }
+
+    @Override
+    @Scheduled(fixedRateString = "${multiplayer.lobby.broadcast-interval-ms:1000}")
+    public void broadcastPending() {
+        lockTick.lock();
+        try {
+            List<LobbyRoomEvent> events = new ArrayList<>();
+            for (Long idContest : eventsPendingByContest.keySet()) {
+                LobbyRoomEvent event = eventsPendingByContest.remove(idContest);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+
+            messagingTemplate.convertAndSend(TOPIC_LOBBY, new LobbyUpdateMessage(events));
+
+            // Закрытие не знает языка комнаты и уходит во все языковые topic
+            for (Language language : Language.values()) {
+                List<LobbyRoomEvent> eventsLanguage = events.stream()
+                        .filter(event -> event.room() == null || event.room().language() == language)
+                        .toList();
+                if (!eventsLanguage.isEmpty()) {
+                    messagingTemplate.convertAndSend(
+                            String.format(TOPIC_LOBBY_LANGUAGE, language.name()),
+                            new LobbyUpdateMessage(eventsLanguage)
+                    );
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error broadcasting lobby updates: {}", e.getMessage());
+        } finally {
+            lockTick.unlock();
+        }
+    }
+
+    // Лобби одного языка читается из индекса языка: страница заполняется целиком, total — все комнаты языка
+    @Override
+    public LobbySnapshotMessage getSnapshot(Language language) {
+        final int snapshotSize = multiplayerProperties.getLobby().getSnapshotSize();
+        LobbyPage lobbyPage = language == null
+                ? lobbyService.getRooms(0, snapshotSize)
+                : lobbyService.getRooms(language, 0, snapshotSize);
+        return new LobbySnapshotMessage(lobbyPage.rooms(), lobbyPage.total());
+    }
+
+    // Узлы чистят лобби независимо: скрипт идемпотентен, закрытие рассылает узел, удаливший комнату
+    @Override
+    @Scheduled(fixedDelayString = "${multiplayer.lobby.prune-interval-ms:60000}")
+    public void pruneExpiredRooms() {
+        try {
+            lobbyService.pruneExpired().forEach(this::roomClosed);
+        } catch (Exception e) {
+            log.error("Error pruning lobby: {}", e.getMessage());
+        }
+    }
+
+    // Созданная и сразу изменившаяся комната остаётся созданной: подписчики ещё не видели её
+    private void enqueue(LobbyRoomEvent event) {
+        eventsPendingByContest.merge(event.idContest(), event, (eventPrevious, eventNew) ->
+                eventPrevious.type() == LobbyUpdateMessage.Type.ROOM_CREATED
+                        && eventNew.type() == LobbyUpdateMessage.Type.OCCUPANCY_CHANGED
+                        ? new LobbyRoomEvent(LobbyUpdateMessage.Type.ROOM_CREATED, eventNew.idContest(), eventNew.room())
+                        : eventNew
+        );
+    }
+}
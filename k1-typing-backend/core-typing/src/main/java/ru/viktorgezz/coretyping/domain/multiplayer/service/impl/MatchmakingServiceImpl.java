@@ -0,0 +1,141 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rq.EnqueueMatchmakingRqDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.MatchmakingStatusRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.MatchmakingStatusRsDto.MatchmakingStatus;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.MatchFoundMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.MatchmakingQueueService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.MatchmakingQueueService.QueuedPlayer;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestRoomCommandService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.MatchmakingService;
+import ru.viktorgezz.coretyping.domain.user.User;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+import ru.viktorgezz.statistics_result_module.statistics.service.intrf.UserLeaderboardService;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.QUEUE_MATCHMAKING;
+import static ru.viktorgezz.coretyping.util.CurrentUserUtils.getCurrentUser;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchmakingServiceImpl implements MatchmakingService {
+
+    private static final int ROOM_SIZE_MIN = 2;
+
+    private final MatchmakingQueueService matchmakingQueueService;
+    private final ContestRoomCommandService contestRoomCommandService;
+    private final UserLeaderboardService userLeaderboardService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MultiplayerProperties multiplayerProperties;
+
+    private final ReentrantLock lockTick = new ReentrantLock();
+
+    @Override
+    public MatchmakingStatusRsDto enqueue(EnqueueMatchmakingRqDto dto) {
+        User user = getCurrentUser();
+        double rating = userLeaderboardService.getAverageSpeed(user.getId()).doubleValue();
+
+        matchmakingQueueService.enqueue(user.getId(), user.getUsername(), dto.language(), rating);
+        return new MatchmakingStatusRsDto(MatchmakingStatus.WAITING, dto.language(), null);
+    }
+
+    @Override
+    public void cancel() {
+        matchmakingQueueService.cancel(getCurrentUser().getId());
+    }
+
+    // Уведомление о подборе уходит только сессиям узла, создавшего комнату; остальные узнают результат здесь
+    @Override
+    public MatchmakingStatusRsDto getStatus() {
+        Long idUser = getCurrentUser().getId();
+
+        Optional<Long> idContestMatched = matchmakingQueueService.getMatchedContest(idUser);
+        if (idContestMatched.isPresent()) {
+            return new MatchmakingStatusRsDto(MatchmakingStatus.MATCHED, null, idContestMatched.get());
+        }
+        return matchmakingQueueService.getQueuedLanguage(idUser)
+                .map(language -> new MatchmakingStatusRsDto(MatchmakingStatus.WAITING, language, null))
+                .orElseGet(() -> new MatchmakingStatusRsDto(MatchmakingStatus.NOT_QUEUED, null, null));
+    }
+
+    // Тик можно запускать на всех узлах: группа забирается из очереди атомарно одним скриптом
+    @Override
+    @Scheduled(fixedDelayString = "${multiplayer.matchmaking.interval-ms:300}")
+    public void matchPending() {
+        if (!lockTick.tryLock()) {
+            return;
+        }
+        try {
+            for (Language language : Language.values()) {
+                matchLanguage(language);
+            }
+        } catch (Exception e) {
+            log.error("Matchmaking tick failed: {}", e.getMessage());
+        } finally {
+            lockTick.unlock();
+        }
+    }
+
+    private void matchLanguage(Language language) {
+        final MultiplayerProperties.Matchmaking properties = multiplayerProperties.getMatchmaking();
+        final long timestampNow = System.currentTimeMillis();
+
+        Map<Long, Long> waitingByUser = matchmakingQueueService.getOldestWaiting(language, properties.getAnchorsPerTick());
+        Set<Long> idsTaken = new HashSet<>();
+
+        waitingByUser.forEach((idAnchor, timestampEnqueued) -> {
+            if (idsTaken.contains(idAnchor)) {
+                return;
+            }
+            long waitMs = Math.max(0, timestampNow - timestampEnqueued);
+            double window = Math.min(
+                    properties.getRatingWindowMax(),
+                    properties.getRatingWindowBase() + properties.getRatingWindowGrowthPerSecond() * waitMs / 1000.0
+            );
+            int minSize = waitMs >= properties.getMaxWaitMs() ? ROOM_SIZE_MIN : properties.getRoomSize();
+
+            List<QueuedPlayer> group = matchmakingQueueService.takeGroup(
+                    language, idAnchor, window, properties.getRoomSize(), minSize
+            );
+            if (group.isEmpty()) {
+                return;
+            }
+            group.forEach(player -> idsTaken.add(player.idUser()));
+            createRoom(language, group);
+        });
+    }
+
+    private void createRoom(Language language, List<QueuedPlayer> group) {
+        List<Long> idsUser = group.stream().map(QueuedPlayer::idUser).toList();
+
+        Long idContest;
+        try {
+            idContest = contestRoomCommandService.createMatchedRoom(language, idsUser);
+        } catch (Exception e) {
+            // Группа уже забрана из очереди: возвращаем игроков на их места, чтобы они не потерялись
+            log.error("Matched room creation for {} players failed: {}", group.size(), e.getMessage());
+            matchmakingQueueService.requeue(language, group);
+            return;
+        }
+
+        matchmakingQueueService.saveMatched(idsUser, idContest);
+        MatchFoundMessage message = new MatchFoundMessage(idContest);
+        group.forEach(player ->
+                messagingTemplate.convertAndSendToUser(player.username(), QUEUE_MATCHMAKING, message)
+        );
+        log.debug("Matched {} players into room {}", group.size(), idContest);
+    }
+}
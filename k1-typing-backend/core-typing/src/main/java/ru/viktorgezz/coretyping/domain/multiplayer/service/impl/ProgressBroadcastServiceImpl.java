@@ -0,0 +1,310 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.multiplayer.broker.RedisBrokerRelayInterceptor;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.RankedProgressMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.RankedProgressMessage.RankedProgress;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressRankingService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressRankingService.RankingView;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ProgressBroadcastService;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.QUEUE_CONTEST_PROGRESS;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_PROGRESS;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressBroadcastServiceImpl implements ProgressBroadcastService {
+
+    private static final UserProgressData PROGRESS_ZERO = ProgressCodec.unpack(ProgressCodec.PACKED_ZERO);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final ProgressService progressService;
+    private final ProgressRankingService progressRankingService;
+    private final ParticipantsService participantsService;
+    private final RoomService roomService;
+    private final MultiplayerProperties multiplayerProperties;
+
+    // Узел нумерует кадры своих комнат независимо от других узлов; клиент различает потоки по origin
+    private final String idOrigin = UUID.randomUUID().toString();
+
+    // idContest → последний прогресс участников, изменившийся с прошлого тика
+    private final Map<Long, Map<Long, UserProgressData>> progressPendingByContest = new ConcurrentHashMap<>();
+
+    // idContest → состояние кадров комнаты; изменяется только внутри тика
+    private final Map<Long, RoomFrameState> frameStateByContest = new ConcurrentHashMap<>();
+
+    // Тики не пересекаются; lock вместо synchronized — тик с Redis-вызовами не закрепляет виртуальный поток
+    private final ReentrantLock lockTick = new ReentrantLock();
+
+    @Override
+    public void markDirty(Long idContest, Long idUser, UserProgressData progressData) {
+        // compute атомарен относительно remove в тике: обновление либо попадёт в текущий кадр, либо в следующий
+        progressPendingByContest.compute(idContest, (id, progressPending) -> {
+            Map<Long, UserProgressData> progressResult = progressPending == null ? new HashMap<>() : progressPending;
+            progressResult.put(idUser, progressData);
+            return progressResult;
+        });
+    }
+
+    @Override
+    @Scheduled(fixedRateString = "${multiplayer.progress.broadcast-interval-ms:100}")
+    public void broadcastDirtyRooms() {
+        lockTick.lock();
+        try {
+            for (Long idContest : getContestsToTick()) {
+                Map<Long, UserProgressData> progressPending = Objects.requireNonNullElse(
+                        progressPendingByContest.remove(idContest), Map.of()
+                );
+                RoomFrameState stateExisting = frameStateByContest.get(idContest);
+                if (progressPending.isEmpty() && (stateExisting == null || !isActiveRemotely(idContest, stateExisting))) {
+                    continue;
+                }
+
+                try {
+                    RoomFrameState state = frameStateByContest.computeIfAbsent(idContest, id -> new RoomFrameState());
+                    if (isLargeRoom(idContest, state)) {
+                        broadcastRanked(idContest, state, progressPending);
+                        continue;
+                    }
+
+                    AllProgressMessage messageFrame = buildFrame(idContest, state, progressPending);
+                    if (messageFrame != null) {
+                        messagingTemplate.convertAndSend(String.format(TOPIC_PROGRESS, idContest), messageFrame);
+                    }
+                } catch (Exception e) {
+                    log.error("Error broadcasting progress for contest {}: {}", idContest, e.getMessage());
+                }
+            }
+        } finally {
+            lockTick.unlock();
+        }
+    }
+
+    // Комнаты с изменениями этого узла; в кластере ещё и большие комнаты с клиентами узла —
+    // их прогресс меняют игроки других узлов, и кадр нужен без локальных изменений
+    private Set<Long> getContestsToTick() {
+        Set<Long> idsContest = new HashSet<>(progressPendingByContest.keySet());
+        if (multiplayerProperties.getCluster().isEnabled()) {
+            frameStateByContest.forEach((idContest, state) -> {
+                if (Boolean.TRUE.equals(state.largeRoom) && !state.usernamesLocal.isEmpty()) {
+                    idsContest.add(idContest);
+                }
+            });
+        }
+        return idsContest;
+    }
+
+    // Комнату завершает её владелец: остальные узлы узнают о завершении по статусу и забывают комнату
+    private boolean isActiveRemotely(Long idContest, RoomFrameState state) {
+        if (!Boolean.TRUE.equals(state.largeRoom) || state.usernamesLocal.isEmpty()) {
+            return false;
+        }
+        if (roomService.getStatus(idContest).filter(status -> status == Status.PROGRESS).isEmpty()) {
+            discardRoom(idContest);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void discardRoom(Long idContest) {
+        progressPendingByContest.remove(idContest);
+        frameStateByContest.remove(idContest);
+    }
+
+    // Формирует keyframe из Redis либо delta из изменившихся участников; null — изменений нет
+    private AllProgressMessage buildFrame(Long idContest, RoomFrameState state, Map<Long, UserProgressData> progressPending) {
+        final MultiplayerProperties.Progress propertiesProgress = multiplayerProperties.getProgress();
+
+        boolean isKeyframe = !propertiesProgress.isDeltaEnabled()
+                || state.sequence == 0
+                || state.framesSinceKeyframe + 1 >= propertiesProgress.getKeyframeEvery();
+
+        if (isKeyframe) {
+            Map<Long, UserProgressData> progressAll = progressService.getProgressAll(idContest);
+            state.progressSent.clear();
+            state.progressSent.putAll(progressAll);
+            state.framesSinceKeyframe = 0;
+            return new AllProgressMessage(progressAll, idOrigin, ++state.sequence, true);
+        }
+
+        Map<Long, UserProgressData> progressChanged = new HashMap<>();
+        progressPending.forEach((idUser, progressData) -> {
+            if (isChanged(state.progressSent.get(idUser), progressData)) {
+                progressChanged.put(idUser, progressData);
+            }
+        });
+
+        if (progressChanged.isEmpty()) {
+            return null;
+        }
+
+        state.progressSent.putAll(progressChanged);
+        state.framesSinceKeyframe++;
+        return new AllProgressMessage(progressChanged, idOrigin, ++state.sequence, false);
+    }
+
+    // Лимит участников не меняется после создания комнаты: читается из Redis один раз
+    private boolean isLargeRoom(Long idContest, RoomFrameState state) {
+        if (state.largeRoom == null) {
+            state.largeRoom = roomService.getParticipantsMax(idContest)
+                    > multiplayerProperties.getProgress().getLargeRoomThreshold();
+        }
+        return state.largeRoom;
+    }
+
+    // Большая комната: изменившиеся участники обновляют рейтинг (ZADD, O(log N) на участника), а каждый клиент
+    // узла получает лидеров и своих соседей — кадр O(K). Лидеры и окна читаются одним скриптом по skip list:
+    // тик стоит O(log N + K) на комнату и O(log N + n) на клиента узла, без чтения всего рейтинга.
+    // Keyframe перечитывает прогресс и имена из Redis и заново находит клиентов узла среди участников;
+    // между keyframe к ним добавляются приславшие прогресс. Кадры получают только клиенты, подключённые
+    // к этому узлу, и уходят без ретрансляции: при нескольких узлах каждый узел обслуживает своих клиентов,
+    // а прогресс показанных участников читается из Redis — у узла в памяти только изменения его игроков
+    private void broadcastRanked(Long idContest, RoomFrameState state, Map<Long, UserProgressData> progressPending) {
+        final MultiplayerProperties.Progress propertiesProgress = multiplayerProperties.getProgress();
+        final boolean clusterEnabled = multiplayerProperties.getCluster().isEnabled();
+
+        if (state.sequence == 0 || state.framesSinceKeyframe + 1 >= propertiesProgress.getKeyframeEvery()) {
+            state.usernames = participantsService.getParticipantNames(idContest);
+            Map<Long, UserProgressData> progressAll = progressService.getProgressAll(idContest);
+            state.usernames.keySet().forEach(idUser -> progressAll.putIfAbsent(idUser, PROGRESS_ZERO));
+
+            state.progressSent.clear();
+            state.progressSent.putAll(progressAll);
+            progressRankingService.updateScores(idContest, progressAll);
+
+            state.usernamesLocal.clear();
+            state.usernames.forEach((idUser, username) -> {
+                if (simpUserRegistry.getUser(username) != null) {
+                    state.usernamesLocal.put(idUser, username);
+                }
+            });
+            state.framesSinceKeyframe = 0;
+        } else {
+            Map<Long, UserProgressData> progressChanged = new HashMap<>();
+            progressPending.forEach((idUser, progressData) -> {
+                if (isChanged(state.progressSent.get(idUser), progressData)) {
+                    progressChanged.put(idUser, progressData);
+                }
+            });
+            if (progressChanged.isEmpty() && !clusterEnabled) {
+                return;
+            }
+
+            state.progressSent.putAll(progressChanged);
+            progressRankingService.updateScores(idContest, progressChanged);
+            state.framesSinceKeyframe++;
+        }
+
+        final long sequence = ++state.sequence;
+        // Прогресс присылают только клиенты этого узла; вошедший после keyframe ещё не известен по имени
+        if (!state.usernames.keySet().containsAll(progressPending.keySet())) {
+            state.usernames = participantsService.getParticipantNames(idContest);
+        }
+        progressPending.keySet().forEach(idUser -> {
+            final String username = state.usernames.get(idUser);
+            if (username != null) {
+                state.usernamesLocal.put(idUser, username);
+            }
+        });
+        state.usernamesLocal.values().removeIf(username -> simpUserRegistry.getUser(username) == null);
+        if (state.usernamesLocal.isEmpty()) {
+            return;
+        }
+
+        final RankingView ranking = progressRankingService.getRankingView(
+                idContest,
+                propertiesProgress.getLargeRoomTopK(),
+                propertiesProgress.getLargeRoomNeighbours(),
+                state.usernamesLocal.keySet()
+        );
+
+        Set<Long> idsShown = new HashSet<>(ranking.idsLeaders());
+        ranking.windowsByUser().values().forEach(window -> idsShown.addAll(window.idsUser()));
+        final Map<Long, UserProgressData> progressShown = clusterEnabled
+                ? progressService.getProgressByUsers(idContest, idsShown)
+                : state.progressSent;
+
+        final String destination = String.format(QUEUE_CONTEST_PROGRESS, idContest);
+        final List<RankedProgress> leaders = toRanked(ranking.idsLeaders(), 0, progressShown);
+        ranking.windowsByUser().forEach((idUser, window) -> messagingTemplate.convertAndSendToUser(
+                state.usernamesLocal.get(idUser),
+                destination,
+                new RankedProgressMessage(
+                        sequence,
+                        ranking.countRanked(),
+                        leaders,
+                        toRanked(window.idsUser(), window.rankFirst(), progressShown)
+                ),
+                RedisBrokerRelayInterceptor.headersLocal()
+        ));
+    }
+
+    private static List<RankedProgress> toRanked(
+            List<Long> idsRanked,
+            int rankFirst,
+            Map<Long, UserProgressData> progressShown
+    ) {
+        List<RankedProgress> ranked = new ArrayList<>(idsRanked.size());
+        for (int i = 0; i < idsRanked.size(); i++) {
+            final Long idUser = idsRanked.get(i);
+            // Участник, вошедший на другом узле после keyframe, ещё не попал в прогресс этого узла
+            final UserProgressData progressData = progressShown.getOrDefault(idUser, PROGRESS_ZERO);
+            ranked.add(new RankedProgress(
+                    idUser, rankFirst + i + 1, progressData.progress(), progressData.speed(), progressData.accuracy()
+            ));
+        }
+        return ranked;
+    }
+
+    private static boolean isChanged(UserProgressData progressSent, UserProgressData progressNew) {
+        if (progressSent == null) {
+            return true;
+        }
+        return progressSent.progress() != progressNew.progress()
+                || progressSent.speed() != progressNew.speed()
+                || progressSent.accuracy() == null
+                || progressNew.accuracy() == null
+                || progressSent.accuracy().compareTo(progressNew.accuracy()) != 0;
+    }
+
+    private static class RoomFrameState {
+
+        private long sequence;
+        private int framesSinceKeyframe;
+        private final Map<Long, UserProgressData> progressSent = new HashMap<>();
+
+        // null — размер комнаты ещё не прочитан
+        private Boolean largeRoom;
+        private Map<Long, String> usernames = Map.of();
+
+        // idUser → username участников, подключённых к этому узлу
+        private final Map<Long, String> usernamesLocal = new HashMap<>();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ResultBufferService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ResultBufferService.FinishedResult;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ResultWriteBehindService;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+import ru.viktorgezz.statistics_result_module.result_item.dto.rq.MultiplayerResultItemDto;
+import ru.viktorgezz.statistics_result_module.result_item.service.intrf.ResultItemCommandService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResultWriteBehindServiceImpl implements ResultWriteBehindService {
+
+    private final ResultBufferService resultBufferService;
+    private final ResultItemCommandService resultItemCommandService;
+    private final MultiplayerProperties multiplayerProperties;
+
+    @Override
+    public boolean recordResult(Long idContest, FinishedResult result) {
+        if (!resultBufferService.addResult(idContest, result)) {
+            log.debug("Contest {}: repeated result of user {} ignored", idContest, result.idUser());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<FinishedResult> completeContest(Long idContest) {
+        persist(Map.of(idContest, takePending(idContest)));
+        return resultBufferService.getResults(idContest);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${multiplayer.results.flush-interval-ms:5000}")
+    public void flushStale() {
+        final MultiplayerProperties.Results properties = multiplayerProperties.getResults();
+        final long timestampBefore = System.currentTimeMillis() - properties.getFlushDelayMs();
+
+        try {
+            Map<Long, List<FinishedResult>> resultsByContest = new LinkedHashMap<>();
+            resultBufferService.getContestsPendingSince(timestampBefore, properties.getBatchMax())
+                    .forEach(idContest -> resultsByContest.put(idContest, takePending(idContest)));
+            persist(resultsByContest);
+        } catch (Exception e) {
+            log.error("Stale results flush failed: {}", e.getMessage());
+        }
+    }
+
+    // Из индекса комната убирается до забора: результат, пришедший между командами, вернёт её в индекс
+    private List<FinishedResult> takePending(Long idContest) {
+        resultBufferService.removeFromPendingIndex(idContest);
+        return resultBufferService.takePending(idContest);
+    }
+
+    // Один INSERT batch на все комнаты; при ошибке результаты возвращаются в незаписанные
+    private void persist(Map<Long, List<FinishedResult>> resultsByContest) {
+        List<MultiplayerResultItemDto> dtos = new ArrayList<>();
+        resultsByContest.forEach((idContest, results) -> results.forEach(result -> dtos.add(
+                new MultiplayerResultItemDto(
+                        idContest,
+                        result.idUser(),
+                        result.durationSeconds(),
+                        result.speed(),
+                        result.accuracy(),
+                        result.place()
+                )
+        )));
+        if (dtos.isEmpty()) {
+            return;
+        }
+
+        try {
+            resultItemCommandService.saveResultsMultiplayer(dtos);
+        } catch (Exception e) {
+            log.error("Batch insert of {} results failed: {}", dtos.size(), e.getMessage());
+            resultsByContest.forEach((idContest, results) -> resultBufferService.restorePending(
+                    idContest, results.stream().map(FinishedResult::idUser).toList()
+            ));
+        }
+    }
+}
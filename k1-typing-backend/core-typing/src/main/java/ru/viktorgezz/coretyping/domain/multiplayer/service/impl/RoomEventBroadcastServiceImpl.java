@@ -0,0 +1,68 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.RoomEventsReplayMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomEventLogService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomEventLogService.EventsReplay;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomEventBroadcastService;
+
+import java.util.Map;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.HEADER_SEQUENCE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomEventBroadcastServiceImpl implements RoomEventBroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventLogService roomEventLogService;
+    private final ObjectMapper objectMapper;
+
+    // Событие пишется в журнал до рассылки: номер, который увидит клиент, уже можно запросить повторно
+    @Override
+    public void send(Long idContest, String destination, Object payload) {
+        Map<String, Object> headers;
+        try {
+            final long sequence = roomEventLogService.append(
+                    idContest, destination, objectMapper.writeValueAsString(payload)
+            );
+            headers = Map.of(HEADER_SEQUENCE, sequence);
+        } catch (Exception e) {
+            // Событие важнее журнала: без номера клиент при переподключении загрузит комнату целиком
+            log.error("Contest {}: event log append failed for {}: {}", idContest, destination, e.getMessage());
+            headers = Map.of();
+        }
+
+        messagingTemplate.convertAndSend(destination, payload, headers);
+    }
+
+    @Override
+    public RoomEventsReplayMessage getMissed(Long idContest, long sequenceLast) {
+        EventsReplay replay = roomEventLogService.getSince(idContest, sequenceLast);
+        return new RoomEventsReplayMessage(
+                replay.sequenceCurrent(),
+                replay.truncated(),
+                replay.events()
+                        .stream()
+                        .map(event -> new RoomEventsReplayMessage.Event(
+                                event.sequence(),
+                                event.destination(),
+                                event.payload()
+                        ))
+                        .toList()
+        );
+    }
+
+    @Override
+    public boolean isLogged(Long idContest, String destination) {
+        return roomEventLogService.getSince(idContest, 0)
+                .events()
+                .stream()
+                .anyMatch(event -> event.destination().equals(destination));
+    }
+}
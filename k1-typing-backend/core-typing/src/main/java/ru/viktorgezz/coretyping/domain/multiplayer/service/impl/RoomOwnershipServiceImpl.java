@@ -0,0 +1,208 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.RoomOwnerRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.ownership.ConsistentHashRing;
+import ru.viktorgezz.coretyping.domain.multiplayer.ownership.RoomCommand;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomOwnershipService;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_NODES_ADDRESS;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_NODES_ALIVE;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyOwner;
+
+@Slf4j
+@Service
+public class RoomOwnershipServiceImpl implements RoomOwnershipService {
+
+    private static final RedisScript<Long> SCRIPT_RENEW_LEASE = RedisScript.of(
+            new ClassPathResource("redis-scripts/renew_lease.lua"), Long.class
+    );
+    private static final RedisScript<Long> SCRIPT_RELEASE_LEASE = RedisScript.of(
+            new ClassPathResource("redis-scripts/release_lease.lua"), Long.class
+    );
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MultiplayerProperties.Cluster propertiesCluster;
+    private final String idNodeLocal;
+
+    // Комнаты, аренду которых держит этот узел; продлеваются каждый heartbeat
+    private final Set<Long> roomsOwned = ConcurrentHashMap.newKeySet();
+
+    private volatile ConsistentHashRing ring;
+
+    // Heartbeat продлевает аренды на своём потоке: медленная задача общего планировщика (JDBC, ожидание
+    // соединения Hikari) не должна задержать продление дольше срока аренды
+    private ScheduledExecutorService executorHeartbeat;
+
+    public RoomOwnershipServiceImpl(StringRedisTemplate stringRedisTemplate, MultiplayerProperties multiplayerProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.propertiesCluster = multiplayerProperties.getCluster();
+        this.idNodeLocal = resolveIdNode(propertiesCluster.getIdNode());
+        this.ring = ConsistentHashRing.of(Set.of(idNodeLocal), propertiesCluster.getVirtualNodes());
+    }
+
+    @PostConstruct
+    void register() {
+        if (propertiesCluster.isEnabled()) {
+            heartbeat();
+            log.info("Node {} joined cluster ring of {} nodes", idNodeLocal, ring.getNodes().size());
+
+            final long intervalMs = propertiesCluster.getHeartbeatIntervalMs();
+            executorHeartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("cluster-heartbeat-"));
+            executorHeartbeat.scheduleWithFixedDelay(this::heartbeat, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public String getIdNodeLocal() {
+        return idNodeLocal;
+    }
+
+    @Override
+    public RoomOwnerRsDto getOwner(Long idContest) {
+        if (!propertiesCluster.isEnabled()) {
+            return new RoomOwnerRsDto(idContest, idNodeLocal, propertiesCluster.getAdvertisedAddress(), true);
+        }
+
+        final String keyLease = keyOwner(idContest);
+        String idOwner = stringRedisTemplate.opsForValue().get(keyLease);
+
+        if (idOwner == null) {
+            final String idPreferred = ring.nodeFor(idContest).orElse(idNodeLocal);
+            if (!idPreferred.equals(idNodeLocal)) {
+                return new RoomOwnerRsDto(idContest, idPreferred, addressOf(idPreferred), false);
+            }
+
+            boolean isAcquired = Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(
+                    keyLease, idNodeLocal, Duration.ofMillis(propertiesCluster.getLeaseMs())
+            ));
+            idOwner = isAcquired ? idNodeLocal : stringRedisTemplate.opsForValue().get(keyLease);
+            if (idOwner == null) {
+                return new RoomOwnerRsDto(idContest, idPreferred, addressOf(idPreferred), false);
+            }
+        }
+
+        // Аренда могла остаться от прошлого запуска узла с тем же idNode
+        if (idOwner.equals(idNodeLocal)) {
+            roomsOwned.add(idContest);
+        }
+        return new RoomOwnerRsDto(idContest, idOwner, addressOf(idOwner), true);
+    }
+
+    @Override
+    public boolean isOwnedLocally(Long idContest) {
+        if (!propertiesCluster.isEnabled() || roomsOwned.contains(idContest)) {
+            return true;
+        }
+        RoomOwnerRsDto owner = getOwner(idContest);
+        return owner.leased() && idNodeLocal.equals(owner.idNode());
+    }
+
+    @Override
+    public void forwardToOwner(Long idContest, RoomCommand command) {
+        stringRedisTemplate.convertAndSend(propertiesCluster.getCommandChannel(), command.name() + ":" + idContest);
+    }
+
+    @Override
+    public void release(Long idContest) {
+        if (!propertiesCluster.isEnabled() || !roomsOwned.remove(idContest)) {
+            return;
+        }
+        stringRedisTemplate.execute(SCRIPT_RELEASE_LEASE, List.of(keyOwner(idContest)), idNodeLocal);
+    }
+
+    @Override
+    public void heartbeat() {
+        if (!propertiesCluster.isEnabled()) {
+            return;
+        }
+
+        try {
+            final long timestampNow = System.currentTimeMillis();
+            final long timestampDead = timestampNow - propertiesCluster.getLeaseMs();
+
+            stringRedisTemplate.opsForZSet().add(KEY_NODES_ALIVE, idNodeLocal, timestampNow);
+            stringRedisTemplate.opsForHash().put(KEY_NODES_ADDRESS, idNodeLocal, propertiesCluster.getAdvertisedAddress());
+            stringRedisTemplate.opsForZSet().removeRangeByScore(KEY_NODES_ALIVE, 0, timestampDead);
+
+            Set<String> nodesAlive = Objects.requireNonNullElse(
+                    stringRedisTemplate.opsForZSet().rangeByScore(KEY_NODES_ALIVE, timestampDead, Double.MAX_VALUE),
+                    Set.of()
+            );
+            if (!nodesAlive.isEmpty() && !nodesAlive.equals(ring.getNodes())) {
+                ring = ConsistentHashRing.of(nodesAlive, propertiesCluster.getVirtualNodes());
+                log.info("Cluster ring rebuilt: {} nodes alive", nodesAlive.size());
+            }
+
+            renewLeases();
+        } catch (Exception e) {
+            log.error("Heartbeat of node {} failed: {}", idNodeLocal, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void deregister() {
+        if (!propertiesCluster.isEnabled()) {
+            return;
+        }
+        if (executorHeartbeat != null) {
+            executorHeartbeat.shutdownNow();
+        }
+        try {
+            Set.copyOf(roomsOwned).forEach(this::release);
+            stringRedisTemplate.opsForZSet().remove(KEY_NODES_ALIVE, idNodeLocal);
+            stringRedisTemplate.opsForHash().delete(KEY_NODES_ADDRESS, idNodeLocal);
+        } catch (Exception e) {
+            log.warn("Deregistration of node {} failed: {}", idNodeLocal, e.getMessage());
+        }
+    }
+
+    // Аренду, которую узел потерял (истекла при паузе GC, сетевом разрыве), больше не считаем своей
+    private void renewLeases() {
+        final String leaseMs = Long.toString(propertiesCluster.getLeaseMs());
+        for (Long idContest : roomsOwned) {
+            Long isRenewed = stringRedisTemplate.execute(SCRIPT_RENEW_LEASE, List.of(keyOwner(idContest)), idNodeLocal, leaseMs);
+            if (!Long.valueOf(1L).equals(isRenewed)) {
+                roomsOwned.remove(idContest);
+                log.warn("Node {} lost lease of contest {}", idNodeLocal, idContest);
+            }
+        }
+    }
+
+    private String addressOf(String idNode) {
+        Object address = stringRedisTemplate.opsForHash().get(KEY_NODES_ADDRESS, idNode);
+        return address == null ? "" : address.toString();
+    }
+
+    private static String resolveIdNode(String idNodeConfigured) {
+        if (idNodeConfigured != null && !idNodeConfigured.isBlank()) {
+            return idNodeConfigured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
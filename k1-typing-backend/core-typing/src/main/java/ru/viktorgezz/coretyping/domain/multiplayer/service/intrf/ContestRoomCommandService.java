@@ -1,8 +1,11 @@
 package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
 
+import ru.viktorgezz.coretyping.domain.exercises.Language;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rq.CreateRoomRqDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.JoinRoomRsDto;
 
+import java.util.List;
+
 public interface ContestRoomCommandService {
 
     JoinRoomRsDto createRoom(CreateRoomRqDto dto);
@@ -10,4 +13,12 @@ public interface ContestRoomCommandService {
     JoinRoomRsDto joinRoom(Long idContest);
 
     void leaveRoom(Long idContest);
+
+    /**
+     * Создаёт комнату быстрой игры для подобранной группы со случайным упражнением на языке группы.
+     *
+     * @param idsUser участники; размер комнаты равен размеру группы
+     * @return ID созданного контеста
+     */
+    Long createMatchedRoom(Language language, List<Long> idsUser);
 }
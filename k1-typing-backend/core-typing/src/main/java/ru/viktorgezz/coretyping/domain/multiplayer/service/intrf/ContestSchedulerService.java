@@ -0,0 +1,40 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+/**
+ * Планировщик отсчёта и старта соревнований.
+ * <p>
+ * События хранятся в ZSET Redis (переживают рестарт узла) и одновременно ставятся в локальное
+ * колесо таймеров. Событие выполняется ровно один раз: его забирает тот узел, чей ZREM вернул 1.
+ * Просроченные события брошенного узла подбирает периодическое восстановление на любом узле.
+ */
+public interface ContestSchedulerService {
+
+    /**
+     * Сохраняет запуск отсчёта до передачи владельцу комнаты. Если владелец не заберёт его
+     * через {@link #claimCountdownStart} к {@code timestampDeadline}, отсчёт запустит колесо этого узла
+     * или восстановление на любом узле.
+     */
+    void scheduleCountdownStart(Long idContest, long timestampDeadline);
+
+    /**
+     * Забирает запуск отсчёта из Redis.
+     *
+     * @return true — отсчёт запускает вызывающий; false — его уже забрал другой узел
+     */
+    boolean claimCountdownStart(Long idContest);
+
+    /**
+     * Планирует сообщения отсчёта каждую секунду и старт соревнования через {@code countdownSeconds}.
+     */
+    void scheduleCountdown(Long idContest, int countdownSeconds);
+
+    /**
+     * Планирует только старт соревнования в момент {@code timestampStart}: отсчёт ведёт клиент.
+     */
+    void scheduleStart(Long idContest, long timestampStart);
+
+    /**
+     * Забирает из Redis события, просроченные дольше допустимого, и выполняет их.
+     */
+    void recoverOverdue();
+}
@@ -0,0 +1,36 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.contest.Status;
+
+import java.util.List;
+
+/**
+ * Статус идущего соревнования: источник истины — хеш комнаты в Redis, PostgreSQL догоняет его
+ * пачечной записью по тику.
+ */
+public interface ContestStatusService {
+
+    /**
+     * Статус из Redis; для комнат, которых в Redis уже нет, — из PostgreSQL.
+     */
+    Status getStatus(Long idContest);
+
+    /**
+     * Атомарный переход статуса; при успехе запись в PostgreSQL ставится в очередь.
+     *
+     * @return true — переход выполнил именно этот вызов
+     */
+    boolean transition(Long idContest, Status statusExpected, Status statusNew);
+
+    /**
+     * Переход пачки комнат одним pipeline.
+     *
+     * @return комнаты, переход которых выполнил этот вызов
+     */
+    List<Long> transitionAll(List<Long> idsContest, Status statusExpected, Status statusNew);
+
+    /**
+     * Записывает накопленные переходы в PostgreSQL: один UPDATE на каждый целевой статус.
+     */
+    void flushPending();
+}
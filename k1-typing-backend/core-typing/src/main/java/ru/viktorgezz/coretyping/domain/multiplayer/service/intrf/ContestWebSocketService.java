@@ -4,6 +4,10 @@ import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestFinished
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.FinishMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.PlayerFinishedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ProgressUpdateMessage;
+import ru.viktorgezz.statistics_result_module.result_item.Place;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервис WebSocket-взаимодействия для мультиплеерных соревнований.
@@ -15,7 +19,8 @@ import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ProgressUpdateM
 public interface ContestWebSocketService {
 
     /**
-     * Обновляет прогресс печати участника и рассылает текущий прогресс всем игрокам.
+     * Обновляет прогресс печати участника. Рассылка прогресса всем игрокам
+     * выполняется пакетно с фиксированной частотой.
      */
     void processProgress(Long idContest, Long idUser, ProgressUpdateMessage message);
 
@@ -26,10 +31,13 @@ public interface ContestWebSocketService {
     void processFinish(Long idContest, Long idUser, FinishMessage message);
 
     /**
-     * Транзакционная часть обработки финиша: регистрирует место и сохраняет результат в БД.
-     * Вызывается через self-injection для корректной работы {@code @Transactional}.
+     * Часть обработки финиша для места, уже определённого атомарной регистрацией в Redis:
+     * сохраняет результат в состоянии комнаты, в БД он попадает пачкой при завершении соревнования.
+     *
+     * @return сообщение о финише; пусто, если результат игрока уже сохранён — повторный финиш
+     * не начисляет баланс и не рассылается
      */
-    PlayerFinishedMessage processFinishTransaction(Long idContest, Long idUser, FinishMessage message);
+    Optional<PlayerFinishedMessage> processFinishTransaction(Long idContest, Long idUser, FinishMessage message, Place placeObtained);
 
     /**
      * Отмечает участника как готового. При готовности всех — запускает обратный отсчёт.
@@ -52,8 +60,33 @@ public interface ContestWebSocketService {
     void finishContest(Long idContest);
 
     /**
-     * Транзакционная часть завершения: обновляет статус и формирует лидерборд.
-     * Вызывается через self-injection для корректной работы {@code @Transactional}.
+     * Часть завершения с записью в БД: обновляет статус, записывает результаты одним batch
+     * и формирует лидерборд из результатов в состоянии комнаты.
      */
     ContestFinishedMessage finishContestTransaction(Long idContest);
+
+    /**
+     * Итоги завершённого соревнования из Redis — для клиентов, переподключившихся после финиша.
+     * К PostgreSQL не обращается.
+     *
+     * @return пусто, если соревнование ещё не завершено или комната истекла
+     */
+    Optional<ContestFinishedMessage> getContestFinished(Long idContest);
+
+    /**
+     * Запускает отсчёт перед стартом и старт соревнования. Выполняется на узле, забравшем запуск
+     * из расписания: обычно это владелец комнаты, при его недоступности — любой другой узел.
+     */
+    void startCountdown(Long idContest);
+
+    /**
+     * Рассылает сообщение отсчёта. Вызывается планировщиком соревнований.
+     */
+    void broadcastCountdown(Long idContest, int secondsRemaining);
+
+    /**
+     * Стартует пачку соревнований, наступивших одновременно: статус PROGRESS одним pipeline в Redis,
+     * затем рассылка ключа раскрытия текста и времени старта. Вызывается планировщиком соревнований.
+     */
+    void startContests(List<Long> idsContest);
 }
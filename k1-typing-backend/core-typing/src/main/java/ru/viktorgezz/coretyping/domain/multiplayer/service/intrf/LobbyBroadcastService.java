@@ -0,0 +1,38 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbySnapshotMessage;
+
+/**
+ * Сервис push-рассылки изменений лобби в /topic/lobby и /topic/lobby/{language}.
+ * <p>
+ * События комнат накапливаются и рассылаются одним сообщением за интервал:
+ * для каждой комнаты уходит только последнее состояние, поэтому частые входы
+ * и выходы не превращаются в поток рассылок.
+ */
+public interface LobbyBroadcastService {
+
+    void roomCreated(AvailableRoomRsDto room);
+
+    void occupancyChanged(AvailableRoomRsDto room);
+
+    void roomClosed(Long idContest);
+
+    /**
+     * Рассылает накопленные за интервал события; без изменений ничего не отправляется.
+     */
+    void broadcastPending();
+
+    /**
+     * Начальный снимок лобби для новой подписки.
+     *
+     * @param language язык упражнения; null — все комнаты
+     */
+    LobbySnapshotMessage getSnapshot(Language language);
+
+    /**
+     * Удаляет из лобби комнаты старше TTL и рассылает их закрытие.
+     */
+    void pruneExpiredRooms();
+}
@@ -0,0 +1,22 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rq.EnqueueMatchmakingRqDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.MatchmakingStatusRsDto;
+
+/**
+ * Быстрая игра: очередь игроков по языку и рейтингу, из которой комнаты формируются пачкой раз в тик.
+ */
+public interface MatchmakingService {
+
+    MatchmakingStatusRsDto enqueue(EnqueueMatchmakingRqDto dto);
+
+    void cancel();
+
+    MatchmakingStatusRsDto getStatus();
+
+    /**
+     * Тик подбора: для дольше всех ждущих игроков каждого языка собирает группы в окне рейтинга,
+     * расширяющемся со временем ожидания, и создаёт для них комнаты.
+     */
+    void matchPending();
+}
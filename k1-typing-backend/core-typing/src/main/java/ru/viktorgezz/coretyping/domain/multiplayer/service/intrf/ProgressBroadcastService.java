@@ -0,0 +1,35 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+
+/**
+ * Сервис пакетной рассылки прогресса участников.
+ * <p>
+ * Входящие обновления прогресса только помечают участника «грязным»,
+ * а рассылка выполняется по тику с фиксированной частотой: не больше одного
+ * кадра на комнату за тик. Комнаты без изменений ничего не получают.
+ * В delta-режиме кадр содержит только изменившихся участников, а каждый
+ * N-й кадр отправляется полным снимком (keyframe).
+ * <p>
+ * В большой комнате (лимит участников выше {@code multiplayer.progress.large-room-threshold})
+ * общий кадр не рассылается: каждый клиент получает лидеров и своё окружение по рейтингу
+ * в {@code /user/queue/contest/{id}/progress}.
+ */
+public interface ProgressBroadcastService {
+
+    /**
+     * Запоминает последний прогресс участника, полученный с момента прошлого тика.
+     */
+    void markDirty(Long idContest, Long idUser, UserProgressData progressData);
+
+    /**
+     * Рассылает по одному кадру прогресса в каждую комнату, где были изменения.
+     */
+    void broadcastDirtyRooms();
+
+    /**
+     * Сбрасывает накопленные изменения и состояние кадров комнаты
+     * (например, после завершения соревнования).
+     */
+    void discardRoom(Long idContest);
+}
@@ -0,0 +1,30 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ResultBufferService.FinishedResult;
+
+import java.util.List;
+
+/**
+ * Отложенная запись результатов мультиплеера: финиши копятся в состоянии комнаты и попадают
+ * в result_items одним JDBC batch — при завершении соревнования или по таймеру для зависших комнат.
+ */
+public interface ResultWriteBehindService {
+
+    /**
+     * Сохраняет результат финишировавшего в состоянии комнаты без обращения к БД.
+     *
+     * @return false — результат игрока уже сохранён (повторный финиш), новый отброшен
+     */
+    boolean recordResult(Long idContest, FinishedResult result);
+
+    /**
+     * Записывает незаписанные результаты комнаты одним batch и возвращает все её результаты.
+     */
+    List<FinishedResult> completeContest(Long idContest);
+
+    /**
+     * Тик таймера: записывает результаты комнат, ждущих записи дольше multiplayer.results.flush-delay-ms,
+     * одним batch на все комнаты.
+     */
+    void flushStale();
+}
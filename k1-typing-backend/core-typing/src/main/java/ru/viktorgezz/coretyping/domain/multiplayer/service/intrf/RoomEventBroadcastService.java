@@ -0,0 +1,28 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.RoomEventsReplayMessage;
+
+/**
+ * Рассылка событий комнаты с журналом для переподключения.
+ * <p>
+ * Каждое событие получает номер в комнате и уходит в topic с заголовком {@code seq};
+ * клиент после переподключения запрашивает только события после последнего полученного номера.
+ * Прогресс в журнал не попадает: следующий тик рассылки и так содержит актуальный снимок.
+ */
+public interface RoomEventBroadcastService {
+
+    /**
+     * Записывает событие в журнал комнаты и рассылает его в topic.
+     */
+    void send(Long idContest, String destination, Object payload);
+
+    /**
+     * События комнаты после номера, последним полученного клиентом.
+     */
+    RoomEventsReplayMessage getMissed(Long idContest, long sequenceLast);
+
+    /**
+     * Есть ли в журнале комнаты событие с этим destination.
+     */
+    boolean isLogged(Long idContest, String destination);
+}
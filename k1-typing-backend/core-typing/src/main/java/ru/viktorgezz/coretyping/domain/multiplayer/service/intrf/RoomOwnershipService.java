@@ -0,0 +1,38 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service.intrf;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.RoomOwnerRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.ownership.RoomCommand;
+
+/**
+ * Владение комнатами между узлами.
+ * <p>
+ * Комната закрепляется за узлом кольцом consistent hashing по живым узлам; выбранный узел берёт
+ * в Redis продляемую аренду. Если владелец перестаёт слать heartbeat, аренда истекает,
+ * кольцо пересобирается без него и комнату забирает следующий узел.
+ */
+public interface RoomOwnershipService {
+
+    String getIdNodeLocal();
+
+    /**
+     * Текущий владелец комнаты. Если аренды нет и кольцо назначает комнату этому узлу — берёт аренду.
+     */
+    RoomOwnerRsDto getOwner(Long idContest);
+
+    boolean isOwnedLocally(Long idContest);
+
+    /**
+     * Передаёт команду владельцу комнаты через Redis pub/sub.
+     */
+    void forwardToOwner(Long idContest, RoomCommand command);
+
+    /**
+     * Освобождает аренду комнаты, если она принадлежит этому узлу.
+     */
+    void release(Long idContest);
+
+    /**
+     * Heartbeat узла, пересборка кольца и продление аренд.
+     */
+    void heartbeat();
+}
@@ -0,0 +1,107 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.transport;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Оборачивает каждую WebSocket-сессию в {@link LatestWinsSessionDecorator}, чтобы медленный клиент
+ * не держал потоки outbound-канала и не копил устаревшие кадры прогресса.
+ */
+@Component
+public class LatestWinsHandlerDecoratorFactory implements WebSocketHandlerDecoratorFactory {
+
+    private final MultiplayerProperties.Transport propertiesTransport;
+
+    // Дренаж сессии блокируется на сети: виртуальный поток на дренаж, иначе ограниченный пул с очередью
+    private final ExecutorService executorSend;
+
+    public LatestWinsHandlerDecoratorFactory(MultiplayerProperties multiplayerProperties, Environment environment) {
+        this.propertiesTransport = multiplayerProperties.getTransport();
+        this.executorSend = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : newDrainPool(propertiesTransport.getDrainThreads());
+    }
+
+    private static ExecutorService newDrainPool(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("ws-drain-")
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    @NonNull
+    public WebSocketHandler decorate(@NonNull WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+
+            private final Map<String, LatestWinsSessionDecorator> sessionsById = new ConcurrentHashMap<>();
+
+            @Override
+            public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
+                LatestWinsSessionDecorator sessionDecorated = new LatestWinsSessionDecorator(
+                        session,
+                        executorSend,
+                        propertiesTransport.getLatestWinsDestinationSuffixes(),
+                        propertiesTransport.getSendTimeLimitMs(),
+                        propertiesTransport.getSendBufferSizeLimit()
+                );
+                sessionsById.put(session.getId(), sessionDecorated);
+                super.afterConnectionEstablished(sessionDecorated);
+            }
+
+            @Override
+            public void handleMessage(@NonNull WebSocketSession session, @NonNull WebSocketMessage<?> message) throws Exception {
+                super.handleMessage(decorated(session), message);
+            }
+
+            @Override
+            public void handleTransportError(@NonNull WebSocketSession session, @NonNull Throwable exception) throws Exception {
+                super.handleTransportError(decorated(session), exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus closeStatus) throws Exception {
+                LatestWinsSessionDecorator sessionDecorated = sessionsById.remove(session.getId());
+                if (sessionDecorated != null) {
+                    sessionDecorated.clear();
+                }
+                super.afterConnectionClosed(sessionDecorated != null ? sessionDecorated : session, closeStatus);
+            }
+
+            private WebSocketSession decorated(WebSocketSession session) {
+                LatestWinsSessionDecorator sessionDecorated = sessionsById.get(session.getId());
+                return sessionDecorated != null ? sessionDecorated : session;
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executorSend.shutdownNow();
+    }
+}
@@ -0,0 +1,245 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.transport;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Очередь отправки одной сессии с ограничениями и политикой latest-wins.
+ * <p>
+ * {@link #sendMessage} не блокируется: сообщение ставится в очередь, отправку выполняет один дренаж
+ * на общем исполнителе. Неотправленный кадр с destination из {@code suffixesLatestWins} заменяется новым
+ * на своём месте в очереди; остальные сообщения (start, player-finished, finished) отправляются без потерь.
+ * Delta-кадр прогресса ({@code "keyframe":false}) несёт только изменившихся участников, поэтому не заменяет
+ * неотправленные кадры, а встаёт за ними; полный кадр заменяет все неотправленные кадры своего destination.
+ * Если очередь превысила лимит байт или одна отправка длится дольше лимита — клиент не успевает,
+ * сессия закрывается с {@link CloseStatus#SESSION_NOT_RELIABLE}.
+ */
+@Slf4j
+public class LatestWinsSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final String PREFIX_FRAME_MESSAGE = "MESSAGE\n";
+    private static final String HEADER_DESTINATION = "\ndestination:";
+    private static final String MARKER_DELTA = "\"keyframe\":false";
+
+    private final Executor executorSend;
+    private final List<String> suffixesLatestWins;
+    private final long sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+
+    private final ReentrantLock lockQueue = new ReentrantLock();
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final Map<String, List<Entry>> entriesLatestWinsByDestination = new HashMap<>();
+    private int sizeBuffered;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long timestampSendStart;
+    private volatile boolean limitExceeded;
+
+    public LatestWinsSessionDecorator(
+            WebSocketSession session,
+            Executor executorSend,
+            List<String> suffixesLatestWins,
+            long sendTimeLimitMs,
+            int sendBufferSizeLimit
+    ) {
+        super(session);
+        this.executorSend = executorSend;
+        this.suffixesLatestWins = suffixesLatestWins;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+    }
+
+    @Override
+    public void sendMessage(@NonNull WebSocketMessage<?> message) throws IOException {
+        if (limitExceeded) {
+            return;
+        }
+
+        final String destinationLatestWins = destinationLatestWins(message);
+        final int sizeBufferedNow;
+        lockQueue.lock();
+        try {
+            List<Entry> entriesPending = destinationLatestWins == null
+                    ? null
+                    : entriesLatestWinsByDestination.get(destinationLatestWins);
+            if (entriesPending != null && !isDelta(message)) {
+                replacePending(entriesPending, message);
+            } else {
+                Entry entry = new Entry(message, destinationLatestWins);
+                queue.addLast(entry);
+                sizeBuffered += message.getPayloadLength();
+                if (destinationLatestWins != null) {
+                    entriesLatestWinsByDestination.computeIfAbsent(destinationLatestWins, key -> new ArrayList<>()).add(entry);
+                }
+            }
+            sizeBufferedNow = sizeBuffered;
+        } finally {
+            lockQueue.unlock();
+        }
+
+        checkLimits(sizeBufferedNow);
+        scheduleDrain();
+    }
+
+    // Первый неотправленный кадр получает новое сообщение на своём месте, остальные удаляются из очереди
+    private void replacePending(List<Entry> entriesPending, WebSocketMessage<?> message) {
+        Entry entryFirst = entriesPending.getFirst();
+        sizeBuffered += message.getPayloadLength() - entryFirst.message.getPayloadLength();
+        entryFirst.message = message;
+
+        List<Entry> entriesStale = entriesPending.subList(1, entriesPending.size());
+        for (Entry entryStale : entriesStale) {
+            queue.removeFirstOccurrence(entryStale);
+            sizeBuffered -= entryStale.message.getPayloadLength();
+        }
+        entriesStale.clear();
+    }
+
+    private void scheduleDrain() {
+        if (!limitExceeded && draining.compareAndSet(false, true)) {
+            executorSend.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Entry entry;
+            while (!limitExceeded && (entry = poll()) != null) {
+                timestampSendStart = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(entry.message);
+                } finally {
+                    timestampSendStart = 0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Send to session {} failed: {}", getId(), e.getMessage());
+        } finally {
+            draining.set(false);
+            if (!isQueueEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private Entry poll() {
+        lockQueue.lock();
+        try {
+            Entry entry = queue.pollFirst();
+            if (entry != null) {
+                sizeBuffered -= entry.message.getPayloadLength();
+                if (entry.destinationLatestWins != null) {
+                    List<Entry> entriesPending = entriesLatestWinsByDestination.get(entry.destinationLatestWins);
+                    entriesPending.remove(entry);
+                    if (entriesPending.isEmpty()) {
+                        entriesLatestWinsByDestination.remove(entry.destinationLatestWins);
+                    }
+                }
+            }
+            return entry;
+        } finally {
+            lockQueue.unlock();
+        }
+    }
+
+    private boolean isQueueEmpty() {
+        lockQueue.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            lockQueue.unlock();
+        }
+    }
+
+    private void checkLimits(int sizeBufferedNow) {
+        final long timestampStart = timestampSendStart;
+        final boolean isSendTooLong = timestampStart > 0
+                && System.currentTimeMillis() - timestampStart > sendTimeLimitMs;
+        final boolean isBufferOverflow = sizeBufferedNow > sendBufferSizeLimit;
+
+        if ((isSendTooLong || isBufferOverflow) && !limitExceeded) {
+            limitExceeded = true;
+            log.warn("Closing slow session {}: sendTooLong={}, buffered={} bytes", getId(), isSendTooLong, sizeBufferedNow);
+            clear();
+            try {
+                getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Close of session {} failed: {}", getId(), e.getMessage());
+            }
+        }
+    }
+
+    // Освобождает очередь закрытой сессии
+    void clear() {
+        lockQueue.lock();
+        try {
+            queue.clear();
+            entriesLatestWinsByDestination.clear();
+            sizeBuffered = 0;
+        } finally {
+            lockQueue.unlock();
+        }
+    }
+
+    // destination STOMP-кадра MESSAGE, если он подпадает под latest-wins; иначе null
+    private String destinationLatestWins(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage messageText)) {
+            return null;
+        }
+        final String payload = messageText.getPayload();
+        if (!payload.startsWith(PREFIX_FRAME_MESSAGE)) {
+            return null;
+        }
+
+        final int endHeaders = payload.indexOf("\n\n");
+        final int indexDestination = payload.indexOf(HEADER_DESTINATION, PREFIX_FRAME_MESSAGE.length() - 1);
+        if (indexDestination < 0 || (endHeaders >= 0 && indexDestination > endHeaders)) {
+            return null;
+        }
+
+        final int startValue = indexDestination + HEADER_DESTINATION.length();
+        final int endValue = payload.indexOf('\n', startValue);
+        final String destination = payload.substring(startValue, endValue < 0 ? payload.length() : endValue);
+
+        for (String suffix : suffixesLatestWins) {
+            if (destination.endsWith(suffix)) {
+                return destination;
+            }
+        }
+        return null;
+    }
+
+    // Delta-кадр прогресса: заголовки уже разобраны, маркер ищется в теле
+    private static boolean isDelta(WebSocketMessage<?> message) {
+        final String payload = ((TextMessage) message).getPayload();
+        final int endHeaders = payload.indexOf("\n\n");
+        return endHeaders >= 0 && payload.indexOf(MARKER_DELTA, endHeaders) >= 0;
+    }
+
+    private static class Entry {
+
+        private WebSocketMessage<?> message;
+        private final String destinationLatestWins;
+
+        private Entry(WebSocketMessage<?> message, String destinationLatestWins) {
+            this.message = message;
+            this.destinationLatestWins = destinationLatestWins;
+        }
+    }
+}
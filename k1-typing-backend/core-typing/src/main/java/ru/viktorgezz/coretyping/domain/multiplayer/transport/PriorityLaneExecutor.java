@@ -0,0 +1,143 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.transport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Исполнитель STOMP-канала с двумя полосами: управляющие сообщения (ready, finish, start, finished …)
+ * и высокочастотный прогресс. У полос свои потоки и очереди, поэтому /finish не ждёт за сотнями кадров прогресса.
+ * <p>
+ * Входящая полоса прогресса ограничена ({@link Overflow#DROP_OLDEST}): при переполнении отбрасывается
+ * самый старый кадр — следующий кадр того же игрока всё равно несёт абсолютный прогресс.
+ * Исходящие кадры (delta, рейтинг) так отбрасывать нельзя — в них изменения других игроков,
+ * поэтому исходящая полоса не ограничена ({@link Overflow#QUEUE}), а медленных клиентов
+ * ограничивает очередь сессии ({@link LatestWinsSessionDecorator}). Управляющие сообщения не отбрасываются.
+ */
+public class PriorityLaneExecutor implements Executor {
+
+    public enum Lane {
+        CONTROL,
+        PROGRESS
+    }
+
+    public enum Overflow {
+        // Ограниченная очередь, при переполнении вытесняется самый старый кадр
+        DROP_OLDEST,
+        // Очередь без ограничения, кадры не теряются
+        QUEUE
+    }
+
+    private final List<String> suffixesProgress;
+    private final ThreadPoolExecutor executorControl;
+    private final ThreadPoolExecutor executorProgress;
+
+    private final Timer timerWaitControl;
+    private final Timer timerWaitProgress;
+
+    public PriorityLaneExecutor(
+            String nameChannel,
+            int threadsControl,
+            int threadsProgress,
+            int capacityProgress,
+            Overflow overflowProgress,
+            List<String> suffixesProgress,
+            MeterRegistry meterRegistry
+    ) {
+        this.suffixesProgress = suffixesProgress;
+
+        this.executorControl = new ThreadPoolExecutor(
+                threadsControl, threadsControl, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("ws-" + nameChannel + "-control-")
+        );
+        this.executorProgress = new ThreadPoolExecutor(
+                threadsProgress, threadsProgress, 60, TimeUnit.SECONDS,
+                overflowProgress == Overflow.DROP_OLDEST
+                        ? new ArrayBlockingQueue<>(capacityProgress)
+                        : new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("ws-" + nameChannel + "-progress-")
+        );
+
+        if (overflowProgress == Overflow.DROP_OLDEST) {
+            Counter counterDropped = Counter.builder("websocket.lane.dropped")
+                    .description("Кадры прогресса, вытесненные из переполненной очереди")
+                    .tag("channel", nameChannel)
+                    .register(meterRegistry);
+            this.executorProgress.setRejectedExecutionHandler((task, executor) -> {
+                if (executor.isShutdown()) {
+                    return;
+                }
+                executor.getQueue().poll();
+                counterDropped.increment();
+                executor.execute(task);
+            });
+        }
+
+        this.timerWaitControl = registerLane(nameChannel, Lane.CONTROL, executorControl.getQueue(), meterRegistry);
+        this.timerWaitProgress = registerLane(nameChannel, Lane.PROGRESS, executorProgress.getQueue(), meterRegistry);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable task) {
+        final Lane lane = laneOf(task);
+        final long timestampQueued = System.nanoTime();
+        final Timer timerWait = lane == Lane.PROGRESS ? timerWaitProgress : timerWaitControl;
+
+        Runnable taskTimed = () -> {
+            timerWait.record(System.nanoTime() - timestampQueued, TimeUnit.NANOSECONDS);
+            task.run();
+        };
+        (lane == Lane.PROGRESS ? executorProgress : executorControl).execute(taskTimed);
+    }
+
+    public void shutdown() {
+        executorControl.shutdown();
+        executorProgress.shutdown();
+    }
+
+    // Полоса по destination сообщения; задачи без сообщения идут в управляющую полосу
+    Lane laneOf(Runnable task) {
+        if (!(task instanceof MessageHandlingRunnable runnableMessage)) {
+            return Lane.CONTROL;
+        }
+        final Message<?> message = runnableMessage.getMessage();
+        final String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) {
+            return Lane.CONTROL;
+        }
+        for (String suffix : suffixesProgress) {
+            if (destination.endsWith(suffix)) {
+                return Lane.PROGRESS;
+            }
+        }
+        return Lane.CONTROL;
+    }
+
+    private static Timer registerLane(String nameChannel, Lane lane, BlockingQueue<Runnable> queue, MeterRegistry meterRegistry) {
+        Gauge.builder("websocket.lane.queue.depth", queue, BlockingQueue::size)
+                .description("Сообщения в очереди полосы STOMP-канала")
+                .tag("channel", nameChannel)
+                .tag("lane", lane.name().toLowerCase())
+                .register(meterRegistry);
+        return Timer.builder("websocket.lane.wait")
+                .description("Время ожидания сообщения в очереди полосы")
+                .tag("channel", nameChannel)
+                .tag("lane", lane.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.transport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+/**
+ * Исполнители с полосами приоритета для inbound и outbound STOMP-каналов ({@code WebSocketConfig}).
+ */
+@Getter
+@Component
+public class PriorityLaneExecutors {
+
+    private final PriorityLaneExecutor inbound;
+    private final PriorityLaneExecutor outbound;
+
+    public PriorityLaneExecutors(MultiplayerProperties multiplayerProperties, MeterRegistry meterRegistry) {
+        final MultiplayerProperties.Lanes propertiesLanes = multiplayerProperties.getLanes();
+
+        this.inbound = new PriorityLaneExecutor(
+                "inbound",
+                propertiesLanes.getControlThreads(),
+                propertiesLanes.getProgressThreads(),
+                propertiesLanes.getProgressQueueCapacity(),
+                PriorityLaneExecutor.Overflow.DROP_OLDEST,
+                propertiesLanes.getProgressDestinationSuffixes(),
+                meterRegistry
+        );
+        this.outbound = new PriorityLaneExecutor(
+                "outbound",
+                propertiesLanes.getControlThreads(),
+                propertiesLanes.getProgressThreads(),
+                propertiesLanes.getProgressQueueCapacity(),
+                PriorityLaneExecutor.Overflow.QUEUE,
+                propertiesLanes.getProgressDestinationSuffixes(),
+                meterRegistry
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        inbound.shutdown();
+        outbound.shutdown();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Сокрытие текста упражнения до старта.
+ * <p>
+ * Текст рассылается заранее, во время отсчёта, в виде UTF-8 байт, сложенных по XOR с потоком
+ * SplitMix64 от 64-битного ключа. В момент старта рассылается только ключ. Это обфускация для честного
+ * старта, а не криптографическая защита. Тот же алгоритм реализован на клиенте (services/textSealer.js).
+ */
+public class ExerciseTextSealer {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private ExerciseTextSealer() {
+    }
+
+    // Ключ раскрытия: 16 hex-символов (64 бита)
+    public static String generateRevealKey() {
+        return HexFormat.of().toHexDigits(RANDOM.nextLong());
+    }
+
+    public static String seal(String text, String revealKey) {
+        return Base64.getEncoder().encodeToString(xor(text.getBytes(StandardCharsets.UTF_8), revealKey));
+    }
+
+    public static String unseal(String textSealed, String revealKey) {
+        return new String(xor(Base64.getDecoder().decode(textSealed), revealKey), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] xor(byte[] bytes, String revealKey) {
+        long state = Long.parseUnsignedLong(revealKey, 16);
+        long word = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if ((i & 7) == 0) {
+                state += 0x9E3779B97F4A7C15L;
+                word = mix(state);
+            }
+            bytes[i] ^= (byte) (word >>> ((i & 7) * 8));
+        }
+        return bytes;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -11,6 +11,17 @@ public class WebsocketTopicStorage {
     public static final String TOPIC_PLAYER_READY = "/topic/contest/%d/player-ready";
     public static final String TOPIC_PLAYER_FINISHED = "/topic/contest/%d/player-finished";
     public static final String TOPIC_COUNTDOWN = "/topic/contest/%d/countdown";
+    public static final String TOPIC_TEXT = "/topic/contest/%d/text";
     public static final String TOPIC_START = "/topic/contest/%d/start";
+    public static final String TOPIC_START_SCHEDULED = "/topic/contest/%d/start-scheduled";
     public static final String TOPIC_FINISHED = "/topic/contest/%d/finished";
+    public static final String TOPIC_LOBBY = "/topic/lobby";
+    public static final String TOPIC_LOBBY_LANGUAGE = "/topic/lobby/%s";
+    public static final String QUEUE_TIME = "/queue/time";
+    public static final String QUEUE_MATCHMAKING = "/queue/matchmaking";
+    // Персональные кадры прогресса большой комнаты (/user/queue/contest/{id}/progress)
+    public static final String QUEUE_CONTEST_PROGRESS = "/queue/contest/%d/progress";
+
+    // STOMP-заголовок с номером события комнаты в журнале (см. RoomEventBroadcastService)
+    public static final String HEADER_SEQUENCE = "seq";
 }
@@ -0,0 +1,312 @@
+package ru.viktorgezz.coretyping.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Свойства мультиплеера, считываются из application.yml (multiplayer).
+ */
+@Component
+@ConfigurationProperties(prefix = "multiplayer")
+@Getter
+@Setter
+public class MultiplayerProperties {
+
+    private Progress progress = new Progress();
+
+    private Engine engine = new Engine();
+
+    private Broker broker = new Broker();
+
+    private Cluster cluster = new Cluster();
+
+    private Scheduler scheduler = new Scheduler();
+
+    private Start start = new Start();
+
+    private Transport transport = new Transport();
+
+    private Lanes lanes = new Lanes();
+
+    private Lobby lobby = new Lobby();
+
+    private Matchmaking matchmaking = new Matchmaking();
+
+    private StatusWriter statusWriter = new StatusWriter();
+
+    private Results results = new Results();
+
+    private Events events = new Events();
+
+    /**
+     * Рассылка прогресса участников (multiplayer.progress).
+     */
+    @Getter
+    @Setter
+    public static class Progress {
+
+        // Период тика рассылки прогресса
+        private long broadcastIntervalMs = 100;
+
+        // Рассылать только изменившихся участников вместо полного снимка комнаты
+        private boolean deltaEnabled = true;
+
+        // Каждый N-й кадр комнаты отправляется полным снимком (keyframe)
+        private int keyframeEvery = 20;
+
+        // Комнаты с лимитом участников больше порога получают не общий кадр, а персональный:
+        // лидеры и соседи клиента по рейтингу
+        private int largeRoomThreshold = 15;
+
+        // Число лидеров в персональном кадре большой комнаты
+        private int largeRoomTopK = 5;
+
+        // Соседей клиента по рейтингу с каждой стороны
+        private int largeRoomNeighbours = 2;
+    }
+
+    /**
+     * In-memory движок комнат (multiplayer.engine).
+     */
+    @Getter
+    @Setter
+    public static class Engine {
+
+        // Держать состояние активных комнат в памяти узла, а в Redis писать пачками (write-behind)
+        private boolean inMemoryEnabled = false;
+
+        // Период сброса изменений комнат в Redis
+        private long writeBehindIntervalMs = 50;
+
+        // Комната без обращений дольше этого времени выгружается из памяти
+        private long idleEvictMs = 600_000;
+    }
+
+    /**
+     * Доставка STOMP-сообщений между узлами (multiplayer.broker).
+     */
+    @Getter
+    @Setter
+    public static class Broker {
+
+        // local — только подписчики этого узла; redis — ретрансляция через Redis pub/sub на все узлы
+        private String relay = "local";
+
+        // Канал Redis pub/sub для ретрансляции
+        private String channel = "ws:broadcast";
+
+        // Префиксы destination, которые ретранслируются на другие узлы. /user/ — личные сообщения
+        // до разрешения в сессии: каждый узел сам доставит их сессиям пользователя, подключённым к нему
+        private List<String> relayedPrefixes = List.of("/topic/contest/", "/topic/lobby", "/user/");
+    }
+
+    /**
+     * Владение комнатами при нескольких узлах (multiplayer.cluster).
+     */
+    @Getter
+    @Setter
+    public static class Cluster {
+
+        // false — один узел, он владеет всеми комнатами
+        private boolean enabled = false;
+
+        // Идентификатор узла; пустой — генерируется при старте
+        private String idNode = "";
+
+        // Адрес узла для балансировщика/клиента (например, http://10.0.0.5:8080)
+        private String advertisedAddress = "";
+
+        // Срок аренды комнаты; владелец продлевает её каждый heartbeat
+        private long leaseMs = 10_000;
+
+        // Период heartbeat узла и продления аренд
+        private long heartbeatIntervalMs = 3_000;
+
+        // Число виртуальных узлов на узел в кольце consistent hashing
+        private int virtualNodes = 128;
+
+        // Канал Redis pub/sub для команд владельцу комнаты
+        private String commandChannel = "room:commands";
+
+        // Срок, за который владелец должен забрать запуск отсчёта; после него отсчёт запускает
+        // узел, переведший комнату в WAITING, или восстановление расписания на любом узле
+        private long startHandoverMs = 2_000;
+    }
+
+    /**
+     * Планировщик отсчёта и старта соревнований (multiplayer.scheduler).
+     */
+    @Getter
+    @Setter
+    public static class Scheduler {
+
+        // Шаг колеса таймеров
+        private long tickMs = 50;
+
+        // Число корзин колеса (степень двойки)
+        private int wheelSize = 512;
+
+        // Потоки обработки наступивших событий (отсчёт, старт с транзакцией БД)
+        private int dispatchThreads = 4;
+
+        // Период поиска просроченных событий в Redis (после падения узла-владельца)
+        private long recoveryIntervalMs = 1_000;
+
+        // Событие считается брошенным, если просрочено дольше этого времени
+        private long recoveryGraceMs = 2_000;
+
+        // Максимум событий в одной пачке (одна транзакция старта, один проход восстановления)
+        private int batchMax = 256;
+    }
+
+    /**
+     * Протокол старта соревнования (multiplayer.start).
+     */
+    @Getter
+    @Setter
+    public static class Start {
+
+        private Protocol protocol = Protocol.COUNTDOWN;
+
+        public enum Protocol {
+            // Сообщение отсчёта каждую секунду
+            COUNTDOWN,
+            // Одно сообщение с моментом старта, отсчёт ведёт клиент по часам, синхронизированным через /app/time
+            SCHEDULED
+        }
+    }
+
+    /**
+     * Отправка сообщений WebSocket-сессиям (multiplayer.transport).
+     */
+    @Getter
+    @Setter
+    public static class Transport {
+
+        // Дольше этого одна отправка в сессию — клиент считается медленным, сессия закрывается
+        private long sendTimeLimitMs = 10_000;
+
+        // Предел неотправленных байт на сессию
+        private int sendBufferSizeLimit = 512 * 1024;
+
+        // Destination с политикой latest-wins: неотправленный кадр заменяется новым полным кадром
+        // (delta встаёт в очередь за ним); пусто — без замены
+        private List<String> latestWinsDestinationSuffixes = List.of("/progress");
+
+        // Потоки дренажа сессий без виртуальных потоков; остальные дренажи ждут в очереди
+        private int drainThreads = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * Полосы приоритета STOMP-каналов (multiplayer.lanes).
+     */
+    @Getter
+    @Setter
+    public static class Lanes {
+
+        // false — стандартные пулы Spring для inbound/outbound каналов
+        private boolean enabled = true;
+
+        // Потоки полосы управляющих сообщений (ready, finish, start, finished …)
+        private int controlThreads = Runtime.getRuntime().availableProcessors();
+
+        // Потоки полосы прогресса
+        private int progressThreads = Runtime.getRuntime().availableProcessors();
+
+        // Очередь входящей полосы прогресса; при переполнении вытесняется самый старый кадр.
+        // Исходящая полоса не ограничена: потерянный исходящий кадр уносит изменения других игроков
+        private int progressQueueCapacity = 10_000;
+
+        // Destination, относящиеся к полосе прогресса
+        private List<String> progressDestinationSuffixes = List.of("/progress");
+    }
+
+    /**
+     * Индекс лобби в Redis (multiplayer.lobby).
+     */
+    @Getter
+    @Setter
+    public static class Lobby {
+
+        // Период удаления из лобби комнат старше TTL, которые так и не стартовали
+        private long pruneIntervalMs = 60_000;
+
+        // Интервал рассылки накопленных изменений в /topic/lobby
+        private long broadcastIntervalMs = 1_000;
+
+        // Число комнат в начальном снимке подписки
+        private int snapshotSize = 50;
+    }
+
+    /**
+     * Быстрый подбор соперников (multiplayer.matchmaking).
+     */
+    @Getter
+    @Setter
+    public static class Matchmaking {
+
+        // Период тика подбора: за тик из очереди формируются все возможные комнаты
+        private long intervalMs = 300;
+
+        // Размер комнаты быстрой игры
+        private int roomSize = 4;
+
+        // Допустимая разница рейтинга сразу после постановки в очередь
+        private double ratingWindowBase = 20;
+
+        // Расширение окна рейтинга за каждую секунду ожидания
+        private double ratingWindowGrowthPerSecond = 10;
+
+        // Предел окна рейтинга
+        private double ratingWindowMax = 200;
+
+        // После этого ожидания комната создаётся и неполной (от двух игроков)
+        private long maxWaitMs = 10_000;
+
+        // Число дольше всех ждущих игроков каждого языка, обрабатываемых за тик
+        private int anchorsPerTick = 100;
+    }
+
+    /**
+     * Запись статусов соревнований в PostgreSQL (multiplayer.status-writer).
+     */
+    @Getter
+    @Setter
+    public static class StatusWriter {
+
+        // Период пачечной записи переходов статуса; источник истины до записи — хеш комнаты в Redis
+        private long flushIntervalMs = 200;
+    }
+
+    /**
+     * Отложенная запись результатов мультиплеера (multiplayer.results).
+     */
+    @Getter
+    @Setter
+    public static class Results {
+
+        // Период проверки комнат с незаписанными результатами
+        private long flushIntervalMs = 5_000;
+
+        // Результаты комнаты, не завершившейся за это время, записываются без ожидания завершения
+        private long flushDelayMs = 30_000;
+
+        // Максимум комнат в одной пачке таймера
+        private int batchMax = 100;
+    }
+
+    /**
+     * Журнал событий комнаты для переподключения (multiplayer.events).
+     */
+    @Getter
+    @Setter
+    public static class Events {
+
+        // Примерная длина журнала комнаты; клиент, пропустивший больше, загружает состояние комнаты целиком
+        private int logMaxLength = 256;
+    }
+}
@@ -0,0 +1,32 @@
+-- Обновление заполненности комнаты в лобби.
+-- KEYS[1] - lobby:{rooms}:index (sorted set), KEYS[2] - lobby:{rooms}:occupancy (hash), KEYS[3] - lobby:{rooms}:meta (hash),
+-- KEYS[4..] - индексы языков lobby:{rooms}:index:<LANGUAGE> (комната есть только в индексе своего языка)
+-- ARGV[1] - idContest, ARGV[2] - изменение числа участников (+1 вход, -1 выход)
+-- Изменение применяется внутри скрипта: одновременные входы и выходы не затирают друг друга.
+-- Заполненная комната получает отрицательный score и выпадает из выборки открытых (score > 0),
+-- освободившаяся — возвращается на своё место по времени создания.
+-- Возвращает {occupancy, createdAt, meta} для рассылки в лобби или пустой список, если комнаты нет в лобби.
+local packed = redis.call('HGET', KEYS[2], ARGV[1])
+local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not packed or not score then
+    return {}
+end
+
+local participantsMax = tonumber(packed) % 65536
+local participantsCount = math.max(math.floor(tonumber(packed) / 65536) + tonumber(ARGV[2]), 0)
+local packedNew = participantsCount * 65536 + participantsMax
+redis.call('HSET', KEYS[2], ARGV[1], packedNew)
+
+local createdAt = math.abs(tonumber(score))
+local scoreNew = createdAt
+if participantsCount >= participantsMax then
+    scoreNew = -createdAt
+end
+if scoreNew ~= tonumber(score) then
+    redis.call('ZADD', KEYS[1], scoreNew, ARGV[1])
+    for i = 4, #KEYS do
+        redis.call('ZADD', KEYS[i], 'XX', scoreNew, ARGV[1])
+    end
+end
+
+return { tostring(packedNew), string.format('%d', createdAt), redis.call('HGET', KEYS[3], ARGV[1]) or '' }
@@ -0,0 +1,16 @@
+-- Страница открытых комнат лобби в порядке создания.
+-- KEYS[1] - lobby:{rooms}:index или индекс языка lobby:{rooms}:index:<LANGUAGE>, KEYS[2] - lobby:{rooms}:occupancy, KEYS[3] - lobby:{rooms}:meta
+-- ARGV[1] - смещение, ARGV[2] - размер страницы
+-- Возвращает {total, id1, createdAt1, occupancy1, meta1, id2, ...}.
+local entries = redis.call('ZRANGEBYSCORE', KEYS[1], '(0', '+inf', 'WITHSCORES', 'LIMIT', ARGV[1], ARGV[2])
+local result = { redis.call('ZCOUNT', KEYS[1], '(0', '+inf') }
+
+for i = 1, #entries, 2 do
+    local idContest = entries[i]
+    result[#result + 1] = idContest
+    result[#result + 1] = entries[i + 1]
+    result[#result + 1] = redis.call('HGET', KEYS[2], idContest) or '0'
+    result[#result + 1] = redis.call('HGET', KEYS[3], idContest) or ''
+end
+
+return result
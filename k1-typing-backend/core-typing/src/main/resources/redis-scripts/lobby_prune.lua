@@ -0,0 +1,21 @@
+-- Удаление из лобби комнат старше TTL, которые так и не стартовали.
+-- KEYS[1] - lobby:{rooms}:index, KEYS[2] - lobby:{rooms}:occupancy, KEYS[3] - lobby:{rooms}:meta,
+-- KEYS[4..] - индексы языков lobby:{rooms}:index:<LANGUAGE>
+-- ARGV[1] - граница времени создания (мс)
+-- Возвращает идентификаторы удалённых комнат.
+local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '(0', '(' .. ARGV[1])
+local expiredFull = redis.call('ZRANGEBYSCORE', KEYS[1], '(-' .. ARGV[1], '(0')
+for _, idContest in ipairs(expiredFull) do
+    expired[#expired + 1] = idContest
+end
+
+for _, idContest in ipairs(expired) do
+    redis.call('ZREM', KEYS[1], idContest)
+    for i = 4, #KEYS do
+        redis.call('ZREM', KEYS[i], idContest)
+    end
+    redis.call('HDEL', KEYS[2], idContest)
+    redis.call('HDEL', KEYS[3], idContest)
+end
+
+return expired
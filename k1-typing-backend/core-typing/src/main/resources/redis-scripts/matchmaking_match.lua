@@ -0,0 +1,49 @@
+-- Атомарный подбор группы вокруг игрока-якоря.
+-- KEYS[1] - matchmaking:{queue}:rating:<LANG> (sorted set), KEYS[2] - matchmaking:{queue}:waiting:<LANG> (sorted set),
+-- KEYS[3] - matchmaking:{queue}:tickets (hash)
+-- ARGV[1] - idUser якоря, ARGV[2] - окно рейтинга, ARGV[3] - размер комнаты, ARGV[4] - минимальный размер группы
+-- Кандидаты — ближайшие по рейтингу с каждой стороны от якоря (два поиска по skip list, O(log n) каждый).
+-- Возвращает {idUser1, ticket1, rating1, waiting1, ...} и удаляет группу из очереди, либо пустой список.
+-- waiting — время постановки в очередь: при сбое создания комнаты игрок возвращается на своё место.
+local rating = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not rating then
+    return {}
+end
+rating = tonumber(rating)
+
+local window = tonumber(ARGV[2])
+local roomSize = tonumber(ARGV[3])
+local above = redis.call('ZRANGEBYSCORE', KEYS[1], rating, rating + window, 'WITHSCORES', 'LIMIT', 0, roomSize)
+local below = redis.call('ZREVRANGEBYSCORE', KEYS[1], rating, rating - window, 'WITHSCORES', 'LIMIT', 0, roomSize)
+
+local candidates = {}
+local seen = { [ARGV[1]] = true }
+for _, side in ipairs({ above, below }) do
+    for i = 1, #side, 2 do
+        if not seen[side[i]] then
+            seen[side[i]] = true
+            candidates[#candidates + 1] = { id = side[i], score = side[i + 1], distance = math.abs(tonumber(side[i + 1]) - rating) }
+        end
+    end
+end
+table.sort(candidates, function(a, b) return a.distance < b.distance end)
+
+local group = { { id = ARGV[1], score = tostring(rating) } }
+for i = 1, math.min(#candidates, roomSize - 1) do
+    group[#group + 1] = candidates[i]
+end
+if #group < tonumber(ARGV[4]) then
+    return {}
+end
+
+local result = {}
+for _, player in ipairs(group) do
+    result[#result + 1] = player.id
+    result[#result + 1] = redis.call('HGET', KEYS[3], player.id) or ''
+    result[#result + 1] = player.score
+    result[#result + 1] = redis.call('ZSCORE', KEYS[2], player.id) or '0'
+    redis.call('ZREM', KEYS[1], player.id)
+    redis.call('ZREM', KEYS[2], player.id)
+    redis.call('HDEL', KEYS[3], player.id)
+end
+return result
@@ -0,0 +1,38 @@
+-- Лидеры и окна соседей участников большой комнаты за один вызов.
+-- KEYS[1] - contest:{id}:ranking (sorted set)
+-- ARGV[1] - число лидеров K, ARGV[2] - соседей с каждой стороны, ARGV[3..] - idUser участников, которым нужно окно
+-- Лидеры — один ZREVRANGE 0 K-1, окно участника — ZREVRANK и ZREVRANGE вокруг его места:
+-- O(log N + K) и O(log N + n) на участника вместо чтения всего рейтинга.
+-- Окно не пересекается с лидерами; участника без места в рейтинге в ответе нет.
+-- Возвращает {count, countLeaders, leader1, ..., idUser1, rankFirst1, countWindow1, id1, ..., idUser2, ...}.
+local topK = tonumber(ARGV[1])
+local neighbours = tonumber(ARGV[2])
+
+local leaders = {}
+if topK > 0 then
+    leaders = redis.call('ZREVRANGE', KEYS[1], 0, topK - 1)
+end
+
+local result = { redis.call('ZCARD', KEYS[1]), #leaders }
+for _, idUser in ipairs(leaders) do
+    result[#result + 1] = idUser
+end
+
+for i = 3, #ARGV do
+    local rank = redis.call('ZREVRANK', KEYS[1], ARGV[i])
+    if rank then
+        local rankFirst = math.max(topK, rank - neighbours)
+        local window = {}
+        if rankFirst <= rank + neighbours then
+            window = redis.call('ZREVRANGE', KEYS[1], rankFirst, rank + neighbours)
+        end
+        result[#result + 1] = ARGV[i]
+        result[#result + 1] = rankFirst
+        result[#result + 1] = #window
+        for _, idNeighbour in ipairs(window) do
+            result[#result + 1] = idNeighbour
+        end
+    end
+end
+
+return result
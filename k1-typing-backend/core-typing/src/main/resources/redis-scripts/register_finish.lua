@@ -0,0 +1,18 @@
+-- Атомарная регистрация финиша участника.
+-- KEYS[1] - contest:{%d}:finishers (sorted set), KEYS[2] - contest:{%d}:participants (set); один hash tag — один слот кластера
+-- ARGV[1] - idUser, ARGV[2] - timestamp финиша (мс), ARGV[3] - TTL комнаты (сек)
+-- Возвращает {rank, complete}: rank - позиция финиша с 0,
+-- complete = 1 только для того вызова, который завершил соревнование.
+local added = redis.call('ZADD', KEYS[1], 'NX', ARGV[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+
+local rank = redis.call('ZRANK', KEYS[1], ARGV[1])
+local countFinishers = redis.call('ZCARD', KEYS[1])
+local countParticipants = redis.call('SCARD', KEYS[2])
+
+local complete = 0
+if added == 1 and countParticipants > 0 and countFinishers >= countParticipants then
+    complete = 1
+end
+
+return { rank, complete }
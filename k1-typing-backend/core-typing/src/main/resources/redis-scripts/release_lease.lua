@@ -0,0 +1,7 @@
+-- Освобождение аренды комнаты только её текущим владельцем.
+-- KEYS[1] - contest:{%d}:owner
+-- ARGV[1] - idNode
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
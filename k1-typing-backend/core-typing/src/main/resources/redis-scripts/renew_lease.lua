@@ -0,0 +1,9 @@
+-- Продление аренды комнаты только её текущим владельцем.
+-- KEYS[1] - contest:{%d}:owner
+-- ARGV[1] - idNode, ARGV[2] - срок аренды (мс)
+-- Возвращает 1, если аренда продлена, 0 — если комнатой владеет другой узел или аренда истекла.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+return 0
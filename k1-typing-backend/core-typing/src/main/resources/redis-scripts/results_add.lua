@@ -0,0 +1,11 @@
+-- Сохранение результата участника; повторный финиш не перезаписывает результат и не попадает в запись повторно.
+-- KEYS[1] - contest:{%d}:results (hash), KEYS[2] - contest:{%d}:results-pending (set)
+-- ARGV[1] - idUser, ARGV[2] - закодированный результат, ARGV[3] - TTL комнаты (сек)
+-- Возвращает 1, если результат добавлен, иначе 0.
+if redis.call('HSETNX', KEYS[1], ARGV[1], ARGV[2]) == 0 then
+    return 0
+end
+redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+redis.call('EXPIRE', KEYS[2], ARGV[3])
+return 1
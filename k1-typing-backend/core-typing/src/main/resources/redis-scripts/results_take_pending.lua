@@ -0,0 +1,18 @@
+-- Забирает результаты, ещё не записанные в PostgreSQL.
+-- KEYS[1] - contest:{%d}:results (hash), KEYS[2] - contest:{%d}:results-pending (set)
+-- Возвращает {idUser1, result1, ...} и очищает множество незаписанных.
+local idsUser = redis.call('SMEMBERS', KEYS[2])
+if #idsUser == 0 then
+    return {}
+end
+local results = redis.call('HMGET', KEYS[1], unpack(idsUser))
+redis.call('DEL', KEYS[2])
+
+local taken = {}
+for i, idUser in ipairs(idsUser) do
+    if results[i] then
+        taken[#taken + 1] = idUser
+        taken[#taken + 1] = results[i]
+    end
+end
+return taken
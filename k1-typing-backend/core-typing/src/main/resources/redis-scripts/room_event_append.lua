@@ -0,0 +1,10 @@
+-- Добавление события комнаты в журнал с очередным номером.
+-- Номер события — ID записи потока (0-seq): XRANGE по номеру работает без отдельного индекса.
+-- KEYS[1] - contest:{%d}:events-seq (string), KEYS[2] - contest:{%d}:events (stream)
+-- ARGV[1] - destination, ARGV[2] - payload (JSON), ARGV[3] - примерная длина журнала, ARGV[4] - TTL комнаты (сек)
+-- Возвращает номер события.
+local seq = redis.call('INCR', KEYS[1])
+redis.call('XADD', KEYS[2], 'MAXLEN', '~', ARGV[3], '0-' .. seq, 'd', ARGV[1], 'p', ARGV[2])
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+redis.call('EXPIRE', KEYS[2], ARGV[4])
+return seq
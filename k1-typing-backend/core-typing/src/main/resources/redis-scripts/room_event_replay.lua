@@ -0,0 +1,21 @@
+-- События комнаты после номера, известного клиенту.
+-- KEYS[1] - contest:{%d}:events-seq (string), KEYS[2] - contest:{%d}:events (stream)
+-- ARGV[1] - последний полученный клиентом номер, ARGV[2] - максимум событий в ответе
+-- Возвращает {текущий номер, номер старейшего события в журнале (0 — журнал пуст), seq1, destination1, payload1, ...}.
+local seqCurrent = tonumber(redis.call('GET', KEYS[1]) or '0')
+
+local seqOldest = 0
+local oldest = redis.call('XRANGE', KEYS[2], '-', '+', 'COUNT', 1)
+if #oldest > 0 then
+    seqOldest = tonumber(string.match(oldest[1][1], '%-(%d+)$'))
+end
+
+local result = { seqCurrent, seqOldest }
+local entries = redis.call('XRANGE', KEYS[2], '0-' .. (tonumber(ARGV[1]) + 1), '+', 'COUNT', ARGV[2])
+for _, entry in ipairs(entries) do
+    local fields = entry[2]
+    result[#result + 1] = tonumber(string.match(entry[1], '%-(%d+)$'))
+    result[#result + 1] = fields[2]
+    result[#result + 1] = fields[4]
+end
+return result
@@ -0,0 +1,8 @@
+-- Смена статуса комнаты только из ожидаемого (compare-and-set).
+-- KEYS[1] - contest:{%d}:info (hash)
+-- ARGV[1] - поле статуса, ARGV[2] - ожидаемый статус, ARGV[3] - новый статус
+if redis.call('HGET', KEYS[1], ARGV[1]) == ARGV[2] then
+    redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+    return 1
+end
+return 0
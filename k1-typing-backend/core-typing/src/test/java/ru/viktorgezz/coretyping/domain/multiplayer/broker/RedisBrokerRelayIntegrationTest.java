@@ -0,0 +1,117 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.broker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.test.context.TestPropertySource;
+import testconfig.AbstractIntegrationRedisTest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.HEADER_SEQUENCE;
+
+@TestPropertySource(properties = "multiplayer.broker.relay=redis")
+class RedisBrokerRelayIntegrationTest extends AbstractIntegrationRedisTest {
+
+    private static final String CHANNEL_RELAY = "ws:broadcast";
+    private static final String DESTINATION_CONTEST = "/topic/contest/15/progress";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    @Autowired
+    private RedisMessageListenerContainer brokerRelayListenerContainer;
+
+    @Autowired
+    private RedisBrokerRelayInterceptor relayInterceptor;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private MessageHandler handlerBroker;
+    private MessageListener listenerRedis;
+
+    @AfterEach
+    void cleanup() {
+        if (handlerBroker != null) {
+            brokerChannel.unsubscribe(handlerBroker);
+        }
+        if (listenerRedis != null) {
+            brokerRelayListenerContainer.removeMessageListener(listenerRedis);
+        }
+    }
+
+    @Test
+    @DisplayName("Сообщение в topic соревнования публикуется в Redis с идентификатором узла")
+    void convertAndSend_ShouldPublishFrameToRedis_WhenDestinationIsRelayed() throws Exception {
+        CompletableFuture<BrokerRelayFrame> frameReceived = new CompletableFuture<>();
+        listenerRedis = (message, pattern) -> frameReceived.complete(BrokerRelayFrame.decode(message.getBody()));
+        brokerRelayListenerContainer.addMessageListener(listenerRedis, new ChannelTopic(CHANNEL_RELAY));
+        Thread.sleep(200);
+
+        messagingTemplate.convertAndSend(DESTINATION_CONTEST, Map.of("progress", 42));
+
+        BrokerRelayFrame frame = frameReceived.get(5, TimeUnit.SECONDS);
+        assertThat(frame.idNode()).isEqualTo(relayInterceptor.getIdNode());
+        assertThat(frame.destination()).isEqualTo(DESTINATION_CONTEST);
+        assertThat(new String(frame.payload(), StandardCharsets.UTF_8)).contains("\"progress\":42");
+    }
+
+    @Test
+    @DisplayName("Личное сообщение публикуется в Redis до разрешения в сессии — с именем пользователя в destination")
+    void convertAndSendToUser_ShouldPublishUnresolvedDestination_WhenUserDestinationRelayed() throws Exception {
+        CompletableFuture<BrokerRelayFrame> frameReceived = new CompletableFuture<>();
+        listenerRedis = (message, pattern) -> frameReceived.complete(BrokerRelayFrame.decode(message.getBody()));
+        brokerRelayListenerContainer.addMessageListener(listenerRedis, new ChannelTopic(CHANNEL_RELAY));
+        Thread.sleep(200);
+
+        messagingTemplate.convertAndSendToUser("PlayerRemote", "/queue/matchmaking", Map.of("idContest", 15));
+
+        BrokerRelayFrame frame = frameReceived.get(5, TimeUnit.SECONDS);
+        assertThat(frame.destination()).isEqualTo("/user/PlayerRemote/queue/matchmaking");
+    }
+
+    @Test
+    @DisplayName("Кадр другого узла доставляется в локальный брокер с отметкой ретрансляции и номером события")
+    void onMessage_ShouldDeliverToLocalBroker_WhenFrameFromOtherNode() throws Exception {
+        CompletableFuture<Message<?>> messageDelivered = new CompletableFuture<>();
+        handlerBroker = message -> {
+            if (message.getHeaders().containsKey(RedisBrokerRelayInterceptor.HEADER_RELAYED)) {
+                messageDelivered.complete(message);
+            }
+        };
+        brokerChannel.subscribe(handlerBroker);
+
+        byte[] frameRaw = new BrokerRelayFrame(
+                "other-node", DESTINATION_CONTEST, 42L, "{\"progress\":7}".getBytes(StandardCharsets.UTF_8)
+        ).encode();
+        stringRedisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.publish(CHANNEL_RELAY.getBytes(StandardCharsets.UTF_8), frameRaw)
+        );
+
+        Message<?> message = messageDelivered.get(5, TimeUnit.SECONDS);
+        assertThat(SimpMessageHeaderAccessor.getDestination(message.getHeaders())).isEqualTo(DESTINATION_CONTEST);
+        assertThat(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"progress\":7}");
+        assertThat(SimpMessageHeaderAccessor.wrap(message).getFirstNativeHeader(HEADER_SEQUENCE)).isEqualTo("42");
+    }
+}
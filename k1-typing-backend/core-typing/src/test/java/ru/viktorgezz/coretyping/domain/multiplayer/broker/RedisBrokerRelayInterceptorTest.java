@@ -0,0 +1,80 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.broker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.QUEUE_CONTEST_PROGRESS;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBrokerRelayInterceptorTest {
+
+    private static final String USERNAME_LOCAL = "PlayerLocal";
+    private static final Long ID_CONTEST = 15L;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private MessageChannel channel;
+
+    private RedisBrokerRelayInterceptor relayInterceptor;
+    private SimpMessagingTemplate messagingTemplate;
+    private final List<Message<?>> messagesSent = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        relayInterceptor = new RedisBrokerRelayInterceptor(stringRedisTemplate, new MultiplayerProperties());
+        messagingTemplate = new SimpMessagingTemplate((message, timeout) -> messagesSent.add(message));
+        messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @Test
+    @DisplayName("Персональный кадр рейтинга с заголовком локальной доставки не публикуется в Redis")
+    void preSend_ShouldNotPublish_WhenRankedFrameSentLocally() {
+        messagingTemplate.convertAndSendToUser(
+                USERNAME_LOCAL,
+                String.format(QUEUE_CONTEST_PROGRESS, ID_CONTEST),
+                Map.of("sequence", 1),
+                RedisBrokerRelayInterceptor.headersLocal()
+        );
+
+        Message<?> message = relayInterceptor.preSend(messagesSent.getFirst(), channel);
+
+        assertThat(message).isSameAs(messagesSent.getFirst());
+        verify(stringRedisTemplate, never()).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("Личное сообщение без заголовка локальной доставки публикуется в Redis")
+    void preSend_ShouldPublish_WhenUserMessageSentWithoutLocalHeader() {
+        messagingTemplate.convertAndSendToUser(
+                USERNAME_LOCAL,
+                String.format(QUEUE_CONTEST_PROGRESS, ID_CONTEST),
+                Map.of("sequence", 1)
+        );
+
+        relayInterceptor.preSend(messagesSent.getFirst(), channel);
+
+        verify(stringRedisTemplate, times(1)).execute(any(RedisCallback.class));
+    }
+}
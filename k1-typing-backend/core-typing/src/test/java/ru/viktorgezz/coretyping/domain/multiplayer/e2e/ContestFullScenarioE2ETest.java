@@ -31,12 +31,15 @@ import ru.viktorgezz.coretyping.domain.multiplayer.dto.rq.CreateRoomRqDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.JoinRoomRsDto;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestFinishedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestStartMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestTextMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.CountdownMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.FinishMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.PlayerFinishedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.PlayerJoinedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ProgressUpdateMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestStatusService;
+import ru.viktorgezz.coretyping.domain.multiplayer.util.ExerciseTextSealer;
 import ru.viktorgezz.coretyping.domain.user.repo.UserRepo;
 import ru.viktorgezz.security.repo.RefreshTokenRepo;
 import ru.viktorgezz.statistics_result_module.result_item.Place;
@@ -63,6 +66,9 @@ class ContestFullScenarioE2ETest extends AbstractWebSocketE2ETest {
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private ContestStatusService contestStatusService;
+
     @Autowired
     private RefreshTokenRepo refreshTokenRepo;
 
@@ -112,11 +118,13 @@ class ContestFullScenarioE2ETest extends AbstractWebSocketE2ETest {
         StompSession sessionSecond = connectToWebSocket(tokenPlayerSecond);
 
         String topicCountdown = String.format("/topic/contest/%d/countdown", idContestCreated);
+        String topicText = String.format("/topic/contest/%d/text", idContestCreated);
         String topicStart = String.format("/topic/contest/%d/start", idContestCreated);
         String topicPlayerFinished = String.format("/topic/contest/%d/player-finished", idContestCreated);
         String topicFinished = String.format("/topic/contest/%d/finished", idContestCreated);
 
         BlockingQueue<CountdownMessage> countdownQueueFirst = subscribeToTopic(sessionFirst, topicCountdown, CountdownMessage.class);
+        BlockingQueue<ContestTextMessage> textQueueFirst = subscribeToTopic(sessionFirst, topicText, ContestTextMessage.class);
         BlockingQueue<ContestStartMessage> startQueueFirst = subscribeToTopic(sessionFirst, topicStart, ContestStartMessage.class);
         BlockingQueue<PlayerFinishedMessage> playerFinishedQueueFirst = subscribeToTopic(sessionFirst, topicPlayerFinished, PlayerFinishedMessage.class);
         BlockingQueue<ContestFinishedMessage> finishedQueueFirst = subscribeToTopic(sessionFirst, topicFinished, ContestFinishedMessage.class);
@@ -133,9 +141,14 @@ class ContestFullScenarioE2ETest extends AbstractWebSocketE2ETest {
         assertThat(countdownMessageFirst).isNotNull();
         assertThat(countdownMessageFirst.seconds()).isLessThanOrEqualTo(5);
 
+        ContestTextMessage textMessage = textQueueFirst.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(textMessage).isNotNull();
+        assertThat(textMessage.textSealed()).doesNotContain(EXERCISE_TEXT_TEST);
+
         ContestStartMessage startMessage = startQueueFirst.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
         assertThat(startMessage).isNotNull();
-        assertThat(startMessage.text()).isEqualTo(EXERCISE_TEXT_TEST);
+        assertThat(ExerciseTextSealer.unseal(textMessage.textSealed(), startMessage.revealKey()))
+                .isEqualTo(EXERCISE_TEXT_TEST);
 
         String destinationProgress = String.format("/app/contest/%d/progress", idContestCreated);
         sessionFirst.send(destinationProgress, new ProgressUpdateMessage(50, 200, new BigDecimal("95.50")));
@@ -165,6 +178,7 @@ class ContestFullScenarioE2ETest extends AbstractWebSocketE2ETest {
         assertThat(finishedMessage.leaderboard().get(0).place()).isEqualTo(Place.FIRST);
         assertThat(finishedMessage.leaderboard().get(1).place()).isEqualTo(Place.SECOND);
 
+        contestStatusService.flushPending();
         assertThat(contestRepo.findById(idContestCreated))
                 .isPresent()
                 .hasValueSatisfying(contest ->
@@ -0,0 +1,148 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.engine.intrf.RoomEngine;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.FinishService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ReadyService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
+import ru.viktorgezz.statistics_result_module.result_item.Place;
+import testconfig.AbstractIntegrationRedisTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyFinishers;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyProgress;
+
+@TestPropertySource(properties = "multiplayer.engine.in-memory-enabled=true")
+class RoomEngineIntegrationTest extends AbstractIntegrationRedisTest {
+
+    @Autowired
+    private RoomEngine roomEngine;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private ParticipantsService participantsService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private ReadyService readyService;
+
+    @Autowired
+    private FinishService finishService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private static final Long ID_CONTEST_TEST = 12L;
+    private static final Long ID_EXERCISE_TEST = 100L;
+    private static final int PARTICIPANTS_MAX_TEST = 4;
+
+    private static final Long ID_USER_FIRST = 110L;
+    private static final Long ID_USER_SECOND = 120L;
+    private static final String USERNAME_FIRST = "EngineFirst";
+    private static final String USERNAME_SECOND = "EngineSecond";
+
+    @BeforeEach
+    void setupRoom() {
+        roomService.createRoom(ID_CONTEST_TEST, ID_EXERCISE_TEST, PARTICIPANTS_MAX_TEST);
+        participantsService.addParticipant(ID_CONTEST_TEST, ID_USER_FIRST, USERNAME_FIRST);
+        participantsService.addParticipant(ID_CONTEST_TEST, ID_USER_SECOND, USERNAME_SECOND);
+    }
+
+    @AfterEach
+    void cleanup() {
+        roomEngine.evict(ID_CONTEST_TEST);
+        roomService.deleteRoom(ID_CONTEST_TEST);
+    }
+
+    @Test
+    @DisplayName("Прогресс виден из памяти сразу, а в Redis появляется после сброса write-behind")
+    void updateProgress_ShouldBeWrittenToRedis_WhenDirtyRoomsFlushed() {
+        progressService.updateProgress(ID_CONTEST_TEST, ID_USER_FIRST, 42, 315, new BigDecimal("97.35"));
+
+        UserProgressData progressMemory = progressService.getProgressByUser(ID_CONTEST_TEST, ID_USER_FIRST);
+        assertThat(progressMemory.progress()).isEqualTo(42);
+        assertThat(readProgressRedis(ID_USER_FIRST).progress()).isZero();
+
+        roomEngine.flushDirtyRooms();
+
+        UserProgressData progressRedis = readProgressRedis(ID_USER_FIRST);
+        assertThat(progressRedis.progress()).isEqualTo(42);
+        assertThat(progressRedis.speed()).isEqualTo(315);
+        assertThat(progressRedis.accuracy()).isEqualByComparingTo("97.35");
+    }
+
+    @Test
+    @DisplayName("После выгрузки комната загружается из Redis с прогрессом и готовностью")
+    void evict_ShouldRestoreStateFromRedis_WhenRoomAccessedAgain() {
+        progressService.updateProgress(ID_CONTEST_TEST, ID_USER_SECOND, 10, 200, new BigDecimal("99.00"));
+        readyService.markReady(ID_CONTEST_TEST, ID_USER_SECOND);
+
+        roomEngine.evict(ID_CONTEST_TEST);
+
+        assertThat(participantsService.getParticipantIds(ID_CONTEST_TEST))
+                .containsExactlyInAnyOrder(ID_USER_FIRST, ID_USER_SECOND);
+        assertThat(progressService.getProgressByUser(ID_CONTEST_TEST, ID_USER_SECOND).progress()).isEqualTo(10);
+        assertThat(readyService.isReady(ID_CONTEST_TEST, ID_USER_SECOND)).isTrue();
+        assertThat(readyService.isReady(ID_CONTEST_TEST, ID_USER_FIRST)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Финиши получают места по порядку, соревнование завершает только последний")
+    void registerFinish_ShouldAssignPlacesAndCompleteOnce_WhenAllFinish() {
+        FinishService.FinishRegistration registrationFirst = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
+        FinishService.FinishRegistration registrationRepeated = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
+        FinishService.FinishRegistration registrationSecond = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND);
+
+        assertThat(registrationFirst.place()).isEqualTo(Place.FIRST);
+        assertThat(registrationFirst.contestComplete()).isFalse();
+        assertThat(registrationRepeated.place()).isEqualTo(Place.FIRST);
+        assertThat(registrationRepeated.contestComplete()).isFalse();
+        assertThat(registrationSecond.place()).isEqualTo(Place.SECOND);
+        assertThat(registrationSecond.contestComplete()).isTrue();
+
+        roomEngine.flushDirtyRooms();
+
+        assertThat(stringRedisTemplate.opsForZSet().range(keyFinishers(ID_CONTEST_TEST), 0, -1))
+                .containsExactly(ID_USER_FIRST.toString(), ID_USER_SECOND.toString());
+    }
+
+    @Test
+    @DisplayName("Одновременные финиши завершают соревнование ровно один раз")
+    void registerFinish_ShouldCompleteExactlyOnce_WhenFinishesAreConcurrent() {
+        List<CompletableFuture<FinishService.FinishRegistration>> registrations = List.of(
+                CompletableFuture.supplyAsync(() -> finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST)),
+                CompletableFuture.supplyAsync(() -> finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND))
+        );
+
+        long countComplete = registrations.stream()
+                .map(CompletableFuture::join)
+                .filter(FinishService.FinishRegistration::contestComplete)
+                .count();
+
+        assertThat(countComplete).isEqualTo(1);
+    }
+
+    private UserProgressData readProgressRedis(Long idUser) {
+        return ProgressCodec.unpack(
+                stringRedisTemplate.opsForHash().get(keyProgress(ID_CONTEST_TEST), idUser.toString())
+        );
+    }
+}
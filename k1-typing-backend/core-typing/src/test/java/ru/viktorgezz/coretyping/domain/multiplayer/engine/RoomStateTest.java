@@ -0,0 +1,59 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomStateTest {
+
+    private static final long ID_USER_FIRST = 110L;
+    private static final long ID_USER_SECOND = 120L;
+
+    private RoomState state;
+
+    @BeforeEach
+    void setUp() {
+        state = new RoomState();
+        state.addParticipant(ID_USER_FIRST, "EngineFirst");
+        state.addParticipant(ID_USER_SECOND, "EngineSecond");
+        state.markHydrated();
+    }
+
+    @Test
+    @DisplayName("Незаписанная пачка возвращается в состояние и уходит со следующей выгрузкой")
+    void restoreWriteBatch_ShouldReturnChangesToNextBatch_WhenWriteFailed() {
+        final long packed = ProgressCodec.pack(40, 180, new BigDecimal("97.00"));
+        state.updateProgress(ID_USER_FIRST, packed);
+        state.markReady(ID_USER_SECOND);
+        state.registerFinish(ID_USER_SECOND, 1_000L);
+
+        RoomState.WriteBatch batchFailed = state.drainWriteBatch();
+        assertThat(state.drainWriteBatch().isEmpty()).isTrue();
+
+        state.restoreWriteBatch(batchFailed);
+        state.registerFinish(ID_USER_FIRST, 2_000L);
+        RoomState.WriteBatch batchRetried = state.drainWriteBatch();
+
+        assertThat(batchRetried.progressChanged()).containsEntry(ID_USER_FIRST, packed);
+        assertThat(batchRetried.idsReadyAdded()).containsExactly(ID_USER_SECOND);
+        assertThat(batchRetried.finishersAdded().keySet()).containsExactly(ID_USER_SECOND, ID_USER_FIRST);
+    }
+
+    @Test
+    @DisplayName("Снятие готовности вышедшего участника повторяется после неудачной записи")
+    void restoreWriteBatch_ShouldKeepReadyRemoval_WhenParticipantLeft() {
+        state.restoreReady(ID_USER_FIRST);
+        state.removeParticipant(ID_USER_FIRST);
+
+        RoomState.WriteBatch batchFailed = state.drainWriteBatch();
+        state.restoreWriteBatch(batchFailed);
+
+        assertThat(state.isDirty()).isTrue();
+        assertThat(state.drainWriteBatch().idsReadyRemoved()).containsExactly(ID_USER_FIRST);
+    }
+}
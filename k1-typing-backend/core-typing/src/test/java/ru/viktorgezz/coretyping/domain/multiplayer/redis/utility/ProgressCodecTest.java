@@ -0,0 +1,54 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.redis.utility;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProgressCodecTest {
+
+    // Так поле хеша записывал прежний RedisTemplate: JSON прогресса, обёрнутый Jackson в JSON-строку
+    private static final String VALUE_LEGACY = "\"{\\\"progress\\\":45,\\\"speed\\\":230,\\\"accuracy\\\":96.5}\"";
+
+    @Test
+    @DisplayName("Упакованный прогресс читается без потерь")
+    void unpack_ShouldReturnPackedValues_WhenValueIsDecimalString() {
+        final long packed = ProgressCodec.pack(72, 310, new BigDecimal("98.25"));
+
+        UserProgressData progressData = ProgressCodec.unpack((Object) Long.toString(packed));
+
+        assertThat(progressData.progress()).isEqualTo(72);
+        assertThat(progressData.speed()).isEqualTo(310);
+        assertThat(progressData.accuracy()).isEqualByComparingTo("98.25");
+    }
+
+    @Test
+    @DisplayName("Прогресс, записанный до перехода на упаковку, читается из JSON")
+    void unpack_ShouldDecodeLegacyJson_WhenValueWrittenBeforeUpgrade() {
+        UserProgressData progressData = ProgressCodec.unpack((Object) VALUE_LEGACY);
+
+        assertThat(progressData.progress()).isEqualTo(45);
+        assertThat(progressData.speed()).isEqualTo(230);
+        assertThat(progressData.accuracy()).isEqualByComparingTo("96.50");
+        assertThat(ProgressCodec.toPacked(VALUE_LEGACY)).isEqualTo(ProgressCodec.pack(45, 230, new BigDecimal("96.5")));
+    }
+
+    @Test
+    @DisplayName("Прогресс в JSON без обёртки-строки тоже читается")
+    void toPacked_ShouldDecodeLegacyJson_WhenValueNotWrapped() {
+        assertThat(ProgressCodec.toPacked("{\"progress\":10,\"speed\":50,\"accuracy\":null}"))
+                .isEqualTo(ProgressCodec.pack(10, 50, null));
+    }
+
+    @Test
+    @DisplayName("Отсутствующее значение — нулевой прогресс, нечитаемое — ошибка")
+    void toPacked_ShouldHandleMissingAndBrokenValues() {
+        assertThat(ProgressCodec.toPacked(null)).isEqualTo(ProgressCodec.PACKED_ZERO);
+        assertThatThrownBy(() -> ProgressCodec.toPacked("{broken"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
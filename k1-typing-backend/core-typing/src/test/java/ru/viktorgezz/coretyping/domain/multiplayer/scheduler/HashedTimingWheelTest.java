@@ -0,0 +1,115 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK_MS = 10L;
+    private static final int WHEEL_SIZE = 4;
+    private static final long ROTATION_MS = TICK_MS * WHEEL_SIZE;
+    private static final long TOLERANCE_MS = 1_000L;
+
+    private final Map<String, Long> timestampsFired = new ConcurrentHashMap<>();
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private HashedTimingWheel<String> wheel;
+    private CountDownLatch latch;
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Размер колеса не степень двойки — ошибка")
+    void constructor_ShouldThrow_WhenWheelSizeIsNotPowerOfTwo() {
+        assertThatThrownBy(() -> new HashedTimingWheel<String>(TICK_MS, 6, batch -> {
+        }, "wheel-test"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Задачи одной корзины из разных оборотов срабатывают каждая в свой срок")
+    void schedule_ShouldFireEachRoundOnItsOwnDeadline_WhenTasksShareBucket() throws InterruptedException {
+        startWheel(2);
+        final long timestampNow = System.currentTimeMillis();
+        // Разница ровно в три оборота: обе задачи попадают в одну корзину, у второй rounds = 3
+        final long timestampDueNear = timestampNow + 25;
+        final long timestampDueFar = timestampDueNear + 3 * ROTATION_MS;
+
+        wheel.schedule("far", timestampDueFar);
+        wheel.schedule("near", timestampDueNear);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(timestampsFired.get("near")).isBetween(timestampDueNear, timestampDueNear + TOLERANCE_MS);
+        assertThat(timestampsFired.get("far")).isBetween(timestampDueFar, timestampDueFar + TOLERANCE_MS);
+        assertThat(batches).containsExactly(List.of("near"), List.of("far"));
+        assertThat(wheel.getCountScheduled()).isZero();
+    }
+
+    @Test
+    @DisplayName("Задача дальше полного оборота не срабатывает раньше срока")
+    void schedule_ShouldNotFireEarly_WhenDueBeyondFullRotation() throws InterruptedException {
+        startWheel(1);
+        final long timestampDue = System.currentTimeMillis() + 5 * ROTATION_MS + 7;
+
+        wheel.schedule("late", timestampDue);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(timestampsFired.get("late")).isBetween(timestampDue, timestampDue + TOLERANCE_MS);
+    }
+
+    @Test
+    @DisplayName("Просроченная задача попадает в текущую корзину и срабатывает на ближайшем тике")
+    void schedule_ShouldFireOnNextTick_WhenDueInPast() throws InterruptedException {
+        startWheel(1);
+        final long timestampScheduled = System.currentTimeMillis();
+
+        wheel.schedule("overdue", timestampScheduled - 10 * ROTATION_MS);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(timestampsFired.get("overdue")).isLessThan(timestampScheduled + TOLERANCE_MS);
+    }
+
+    @Test
+    @DisplayName("Задачи с одним сроком отдаются обработчику одной пачкой")
+    void schedule_ShouldDeliverOneBatch_WhenTasksDueOnSameTick() throws InterruptedException {
+        startWheel(3);
+        final long timestampDue = System.currentTimeMillis() + 2 * ROTATION_MS;
+
+        wheel.schedule("first", timestampDue);
+        wheel.schedule("second", timestampDue);
+        wheel.schedule("third", timestampDue);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(batches).hasSize(1);
+        assertThat(batches.getFirst()).containsExactlyInAnyOrder("first", "second", "third");
+    }
+
+    private void startWheel(int countExpected) {
+        latch = new CountDownLatch(countExpected);
+        wheel = new HashedTimingWheel<>(TICK_MS, WHEEL_SIZE, batch -> {
+            final long timestampFired = System.currentTimeMillis();
+            batches.add(batch.stream().map(HashedTimingWheel.Due::task).toList());
+            batch.forEach(due -> {
+                timestampsFired.put(due.task(), timestampFired);
+                latch.countDown();
+            });
+        }, "wheel-test");
+        wheel.start();
+    }
+}
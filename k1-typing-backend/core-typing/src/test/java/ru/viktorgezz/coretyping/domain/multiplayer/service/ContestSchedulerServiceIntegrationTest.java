@@ -0,0 +1,145 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.viktorgezz.coretyping.domain.multiplayer.scheduler.ContestScheduledEvent;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestSchedulerService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestWebSocketService;
+import testconfig.AbstractIntegrationRedisTest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_SCHEDULER_DEADLINES;
+
+class ContestSchedulerServiceIntegrationTest extends AbstractIntegrationRedisTest {
+
+    @Autowired
+    private ContestSchedulerService contestSchedulerService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockitoBean
+    private ContestWebSocketService contestWebSocketService;
+
+    private static final Long ID_CONTEST_TEST = 31L;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.delete(KEY_SCHEDULER_DEADLINES);
+        reset(contestWebSocketService);
+    }
+
+    @AfterEach
+    void cleanupRedis() {
+        stringRedisTemplate.delete(KEY_SCHEDULER_DEADLINES);
+    }
+
+    @Test
+    @DisplayName("Запуск отсчёта, не забранный владельцем комнаты, выполняется по истечении срока")
+    void scheduleCountdownStart_ShouldStartCountdown_WhenOwnerDidNotClaim() {
+        contestSchedulerService.scheduleCountdownStart(ID_CONTEST_TEST, System.currentTimeMillis() + 200);
+
+        verify(contestWebSocketService, timeout(3_000)).startCountdown(ID_CONTEST_TEST);
+        assertThat(stringRedisTemplate.opsForZSet().zCard(KEY_SCHEDULER_DEADLINES)).isZero();
+    }
+
+    @Test
+    @DisplayName("Запуск отсчёта забирается ровно один раз и по сроку повторно не выполняется")
+    void claimCountdownStart_ShouldClaimOnce_WhenOwnerTakesStart() {
+        contestSchedulerService.scheduleCountdownStart(ID_CONTEST_TEST, System.currentTimeMillis() + 200);
+
+        assertThat(contestSchedulerService.claimCountdownStart(ID_CONTEST_TEST)).isTrue();
+        assertThat(contestSchedulerService.claimCountdownStart(ID_CONTEST_TEST)).isFalse();
+        verify(contestWebSocketService, after(1_000).never()).startCountdown(anyLong());
+    }
+
+    @Test
+    @DisplayName("Отсчёт и старт сохраняются в Redis до срабатывания")
+    void scheduleCountdown_ShouldPersistDeadlines_WhenScheduled() {
+        contestSchedulerService.scheduleCountdown(ID_CONTEST_TEST, 5);
+
+        Set<String> members = stringRedisTemplate.opsForZSet().range(KEY_SCHEDULER_DEADLINES, 0, -1);
+        assertThat(members)
+                .hasSize(7)
+                .contains(
+                        ContestScheduledEvent.countdown(ID_CONTEST_TEST, 5).toMember(),
+                        ContestScheduledEvent.countdown(ID_CONTEST_TEST, 0).toMember(),
+                        ContestScheduledEvent.start(ID_CONTEST_TEST).toMember()
+                );
+    }
+
+    @Test
+    @DisplayName("Запланированный старт сохраняет только событие старта с заданным моментом")
+    void scheduleStart_ShouldPersistOnlyStart_WhenScheduled() {
+        final long timestampStart = System.currentTimeMillis() + 60_000;
+
+        contestSchedulerService.scheduleStart(ID_CONTEST_TEST, timestampStart);
+
+        assertThat(stringRedisTemplate.opsForZSet().range(KEY_SCHEDULER_DEADLINES, 0, -1))
+                .containsExactly(ContestScheduledEvent.start(ID_CONTEST_TEST).toMember());
+        assertThat(stringRedisTemplate.opsForZSet().score(
+                KEY_SCHEDULER_DEADLINES, ContestScheduledEvent.start(ID_CONTEST_TEST).toMember()
+        )).isEqualTo((double) timestampStart);
+    }
+
+    @Test
+    @DisplayName("Колесо таймеров рассылает отсчёт и стартует соревнование, удаляя события из Redis")
+    void scheduleCountdown_ShouldFireCountdownAndStart_WhenDeadlinesReached() {
+        contestSchedulerService.scheduleCountdown(ID_CONTEST_TEST, 1);
+
+        verify(contestWebSocketService, timeout(3_000)).broadcastCountdown(ID_CONTEST_TEST, 1);
+        verify(contestWebSocketService, timeout(3_000)).broadcastCountdown(ID_CONTEST_TEST, 0);
+        verify(contestWebSocketService, timeout(3_000)).startContests(List.of(ID_CONTEST_TEST));
+        assertThat(stringRedisTemplate.opsForZSet().zCard(KEY_SCHEDULER_DEADLINES)).isZero();
+    }
+
+    @Test
+    @DisplayName("Просроченный старт брошенного узла выполняется ровно один раз при параллельном восстановлении")
+    void recoverOverdue_ShouldStartContestOnce_WhenRecoveredConcurrently() {
+        final long timestampOverdue = System.currentTimeMillis() - 60_000;
+        stringRedisTemplate.opsForZSet().add(
+                KEY_SCHEDULER_DEADLINES, ContestScheduledEvent.start(ID_CONTEST_TEST).toMember(), timestampOverdue
+        );
+
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.runAsync(contestSchedulerService::recoverOverdue))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+
+        verify(contestWebSocketService, times(1)).startContests(List.of(ID_CONTEST_TEST));
+        assertThat(stringRedisTemplate.opsForZSet().zCard(KEY_SCHEDULER_DEADLINES)).isZero();
+    }
+
+    @Test
+    @DisplayName("Просроченный отсчёт удаляется без рассылки")
+    void recoverOverdue_ShouldDropCountdown_WhenOverdue() {
+        final long timestampOverdue = System.currentTimeMillis() - 60_000;
+        stringRedisTemplate.opsForZSet().add(
+                KEY_SCHEDULER_DEADLINES, ContestScheduledEvent.countdown(ID_CONTEST_TEST, 3).toMember(), timestampOverdue
+        );
+
+        contestSchedulerService.recoverOverdue();
+
+        verify(contestWebSocketService, never()).broadcastCountdown(eq(ID_CONTEST_TEST), anyInt());
+        assertThat(stringRedisTemplate.opsForZSet().zCard(KEY_SCHEDULER_DEADLINES)).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestCommandService;
+import ru.viktorgezz.coretyping.domain.contest.service.intrf.ContestQueryService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.impl.ContestStatusServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class ContestStatusServiceTest {
+
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private ContestQueryService contestQueryService;
+
+    @Mock
+    private ContestCommandService contestCommandService;
+
+    @InjectMocks
+    private ContestStatusServiceImpl contestStatusService;
+
+    @Test
+    @DisplayName("Переходы копятся до тика и записываются одним UPDATE на каждый статус")
+    void flushPending_ShouldGroupByStatus_WhenSeveralContestsChanged() {
+        when(roomService.compareAndSetStatus(any(), any(), any())).thenReturn(true);
+        when(roomService.compareAndSetStatusAll(List.of(3L), Status.WAITING, Status.PROGRESS)).thenReturn(List.of(3L));
+
+        contestStatusService.transition(1L, Status.CREATED, Status.WAITING);
+        contestStatusService.transition(2L, Status.CREATED, Status.WAITING);
+        contestStatusService.transitionAll(List.of(3L), Status.WAITING, Status.PROGRESS);
+
+        verify(contestCommandService, never()).updateStatusAll(anyCollection(), any());
+
+        contestStatusService.flushPending();
+
+        verify(contestCommandService).updateStatusAll(List.of(1L, 2L), Status.WAITING);
+        verify(contestCommandService).updateStatusAll(List.of(3L), Status.PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Несколько переходов одной комнаты за интервал записываются последним статусом")
+    void flushPending_ShouldWriteLatestStatus_WhenContestChangedTwice() {
+        when(roomService.compareAndSetStatus(any(), any(), any())).thenReturn(true);
+
+        contestStatusService.transition(1L, Status.CREATED, Status.WAITING);
+        contestStatusService.transition(1L, Status.WAITING, Status.PROGRESS);
+        contestStatusService.flushPending();
+        contestStatusService.flushPending();
+
+        verify(contestCommandService, times(1)).updateStatusAll(List.of(1L), Status.PROGRESS);
+        verify(contestCommandService, never()).updateStatusAll(List.of(1L), Status.WAITING);
+    }
+
+    @Test
+    @DisplayName("Неудавшийся compare-and-set не ставит запись в очередь")
+    void transition_ShouldNotEnqueueWrite_WhenStatusNotExpected() {
+        when(roomService.compareAndSetStatus(1L, Status.CREATED, Status.WAITING)).thenReturn(false);
+
+        boolean changed = contestStatusService.transition(1L, Status.CREATED, Status.WAITING);
+        contestStatusService.flushPending();
+
+        assertThat(changed).isFalse();
+        verify(contestCommandService, never()).updateStatusAll(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Статус комнаты, которой уже нет в Redis, читается из PostgreSQL")
+    void getStatus_ShouldFallbackToDatabase_WhenRoomMissingInRedis() {
+        when(roomService.getStatus(1L)).thenReturn(Optional.empty());
+        when(contestQueryService.getStatus(1L)).thenReturn(Status.FINISHED);
+
+        assertThat(contestStatusService.getStatus(1L)).isEqualTo(Status.FINISHED);
+    }
+}
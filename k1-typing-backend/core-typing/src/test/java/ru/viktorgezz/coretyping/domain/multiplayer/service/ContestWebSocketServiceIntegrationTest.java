@@ -2,19 +2,29 @@ package ru.viktorgezz.coretyping.domain.multiplayer.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.QUEUE_CONTEST_PROGRESS;
 import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_FINISHED;
 import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_PLAYER_FINISHED;
 import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_PLAYER_JOINED;
 import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_PLAYER_LEFT;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_PLAYER_READY;
 import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_PROGRESS;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_START;
+import static ru.viktorgezz.coretyping.domain.multiplayer.util.WebsocketTopicStorage.TOPIC_TEXT;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,25 +33,36 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import ru.viktorgezz.coretyping.domain.balance.service.BalanceService;
 import ru.viktorgezz.coretyping.domain.contest.Contest;
 import ru.viktorgezz.coretyping.domain.contest.Status;
 import ru.viktorgezz.coretyping.domain.contest.repo.ContestRepo;
 import ru.viktorgezz.coretyping.domain.exercises.Exercise;
 import ru.viktorgezz.coretyping.domain.exercises.repo.ExerciseRepo;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestStartMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestTextMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ContestFinishedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.FinishMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.PlayerFinishedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.PlayerJoinedMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.PlayerLeftRoomMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.PlayerReadyMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.ProgressUpdateMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.RankedProgressMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.RankedProgressMessage.RankedProgress;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.FinishService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ReadyService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestStatusService;
 import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ContestWebSocketService;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.ProgressBroadcastService;
 import ru.viktorgezz.coretyping.domain.user.Role;
 import ru.viktorgezz.coretyping.domain.user.User;
 import ru.viktorgezz.coretyping.domain.user.repo.UserRepo;
@@ -67,6 +88,15 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
     @Autowired
     private ReadyService readyService;
 
+    @Autowired
+    private FinishService finishService;
+
+    @Autowired
+    private ProgressBroadcastService progressBroadcastService;
+
+    @Autowired
+    private ContestStatusService contestStatusService;
+
     @Autowired
     private UserRepo userRepo;
 
@@ -82,6 +112,12 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
     @MockitoBean
     private SimpMessagingTemplate messagingTemplate;
 
+    @MockitoBean
+    private BalanceService balanceService;
+
+    @MockitoBean
+    private SimpUserRegistry simpUserRegistry;
+
     private Contest contestSaved;
     private User userFirst;
     private User userSecond;
@@ -113,6 +149,7 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
 
     @AfterEach
     void cleanupTestData() {
+        progressBroadcastService.discardRoom(contestSaved.getId());
         roomService.deleteRoom(contestSaved.getId());
         resultItemRepo.deleteAll();
         contestRepo.deleteAll();
@@ -130,6 +167,7 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         ProgressUpdateMessage messageProgress = new ProgressUpdateMessage(progressPercentExpected, speedExpected, accuracyExpected);
 
         contestWebSocketService.processProgress(contestSaved.getId(), userFirst.getId(), messageProgress);
+        progressBroadcastService.broadcastDirtyRooms();
 
         ArgumentCaptor<AllProgressMessage> messageCaptor = ArgumentCaptor.forClass(AllProgressMessage.class);
         verify(messagingTemplate).convertAndSend(
@@ -168,9 +206,7 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
     void processFinishTransaction_ShouldReturnMessageWithFirstPlace_WhenUserFinishesFirst() {
         FinishMessage messageFinish = new FinishMessage(120L, 200, new BigDecimal("95.50"));
 
-        PlayerFinishedMessage messageResult = contestWebSocketService.processFinishTransaction(
-                contestSaved.getId(), userFirst.getId(), messageFinish
-        );
+        PlayerFinishedMessage messageResult = finish(userFirst, messageFinish);
 
         assertThat(messageResult.idUser()).isEqualTo(userFirst.getId());
         assertThat(messageResult.username()).isEqualTo(USERNAME_FIRST);
@@ -181,11 +217,14 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
     }
 
     @Test
-    @DisplayName("Транзакционная обработка финиша сохраняет результат в базу данных")
-    void processFinishTransaction_ShouldSaveResultToDatabase_WhenUserFinishes() {
+    @DisplayName("Результат финиша попадает в базу данных при завершении соревнования")
+    void processFinishTransaction_ShouldSaveResultToDatabase_WhenContestFinishes() {
         FinishMessage messageFinish = new FinishMessage(90L, 180, new BigDecimal("98.00"));
 
-        contestWebSocketService.processFinishTransaction(contestSaved.getId(), userFirst.getId(), messageFinish);
+        finish(userFirst, messageFinish);
+        assertThat(resultItemRepo.findAllByContestIdOrderByPlaceAsc(contestSaved.getId())).isEmpty();
+
+        contestWebSocketService.finishContestTransaction(contestSaved.getId());
 
         List<ResultItem> resultsFound = resultItemRepo.findAllByContestIdOrderByPlaceAsc(contestSaved.getId());
         assertThat(resultsFound).hasSize(1);
@@ -203,17 +242,70 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         FinishMessage messageFinishFirst = new FinishMessage(60L, 220, new BigDecimal("99.00"));
         FinishMessage messageFinishSecond = new FinishMessage(70L, 190, new BigDecimal("97.50"));
 
-        PlayerFinishedMessage messageResultFirst = contestWebSocketService.processFinishTransaction(
-                contestSaved.getId(), userSecond.getId(), messageFinishFirst
-        );
-        PlayerFinishedMessage messageResultSecond = contestWebSocketService.processFinishTransaction(
-                contestSaved.getId(), userFirst.getId(), messageFinishSecond
-        );
+        PlayerFinishedMessage messageResultFirst = finish(userSecond, messageFinishFirst);
+        PlayerFinishedMessage messageResultSecond = finish(userFirst, messageFinishSecond);
 
         assertThat(messageResultFirst.place()).isEqualTo(Place.FIRST);
         assertThat(messageResultSecond.place()).isEqualTo(Place.SECOND);
     }
 
+    @Test
+    @DisplayName("Кадр рейтинга получают только клиенты этого узла, вошедший после keyframe участник не теряется")
+    void broadcastDirtyRooms_ShouldSendRankedFrameToLocalUsers_WhenParticipantJoinedAfterKeyframe() {
+        Contest contestLarge = contestRepo.save(new Contest(Status.PROGRESS, 100, exerciseSaved));
+        final Long idContestLarge = contestLarge.getId();
+        final Long idUserLate = 999_001L;
+        final String usernameLate = "PlayerLate";
+        when(simpUserRegistry.getUser(USERNAME_SECOND)).thenReturn(mock(SimpUser.class));
+        when(simpUserRegistry.getUser(usernameLate)).thenReturn(mock(SimpUser.class));
+        try {
+            roomService.createRoom(idContestLarge, exerciseSaved.getId(), 100);
+            participantsService.addParticipant(idContestLarge, userFirst.getId(), USERNAME_FIRST);
+            participantsService.addParticipant(idContestLarge, userSecond.getId(), USERNAME_SECOND);
+
+            contestWebSocketService.processProgress(
+                    idContestLarge, userFirst.getId(), new ProgressUpdateMessage(30, 200, new BigDecimal("97.00"))
+            );
+            progressBroadcastService.broadcastDirtyRooms();
+
+            participantsService.addParticipant(idContestLarge, idUserLate, usernameLate);
+            contestWebSocketService.processProgress(
+                    idContestLarge, idUserLate, new ProgressUpdateMessage(80, 300, new BigDecimal("100.00"))
+            );
+            progressBroadcastService.broadcastDirtyRooms();
+
+            verify(messagingTemplate, never()).convertAndSendToUser(
+                    eq(USERNAME_FIRST), anyString(), any(RankedProgressMessage.class), anyMap()
+            );
+            ArgumentCaptor<RankedProgressMessage> messageCaptor = ArgumentCaptor.forClass(RankedProgressMessage.class);
+            verify(messagingTemplate).convertAndSendToUser(
+                    eq(usernameLate),
+                    eq(String.format(QUEUE_CONTEST_PROGRESS, idContestLarge)),
+                    messageCaptor.capture(),
+                    anyMap()
+            );
+            assertThat(messageCaptor.getValue().countParticipants()).isEqualTo(3);
+            assertThat(messageCaptor.getValue().leaders().getFirst().idUser()).isEqualTo(idUserLate);
+        } finally {
+            progressBroadcastService.discardRoom(idContestLarge);
+            roomService.deleteRoom(idContestLarge);
+        }
+    }
+
+    @Test
+    @DisplayName("Повторный финиш не начисляет баланс и не формирует сообщение")
+    void processFinishTransaction_ShouldSkipCreditAndMessage_WhenResultAlreadyRecorded() {
+        FinishMessage messageFinish = new FinishMessage(80L, 210, new BigDecimal("96.00"));
+        finish(userFirst, messageFinish);
+
+        Optional<PlayerFinishedMessage> messageRepeated = contestWebSocketService.processFinishTransaction(
+                contestSaved.getId(), userFirst.getId(), messageFinish, Place.SECOND
+        );
+
+        assertThat(messageRepeated).isEmpty();
+        verify(balanceService, times(1)).replenishBalanceByIdUserAndPlaceAsync(any(), any());
+    }
+
     @Test
     @DisplayName("Обработка финиша рассылает сообщение о завершении игрока")
     void processFinish_ShouldBroadcastPlayerFinishedMessage_WhenUserFinishes() {
@@ -223,7 +315,8 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
 
         verify(messagingTemplate).convertAndSend(
                 eq(String.format(TOPIC_PLAYER_FINISHED, contestSaved.getId())),
-                any(PlayerFinishedMessage.class)
+                any(PlayerFinishedMessage.class),
+                anyMap()
         );
     }
 
@@ -242,19 +335,79 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         contestWebSocketService.processReady(contestSaved.getId(), userFirst.getId());
         contestWebSocketService.processReady(contestSaved.getId(), userSecond.getId());
 
+        assertThat(roomService.getStatus(contestSaved.getId())).contains(Status.WAITING);
+
+        contestStatusService.flushPending();
+
         Contest contestUpdated = contestRepo.findById(contestSaved.getId()).orElseThrow();
         assertThat(contestUpdated.getStatus()).isEqualTo(Status.WAITING);
     }
 
+    @Test
+    @DisplayName("Готовность после перехода в WAITING не запускает отсчёт повторно и ничего не рассылает")
+    void processReady_ShouldStartCountdownOnce_WhenReadyArrivesAfterStart() {
+        participantsService.addParticipant(contestSaved.getId(), userThird.getId(), USERNAME_THIRD);
+
+        contestWebSocketService.processReady(contestSaved.getId(), userFirst.getId());
+        contestWebSocketService.processReady(contestSaved.getId(), userSecond.getId());
+        contestWebSocketService.processReady(contestSaved.getId(), userThird.getId());
+        contestWebSocketService.processReady(contestSaved.getId(), userFirst.getId());
+
+        verify(messagingTemplate, times(1)).convertAndSend(
+                eq(String.format(TOPIC_TEXT, contestSaved.getId())),
+                any(ContestTextMessage.class),
+                anyMap()
+        );
+        verify(messagingTemplate, times(2)).convertAndSend(
+                eq(String.format(TOPIC_PLAYER_READY, contestSaved.getId())),
+                any(PlayerReadyMessage.class),
+                anyMap()
+        );
+        assertThat(readyService.isReady(contestSaved.getId(), userThird.getId())).isFalse();
+    }
+
     @Test
     @DisplayName("Обработка готовности не изменяет статус когда готов только один участник")
     void processReady_ShouldNotChangeStatus_WhenOnlyOneParticipantReady() {
         contestWebSocketService.processReady(contestSaved.getId(), userFirst.getId());
+        contestStatusService.flushPending();
 
+        assertThat(roomService.getStatus(contestSaved.getId())).contains(Status.CREATED);
         Contest contestUpdated = contestRepo.findById(contestSaved.getId()).orElseThrow();
         assertThat(contestUpdated.getStatus()).isEqualTo(Status.CREATED);
     }
 
+    @Test
+    @DisplayName("Повторный старт рассылает старт, если прошлая попытка сменила статус и упала до рассылки")
+    void startContests_ShouldBroadcastStart_WhenPreviousAttemptFailedAfterTransition() {
+        contestStatusService.transition(contestSaved.getId(), Status.CREATED, Status.PROGRESS);
+
+        contestWebSocketService.startContests(List.of(contestSaved.getId()));
+
+        verify(messagingTemplate, times(1)).convertAndSend(
+                eq(String.format(TOPIC_START, contestSaved.getId())),
+                any(ContestStartMessage.class),
+                anyMap()
+        );
+    }
+
+    @Test
+    @DisplayName("Повторный старт не рассылает старт второй раз, если он уже в журнале комнаты")
+    void startContests_ShouldBroadcastStartOnce_WhenStartRetried() {
+        contestWebSocketService.processReady(contestSaved.getId(), userFirst.getId());
+        contestWebSocketService.processReady(contestSaved.getId(), userSecond.getId());
+
+        contestWebSocketService.startContests(List.of(contestSaved.getId()));
+        contestWebSocketService.startContests(List.of(contestSaved.getId()));
+
+        assertThat(roomService.getStatus(contestSaved.getId())).contains(Status.PROGRESS);
+        verify(messagingTemplate, times(1)).convertAndSend(
+                eq(String.format(TOPIC_START, contestSaved.getId())),
+                any(ContestStartMessage.class),
+                anyMap()
+        );
+    }
+
     @Test
     @DisplayName("Рассылка присоединения игрока отправляет корректное сообщение")
     void broadcastPlayerJoined_ShouldSendCorrectMessage_WhenPlayerJoins() {
@@ -263,7 +416,8 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         ArgumentCaptor<PlayerJoinedMessage> messageCaptor = ArgumentCaptor.forClass(PlayerJoinedMessage.class);
         verify(messagingTemplate).convertAndSend(
                 eq(String.format(TOPIC_PLAYER_JOINED, contestSaved.getId())),
-                messageCaptor.capture()
+                messageCaptor.capture(),
+                anyMap()
         );
 
         PlayerJoinedMessage messageCaptured = messageCaptor.getValue();
@@ -281,7 +435,8 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         ArgumentCaptor<PlayerLeftRoomMessage> messageCaptor = ArgumentCaptor.forClass(PlayerLeftRoomMessage.class);
         verify(messagingTemplate).convertAndSend(
                 eq(String.format(TOPIC_PLAYER_LEFT, contestSaved.getId())),
-                messageCaptor.capture()
+                messageCaptor.capture(),
+                anyMap()
         );
 
         PlayerLeftRoomMessage messageCaptured = messageCaptor.getValue();
@@ -303,8 +458,13 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
     @Test
     @DisplayName("Транзакционное завершение соревнования устанавливает статус FINISHED")
     void finishContestTransaction_ShouldSetStatusFinished_WhenContestEnds() {
+        contestStatusService.transition(contestSaved.getId(), Status.CREATED, Status.WAITING);
+        contestStatusService.transition(contestSaved.getId(), Status.WAITING, Status.PROGRESS);
+
         contestWebSocketService.finishContestTransaction(contestSaved.getId());
+        contestStatusService.flushPending();
 
+        assertThat(roomService.getStatus(contestSaved.getId())).contains(Status.FINISHED);
         Contest contestUpdated = contestRepo.findById(contestSaved.getId()).orElseThrow();
         assertThat(contestUpdated.getStatus()).isEqualTo(Status.FINISHED);
     }
@@ -313,7 +473,7 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
     @DisplayName("Транзакционное завершение возвращает лидерборд с результатами")
     void finishContestTransaction_ShouldReturnLeaderboardWithResults_WhenResultsExist() {
         FinishMessage messageFinish = new FinishMessage(80L, 210, new BigDecimal("96.50"));
-        contestWebSocketService.processFinishTransaction(contestSaved.getId(), userFirst.getId(), messageFinish);
+        finish(userFirst, messageFinish);
 
         ContestFinishedMessage messageResult = contestWebSocketService.finishContestTransaction(contestSaved.getId());
 
@@ -338,7 +498,8 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
 
         verify(messagingTemplate).convertAndSend(
                 eq(String.format(TOPIC_FINISHED, contestSaved.getId())),
-                any(ContestFinishedMessage.class)
+                any(ContestFinishedMessage.class),
+                anyMap()
         );
     }
 
@@ -348,8 +509,8 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         FinishMessage messageFinishFirst = new FinishMessage(50L, 250, new BigDecimal("100.00"));
         FinishMessage messageFinishSecond = new FinishMessage(60L, 200, new BigDecimal("95.00"));
 
-        contestWebSocketService.processFinishTransaction(contestSaved.getId(), userFirst.getId(), messageFinishFirst);
-        contestWebSocketService.processFinishTransaction(contestSaved.getId(), userSecond.getId(), messageFinishSecond);
+        finish(userFirst, messageFinishFirst);
+        finish(userSecond, messageFinishSecond);
 
         ContestFinishedMessage messageResult = contestWebSocketService.finishContestTransaction(contestSaved.getId());
 
@@ -360,8 +521,22 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
     }
 
     @Test
-    @DisplayName("Обработка прогресса нескольких пользователей сохраняет все значения независимо")
-    void processProgress_ShouldStoreProgressIndependently_WhenMultipleUsersUpdateProgress() {
+    @DisplayName("Итоги завершённого соревнования отдаются из Redis без обращения к результатам в БД")
+    void getContestFinished_ShouldReturnCachedLeaderboard_WhenContestFinished() {
+        FinishMessage messageFinish = new FinishMessage(80L, 210, new BigDecimal("96.50"));
+        finish(userFirst, messageFinish);
+        assertThat(contestWebSocketService.getContestFinished(contestSaved.getId())).isEmpty();
+
+        ContestFinishedMessage messageFinished = contestWebSocketService.finishContestTransaction(contestSaved.getId());
+        resultItemRepo.deleteAll();
+
+        assertThat(contestWebSocketService.getContestFinished(contestSaved.getId()))
+                .hasValueSatisfying(messageCached -> assertThat(messageCached).isEqualTo(messageFinished));
+    }
+
+    @Test
+    @DisplayName("Обработка прогресса нескольких пользователей объединяется в один снимок за тик")
+    void processProgress_ShouldCoalesceIntoSingleBroadcast_WhenMultipleUsersUpdateProgressWithinTick() {
         int progressPercentFirst = 30;
         int speedFirst = 180;
         BigDecimal accuracyFirst = new BigDecimal("92.00");
@@ -375,8 +550,117 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         contestWebSocketService.processProgress(
                 contestSaved.getId(), userSecond.getId(), new ProgressUpdateMessage(progressPercentSecond, speedSecond, accuracySecond)
         );
+        progressBroadcastService.broadcastDirtyRooms();
+
+        ArgumentCaptor<AllProgressMessage> messageCaptor = ArgumentCaptor.forClass(AllProgressMessage.class);
+        verify(messagingTemplate).convertAndSend(
+                eq(String.format(TOPIC_PROGRESS, contestSaved.getId())),
+                messageCaptor.capture()
+        );
+
+        AllProgressMessage messageCaptured = messageCaptor.getValue();
+        assertThat(messageCaptured.usersProgress().get(userFirst.getId()).progress()).isEqualTo(progressPercentFirst);
+        assertThat(messageCaptured.usersProgress().get(userSecond.getId()).progress()).isEqualTo(progressPercentSecond);
+    }
 
+    @Test
+    @DisplayName("Большая комната получает персональные кадры с рейтингом вместо общего кадра прогресса")
+    void broadcastDirtyRooms_ShouldSendRankedFramePerUser_WhenRoomIsLarge() {
+        Contest contestLarge = contestRepo.save(new Contest(Status.PROGRESS, 100, exerciseSaved));
+        final Long idContestLarge = contestLarge.getId();
+        when(simpUserRegistry.getUser(anyString())).thenReturn(mock(SimpUser.class));
+        try {
+            roomService.createRoom(idContestLarge, exerciseSaved.getId(), 100);
+            participantsService.addParticipant(idContestLarge, userFirst.getId(), USERNAME_FIRST);
+            participantsService.addParticipant(idContestLarge, userSecond.getId(), USERNAME_SECOND);
+            participantsService.addParticipant(idContestLarge, userThird.getId(), USERNAME_THIRD);
+
+            contestWebSocketService.processProgress(
+                    idContestLarge, userFirst.getId(), new ProgressUpdateMessage(30, 200, new BigDecimal("97.00"))
+            );
+            contestWebSocketService.processProgress(
+                    idContestLarge, userSecond.getId(), new ProgressUpdateMessage(60, 250, new BigDecimal("99.00"))
+            );
+            progressBroadcastService.broadcastDirtyRooms();
+
+            verify(messagingTemplate, never()).convertAndSend(
+                    eq(String.format(TOPIC_PROGRESS, idContestLarge)),
+                    any(AllProgressMessage.class)
+            );
+            verify(messagingTemplate, times(3)).convertAndSendToUser(
+                    anyString(),
+                    eq(String.format(QUEUE_CONTEST_PROGRESS, idContestLarge)),
+                    any(RankedProgressMessage.class),
+                    anyMap()
+            );
+
+            ArgumentCaptor<RankedProgressMessage> messageCaptor = ArgumentCaptor.forClass(RankedProgressMessage.class);
+            verify(messagingTemplate).convertAndSendToUser(
+                    eq(USERNAME_THIRD),
+                    eq(String.format(QUEUE_CONTEST_PROGRESS, idContestLarge)),
+                    messageCaptor.capture(),
+                    anyMap()
+            );
+            RankedProgressMessage messageCaptured = messageCaptor.getValue();
+            assertThat(messageCaptured.countParticipants()).isEqualTo(3);
+            assertThat(messageCaptured.leaders())
+                    .extracting(RankedProgress::idUser)
+                    .containsExactly(userSecond.getId(), userFirst.getId(), userThird.getId());
+            assertThat(messageCaptured.leaders().getFirst().progress()).isEqualTo(60);
+        } finally {
+            progressBroadcastService.discardRoom(idContestLarge);
+            roomService.deleteRoom(idContestLarge);
+        }
+    }
+
+    @Test
+    @DisplayName("Кадр после keyframe содержит только участников с изменившимся прогрессом")
+    void broadcastDirtyRooms_ShouldSendDeltaWithChangedParticipantsOnly_WhenKeyframeAlreadySent() {
+        contestWebSocketService.processProgress(
+                contestSaved.getId(), userFirst.getId(), new ProgressUpdateMessage(10, 100, new BigDecimal("99.00"))
+        );
+        contestWebSocketService.processProgress(
+                contestSaved.getId(), userSecond.getId(), new ProgressUpdateMessage(20, 120, new BigDecimal("98.00"))
+        );
+        progressBroadcastService.broadcastDirtyRooms();
+
+        contestWebSocketService.processProgress(
+                contestSaved.getId(), userFirst.getId(), new ProgressUpdateMessage(15, 110, new BigDecimal("99.00"))
+        );
+        contestWebSocketService.processProgress(
+                contestSaved.getId(), userSecond.getId(), new ProgressUpdateMessage(20, 120, new BigDecimal("98.00"))
+        );
+        progressBroadcastService.broadcastDirtyRooms();
+
+        ArgumentCaptor<AllProgressMessage> messageCaptor = ArgumentCaptor.forClass(AllProgressMessage.class);
         verify(messagingTemplate, times(2)).convertAndSend(
+                eq(String.format(TOPIC_PROGRESS, contestSaved.getId())),
+                messageCaptor.capture()
+        );
+
+        AllProgressMessage messageKeyframe = messageCaptor.getAllValues().get(0);
+        AllProgressMessage messageDelta = messageCaptor.getAllValues().get(1);
+        assertThat(messageKeyframe.keyframe()).isTrue();
+        assertThat(messageKeyframe.sequence()).isEqualTo(1L);
+        assertThat(messageDelta.keyframe()).isFalse();
+        assertThat(messageDelta.sequence()).isEqualTo(2L);
+        assertThat(messageDelta.origin()).isEqualTo(messageKeyframe.origin());
+        assertThat(messageDelta.usersProgress()).containsOnlyKeys(userFirst.getId());
+        assertThat(messageDelta.usersProgress().get(userFirst.getId()).progress()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Тик рассылки ничего не отправляет в комнату без изменений прогресса")
+    void broadcastDirtyRooms_ShouldNotBroadcast_WhenNoProgressChanged() {
+        contestWebSocketService.processProgress(
+                contestSaved.getId(), userFirst.getId(), new ProgressUpdateMessage(10, 100, new BigDecimal("99.00"))
+        );
+        progressBroadcastService.broadcastDirtyRooms();
+        reset(messagingTemplate);
+
+        progressBroadcastService.broadcastDirtyRooms();
+
+        verify(messagingTemplate, never()).convertAndSend(
                 eq(String.format(TOPIC_PROGRESS, contestSaved.getId())),
                 any(AllProgressMessage.class)
         );
@@ -392,7 +676,8 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         ArgumentCaptor<PlayerJoinedMessage> messageCaptor = ArgumentCaptor.forClass(PlayerJoinedMessage.class);
         verify(messagingTemplate).convertAndSend(
                 eq(String.format(TOPIC_PLAYER_JOINED, contestSaved.getId())),
-                messageCaptor.capture()
+                messageCaptor.capture(),
+                anyMap()
         );
 
         PlayerJoinedMessage messageCaptured = messageCaptor.getValue();
@@ -405,10 +690,15 @@ class ContestWebSocketServiceIntegrationTest extends AbstractIntegrationRedisTes
         participantsService.removeParticipant(contestSaved.getId(), userSecond.getId());
         FinishMessage messageFinish = new FinishMessage(100L, 180, new BigDecimal("90.00"));
 
-        PlayerFinishedMessage messageResult = contestWebSocketService.processFinishTransaction(
-                contestSaved.getId(), userFirst.getId(), messageFinish
-        );
+        PlayerFinishedMessage messageResult = finish(userFirst, messageFinish);
 
         assertThat(messageResult.place()).isEqualTo(Place.FIRST);
     }
+
+    // Финиш так же, как в processFinish: место определяет атомарная регистрация, затем сохраняется результат
+    private PlayerFinishedMessage finish(User user, FinishMessage message) {
+        final Place placeObtained = finishService.registerFinish(contestSaved.getId(), user.getId()).place();
+        return contestWebSocketService.processFinishTransaction(contestSaved.getId(), user.getId(), message, placeObtained)
+                .orElseThrow();
+    }
 }
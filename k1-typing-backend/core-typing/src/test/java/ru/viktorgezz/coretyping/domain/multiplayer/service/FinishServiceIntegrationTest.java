@@ -11,6 +11,9 @@ import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomServi
 import ru.viktorgezz.statistics_result_module.result_item.Place;
 import testconfig.AbstractIntegrationRedisTest;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class FinishServiceIntegrationTest extends AbstractIntegrationRedisTest {
@@ -54,7 +57,7 @@ class FinishServiceIntegrationTest extends AbstractIntegrationRedisTest {
     @Test
     @DisplayName("Первый финишировавший участник получает первое место")
     void registerFinish_ShouldReturnFirstPlace_WhenUserFinishesFirst() {
-        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
+        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST).place();
 
         assertThat(placeResult).isEqualTo(Place.FIRST);
     }
@@ -64,7 +67,7 @@ class FinishServiceIntegrationTest extends AbstractIntegrationRedisTest {
     void registerFinish_ShouldReturnSecondPlace_WhenUserFinishesSecond() {
         finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
 
-        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND);
+        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND).place();
 
         assertThat(placeResult).isEqualTo(Place.SECOND);
     }
@@ -75,7 +78,7 @@ class FinishServiceIntegrationTest extends AbstractIntegrationRedisTest {
         finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
         finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND);
 
-        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_THIRD);
+        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_THIRD).place();
 
         assertThat(placeResult).isEqualTo(Place.THIRD);
     }
@@ -87,7 +90,7 @@ class FinishServiceIntegrationTest extends AbstractIntegrationRedisTest {
         finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND);
         finishService.registerFinish(ID_CONTEST_TEST, ID_USER_THIRD);
 
-        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FOURTH);
+        Place placeResult = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FOURTH).place();
 
         assertThat(placeResult).isEqualTo(Place.WITHOUT_PLACE);
     }
@@ -147,4 +150,50 @@ class FinishServiceIntegrationTest extends AbstractIntegrationRedisTest {
 
         roomService.deleteRoom(idContestEmpty);
     }
+
+    @Test
+    @DisplayName("Регистрация финиша отмечает завершение только для последнего участника")
+    void registerFinish_ShouldReportCompleteOnlyForLastFinisher_WhenAllParticipantsFinish() {
+        FinishService.FinishRegistration registrationFirst = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
+        FinishService.FinishRegistration registrationSecond = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND);
+        FinishService.FinishRegistration registrationThird = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_THIRD);
+        FinishService.FinishRegistration registrationFourth = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FOURTH);
+
+        assertThat(registrationFirst.contestComplete()).isFalse();
+        assertThat(registrationSecond.contestComplete()).isFalse();
+        assertThat(registrationThird.contestComplete()).isFalse();
+        assertThat(registrationFourth.contestComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Повторный финиш участника не меняет место и не завершает соревнование повторно")
+    void registerFinish_ShouldKeepPlaceAndNotReportComplete_WhenUserFinishesTwice() {
+        finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
+        finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND);
+        finishService.registerFinish(ID_CONTEST_TEST, ID_USER_THIRD);
+        finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FOURTH);
+
+        FinishService.FinishRegistration registrationRepeated = finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
+
+        assertThat(registrationRepeated.place()).isEqualTo(Place.FIRST);
+        assertThat(registrationRepeated.contestComplete()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Одновременные финиши последних участников завершают соревнование ровно один раз")
+    void registerFinish_ShouldReportCompleteExactlyOnce_WhenLastParticipantsFinishConcurrently() {
+        finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FIRST);
+        finishService.registerFinish(ID_CONTEST_TEST, ID_USER_SECOND);
+
+        CompletableFuture<FinishService.FinishRegistration> futureThird =
+                CompletableFuture.supplyAsync(() -> finishService.registerFinish(ID_CONTEST_TEST, ID_USER_THIRD));
+        CompletableFuture<FinishService.FinishRegistration> futureFourth =
+                CompletableFuture.supplyAsync(() -> finishService.registerFinish(ID_CONTEST_TEST, ID_USER_FOURTH));
+
+        List<FinishService.FinishRegistration> registrations = List.of(futureThird.join(), futureFourth.join());
+
+        assertThat(registrations)
+                .filteredOn(FinishService.FinishRegistration::contestComplete)
+                .hasSize(1);
+    }
 }
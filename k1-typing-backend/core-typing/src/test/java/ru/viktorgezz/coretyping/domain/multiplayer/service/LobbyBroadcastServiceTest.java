@@ -0,0 +1,110 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbySnapshotMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbyUpdateMessage;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.LobbyUpdateMessage.LobbyRoomEvent;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService.LobbyPage;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.impl.LobbyBroadcastServiceImpl;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+
+@ExtendWith(MockitoExtension.class)
+class LobbyBroadcastServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private LobbyService lobbyService;
+
+    @Spy
+    private MultiplayerProperties multiplayerProperties = new MultiplayerProperties();
+
+    @InjectMocks
+    private LobbyBroadcastServiceImpl lobbyBroadcastService;
+
+    private static final LocalDateTime CREATED_AT_TEST = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("События одной комнаты за интервал сливаются в одно: создание с последней заполненностью")
+    void broadcastPending_ShouldCoalesceEvents_WhenRoomChangedSeveralTimes() {
+        lobbyBroadcastService.roomCreated(room(1L, Language.RU, 1));
+        lobbyBroadcastService.occupancyChanged(room(1L, Language.RU, 2));
+        lobbyBroadcastService.occupancyChanged(room(1L, Language.RU, 3));
+
+        lobbyBroadcastService.broadcastPending();
+
+        ArgumentCaptor<LobbyUpdateMessage> captorMessage = ArgumentCaptor.forClass(LobbyUpdateMessage.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/lobby"), captorMessage.capture());
+        assertThat(captorMessage.getValue().events()).containsExactly(
+                new LobbyRoomEvent(LobbyUpdateMessage.Type.ROOM_CREATED, 1L, room(1L, Language.RU, 3))
+        );
+    }
+
+    @Test
+    @DisplayName("Языковой topic получает только комнаты своего языка и все закрытия")
+    void broadcastPending_ShouldRouteByLanguage_WhenRoomsOfDifferentLanguages() {
+        lobbyBroadcastService.roomCreated(room(1L, Language.RU, 1));
+        lobbyBroadcastService.roomCreated(room(2L, Language.ENG, 1));
+        lobbyBroadcastService.roomClosed(3L);
+
+        lobbyBroadcastService.broadcastPending();
+
+        ArgumentCaptor<LobbyUpdateMessage> captorMessage = ArgumentCaptor.forClass(LobbyUpdateMessage.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/lobby/RU"), captorMessage.capture());
+        assertThat(captorMessage.getValue().events())
+                .extracting(LobbyRoomEvent::idContest)
+                .containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Без изменений рассылка не выполняется, повторный тик не повторяет события")
+    void broadcastPending_ShouldSendNothing_WhenNoPendingEvents() {
+        lobbyBroadcastService.roomClosed(1L);
+        lobbyBroadcastService.broadcastPending();
+
+        lobbyBroadcastService.broadcastPending();
+
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/lobby"), any(Object.class));
+        verify(messagingTemplate, times(1 + Language.values().length)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Снимок лобби языка читается из индекса языка и сообщает все комнаты языка")
+    void getSnapshot_ShouldReadLanguageIndex_WhenLanguageRequested() {
+        final int snapshotSize = multiplayerProperties.getLobby().getSnapshotSize();
+        when(lobbyService.getRooms(Language.ENG, 0, snapshotSize))
+                .thenReturn(new LobbyPage(List.of(room(2L, Language.ENG, 1)), 120));
+
+        LobbySnapshotMessage snapshot = lobbyBroadcastService.getSnapshot(Language.ENG);
+
+        assertThat(snapshot).isEqualTo(new LobbySnapshotMessage(List.of(room(2L, Language.ENG, 1)), 120));
+    }
+
+    private static AvailableRoomRsDto room(Long idContest, Language language, int currentPlayers) {
+        return new AvailableRoomRsDto(idContest, "Title", language, currentPlayers, 4, CREATED_AT_TEST);
+    }
+}
@@ -0,0 +1,165 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_LOBBY_INDEX;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_LOBBY_META;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_LOBBY_OCCUPANCY;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyLobbyIndex;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.AvailableRoomRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.LobbyService.LobbyPage;
+import testconfig.AbstractIntegrationRedisTest;
+
+class LobbyServiceIntegrationTest extends AbstractIntegrationRedisTest {
+
+    @Autowired
+    private LobbyService lobbyService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private static final LocalDateTime CREATED_AT_BASE = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @AfterEach
+    void cleanupRedis() {
+        List<String> keys = new ArrayList<>(List.of(KEY_LOBBY_INDEX, KEY_LOBBY_OCCUPANCY, KEY_LOBBY_META));
+        Arrays.stream(Language.values()).forEach(language -> keys.add(keyLobbyIndex(language.name())));
+        stringRedisTemplate.delete(keys);
+    }
+
+    @Test
+    @DisplayName("Комнаты лобби возвращаются в порядке создания с заполненностью и названием")
+    void getRooms_ShouldReturnRoomsInCreationOrder_WhenRoomsAdded() {
+        lobbyService.addRoom(2L, "Second: title", Language.ENG, 1, 4, CREATED_AT_BASE.plusSeconds(1));
+        lobbyService.addRoom(1L, "First", Language.RU, 2, 3, CREATED_AT_BASE);
+
+        LobbyPage page = lobbyService.getRooms(0, 10);
+
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.rooms()).containsExactly(
+                new AvailableRoomRsDto(1L, "First", Language.RU, 2, 3, CREATED_AT_BASE),
+                new AvailableRoomRsDto(2L, "Second: title", Language.ENG, 1, 4, CREATED_AT_BASE.plusSeconds(1))
+        );
+    }
+
+    @Test
+    @DisplayName("Смещение и размер страницы ограничивают выборку, total считает все открытые комнаты")
+    void getRooms_ShouldApplyOffsetAndLimit_WhenPageRequested() {
+        for (long id = 1; id <= 5; id++) {
+            lobbyService.addRoom(id, "Room " + id, Language.RU, 1, 4, CREATED_AT_BASE.plusSeconds(id));
+        }
+
+        LobbyPage page = lobbyService.getRooms(2, 2);
+
+        assertThat(page.total()).isEqualTo(5);
+        assertThat(page.rooms()).extracting(AvailableRoomRsDto::idContest).containsExactly(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Страница языка заполняется комнатами своего языка, total считает все открытые комнаты языка")
+    void getRooms_ShouldPageLanguageIndex_WhenLanguageRequested() {
+        for (long id = 1; id <= 6; id++) {
+            Language language = id <= 3 ? Language.RU : Language.ENG;
+            lobbyService.addRoom(id, "Room " + id, language, 1, 2, CREATED_AT_BASE.plusSeconds(id));
+        }
+        lobbyService.updateOccupancy(5L, 1);
+
+        LobbyPage page = lobbyService.getRooms(Language.ENG, 0, 1);
+
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.rooms()).extracting(AvailableRoomRsDto::idContest).containsExactly(4L);
+        assertThat(lobbyService.getRooms(Language.ENG, 1, 10).rooms())
+                .extracting(AvailableRoomRsDto::idContest)
+                .containsExactly(6L);
+    }
+
+    @Test
+    @DisplayName("Заполненная комната выпадает из лобби и возвращается на своё место после выхода участника")
+    void updateOccupancy_ShouldHideFullRoom_WhenRoomBecomesFull() {
+        lobbyService.addRoom(1L, "First", Language.RU, 1, 2, CREATED_AT_BASE);
+        lobbyService.addRoom(2L, "Second", Language.RU, 1, 2, CREATED_AT_BASE.plusSeconds(1));
+
+        Optional<AvailableRoomRsDto> roomFull = lobbyService.updateOccupancy(1L, 1);
+        LobbyPage pageFull = lobbyService.getRooms(0, 10);
+
+        lobbyService.updateOccupancy(1L, -1);
+        LobbyPage pageFreed = lobbyService.getRooms(0, 10);
+
+        assertThat(roomFull).contains(new AvailableRoomRsDto(1L, "First", Language.RU, 2, 2, CREATED_AT_BASE));
+        assertThat(pageFull.total()).isEqualTo(1);
+        assertThat(pageFull.rooms()).extracting(AvailableRoomRsDto::idContest).containsExactly(2L);
+        assertThat(pageFreed.rooms()).extracting(AvailableRoomRsDto::idContest).containsExactly(1L, 2L);
+        assertThat(pageFreed.rooms().getFirst().currentPlayers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Изменения заполненности складываются в Redis и не уходят ниже нуля")
+    void updateOccupancy_ShouldApplyDeltas_WhenParticipantsJoinAndLeave() {
+        lobbyService.addRoom(1L, "First", Language.RU, 1, 4, CREATED_AT_BASE);
+
+        lobbyService.updateOccupancy(1L, 1);
+        lobbyService.updateOccupancy(1L, 1);
+        Optional<AvailableRoomRsDto> roomAfterLeave = lobbyService.updateOccupancy(1L, -1);
+        for (int i = 0; i < 3; i++) {
+            lobbyService.updateOccupancy(1L, -1);
+        }
+
+        assertThat(roomAfterLeave).map(AvailableRoomRsDto::currentPlayers).contains(2);
+        assertThat(lobbyService.getRooms(0, 10).rooms().getFirst().currentPlayers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Обновление заполненности комнаты не из лобби её не добавляет")
+    void updateOccupancy_ShouldDoNothing_WhenRoomNotInLobby() {
+        Optional<AvailableRoomRsDto> room = lobbyService.updateOccupancy(1L, 1);
+
+        assertThat(room).isEmpty();
+        assertThat(lobbyService.getRooms(0, 10).rooms()).isEmpty();
+        assertThat(stringRedisTemplate.opsForHash().hasKey(KEY_LOBBY_OCCUPANCY, "1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Удалённая комната пропадает из лобби вместе с данными")
+    void removeRoom_ShouldDeleteRoomData_WhenRoomRemoved() {
+        lobbyService.addRoom(1L, "First", Language.RU, 1, 2, CREATED_AT_BASE);
+
+        lobbyService.removeRoom(1L);
+
+        assertThat(lobbyService.getRooms(0, 10).total()).isZero();
+        assertThat(stringRedisTemplate.opsForHash().hasKey(KEY_LOBBY_OCCUPANCY, "1")).isFalse();
+        assertThat(stringRedisTemplate.opsForHash().hasKey(KEY_LOBBY_META, "1")).isFalse();
+        assertThat(lobbyService.getRooms(Language.RU, 0, 10).total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Очистка удаляет открытые и заполненные комнаты старше TTL")
+    void pruneExpired_ShouldRemoveOnlyExpiredRooms_WhenTtlPassed() {
+        LocalDateTime createdExpired = CREATED_AT_BASE.minus(TTL_ROOM).minusMinutes(1);
+        lobbyService.addRoom(1L, "Expired open", Language.RU, 1, 2, createdExpired);
+        lobbyService.addRoom(2L, "Expired full", Language.RU, 2, 2, createdExpired);
+        lobbyService.addRoom(3L, "Fresh", Language.RU, 1, 2, CREATED_AT_BASE);
+
+        List<Long> idsPruned = lobbyService.pruneExpired();
+
+        assertThat(idsPruned).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(stringRedisTemplate.opsForZSet().size(KEY_LOBBY_INDEX)).isEqualTo(1);
+        assertThat(stringRedisTemplate.opsForZSet().size(keyLobbyIndex(Language.RU.name()))).isEqualTo(1);
+        assertThat(lobbyService.getRooms(0, 10).rooms()).extracting(AvailableRoomRsDto::idContest).containsExactly(3L);
+    }
+}
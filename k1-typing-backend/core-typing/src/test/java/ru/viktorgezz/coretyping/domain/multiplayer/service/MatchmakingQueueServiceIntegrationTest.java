@@ -0,0 +1,132 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.KEY_MATCHMAKING_TICKETS;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyMatchmakingMatched;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyMatchmakingRating;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyMatchmakingWaiting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import ru.viktorgezz.coretyping.domain.exercises.Language;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.MatchmakingQueueService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.MatchmakingQueueService.QueuedPlayer;
+import testconfig.AbstractIntegrationRedisTest;
+
+class MatchmakingQueueServiceIntegrationTest extends AbstractIntegrationRedisTest {
+
+    @Autowired
+    private MatchmakingQueueService matchmakingQueueService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void cleanupRedis() {
+        List<String> keys = new ArrayList<>(List.of(
+                KEY_MATCHMAKING_TICKETS, keyMatchmakingMatched(1L), keyMatchmakingMatched(2L), keyMatchmakingMatched(3L)
+        ));
+        for (Language language : Language.values()) {
+            keys.add(keyMatchmakingRating(language.name()));
+            keys.add(keyMatchmakingWaiting(language.name()));
+        }
+        stringRedisTemplate.delete(keys);
+    }
+
+    @Test
+    @DisplayName("Группа собирается из ближайших по рейтингу игроков и удаляется из очереди")
+    void takeGroup_ShouldTakeNearestPlayers_WhenEnoughInWindow() {
+        matchmakingQueueService.enqueue(1L, "anchor", Language.RU, 50);
+        matchmakingQueueService.enqueue(2L, "near", Language.RU, 52);
+        matchmakingQueueService.enqueue(3L, "below", Language.RU, 47);
+        matchmakingQueueService.enqueue(4L, "far", Language.RU, 60);
+        matchmakingQueueService.enqueue(5L, "outside", Language.RU, 200);
+
+        List<QueuedPlayer> group = matchmakingQueueService.takeGroup(Language.RU, 1L, 20, 3, 3);
+
+        assertThat(group).extracting(QueuedPlayer::idUser).containsExactly(1L, 2L, 3L);
+        assertThat(group).extracting(QueuedPlayer::username).containsExactly("anchor", "near", "below");
+        assertThat(matchmakingQueueService.getOldestWaiting(Language.RU, 10)).containsOnlyKeys(4L, 5L);
+        assertThat(matchmakingQueueService.getQueuedLanguage(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Возвращённые в очередь игроки сохраняют исходное время ожидания")
+    void requeue_ShouldRestoreOriginalWaitingTime_WhenGroupReturned() {
+        matchmakingQueueService.enqueue(1L, "anchor", Language.RU, 50);
+        matchmakingQueueService.enqueue(2L, "near", Language.RU, 52);
+        Double waitingAnchor = stringRedisTemplate.opsForZSet().score(keyMatchmakingWaiting(Language.RU.name()), "1");
+
+        List<QueuedPlayer> group = matchmakingQueueService.takeGroup(Language.RU, 1L, 20, 2, 2);
+        matchmakingQueueService.enqueue(3L, "later", Language.RU, 51);
+        matchmakingQueueService.requeue(Language.RU, group);
+
+        assertThat(group.getFirst().timestampEnqueued()).isEqualTo(waitingAnchor.longValue());
+        assertThat(matchmakingQueueService.getOldestWaiting(Language.RU, 10)).containsEntry(1L, waitingAnchor.longValue());
+        assertThat(matchmakingQueueService.getQueuedLanguage(2L)).contains(Language.RU);
+    }
+
+    @Test
+    @DisplayName("Неполная группа остаётся в очереди, пока не разрешён меньший размер комнаты")
+    void takeGroup_ShouldKeepQueue_WhenGroupSmallerThanMinSize() {
+        matchmakingQueueService.enqueue(1L, "anchor", Language.RU, 50);
+        matchmakingQueueService.enqueue(2L, "near", Language.RU, 55);
+
+        List<QueuedPlayer> groupFull = matchmakingQueueService.takeGroup(Language.RU, 1L, 20, 4, 4);
+        List<QueuedPlayer> groupReduced = matchmakingQueueService.takeGroup(Language.RU, 1L, 20, 4, 2);
+
+        assertThat(groupFull).isEmpty();
+        assertThat(groupReduced).extracting(QueuedPlayer::idUser).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Игроки разных языков не попадают в одну группу, повторная постановка переносит игрока")
+    void takeGroup_ShouldIgnoreOtherLanguages_WhenPlayerRequeued() {
+        matchmakingQueueService.enqueue(1L, "anchor", Language.RU, 50);
+        matchmakingQueueService.enqueue(2L, "other", Language.ENG, 50);
+        matchmakingQueueService.enqueue(3L, "moved", Language.RU, 50);
+        matchmakingQueueService.enqueue(3L, "moved", Language.ENG, 50);
+
+        List<QueuedPlayer> group = matchmakingQueueService.takeGroup(Language.RU, 1L, 20, 4, 2);
+
+        assertThat(group).isEmpty();
+        assertThat(matchmakingQueueService.getQueuedLanguage(3L)).contains(Language.ENG);
+        assertThat(matchmakingQueueService.getOldestWaiting(Language.ENG, 10)).containsOnlyKeys(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Подобранная комната сохраняется для игроков и сбрасывается новой постановкой в очередь")
+    void saveMatched_ShouldExposeContest_UntilPlayerRequeued() {
+        matchmakingQueueService.saveMatched(List.of(1L, 2L), 42L);
+
+        assertThat(matchmakingQueueService.getMatchedContest(1L)).contains(42L);
+
+        matchmakingQueueService.enqueue(1L, "anchor", Language.RU, 50);
+
+        assertThat(matchmakingQueueService.getMatchedContest(1L)).isEmpty();
+        assertThat(matchmakingQueueService.getMatchedContest(2L)).contains(42L);
+    }
+
+    @Test
+    @DisplayName("Новый подбор не продлевает результат других игроков")
+    void saveMatched_ShouldKeepOwnTtlPerPlayer_WhenAnotherGroupMatched() {
+        matchmakingQueueService.saveMatched(List.of(1L), 42L);
+        stringRedisTemplate.expire(keyMatchmakingMatched(1L), 5, TimeUnit.SECONDS);
+
+        matchmakingQueueService.saveMatched(List.of(2L, 3L), 43L);
+
+        assertThat(stringRedisTemplate.getExpire(keyMatchmakingMatched(1L), TimeUnit.SECONDS)).isBetween(1L, 5L);
+        assertThat(stringRedisTemplate.getExpire(keyMatchmakingMatched(2L), TimeUnit.SECONDS))
+                .isGreaterThan(TTL_ROOM.toSeconds() - 5);
+        assertThat(matchmakingQueueService.getMatchedContest(3L)).contains(43L);
+    }
+}
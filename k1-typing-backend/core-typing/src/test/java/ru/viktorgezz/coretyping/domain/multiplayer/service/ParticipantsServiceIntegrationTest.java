@@ -1,14 +1,15 @@
 package ru.viktorgezz.coretyping.domain.multiplayer.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.TTL_ROOM;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyParticipants;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyProgress;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyUsernames;
 
-import java.io.IOException;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,10 +17,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.ProgressCodec;
 import testconfig.AbstractIntegrationRedisTest;
 
 @Slf4j
@@ -28,14 +31,15 @@ class ParticipantsServiceIntegrationTest extends AbstractIntegrationRedisTest {
     @Autowired
     private ParticipantsService participantsService;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
     @Autowired
     private RoomService roomService;
 
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
     private static final Long ID_CONTEST_TEST = 2L;
     private static final Long ID_EXERCISE_TEST = 100L;
     private static final int PARTICIPANTS_MAX_TEST = 4;
@@ -77,17 +81,48 @@ class ParticipantsServiceIntegrationTest extends AbstractIntegrationRedisTest {
 
     @Test
     @DisplayName("Добавление участника инициализирует его прогресс нулём")
-    void addParticipant_ShouldInitializeProgressToZero_WhenUserAdded() throws IOException {
+    void addParticipant_ShouldInitializeProgressToZero_WhenUserAdded() {
         participantsService.addParticipant(ID_CONTEST_TEST, ID_USER_FIRST, USERNAME_FIRST);
 
-        AllProgressMessage.UserProgressData progressStored = objectMapper.readValue(
-                Objects.requireNonNull(redisTemplate.opsForHash().get(keyProgress(ID_CONTEST_TEST), ID_USER_FIRST.toString()))
-                        .toString(),
-                AllProgressMessage.UserProgressData.class);
-        assertThat(progressStored).isNotNull();
+        Object progressRaw = stringRedisTemplate.opsForHash().get(keyProgress(ID_CONTEST_TEST), ID_USER_FIRST.toString());
+        AllProgressMessage.UserProgressData progressStored = ProgressCodec.unpack(progressRaw);
+
+        assertThat(progressRaw).isEqualTo(Long.toString(ProgressCodec.PACKED_ZERO));
         assertThat(progressStored.progress()).isZero();
     }
 
+    @Test
+    @DisplayName("Добавление участника выставляет TTL комнаты на все его структуры данных")
+    void addParticipant_ShouldSetRoomTtlOnAllKeys_WhenUserAdded() {
+        participantsService.addParticipant(ID_CONTEST_TEST, ID_USER_FIRST, USERNAME_FIRST);
+
+        for (String key : new String[]{
+                keyParticipants(ID_CONTEST_TEST),
+                keyUsernames(ID_CONTEST_TEST),
+                keyProgress(ID_CONTEST_TEST)}) {
+            assertThat(redisTemplate.getExpire(key, TimeUnit.SECONDS))
+                    .isPositive()
+                    .isLessThanOrEqualTo(TTL_ROOM.toSeconds());
+        }
+    }
+
+    @Test
+    @DisplayName("Вход одним pipeline: после каждого входа участник виден целиком — в множестве, в именах и с нулевым прогрессом")
+    void addParticipant_ShouldStoreAllStructures_WhenManyUsersJoinInRow() {
+        final int countJoined = 50;
+        for (long idUser = 1; idUser <= countJoined; idUser++) {
+            participantsService.addParticipant(ID_CONTEST_TEST, idUser, "user" + idUser);
+        }
+
+        assertThat(participantsService.getParticipantsCount(ID_CONTEST_TEST)).isEqualTo(countJoined);
+        assertThat(participantsService.getParticipantNames(ID_CONTEST_TEST))
+                .hasSize(countJoined)
+                .containsEntry(7L, "user7");
+        assertThat(stringRedisTemplate.opsForHash().values(keyProgress(ID_CONTEST_TEST)))
+                .hasSize(countJoined)
+                .allMatch(packed -> Long.toString(ProgressCodec.PACKED_ZERO).equals(packed));
+    }
+
     @Test
     @DisplayName("Удаление участника убирает его из всех структур данных")
     void removeParticipant_ShouldRemoveUserFromAllDataStructures_WhenUserExists() {
@@ -100,6 +135,7 @@ class ParticipantsServiceIntegrationTest extends AbstractIntegrationRedisTest {
 
         assertThat(idsParticipant).isEmpty();
         assertThat(namesParticipant).doesNotContainKey(ID_USER_FIRST);
+        assertThat(stringRedisTemplate.opsForHash().hasKey(keyProgress(ID_CONTEST_TEST), ID_USER_FIRST.toString())).isFalse();
     }
 
     @Test
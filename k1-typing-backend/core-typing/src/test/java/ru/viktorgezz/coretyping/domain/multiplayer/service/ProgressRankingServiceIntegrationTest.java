@@ -0,0 +1,82 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyRanking;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressRankingService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressRankingService.RankWindow;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressRankingService.RankingView;
+import testconfig.AbstractIntegrationRedisTest;
+
+class ProgressRankingServiceIntegrationTest extends AbstractIntegrationRedisTest {
+
+    private static final Long ID_CONTEST = 1L;
+    private static final BigDecimal ACCURACY = new BigDecimal("98.00");
+
+    @Autowired
+    private ProgressRankingService progressRankingService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void cleanupRedis() {
+        stringRedisTemplate.delete(keyRanking(ID_CONTEST));
+    }
+
+    @Test
+    @DisplayName("Рейтинг упорядочен по прогрессу, при равном прогрессе — по скорости")
+    void getRankingView_ShouldOrderByProgressThenSpeed_WhenScoresUpdated() {
+        progressRankingService.updateScores(ID_CONTEST, Map.of(
+                10L, new UserProgressData(40, 300, ACCURACY),
+                20L, new UserProgressData(70, 150, ACCURACY),
+                30L, new UserProgressData(40, 320, ACCURACY)
+        ));
+
+        assertThat(progressRankingService.getRankingView(ID_CONTEST, 10, 0, List.of()).idsLeaders()).containsExactly(20L, 30L, 10L);
+    }
+
+    @Test
+    @DisplayName("Обновление участника перемещает только его позицию")
+    void updateScores_ShouldMoveParticipant_WhenProgressChanged() {
+        progressRankingService.updateScores(ID_CONTEST, Map.of(
+                10L, new UserProgressData(10, 100, ACCURACY),
+                20L, new UserProgressData(20, 100, ACCURACY)
+        ));
+
+        progressRankingService.updateScores(ID_CONTEST, Map.of(10L, new UserProgressData(90, 100, ACCURACY)));
+
+        assertThat(progressRankingService.getRankingView(ID_CONTEST, 10, 0, List.of()).idsLeaders()).containsExactly(10L, 20L);
+    }
+
+    @Test
+    @DisplayName("Срез рейтинга содержит лидеров и окна соседей без пересечения с лидерами")
+    void getRankingView_ShouldReturnLeadersAndWindows_WhenUsersRequested() {
+        Map<Long, UserProgressData> progressAll = new HashMap<>();
+        for (long idUser = 1; idUser <= 10; idUser++) {
+            progressAll.put(idUser, new UserProgressData((int) (100 - idUser * 5), 200, ACCURACY));
+        }
+        progressRankingService.updateScores(ID_CONTEST, progressAll);
+
+        RankingView view = progressRankingService.getRankingView(ID_CONTEST, 2, 1, List.of(2L, 7L, 10L, 99L));
+
+        assertThat(view.countRanked()).isEqualTo(10);
+        assertThat(view.idsLeaders()).containsExactly(1L, 2L);
+        assertThat(view.windowsByUser()).containsOnlyKeys(2L, 7L, 10L);
+        assertThat(view.windowsByUser().get(2L)).isEqualTo(new RankWindow(2, List.of(3L)));
+        assertThat(view.windowsByUser().get(7L)).isEqualTo(new RankWindow(5, List.of(6L, 7L, 8L)));
+        assertThat(view.windowsByUser().get(10L)).isEqualTo(new RankWindow(8, List.of(9L, 10L)));
+    }
+}
@@ -10,11 +10,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator;
 import testconfig.AbstractIntegrationRedisTest;
 
 class ProgressServiceIntegrationTest extends AbstractIntegrationRedisTest {
@@ -28,6 +30,9 @@ class ProgressServiceIntegrationTest extends AbstractIntegrationRedisTest {
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
     private static final Long ID_CONTEST_TEST = 3L;
     private static final Long ID_EXERCISE_TEST = 100L;
     private static final int PARTICIPANTS_MAX_TEST = 4;
@@ -170,4 +175,25 @@ class ProgressServiceIntegrationTest extends AbstractIntegrationRedisTest {
         assertThat(progressDataStored.speed()).isEqualTo(speedComplete);
         assertThat(progressDataStored.accuracy()).isEqualByComparingTo(accuracyComplete);
     }
+
+    @Test
+    @DisplayName("Прогресс хранится в Redis упакованным целым числом без JSON")
+    void updateProgress_ShouldStorePackedNumericValue_WhenProgressUpdated() {
+        progressService.updateProgress(ID_CONTEST_TEST, ID_USER_FIRST, 42, 315, new BigDecimal("97.35"));
+
+        Object valueRaw = stringRedisTemplate.opsForHash()
+                .get(RedisKeyGenerator.keyProgress(ID_CONTEST_TEST), ID_USER_FIRST.toString());
+
+        assertThat(valueRaw).isNotNull();
+        assertThat(valueRaw.toString()).containsOnlyDigits();
+    }
+
+    @Test
+    @DisplayName("Точность сохраняется с двумя знаками после запятой")
+    void updateProgress_ShouldKeepAccuracyWithTwoDecimals_WhenAccuracyHasFraction() {
+        progressService.updateProgress(ID_CONTEST_TEST, ID_USER_FIRST, 10, 120, new BigDecimal("87.65"));
+
+        UserProgressData progressDataStored = progressService.getProgressByUser(ID_CONTEST_TEST, ID_USER_FIRST);
+        assertThat(progressDataStored.accuracy()).isEqualByComparingTo(new BigDecimal("87.65"));
+    }
 }
@@ -0,0 +1,103 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ResultBufferService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ResultBufferService.FinishedResult;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.impl.ResultWriteBehindServiceImpl;
+import ru.viktorgezz.coretyping.properties.MultiplayerProperties;
+import ru.viktorgezz.statistics_result_module.result_item.Place;
+import ru.viktorgezz.statistics_result_module.result_item.dto.rq.MultiplayerResultItemDto;
+import ru.viktorgezz.statistics_result_module.result_item.service.intrf.ResultItemCommandService;
+
+@ExtendWith(MockitoExtension.class)
+class ResultWriteBehindServiceTest {
+
+    private static final FinishedResult RESULT_FIRST =
+            new FinishedResult(10L, 60L, 220, new BigDecimal("99.00"), Place.FIRST);
+    private static final FinishedResult RESULT_SECOND =
+            new FinishedResult(20L, 70L, 190, new BigDecimal("97.50"), Place.SECOND);
+
+    @Mock
+    private ResultBufferService resultBufferService;
+
+    @Mock
+    private ResultItemCommandService resultItemCommandService;
+
+    private ResultWriteBehindServiceImpl resultWriteBehindService;
+
+    @BeforeEach
+    void setUp() {
+        resultWriteBehindService = new ResultWriteBehindServiceImpl(
+                resultBufferService, resultItemCommandService, new MultiplayerProperties()
+        );
+    }
+
+    @Test
+    @DisplayName("Финиш не обращается к БД: результаты комнаты записываются одним batch при завершении")
+    @SuppressWarnings("unchecked")
+    void completeContest_ShouldPersistResultsInOneBatch_WhenContestFinishes() {
+        when(resultBufferService.addResult(1L, RESULT_FIRST)).thenReturn(true);
+        when(resultBufferService.addResult(1L, RESULT_SECOND)).thenReturn(true);
+        when(resultBufferService.takePending(1L)).thenReturn(List.of(RESULT_FIRST, RESULT_SECOND));
+        when(resultBufferService.getResults(1L)).thenReturn(List.of(RESULT_FIRST, RESULT_SECOND));
+
+        resultWriteBehindService.recordResult(1L, RESULT_FIRST);
+        resultWriteBehindService.recordResult(1L, RESULT_SECOND);
+        verify(resultItemCommandService, never()).saveResultsMultiplayer(anyList());
+
+        List<FinishedResult> results = resultWriteBehindService.completeContest(1L);
+
+        ArgumentCaptor<List<MultiplayerResultItemDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(resultItemCommandService).saveResultsMultiplayer(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(MultiplayerResultItemDto::idUser)
+                .containsExactly(10L, 20L);
+        assertThat(results).containsExactly(RESULT_FIRST, RESULT_SECOND);
+    }
+
+    @Test
+    @DisplayName("Повторный результат игрока отбрасывается и сообщается вызывающему")
+    void recordResult_ShouldReturnFalse_WhenResultAlreadyRecorded() {
+        when(resultBufferService.addResult(1L, RESULT_FIRST)).thenReturn(true, false);
+
+        assertThat(resultWriteBehindService.recordResult(1L, RESULT_FIRST)).isTrue();
+        assertThat(resultWriteBehindService.recordResult(1L, RESULT_FIRST)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Неудавшийся INSERT возвращает результаты в незаписанные")
+    void completeContest_ShouldRestorePending_WhenInsertFails() {
+        when(resultBufferService.takePending(1L)).thenReturn(List.of(RESULT_FIRST, RESULT_SECOND));
+        when(resultItemCommandService.saveResultsMultiplayer(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        resultWriteBehindService.completeContest(1L);
+
+        verify(resultBufferService).restorePending(1L, List.of(10L, 20L));
+    }
+
+    @Test
+    @DisplayName("Пустой буфер не порождает запрос к БД")
+    void completeContest_ShouldSkipInsert_WhenNothingPending() {
+        when(resultBufferService.takePending(1L)).thenReturn(List.of());
+
+        resultWriteBehindService.completeContest(1L);
+
+        verify(resultItemCommandService, never()).saveResultsMultiplayer(anyList());
+    }
+}
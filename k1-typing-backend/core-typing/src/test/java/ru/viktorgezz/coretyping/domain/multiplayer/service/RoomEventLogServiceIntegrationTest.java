@@ -0,0 +1,97 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyEvents;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyEventsSeq;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomEventLogService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomEventLogService.EventsReplay;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomEventLogService.RoomEvent;
+import testconfig.AbstractIntegrationRedisTest;
+
+class RoomEventLogServiceIntegrationTest extends AbstractIntegrationRedisTest {
+
+    private static final Long ID_CONTEST = 1L;
+    private static final String DESTINATION = "/topic/contest/1/player-ready";
+
+    @Autowired
+    private RoomEventLogService roomEventLogService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void cleanupRedis() {
+        stringRedisTemplate.delete(List.of(keyEvents(ID_CONTEST), keyEventsSeq(ID_CONTEST)));
+    }
+
+    @Test
+    @DisplayName("События комнаты получают последовательные номера")
+    void append_ShouldAssignIncreasingSequence_WhenEventsAdded() {
+        long sequenceFirst = roomEventLogService.append(ID_CONTEST, DESTINATION, "{\"countReady\":1}");
+        long sequenceSecond = roomEventLogService.append(ID_CONTEST, DESTINATION, "{\"countReady\":2}");
+
+        assertThat(sequenceFirst).isEqualTo(1L);
+        assertThat(sequenceSecond).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Переподключившийся клиент получает только события после последнего полученного номера")
+    void getSince_ShouldReturnOnlyMissedEvents_WhenClientReconnects() {
+        for (int i = 1; i <= 5; i++) {
+            roomEventLogService.append(ID_CONTEST, DESTINATION, "{\"countReady\":" + i + "}");
+        }
+
+        EventsReplay replay = roomEventLogService.getSince(ID_CONTEST, 3L);
+
+        assertThat(replay.sequenceCurrent()).isEqualTo(5L);
+        assertThat(replay.truncated()).isFalse();
+        assertThat(replay.events()).containsExactly(
+                new RoomEvent(4L, DESTINATION, "{\"countReady\":4}"),
+                new RoomEvent(5L, DESTINATION, "{\"countReady\":5}")
+        );
+    }
+
+    @Test
+    @DisplayName("Клиент без пропусков получает пустой ответ")
+    void getSince_ShouldReturnEmpty_WhenNothingMissed() {
+        roomEventLogService.append(ID_CONTEST, DESTINATION, "{}");
+
+        EventsReplay replay = roomEventLogService.getSince(ID_CONTEST, 1L);
+
+        assertThat(replay.truncated()).isFalse();
+        assertThat(replay.events()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Пропуск, вытесненный из ограниченного журнала, отмечается как неполный")
+    void getSince_ShouldMarkTruncated_WhenMissedEventsTrimmed() {
+        for (int i = 1; i <= 400; i++) {
+            roomEventLogService.append(ID_CONTEST, DESTINATION, "{}");
+        }
+
+        EventsReplay replayFromStart = roomEventLogService.getSince(ID_CONTEST, 0L);
+        EventsReplay replayRecent = roomEventLogService.getSince(ID_CONTEST, 395L);
+
+        assertThat(replayFromStart.truncated()).isTrue();
+        assertThat(replayRecent.truncated()).isFalse();
+        assertThat(replayRecent.events()).extracting(RoomEvent::sequence).containsExactly(396L, 397L, 398L, 399L, 400L);
+    }
+
+    @Test
+    @DisplayName("Журнал истёкшей комнаты отмечается как неполный")
+    void getSince_ShouldMarkTruncated_WhenRoomLogExpired() {
+        EventsReplay replay = roomEventLogService.getSince(ID_CONTEST, 7L);
+
+        assertThat(replay.sequenceCurrent()).isZero();
+        assertThat(replay.truncated()).isTrue();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.rs.RoomOwnerRsDto;
+import ru.viktorgezz.coretyping.domain.multiplayer.ownership.ConsistentHashRing;
+import ru.viktorgezz.coretyping.domain.multiplayer.service.intrf.RoomOwnershipService;
+import testconfig.AbstractIntegrationRedisTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyOwner;
+
+@TestPropertySource(properties = {
+        "multiplayer.cluster.enabled=true",
+        "multiplayer.cluster.id-node=node-test",
+        "multiplayer.cluster.heartbeat-interval-ms=3600000"
+})
+class RoomOwnershipServiceIntegrationTest extends AbstractIntegrationRedisTest {
+
+    @Autowired
+    private RoomOwnershipService roomOwnershipService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private static final Long ID_CONTEST_TEST = 21L;
+    private static final String ID_NODE_LOCAL = "node-test";
+    private static final String ID_NODE_OTHER = "node-other";
+
+    @AfterEach
+    void cleanupRedis() {
+        roomOwnershipService.release(ID_CONTEST_TEST);
+        stringRedisTemplate.delete(keyOwner(ID_CONTEST_TEST));
+    }
+
+    @Test
+    @DisplayName("Единственный живой узел берёт аренду свободной комнаты")
+    void getOwner_ShouldAcquireLease_WhenRingAssignsRoomToLocalNode() {
+        RoomOwnerRsDto owner = roomOwnershipService.getOwner(ID_CONTEST_TEST);
+
+        assertThat(owner.idNode()).isEqualTo(ID_NODE_LOCAL);
+        assertThat(owner.leased()).isTrue();
+        assertThat(stringRedisTemplate.opsForValue().get(keyOwner(ID_CONTEST_TEST))).isEqualTo(ID_NODE_LOCAL);
+        assertThat(roomOwnershipService.isOwnedLocally(ID_CONTEST_TEST)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Комната с чужой арендой принадлежит другому узлу")
+    void isOwnedLocally_ShouldReturnFalse_WhenLeaseHeldByOtherNode() {
+        stringRedisTemplate.opsForValue().set(keyOwner(ID_CONTEST_TEST), ID_NODE_OTHER, Duration.ofSeconds(10));
+
+        RoomOwnerRsDto owner = roomOwnershipService.getOwner(ID_CONTEST_TEST);
+
+        assertThat(owner.idNode()).isEqualTo(ID_NODE_OTHER);
+        assertThat(roomOwnershipService.isOwnedLocally(ID_CONTEST_TEST)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Heartbeat снимает владение, если аренду перехватил другой узел")
+    void heartbeat_ShouldDropOwnership_WhenLeaseTakenOver() {
+        roomOwnershipService.getOwner(ID_CONTEST_TEST);
+        stringRedisTemplate.opsForValue().set(keyOwner(ID_CONTEST_TEST), ID_NODE_OTHER, Duration.ofSeconds(10));
+
+        roomOwnershipService.heartbeat();
+
+        assertThat(roomOwnershipService.isOwnedLocally(ID_CONTEST_TEST)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Освобождение не удаляет аренду другого узла")
+    void release_ShouldKeepForeignLease_WhenLeaseHeldByOtherNode() {
+        roomOwnershipService.getOwner(ID_CONTEST_TEST);
+        stringRedisTemplate.opsForValue().set(keyOwner(ID_CONTEST_TEST), ID_NODE_OTHER, Duration.ofSeconds(10));
+
+        roomOwnershipService.release(ID_CONTEST_TEST);
+
+        assertThat(stringRedisTemplate.opsForValue().get(keyOwner(ID_CONTEST_TEST))).isEqualTo(ID_NODE_OTHER);
+    }
+
+    @Test
+    @DisplayName("При добавлении узла в кольцо переезжает лишь часть комнат")
+    void ring_ShouldMoveMinorityOfRooms_WhenNodeAdded() {
+        ConsistentHashRing ringBefore = ConsistentHashRing.of(List.of("a", "b", "c"), 128);
+        ConsistentHashRing ringAfter = ConsistentHashRing.of(List.of("a", "b", "c", "d"), 128);
+
+        long countMoved = LongStream.rangeClosed(1, 10_000)
+                .filter(idContest -> !ringBefore.nodeFor(idContest).equals(ringAfter.nodeFor(idContest)))
+                .count();
+
+        // Ожидаемо ~1/4 комнат; все переехавшие уходят на новый узел
+        assertThat(countMoved).isBetween(1_500L, 3_500L);
+        assertThat(LongStream.rangeClosed(1, 10_000)
+                .filter(idContest -> !ringBefore.nodeFor(idContest).equals(ringAfter.nodeFor(idContest)))
+                .mapToObj(idContest -> ringAfter.nodeFor(idContest).orElseThrow()))
+                .allMatch("d"::equals);
+    }
+}
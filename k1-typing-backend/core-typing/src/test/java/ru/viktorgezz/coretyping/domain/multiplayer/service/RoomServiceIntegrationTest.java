@@ -7,15 +7,30 @@ import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKey
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyInfo;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyParticipants;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyProgress;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyReady;
+import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyReveal;
 import static ru.viktorgezz.coretyping.domain.multiplayer.redis.utility.RedisKeyGenerator.keyUsernames;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import io.lettuce.core.cluster.SlotHash;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import ru.viktorgezz.coretyping.domain.contest.Status;
+import ru.viktorgezz.coretyping.domain.multiplayer.dto.websocket.AllProgressMessage.UserProgressData;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ParticipantsService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ProgressService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.ReadyService;
 import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomSnapshotService;
+import ru.viktorgezz.coretyping.domain.multiplayer.redis.service.intrf.RoomSnapshotService.RoomSnapshot;
 import testconfig.AbstractIntegrationRedisTest;
 
 class RoomServiceIntegrationTest extends AbstractIntegrationRedisTest {
@@ -23,6 +38,18 @@ class RoomServiceIntegrationTest extends AbstractIntegrationRedisTest {
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private RoomSnapshotService roomSnapshotService;
+
+    @Autowired
+    private ParticipantsService participantsService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private ReadyService readyService;
+
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
@@ -37,6 +64,8 @@ class RoomServiceIntegrationTest extends AbstractIntegrationRedisTest {
         redisTemplate.delete(keyUsernames(ID_CONTEST_TEST));
         redisTemplate.delete(keyProgress(ID_CONTEST_TEST));
         redisTemplate.delete(keyFinishers(ID_CONTEST_TEST));
+        redisTemplate.delete(keyReveal(ID_CONTEST_TEST));
+        redisTemplate.delete(keyReady(ID_CONTEST_TEST));
     }
 
     @Test
@@ -94,6 +123,40 @@ class RoomServiceIntegrationTest extends AbstractIntegrationRedisTest {
         assertThat(participantsMaxResult).isZero();
     }
 
+    @Test
+    @DisplayName("Созданная комната получает статус CREATED, compare-and-set меняет его только из ожидаемого")
+    void compareAndSetStatus_ShouldChangeStatusOnce_WhenExpectedStatusMatches() {
+        roomService.createRoom(ID_CONTEST_TEST, ID_EXERCISE_TEST, PARTICIPANTS_MAX_TEST);
+
+        boolean changedFirst = roomService.compareAndSetStatus(ID_CONTEST_TEST, Status.CREATED, Status.WAITING);
+        boolean changedSecond = roomService.compareAndSetStatus(ID_CONTEST_TEST, Status.CREATED, Status.WAITING);
+
+        assertThat(changedFirst).isTrue();
+        assertThat(changedSecond).isFalse();
+        assertThat(roomService.getStatus(ID_CONTEST_TEST)).contains(Status.WAITING);
+    }
+
+    @Test
+    @DisplayName("Пачечный compare-and-set возвращает только комнаты, статус которых сменился")
+    void compareAndSetStatusAll_ShouldReturnChangedRooms_WhenSomeRoomsNotInExpectedStatus() {
+        Long idContestOther = ID_CONTEST_TEST + 1;
+        roomService.createRoom(ID_CONTEST_TEST, ID_EXERCISE_TEST, PARTICIPANTS_MAX_TEST);
+        roomService.createRoom(idContestOther, ID_EXERCISE_TEST, PARTICIPANTS_MAX_TEST);
+        roomService.compareAndSetStatus(ID_CONTEST_TEST, Status.CREATED, Status.WAITING);
+
+        try {
+            List<Long> idsChanged = roomService.compareAndSetStatusAll(
+                    List.of(ID_CONTEST_TEST, idContestOther, 999L), Status.WAITING, Status.PROGRESS
+            );
+
+            assertThat(idsChanged).containsExactly(ID_CONTEST_TEST);
+            assertThat(roomService.getStatus(idContestOther)).contains(Status.CREATED);
+            assertThat(roomService.getStatus(999L)).isEmpty();
+        } finally {
+            roomService.deleteRoom(idContestOther);
+        }
+    }
+
     @Test
     @DisplayName("Удаление комнаты очищает все связанные данные из Redis")
     void deleteRoom_ShouldRemoveAllRoomData_WhenRoomExists() {
@@ -121,4 +184,59 @@ class RoomServiceIntegrationTest extends AbstractIntegrationRedisTest {
 
         assertThat(roomService.roomExists(idContestNonExistent)).isFalse();
     }
+
+    @Test
+    @DisplayName("Все ключи комнаты попадают в один слот Redis Cluster")
+    void keys_ShouldShareClusterSlot_WhenBelongToSameContest() {
+        int slotInfo = SlotHash.getSlot(keyInfo(ID_CONTEST_TEST));
+
+        assertThat(Stream.of(
+                keyParticipants(ID_CONTEST_TEST),
+                keyUsernames(ID_CONTEST_TEST),
+                keyProgress(ID_CONTEST_TEST),
+                keyFinishers(ID_CONTEST_TEST),
+                keyReady(ID_CONTEST_TEST),
+                keyReveal(ID_CONTEST_TEST)
+        ).map(SlotHash::getSlot)).allMatch(slot -> slot == slotInfo);
+    }
+
+    @Test
+    @DisplayName("Ключи раскрытия читаются пачкой, комнаты без ключа пропускаются")
+    void getRevealKeys_ShouldReturnSavedKeysOnly_WhenSomeRoomsHaveNoKey() {
+        roomService.saveRevealKey(ID_CONTEST_TEST, "00ff00ff00ff00ff");
+
+        Map<Long, String> revealKeys = roomService.getRevealKeys(List.of(ID_CONTEST_TEST, 999L));
+
+        assertThat(revealKeys).containsExactly(Map.entry(ID_CONTEST_TEST, "00ff00ff00ff00ff"));
+    }
+
+    @Test
+    @DisplayName("Снимок комнаты содержит статус, лимит, участников, готовность и прогресс")
+    void getSnapshot_ShouldReturnRoomState_WhenRoomHasParticipants() {
+        roomService.createRoom(ID_CONTEST_TEST, ID_EXERCISE_TEST, PARTICIPANTS_MAX_TEST);
+        participantsService.addParticipant(ID_CONTEST_TEST, 1L, "first");
+        participantsService.addParticipant(ID_CONTEST_TEST, 2L, "second");
+        readyService.markReady(ID_CONTEST_TEST, 2L);
+        progressService.updateProgress(ID_CONTEST_TEST, 1L, 40, 300, new BigDecimal("97.50"));
+
+        RoomSnapshot snapshot = roomSnapshotService.getSnapshot(ID_CONTEST_TEST);
+
+        assertThat(snapshot.status()).isEqualTo(Status.CREATED);
+        assertThat(snapshot.participantsMax()).isEqualTo(PARTICIPANTS_MAX_TEST);
+        assertThat(snapshot.participantNames()).containsOnly(Map.entry(1L, "first"), Map.entry(2L, "second"));
+        assertThat(snapshot.idsReady()).containsExactly(2L);
+        assertThat(snapshot.progressAll().get(1L)).isEqualTo(new UserProgressData(40, 300, new BigDecimal("97.50")));
+    }
+
+    @Test
+    @DisplayName("Снимок несуществующей комнаты пустой")
+    void getSnapshot_ShouldReturnEmptySnapshot_WhenRoomDoesNotExist() {
+        RoomSnapshot snapshot = roomSnapshotService.getSnapshot(999L);
+
+        assertThat(snapshot.status()).isNull();
+        assertThat(snapshot.participantsMax()).isZero();
+        assertThat(snapshot.participantNames()).isEmpty();
+        assertThat(snapshot.idsReady()).isEmpty();
+        assertThat(snapshot.progressAll()).isEmpty();
+    }
 }
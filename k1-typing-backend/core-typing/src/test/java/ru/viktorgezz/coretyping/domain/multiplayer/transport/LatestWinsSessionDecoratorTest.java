@@ -0,0 +1,151 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.transport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LatestWinsSessionDecoratorTest {
+
+    private static final String DESTINATION_PROGRESS = "/topic/contest/1/progress";
+    private static final String DESTINATION_FINISHED = "/topic/contest/1/finished";
+
+    private final List<String> payloadsSent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch latchSendFirst = new CountDownLatch(1);
+
+    private ExecutorService executorSend;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executorSend = Executors.newCachedThreadPool();
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-test");
+
+        // Первая отправка «зависает», пока тест не отпустит: имитация медленного клиента
+        doAnswer(invocation -> {
+            latchSendFirst.await(5, TimeUnit.SECONDS);
+            payloadsSent.add(((WebSocketMessage<?>) invocation.getArgument(0)).getPayload().toString());
+            return null;
+        }).when(session).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        latchSendFirst.countDown();
+        executorSend.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Неотправленный кадр прогресса заменяется последним, управляющие сообщения не теряются")
+    void sendMessage_ShouldKeepLatestProgressAndAllControlFrames_WhenClientIsSlow() throws Exception {
+        LatestWinsSessionDecorator decorator = decorator(64 * 1024);
+
+        decorator.sendMessage(frame(DESTINATION_FINISHED, "control-1"));
+        Thread.sleep(100);
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, "progress-1"));
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, "progress-2"));
+        decorator.sendMessage(frame(DESTINATION_FINISHED, "control-2"));
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, "progress-3"));
+        latchSendFirst.countDown();
+
+        verify(session, timeout(2_000).times(3)).sendMessage(any());
+        assertThat(payloadsSent)
+                .hasSize(3)
+                .satisfiesExactly(
+                        payload -> assertThat(payload).contains("control-1"),
+                        payload -> assertThat(payload).contains("progress-3"),
+                        payload -> assertThat(payload).contains("control-2")
+                );
+    }
+
+    @Test
+    @DisplayName("Delta-кадр не заменяет неотправленные кадры, keyframe заменяет все неотправленные delta")
+    void sendMessage_ShouldKeepDeltasUntilKeyframe_WhenClientIsSlow() throws Exception {
+        LatestWinsSessionDecorator decorator = decorator(64 * 1024);
+
+        decorator.sendMessage(frame(DESTINATION_FINISHED, "control-1"));
+        Thread.sleep(100);
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, progress("delta-1", 1, false)));
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, progress("delta-2", 2, false)));
+        latchSendFirst.countDown();
+
+        verify(session, timeout(2_000).times(3)).sendMessage(any());
+        assertThat(payloadsSent)
+                .satisfiesExactly(
+                        payload -> assertThat(payload).contains("control-1"),
+                        payload -> assertThat(payload).contains("delta-1"),
+                        payload -> assertThat(payload).contains("delta-2")
+                );
+    }
+
+    @Test
+    @DisplayName("Keyframe заменяет все неотправленные delta на месте первой из них")
+    void sendMessage_ShouldReplaceAllPendingDeltas_WhenKeyframeArrives() throws Exception {
+        LatestWinsSessionDecorator decorator = decorator(64 * 1024);
+
+        decorator.sendMessage(frame(DESTINATION_FINISHED, "control-1"));
+        Thread.sleep(100);
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, progress("delta-1", 1, false)));
+        decorator.sendMessage(frame(DESTINATION_FINISHED, "control-2"));
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, progress("delta-2", 2, false)));
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, progress("keyframe-3", 3, true)));
+        decorator.sendMessage(frame(DESTINATION_PROGRESS, progress("delta-4", 4, false)));
+        latchSendFirst.countDown();
+
+        verify(session, timeout(2_000).times(4)).sendMessage(any());
+        assertThat(payloadsSent)
+                .satisfiesExactly(
+                        payload -> assertThat(payload).contains("control-1"),
+                        payload -> assertThat(payload).contains("keyframe-3"),
+                        payload -> assertThat(payload).contains("control-2"),
+                        payload -> assertThat(payload).contains("delta-4")
+                );
+    }
+
+    @Test
+    @DisplayName("Переполнение буфера сессии закрывает её как ненадёжную")
+    void sendMessage_ShouldCloseSession_WhenBufferLimitExceeded() throws Exception {
+        LatestWinsSessionDecorator decorator = decorator(256);
+
+        decorator.sendMessage(frame(DESTINATION_FINISHED, "control-0"));
+        Thread.sleep(100);
+        for (int i = 0; i < 10; i++) {
+            decorator.sendMessage(frame(DESTINATION_FINISHED, "control-" + "x".repeat(64)));
+        }
+
+        verify(session, timeout(1_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private LatestWinsSessionDecorator decorator(int sendBufferSizeLimit) {
+        return new LatestWinsSessionDecorator(session, executorSend, List.of("/progress"), 10_000, sendBufferSizeLimit);
+    }
+
+    private static String progress(String marker, long sequence, boolean keyframe) {
+        return "{\"usersProgress\":{\"" + marker + "\":{}},\"origin\":\"node\",\"sequence\":" + sequence
+                + ",\"keyframe\":" + keyframe + "}";
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n\n" + body + "\u0000");
+    }
+}
@@ -0,0 +1,111 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.transport;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriorityLaneExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PriorityLaneExecutor executor = new PriorityLaneExecutor(
+            "inbound", 1, 1, 4, PriorityLaneExecutor.Overflow.DROP_OLDEST, List.of("/progress"), meterRegistry
+    );
+    private final PriorityLaneExecutor executorOutbound = new PriorityLaneExecutor(
+            "outbound", 1, 1, 4, PriorityLaneExecutor.Overflow.QUEUE, List.of("/progress"), meterRegistry
+    );
+
+    private final CountDownLatch latchProgressRelease = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        latchProgressRelease.countDown();
+        executor.shutdown();
+        executorOutbound.shutdown();
+    }
+
+    @Test
+    @DisplayName("Finish выполняется, пока полоса прогресса занята и заполнена")
+    void execute_ShouldRunControlMessage_WhenProgressLaneIsSaturated() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            executor.execute(task("/app/contest/1/progress", this::awaitRelease));
+        }
+
+        CountDownLatch latchFinish = new CountDownLatch(1);
+        executor.execute(task("/app/contest/1/finish", latchFinish::countDown));
+
+        assertThat(latchFinish.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("websocket.lane.queue.depth").tag("lane", "progress").gauge().value())
+                .isEqualTo(4);
+        assertThat(meterRegistry.get("websocket.lane.dropped").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Исходящая полоса прогресса не теряет кадры при переполнении")
+    void execute_ShouldKeepAllProgressFrames_WhenOutboundLaneIsSaturated() throws Exception {
+        CountDownLatch latchFrames = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            executorOutbound.execute(task("/topic/contest/1/progress", () -> {
+                awaitRelease();
+                latchFrames.countDown();
+            }));
+        }
+
+        assertThat(meterRegistry.find("websocket.lane.dropped").tag("channel", "outbound").counter()).isNull();
+        latchProgressRelease.countDown();
+        assertThat(latchFrames.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Полоса определяется по destination сообщения")
+    void laneOf_ShouldSelectLaneByDestination_WhenMessageHandlingRunnable() {
+        assertThat(executor.laneOf(task("/app/contest/1/progress", () -> {
+        }))).isEqualTo(PriorityLaneExecutor.Lane.PROGRESS);
+        assertThat(executor.laneOf(task("/topic/contest/1/finished", () -> {
+        }))).isEqualTo(PriorityLaneExecutor.Lane.CONTROL);
+        assertThat(executor.laneOf(() -> {
+        })).isEqualTo(PriorityLaneExecutor.Lane.CONTROL);
+    }
+
+    private void awaitRelease() {
+        try {
+            latchProgressRelease.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MessageHandlingRunnable task(String destination, Runnable action) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return msg -> action.run();
+            }
+
+            @Override
+            public void run() {
+                action.run();
+            }
+        };
+    }
+}
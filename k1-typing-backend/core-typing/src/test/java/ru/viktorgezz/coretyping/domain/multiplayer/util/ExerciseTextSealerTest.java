@@ -0,0 +1,38 @@
+package ru.viktorgezz.coretyping.domain.multiplayer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExerciseTextSealerTest {
+
+    // Старший бит ключа установлен: проверяется беззнаковый разбор 64-битного ключа
+    private static final String REVEAL_KEY = "f0e1d2c3b4a59687";
+    private static final String TEXT = "Съешь ещё этих мягких булок — typing 42";
+    // Получено services/textSealer.js (unsealText) на клиенте: сервер и клиент должны совпадать побайтно
+    private static final String TEXT_SEALED =
+            "ZEym0STGgSGgPO2U1aURsYutEzRDroYg2f39Eo9SKxbU/rn9io7mlT0xqKLzSzDAP3vm51Yno+syOtx0wtGWHw==";
+
+    @Test
+    @DisplayName("Скрытый текст совпадает с эталоном клиента")
+    void seal_ShouldMatchClientValue_WhenKeyFixed() {
+        assertThat(ExerciseTextSealer.seal(TEXT, REVEAL_KEY)).isEqualTo(TEXT_SEALED);
+    }
+
+    @Test
+    @DisplayName("Раскрытие возвращает исходный текст")
+    void unseal_ShouldReturnOriginalText_WhenSealedWithSameKey() {
+        assertThat(ExerciseTextSealer.unseal(TEXT_SEALED, REVEAL_KEY)).isEqualTo(TEXT);
+        assertThat(ExerciseTextSealer.unseal(ExerciseTextSealer.seal(TEXT, REVEAL_KEY), REVEAL_KEY)).isEqualTo(TEXT);
+    }
+
+    @Test
+    @DisplayName("Сгенерированный ключ — 16 hex-символов и подходит для скрытия")
+    void generateRevealKey_ShouldReturnUsableHexKey() {
+        final String revealKey = ExerciseTextSealer.generateRevealKey();
+
+        assertThat(revealKey).matches("[0-9a-f]{16}");
+        assertThat(ExerciseTextSealer.unseal(ExerciseTextSealer.seal(TEXT, revealKey), revealKey)).isEqualTo(TEXT);
+    }
+}
@@ -11,6 +11,9 @@ import ru.viktorgezz.statistics_result_module.result_item.dto.rs.RecordedResulIt
 import ru.viktorgezz.statistics_result_module.result_item.repo.ResultItemRepo;
 import ru.viktorgezz.statistics_result_module.result_item.service.intrf.ResultItemCommandService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static ru.viktorgezz.statistics_result_module.util.CurrentUserUtils.getIdUserNullable;
 
 
@@ -48,15 +51,29 @@ public class ResultItemCommandServiceImpl implements ResultItemCommandService {
     @Override
     @Transactional
     public ResultItem saveResultMultiplayer(MultiplayerResultItemDto dto) {
-        return resultItemRepo.save(
-                new ResultItem(
-                        dto.durationSeconds(),
-                        dto.speed(),
-                        dto.accuracy(),
-                        dto.place(),
-                        dto.idContest(),
-                        dto.idUser()
-                )
+        return resultItemRepo.save(toResultItem(dto));
+    }
+
+    @Override
+    @Transactional
+    public List<ResultItem> saveResultsMultiplayer(List<MultiplayerResultItemDto> dtos) {
+        if (dtos.isEmpty()) {
+            return List.of();
+        }
+        List<ResultItem> resultsSaved = new ArrayList<>(dtos.size());
+        resultItemRepo.saveAll(dtos.stream().map(ResultItemCommandServiceImpl::toResultItem).toList())
+                .forEach(resultsSaved::add);
+        return resultsSaved;
+    }
+
+    private static ResultItem toResultItem(MultiplayerResultItemDto dto) {
+        return new ResultItem(
+                dto.durationSeconds(),
+                dto.speed(),
+                dto.accuracy(),
+                dto.place(),
+                dto.idContest(),
+                dto.idUser()
         );
     }
 }
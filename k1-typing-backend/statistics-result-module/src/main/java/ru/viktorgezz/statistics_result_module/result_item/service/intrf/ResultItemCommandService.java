@@ -6,9 +6,16 @@ import ru.viktorgezz.statistics_result_module.result_item.dto.rq.MultiplayerResu
 import ru.viktorgezz.statistics_result_module.result_item.dto.rq.ResulItemRqDto;
 import ru.viktorgezz.statistics_result_module.result_item.dto.rs.RecordedResulItemRsDto;
 
+import java.util.List;
+
 public interface ResultItemCommandService {
 
     RecordedResulItemRsDto saveResultSingleContest(ResulItemRqDto dto);
 
     ResultItem saveResultMultiplayer(MultiplayerResultItemDto dto);
+
+    /**
+     * Сохраняет пачку результатов мультиплеера одним JDBC batch.
+     */
+    List<ResultItem> saveResultsMultiplayer(List<MultiplayerResultItemDto> dtos);
 }
@@ -57,4 +57,11 @@ public class UserLeaderboardServiceImpl implements UserLeaderboardService {
                 userStatistics.getFirstPlacesCount()
         );
     }
+
+    @Override
+    public BigDecimal getAverageSpeed(Long idUser) {
+        return userLeaderboardRepo.findByIdUser(idUser)
+                .map(UserLeaderboard::getAverageSpeed)
+                .orElse(BigDecimal.ZERO);
+    }
 }
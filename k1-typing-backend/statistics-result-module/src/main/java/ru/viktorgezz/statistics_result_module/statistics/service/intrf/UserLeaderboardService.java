@@ -3,6 +3,7 @@ package ru.viktorgezz.statistics_result_module.statistics.service.intrf;
 import ru.viktorgezz.statistics_result_module.statistics.dto.UserLeaderboardRsDto;
 import ru.viktorgezz.statistics_result_module.statistics.dto.UserPersonalStatisticsRsDto;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface UserLeaderboardService {
@@ -10,4 +11,9 @@ public interface UserLeaderboardService {
     List<UserLeaderboardRsDto> getTop10Users();
 
     UserPersonalStatisticsRsDto getUserPersonalStatistics();
+
+    /**
+     * Средняя скорость пользователя по всем соревнованиям; без результатов — ноль.
+     */
+    BigDecimal getAverageSpeed(Long idUser);
 }
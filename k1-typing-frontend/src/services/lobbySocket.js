@@ -0,0 +1,70 @@
+import { Client } from '@stomp/stompjs'
+import SockJS from 'sockjs-client/dist/sockjs'
+import { getAccessToken } from './tokenStorage'
+
+const WEBSOCKET_URL = import.meta.env.VITE_WEBSOCKET_URL || 'http://localhost:8080/ws/contest'
+
+/**
+ * WebSocket подписка на лобби: начальный снимок из /app/lobby и изменения из /topic/lobby
+ * (сервер копит изменения и рассылает их не чаще раза в секунду)
+ */
+class LobbyWebSocketService {
+  constructor() {
+    this.client = null
+    this.subscriptions = []
+  }
+
+  /**
+   * Подключение и подписка на лобби
+   * @param {Object} handlers
+   * @param {Function} handlers.onSnapshot - снимок { rooms, total }
+   * @param {Function} handlers.onUpdate - изменения { events: [{ type, idContest, room }] }
+   * @param {string|null} language - язык упражнений (RU, ENG) или null для всех комнат
+   */
+  connect(handlers, language = null) {
+    this.disconnect()
+
+    const token = getAccessToken()
+    const suffix = language ? `/${language}` : ''
+
+    this.client = new Client({
+      webSocketFactory: () => new SockJS(WEBSOCKET_URL),
+      connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
+      reconnectDelay: 5000,
+      heartbeatIncoming: 10000,
+      heartbeatOutgoing: 10000,
+    })
+
+    // После переподключения снимок запрашивается заново: пропущенные изменения не догоняются
+    this.client.onConnect = () => {
+      this.subscriptions = [
+        this.client.subscribe(`/topic/lobby${suffix}`, (message) => {
+          handlers.onUpdate?.(JSON.parse(message.body))
+        }),
+        this.client.subscribe(`/app/lobby${suffix}`, (message) => {
+          handlers.onSnapshot?.(JSON.parse(message.body))
+        }),
+      ]
+    }
+
+    this.client.onStompError = (frame) => {
+      console.error('[STOMP Lobby Error]', frame.headers['message'])
+    }
+
+    this.client.activate()
+  }
+
+  /**
+   * Отписка и отключение
+   */
+  disconnect() {
+    if (this.client) {
+      this.subscriptions.forEach((subscription) => subscription.unsubscribe())
+      this.subscriptions = []
+      this.client.deactivate()
+      this.client = null
+    }
+  }
+}
+
+export const lobbyWebSocket = new LobbyWebSocketService()
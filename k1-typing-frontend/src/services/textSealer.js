@@ -0,0 +1,34 @@
+/**
+ * Раскрытие текста упражнения, разосланного во время отсчёта.
+ * Алгоритм совпадает с ExerciseTextSealer на сервере: UTF-8 байты, сложенные по XOR
+ * с потоком SplitMix64 от 64-битного ключа (hex)
+ */
+
+const MASK_64 = (1n << 64n) - 1n
+
+function mix(z) {
+  z = ((z ^ (z >> 30n)) * 0xbf58476d1ce4e5b9n) & MASK_64
+  z = ((z ^ (z >> 27n)) * 0x94d049bb133111ebn) & MASK_64
+  return z ^ (z >> 31n)
+}
+
+/**
+ * @param {string} textSealed - скрытый текст (Base64)
+ * @param {string} revealKey - ключ раскрытия (16 hex-символов)
+ * @returns {string}
+ */
+export function unsealText(textSealed, revealKey) {
+  const bytes = Uint8Array.from(atob(textSealed), (char) => char.charCodeAt(0))
+
+  let state = BigInt(`0x${revealKey}`)
+  let word = 0n
+  for (let i = 0; i < bytes.length; i++) {
+    if ((i & 7) === 0) {
+      state = (state + 0x9e3779b97f4a7c15n) & MASK_64
+      word = mix(state)
+    }
+    bytes[i] ^= Number((word >> BigInt((i & 7) * 8)) & 0xffn)
+  }
+
+  return new TextDecoder().decode(bytes)
+}
@@ -3,6 +3,8 @@ import SockJS from 'sockjs-client/dist/sockjs'
 import { getAccessToken } from './tokenStorage'
 
 const WEBSOCKET_URL = import.meta.env.VITE_WEBSOCKET_URL || 'http://localhost:8080/ws/contest'
+const CLOCK_SYNC_SAMPLES = 5
+const CLOCK_SYNC_TIMEOUT_MS = 2000
 
 /**
  * WebSocket сервис для мультиплеерных соревнований
@@ -13,6 +15,14 @@ class ContestWebSocketService {
     this.subscriptions = new Map()
     this.connected = false
     this.contestId = null
+    // Смещение часов сервера относительно клиента (мс): serverTime ≈ Date.now() + clockOffset
+    this.clockOffset = 0
+    this.clockSynced = false
+    this.clockSyncResolvers = new Map()
+    // Номер последнего полученного события комнаты (заголовок seq): после обрыва запрашиваются только пропущенные
+    this.lastSequence = 0
+    // Пока идёт догрузка, новые события из topic откладываются, чтобы не обогнать пропущенные
+    this.resumePending = null
   }
 
   /**
@@ -30,6 +40,7 @@ class ContestWebSocketService {
 
       this.disconnect()
       this.contestId = contestId
+      this.lastSequence = 0
 
       const token = getAccessToken()
 
@@ -81,16 +92,19 @@ class ContestWebSocketService {
       { topic: `/topic/contest/${contestId}/player-ready`, handler: handlers.onPlayerReady },
       { topic: `/topic/contest/${contestId}/player-finished`, handler: handlers.onPlayerFinished },
       { topic: `/topic/contest/${contestId}/countdown`, handler: handlers.onCountdown },
+      { topic: `/topic/contest/${contestId}/text`, handler: handlers.onText },
       { topic: `/topic/contest/${contestId}/start`, handler: handlers.onStart },
+      { topic: `/topic/contest/${contestId}/start-scheduled`, handler: handlers.onStartScheduled },
       { topic: `/topic/contest/${contestId}/finished`, handler: handlers.onFinished },
     ]
 
+    const handlersByTopic = new Map()
     topics.forEach(({ topic, handler }) => {
       if (handler) {
+        handlersByTopic.set(topic, handler)
         const subscription = this.client.subscribe(topic, (message) => {
           try {
-            const data = JSON.parse(message.body)
-            handler(data)
+            this.dispatchEvent(handler, Number(message.headers.seq || 0), JSON.parse(message.body))
           } catch (e) {
             console.error(`[STOMP] Error parsing message from ${topic}:`, e)
           }
@@ -98,6 +112,152 @@ class ContestWebSocketService {
         this.subscriptions.set(topic, subscription)
       }
     })
+
+    // Большая комната: персональные кадры прогресса (лидеры и соседи по рейтингу) вместо общего topic
+    if (handlers.onRankedProgress) {
+      const destinationRanked = `/user/queue/contest/${contestId}/progress`
+      const subscriptionRanked = this.client.subscribe(destinationRanked, (message) => {
+        handlers.onRankedProgress(JSON.parse(message.body))
+      })
+      this.subscriptions.set(destinationRanked, subscriptionRanked)
+    }
+
+    // Переподключение: topic уже подписаны, догружаем только события, пропущенные за время обрыва
+    if (this.lastSequence > 0) {
+      this.resumeEvents(contestId, handlersByTopic, handlers.onResyncRequired)
+    }
+
+    const subscriptionTime = this.client.subscribe('/user/queue/time', (message) => {
+      const data = JSON.parse(message.body)
+      const resolver = this.clockSyncResolvers.get(data.clientSentTimestamp)
+      if (resolver) {
+        this.clockSyncResolvers.delete(data.clientSentTimestamp)
+        resolver({ ...data, clientReceivedTimestamp: Date.now() })
+      }
+    })
+    this.subscriptions.set('/user/queue/time', subscriptionTime)
+  }
+
+  /**
+   * Передаёт событие обработчику; событие, уже полученное до обрыва или из догрузки, пропускается
+   * @param {Function} handler
+   * @param {number} sequence - номер события комнаты (0 — событие вне журнала, например прогресс)
+   * @param {Object} data
+   */
+  dispatchEvent(handler, sequence, data) {
+    if (sequence > 0) {
+      if (this.resumePending) {
+        this.resumePending.push({ handler, sequence, data })
+        return
+      }
+      if (sequence <= this.lastSequence) return
+      this.lastSequence = sequence
+    }
+    handler(data)
+  }
+
+  /**
+   * Запрос событий комнаты после последнего полученного номера (ответ приходит один раз)
+   * @param {number} contestId
+   * @param {Map<string, Function>} handlersByTopic
+   * @param {Function} [onResyncRequired] - пропуск не восполнить из журнала, нужна полная загрузка комнаты
+   */
+  resumeEvents(contestId, handlersByTopic, onResyncRequired) {
+    const destination = `/app/contest/${contestId}/events/${this.lastSequence}`
+    this.resumePending = []
+
+    const subscription = this.client.subscribe(destination, (message) => {
+      subscription.unsubscribe()
+      const pending = this.resumePending || []
+      this.resumePending = null
+
+      const replay = JSON.parse(message.body)
+      if (replay.truncated) {
+        // Состояние загружается заново, дальше принимаются события новее текущего номера комнаты
+        this.lastSequence = replay.sequenceCurrent
+        if (onResyncRequired) onResyncRequired()
+      } else {
+        replay.events.forEach(({ sequence, destination: topic, payload }) => {
+          const handler = handlersByTopic.get(topic)
+          if (handler) {
+            this.dispatchEvent(handler, sequence, payload)
+          }
+        })
+      }
+
+      pending
+        .sort((a, b) => a.sequence - b.sequence)
+        .forEach(({ handler, sequence, data }) => this.dispatchEvent(handler, sequence, data))
+    })
+  }
+
+  /**
+   * Синхронизация часов с сервером по схеме NTP: несколько запросов на /app/time,
+   * смещение берётся из ответа с наименьшей задержкой
+   * @returns {Promise<number>} смещение часов сервера (мс)
+   */
+  async syncClock() {
+    let bestDelay = Infinity
+
+    for (let i = 0; i < CLOCK_SYNC_SAMPLES; i++) {
+      if (!this.connected) break
+
+      const sample = await this.requestTime()
+      if (!sample) continue
+
+      const delay =
+        sample.clientReceivedTimestamp -
+        sample.clientSentTimestamp -
+        (sample.serverSentTimestamp - sample.serverReceivedTimestamp)
+      if (delay < bestDelay) {
+        bestDelay = delay
+        this.clockSynced = true
+        this.clockOffset = Math.round(
+          (sample.serverReceivedTimestamp -
+            sample.clientSentTimestamp +
+            (sample.serverSentTimestamp - sample.clientReceivedTimestamp)) /
+            2,
+        )
+      }
+    }
+
+    return this.clockOffset
+  }
+
+  /**
+   * Один запрос синхронизации часов
+   * @returns {Promise<Object|null>} ответ сервера или null по таймауту
+   */
+  requestTime() {
+    return new Promise((resolve) => {
+      // Ключ ответа — время отправки; одинаковое время у двух запросов подряд исключаем
+      let clientSentTimestamp = Date.now()
+      while (this.clockSyncResolvers.has(clientSentTimestamp)) clientSentTimestamp++
+
+      const timeout = setTimeout(() => {
+        this.clockSyncResolvers.delete(clientSentTimestamp)
+        resolve(null)
+      }, CLOCK_SYNC_TIMEOUT_MS)
+
+      this.clockSyncResolvers.set(clientSentTimestamp, (sample) => {
+        clearTimeout(timeout)
+        resolve(sample)
+      })
+
+      this.client.publish({
+        destination: '/app/time',
+        body: JSON.stringify({ clientSentTimestamp }),
+      })
+    })
+  }
+
+  /**
+   * Перевод времени сервера в часы клиента
+   * @param {number} serverTimestamp
+   * @returns {number}
+   */
+  toLocalTime(serverTimestamp) {
+    return serverTimestamp - this.clockOffset
   }
 
   /**
@@ -153,6 +313,7 @@ class ContestWebSocketService {
         subscription.unsubscribe()
       })
       this.subscriptions.clear()
+      this.clockSyncResolvers.clear()
 
       if (this.client.connected) {
         this.client.deactivate()
@@ -161,6 +322,8 @@ class ContestWebSocketService {
     }
     this.connected = false
     this.contestId = null
+    this.lastSequence = 0
+    this.resumePending = null
   }
 
   /**
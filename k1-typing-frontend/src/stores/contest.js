@@ -3,6 +3,7 @@ import { ref, computed } from 'vue'
 import { multiplayerAPI } from '@/api/multiplayer'
 import { avatarAPI } from '@/api/avatar'
 import { contestWebSocket } from '@/services/websocket'
+import { unsealText } from '@/services/textSealer'
 
 /**
  * Store для управления состоянием соревновательного режима
@@ -23,6 +24,8 @@ export const useContestStore = defineStore('contest', () => {
   const status = ref('CREATED')
   const countdownSeconds = ref(0)
   const startTimestamp = ref(null)
+  // Скрытый текст, полученный во время отсчёта; раскрывается ключом из сообщения старта
+  let exerciseTextSealed = null
 
   // Участники: Map<userId, { username, progress, isReady, isFinished, place, speed, accuracy, duration }>
   const participants = ref(new Map())
@@ -41,6 +44,7 @@ export const useContestStore = defineStore('contest', () => {
   // Таймер
   const elapsedSeconds = ref(0)
   let timerInterval = null
+  let countdownInterval = null
 
   // Состояния загрузки и ошибок
   const loading = ref(false)
@@ -51,6 +55,16 @@ export const useContestStore = defineStore('contest', () => {
   const leaderboard = ref([])
   const myPlace = ref(null)
 
+  // Большая комната: лидеры, место текущего пользователя и размер рейтинга из персонального кадра
+  const rankingLeaders = ref([])
+  const myRank = ref(null)
+  const rankingSize = ref(0)
+
+  // Номер последнего применённого кадра прогресса по узлу-отправителю (delta-протокол):
+  // каждый узел нумерует свои кадры независимо
+  const lastProgressSequenceByOrigin = new Map()
+  let progressResyncing = false
+
   // === GETTERS ===
 
   const currentChar = computed(() => exerciseText.value[currentIndex.value] || '')
@@ -233,11 +247,16 @@ export const useContestStore = defineStore('contest', () => {
         onPlayerReady: handlePlayerReady,
         onPlayerFinished: handlePlayerFinished,
         onCountdown: handleCountdown,
+        onText: handleText,
         onStart: handleStart,
+        onStartScheduled: handleStartScheduled,
         onFinished: handleFinished,
         onDisconnect: handleDisconnect,
+        onResyncRequired: resyncRoom,
+        onRankedProgress: handleRankedProgress,
       })
       isConnected.value = true
+      contestWebSocket.syncClock()
     } catch (err) {
       error.value = 'Ошибка WebSocket подключения'
       isConnected.value = false
@@ -247,17 +266,84 @@ export const useContestStore = defineStore('contest', () => {
   // === WebSocket Handlers ===
 
   function handleProgress(data) {
-    if (data.usersProgress) {
-      Object.entries(data.usersProgress).forEach(([id, progressData]) => {
-        const userId = Number(id)
-        if (participants.value.has(userId)) {
-          const participant = participants.value.get(userId)
-          // progressData теперь содержит { progress, speed, accuracy }
-          participant.progress = progressData.progress ?? 0
-          participant.speed = progressData.speed ?? 0
-          participant.accuracy = progressData.accuracy ?? 0
-        }
+    // Delta-кадр после пропуска: состояние неполное, пересинхронизируемся через REST
+    const lastProgressSequence = lastProgressSequenceByOrigin.get(data.origin)
+    const hasGap =
+      !data.keyframe && lastProgressSequence !== undefined && data.sequence !== lastProgressSequence + 1
+    if (hasGap || progressResyncing) {
+      resyncProgress()
+      return
+    }
+    lastProgressSequenceByOrigin.set(data.origin, data.sequence)
+
+    applyProgress(data.usersProgress)
+  }
+
+  function applyProgress(usersProgress) {
+    if (!usersProgress) return
+
+    Object.entries(usersProgress).forEach(([id, progressData]) => {
+      const userId = Number(id)
+      if (participants.value.has(userId)) {
+        const participant = participants.value.get(userId)
+        // progressData содержит { progress, speed, accuracy }
+        participant.progress = progressData.progress ?? 0
+        participant.speed = progressData.speed ?? 0
+        participant.accuracy = progressData.accuracy ?? 0
+      }
+    })
+  }
+
+  /**
+   * Персональный кадр большой комнаты: самодостаточен, пропуск кадра пересинхронизации не требует
+   */
+  function handleRankedProgress(data) {
+    const usersProgress = {}
+    const entries = [...data.leaders, ...data.neighbourhood]
+    entries.forEach((entry) => {
+      usersProgress[entry.idUser] = { progress: entry.progress, speed: entry.speed, accuracy: entry.accuracy }
+    })
+    applyProgress(usersProgress)
+
+    rankingLeaders.value = data.leaders
+    rankingSize.value = data.countParticipants
+    const myEntry = entries.find((entry) => entry.idUser === currentUserId.value)
+    myRank.value = myEntry ? myEntry.rank : null
+  }
+
+  /**
+   * Пересинхронизировать прогресс участников после пропуска кадра
+   */
+  async function resyncProgress() {
+    if (progressResyncing || !contestId.value) return
+    progressResyncing = true
+
+    try {
+      const roomInfo = await multiplayerAPI.getRoomInfo(contestId.value)
+      const usersProgress = {}
+      roomInfo.participants.forEach((p) => {
+        usersProgress[p.idUser] = { progress: p.progress, speed: p.speed, accuracy: p.accuracy }
       })
+      applyProgress(usersProgress)
+    } catch (err) {
+      console.warn('Failed to resync progress:', err)
+    } finally {
+      // Следующий кадр принимается как опорный
+      lastProgressSequenceByOrigin.clear()
+      progressResyncing = false
+    }
+  }
+
+  /**
+   * Полная загрузка комнаты, когда пропущенные за обрыв события уже вытеснены из журнала
+   */
+  async function resyncRoom() {
+    if (!contestId.value) return
+
+    try {
+      applyRoomInfo(await multiplayerAPI.getRoomInfo(contestId.value))
+    } catch (err) {
+      console.warn('Failed to resync room:', err)
     }
   }
 
@@ -353,10 +439,56 @@ export const useContestStore = defineStore('contest', () => {
     countdownSeconds.value = data.seconds
   }
 
-  function handleStart(data) {
-    status.value = 'PROGRESS' // Гонка = PROGRESS на бэкенде
-    exerciseText.value = data.text
+  // Протокол scheduled: сервер присылает только момент старта, отсчёт идёт по локальным часам
+  function handleStartScheduled(data) {
+    status.value = 'WAITING'
+    stopCountdown()
+
+    // Без синхронизации часов смещение оцениваем по времени отправки сообщения
+    const offset = contestWebSocket.clockSynced
+      ? contestWebSocket.clockOffset
+      : data.serverTimestamp - Date.now()
+    const localStart = data.startTimestamp - offset
+
+    const tick = () => {
+      const remainingMs = localStart - Date.now()
+      countdownSeconds.value = Math.max(0, Math.ceil(remainingMs / 1000))
+      if (remainingMs <= 0) {
+        stopCountdown()
+      }
+    }
+    tick()
+    countdownInterval = setInterval(tick, 100)
+  }
+
+  function stopCountdown() {
+    if (countdownInterval) {
+      clearInterval(countdownInterval)
+      countdownInterval = null
+    }
+  }
+
+  function handleText(data) {
+    exerciseTextSealed = data.textSealed
+  }
+
+  async function handleStart(data) {
+    stopCountdown()
     startTimestamp.value = data.startTimestamp
+
+    if (exerciseTextSealed && data.revealKey) {
+      exerciseText.value = unsealText(exerciseTextSealed, data.revealKey)
+    } else {
+      // Текст не получен во время отсчёта (переподключение) — берём его из информации о комнате
+      try {
+        const roomInfo = await multiplayerAPI.getRoomInfo(contestId.value)
+        exerciseText.value = roomInfo.exerciseText || ''
+      } catch (err) {
+        console.error('Failed to load exercise text:', err)
+      }
+    }
+
+    status.value = 'PROGRESS' // Гонка = PROGRESS на бэкенде
     startTimer()
   }
 
@@ -502,6 +634,7 @@ export const useContestStore = defineStore('contest', () => {
    */
   function resetState() {
     stopTimer()
+    stopCountdown()
 
     contestId.value = null
     exerciseId.value = null
@@ -512,6 +645,7 @@ export const useContestStore = defineStore('contest', () => {
     status.value = 'CREATED'
     countdownSeconds.value = 0
     startTimestamp.value = null
+    exerciseTextSealed = null
     participants.value.clear()
     currentUserId.value = null
     currentUserReady.value = false
@@ -526,6 +660,8 @@ export const useContestStore = defineStore('contest', () => {
     isConnected.value = false
     leaderboard.value = []
     myPlace.value = null
+    lastProgressSequenceByOrigin.clear()
+    progressResyncing = false
   }
 
   return {
@@ -551,6 +687,9 @@ export const useContestStore = defineStore('contest', () => {
     isConnected,
     leaderboard,
     myPlace,
+    rankingLeaders,
+    myRank,
+    rankingSize,
 
     // Getters
     currentChar,
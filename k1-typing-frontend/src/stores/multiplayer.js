@@ -1,6 +1,7 @@
 import { defineStore } from 'pinia'
 import { ref, computed } from 'vue'
 import { multiplayerAPI } from '@/api/multiplayer'
+import { lobbyWebSocket } from '@/services/lobbySocket'
 
 /**
  * Store для управления мультиплеерными комнатами
@@ -100,6 +101,78 @@ export const useMultiplayerStore = defineStore('multiplayer', () => {
     }
   }
 
+  /**
+   * Подписаться на изменения лобби вместо периодической перезагрузки списка
+   */
+  function subscribeLobby() {
+    lobbyWebSocket.connect({
+      onSnapshot: handleLobbySnapshot,
+      onUpdate: handleLobbyUpdate,
+    })
+  }
+
+  function unsubscribeLobby() {
+    lobbyWebSocket.disconnect()
+  }
+
+  /**
+   * Снимок лобби заменяет только первую страницу: остальные страницы загружаются по REST
+   * @param {Object} snapshot - { rooms, total }
+   */
+  function handleLobbySnapshot(snapshot) {
+    if (pagination.value.page !== 0) return
+
+    const size = pagination.value.size
+    rooms.value = snapshot.rooms.slice(0, size)
+    pagination.value = {
+      ...pagination.value,
+      totalElements: snapshot.total,
+      totalPages: Math.ceil(snapshot.total / size),
+    }
+  }
+
+  /**
+   * Применение изменений лобби к текущей странице
+   * @param {Object} update - { events: [{ type, idContest, room }] }
+   */
+  function handleLobbyUpdate(update) {
+    let list = [...rooms.value]
+    let totalElements = pagination.value.totalElements
+
+    update.events.forEach(({ type, idContest, room }) => {
+      const index = list.findIndex((item) => item.idContest === idContest)
+      const isOpen = type !== 'ROOM_CLOSED' && room.currentPlayers < room.maxPlayers
+
+      if (index >= 0) {
+        if (isOpen) {
+          list[index] = room
+        } else {
+          list.splice(index, 1)
+          totalElements--
+        }
+        return
+      }
+
+      // Закрытие комнаты с другой страницы не отслеживаем: счётчик уточнится при следующей загрузке
+      if (!isOpen) return
+
+      // Новая или освободившаяся комната: список упорядочен по времени создания
+      totalElements++
+      if (!hasNextPage.value && list.length < pagination.value.size) {
+        list.push(room)
+        list.sort((a, b) => new Date(a.createdAt) - new Date(b.createdAt))
+      }
+    })
+
+    rooms.value = list
+    const total = Math.max(totalElements, 0)
+    pagination.value = {
+      ...pagination.value,
+      totalElements: total,
+      totalPages: Math.ceil(total / pagination.value.size),
+    }
+  }
+
   /**
    * Создать новую комнату
    * @param {Object} data - Данные для создания комнаты
@@ -162,6 +235,8 @@ export const useMultiplayerStore = defineStore('multiplayer', () => {
     prevPage,
     goToPage,
     createRoom,
+    subscribeLobby,
+    unsubscribeLobby,
     clearError,
     reset,
   }